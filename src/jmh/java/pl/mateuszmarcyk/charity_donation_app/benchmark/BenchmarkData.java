@@ -0,0 +1,65 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    static final String PASSWORD = "Password123!";
+
+    private BenchmarkData() {
+    }
+
+    static User getUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("donor@example.com");
+        user.setPassword(PASSWORD);
+        user.setPasswordRepeat(PASSWORD);
+
+        UserProfile userProfile = new UserProfile();
+        userProfile.setFirstName("Jan");
+        userProfile.setLastName("Kowalski");
+        user.setProfile(userProfile);
+
+        return user;
+    }
+
+    static Donation getDonation() {
+        Institution institution = new Institution(1L, "Pomocna Dłoń", "Pomoc dla dzieci z ubogich rodzin", new ArrayList<>());
+        List<Category> categories = new ArrayList<>(List.of(
+                new Category(1L, "Jedzenie", new ArrayList<>()),
+                new Category(2L, "Ubrania", new ArrayList<>()),
+                new Category(3L, "Zabawki", new ArrayList<>())
+        ));
+
+        Donation donation = new Donation(
+                null,
+                false,
+                getUser(),
+                institution,
+                categories,
+                "123456789",
+                "Proszę dzwonić przed przyjazdem",
+                LocalTime.parse("10:30:00"),
+                LocalDate.parse("2030-01-15"),
+                "12-345",
+                "Warszawa",
+                "Marszałkowska 1",
+                5
+        );
+        donation.setId(1L);
+        donation.setCreated(LocalDateTime.parse("2024-12-24T12:00:00"));
+
+        return donation;
+    }
+}
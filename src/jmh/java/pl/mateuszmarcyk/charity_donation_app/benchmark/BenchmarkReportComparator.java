@@ -0,0 +1,116 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//    compares a JMH json report with the checked in baseline and fails when a benchmark got slower than the threshold allows;
+//    scores are compared as score ± scoreError intervals, only a gap between the intervals wider than the threshold counts,
+//    so a noisy run or a noisy baseline does not fail the build. The baseline only means something on the host that recorded it
+public final class BenchmarkReportComparator {
+
+    private static final String THROUGHPUT_MODE = "thrpt";
+
+    private BenchmarkReportComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkReportComparator <baseline.json> <result.json> [regression threshold]");
+            System.exit(2);
+        }
+
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+
+        if (!resultFile.exists()) {
+            System.err.println("No benchmark result found at " + resultFile);
+            System.exit(2);
+        }
+        if (!baselineFile.exists()) {
+            System.out.println("No baseline found at " + baselineFile + ", copy " + resultFile + " there to create one");
+            return;
+        }
+
+        Map<String, JsonNode> baseline = readReport(baselineFile);
+        Map<String, JsonNode> result = readReport(resultFile);
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode current = entry.getValue();
+            JsonNode previous = baseline.get(entry.getKey());
+            double currentScore = score(current);
+            double currentError = scoreError(current);
+            String unit = current.path("primaryMetric").path("scoreUnit").asText();
+
+            if (previous == null) {
+                System.out.printf("%-60s %14.3f +- %-12.3f %-10s (new)%n", displayName(entry.getKey()), currentScore, currentError, unit);
+                continue;
+            }
+
+            String mode = current.path("mode").asText();
+            double change = relativeSlowdown(mode, score(previous), 0, currentScore, 0);
+            double intervalChange = relativeSlowdown(mode, score(previous), scoreError(previous), currentScore, currentError);
+            boolean regressed = intervalChange > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-60s %14.3f +- %-12.3f %-10s %+7.1f%%%s%n", displayName(entry.getKey()), currentScore, currentError, unit, change * 100, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) slower than baseline by more than %.0f%% beyond the score error%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+//    positive values mean slower than the baseline regardless of the benchmark mode; the gap is taken between the nearest
+//    ends of both intervals, overlapping intervals give zero or less. A throughput baseline whose error reaches zero never regresses
+    static double relativeSlowdown(String mode, double baselineScore, double baselineError, double currentScore, double currentError) {
+        if (THROUGHPUT_MODE.equals(mode)) {
+            double baselineLow = baselineScore - baselineError;
+            if (baselineLow <= 0) {
+                return 0;
+            }
+            return (baselineLow - (currentScore + currentError)) / baselineLow;
+        }
+        double baselineHigh = baselineScore + baselineError;
+        return ((currentScore - currentError) - baselineHigh) / baselineHigh;
+    }
+
+    private static Map<String, JsonNode> readReport(File report) throws IOException {
+        Map<String, JsonNode> benchmarks = new LinkedHashMap<>();
+        for (JsonNode benchmark : new ObjectMapper().readTree(report)) {
+            benchmarks.put(benchmarkKey(benchmark), benchmark);
+        }
+        return benchmarks;
+    }
+
+    private static String benchmarkKey(JsonNode benchmark) {
+        StringBuilder key = new StringBuilder(benchmark.path("benchmark").asText());
+        benchmark.path("params").fields().forEachRemaining(param -> key.append(':').append(param.getKey()).append('=').append(param.getValue().asText()));
+        return key.append(" (").append(benchmark.path("mode").asText()).append(')').toString();
+    }
+
+    private static String displayName(String benchmarkKey) {
+        int methodEnd = benchmarkKey.indexOf(':') >= 0 ? benchmarkKey.indexOf(':') : benchmarkKey.indexOf(' ');
+        int methodDot = benchmarkKey.lastIndexOf('.', methodEnd);
+        int classDot = benchmarkKey.lastIndexOf('.', methodDot - 1);
+        return benchmarkKey.substring(classDot + 1);
+    }
+
+    private static double score(JsonNode benchmark) {
+        return benchmark.path("primaryMetric").path("score").asDouble();
+    }
+
+//    JMH writes "NaN" when a run has too few iterations to estimate the error
+    private static double scoreError(JsonNode benchmark) {
+        double error = benchmark.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : Math.abs(error);
+    }
+}
@@ -0,0 +1,42 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DonationBenchmark {
+
+    private Donation donation;
+    private DonationRow donationRow;
+
+    @Setup
+    public void setUp() {
+        donation = BenchmarkData.getDonation();
+        donationRow = new DonationRow(donation.getId(), donation.getQuantity(), donation.getCreated(), donation.isReceived(),
+                donation.getDonationPassedTime(), donation.getInstitution().getName(), donation.getCategoriesString());
+    }
+
+    @Benchmark
+    public String categoriesString() {
+        return donation.getCategoriesString();
+    }
+
+    @Benchmark
+    public String createdDateTime() {
+        return donation.getCreatedDateTime();
+    }
+
+//    same formatting with the formatter held in a constant, for comparison with createdDateTime
+    @Benchmark
+    public String donationRowCreatedDateTime() {
+        return donationRow.getCreatedDateTime();
+    }
+}
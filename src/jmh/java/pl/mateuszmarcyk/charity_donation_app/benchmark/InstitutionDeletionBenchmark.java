@@ -0,0 +1,99 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.mateuszmarcyk.charity_donation_app.CharityDonationAppApplication;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.service.InstitutionService;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//    boots the application against the in-memory H2 database of the test profile, every invocation deletes a freshly seeded institution
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InstitutionDeletionBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    @Param("100000")
+    private int donations;
+
+    private ConfigurableApplicationContext context;
+    private InstitutionService institutionService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private Long institutionId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CharityDonationAppApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+        institutionService = context.getBean(InstitutionService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void seedInstitution() {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO institutions (name, description) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, "Pomocna Dłoń");
+            statement.setString(2, "Pomoc dla dzieci z ubogich rodzin");
+            return statement;
+        }, keyHolder);
+        institutionId = keyHolder.getKey().longValue();
+
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < donations; i++) {
+            rows.add(new Object[]{institutionId, 5, "Marszałkowska 1", "Warszawa", "12-345", "123456789",
+                    Date.valueOf("2030-01-15"), Time.valueOf("10:30:00"), Timestamp.valueOf("2024-12-24 12:00:00")});
+            if (rows.size() == SEED_BATCH_SIZE || i == donations - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO donations (institution_id, quantity, street, city, zip_code, phone_number, pick_up_date, pick_up_time, created, received) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false)", rows);
+                rows = new ArrayList<>(SEED_BATCH_SIZE);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void deleteInstitution() {
+        institutionService.deleteIntitutionById(institutionId);
+    }
+
+//    the previous implementation, loads every donation and lets dirty checking issue one UPDATE per row
+    @Benchmark
+    public void deleteInstitutionEntityByEntity() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Institution institution = entityManager.find(Institution.class, institutionId);
+            new ArrayList<>(institution.getDonations()).forEach(donation -> donation.setInstitution(null));
+            entityManager.remove(institution);
+        });
+    }
+}
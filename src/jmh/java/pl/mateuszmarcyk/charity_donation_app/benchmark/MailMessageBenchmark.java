@@ -0,0 +1,30 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailMessageBenchmark {
+
+    private MailMessage mailMessage;
+    private Donation donation;
+
+    @Setup
+    public void setUp() {
+        mailMessage = new MailMessage();
+        donation = BenchmarkData.getDonation();
+    }
+
+    @Benchmark
+    public String buildDonationMessage() {
+        return mailMessage.buildDonationMessage(donation);
+    }
+}
@@ -0,0 +1,33 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+//    UserService.save spends nearly all of its CPU time in the encoder configured by WebSecurityConfig
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncodingBenchmark {
+
+//    keep in step with security.password.bcrypt-strength, -p bcryptStrength=12 measures a planned increase
+    @Param("10")
+    private int bcryptStrength;
+
+    private PasswordEncoder passwordEncoder;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    @Benchmark
+    public String encodeRegistrationPassword() {
+        return passwordEncoder.encode(BenchmarkData.PASSWORD);
+    }
+}
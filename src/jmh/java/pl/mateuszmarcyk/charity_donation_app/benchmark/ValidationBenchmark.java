@@ -0,0 +1,49 @@
+package pl.mateuszmarcyk.charity_donation_app.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.util.constraintannotations.PasswordEqualConstraintValidator;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final PasswordEqualConstraintValidator passwordEqualConstraintValidator = new PasswordEqualConstraintValidator();
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        user = BenchmarkData.getUser();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean passwordEqual() {
+        return passwordEqualConstraintValidator.isValid(user, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> passwordPattern() {
+        return validator.validateProperty(user, "password");
+    }
+}
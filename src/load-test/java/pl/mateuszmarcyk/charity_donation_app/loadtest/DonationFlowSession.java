@@ -0,0 +1,117 @@
+package pl.mateuszmarcyk.charity_donation_app.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+//    one logged in browser: its own cookie jar, redirects are not followed so every request is timed on its own
+public class DonationFlowSession {
+
+    static final String LOGIN = "POST /login";
+    static final String DONATION_FORM = "GET /donate";
+    static final String DONATION_SUBMIT = "POST /donate";
+    static final String DONATION_LIST = "GET /donations";
+
+    private static final String CONFIRMATION_TEXT = "Dziękujemy za przesłanie formularza.";
+
+    private final String baseUrl;
+    private final Map<String, EndpointStats> stats;
+    private final HttpClient httpClient;
+
+    public DonationFlowSession(String baseUrl, Map<String, EndpointStats> stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.httpClient = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public void run(String email, int donations, List<Long> institutionIds, List<Long> categoryIds) throws IOException, InterruptedException {
+        HttpResponse<String> loginResponse = send(LOGIN, post("/login", form(Map.of("username", email, "password", LoadTestDataSeeder.PASSWORD))),
+                response -> response.statusCode() == 302 && !location(response).contains("error"));
+        if (loginResponse.statusCode() != 302 || location(loginResponse).contains("error")) {
+            return;
+        }
+
+        for (int i = 0; i < donations; i++) {
+            send(DONATION_FORM, get("/donate"), response -> response.statusCode() == 200);
+            send(DONATION_SUBMIT, post("/donate", donationForm(institutionIds, categoryIds)),
+                    response -> response.statusCode() == 200 && response.body().contains(CONFIRMATION_TEXT));
+            send(DONATION_LIST, get("/donations"), response -> response.statusCode() == 200);
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request, ResponseCheck check) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            stats.get(endpoint).record(System.nanoTime() - start, false);
+            throw e;
+        }
+        stats.get(endpoint).record(System.nanoTime() - start, check.isSuccessful(response));
+        return response;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String formBody) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formBody))
+                .build();
+    }
+
+    private static String donationForm(List<Long> institutionIds, List<Long> categoryIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringJoiner form = new StringJoiner("&");
+        form.add(form(Map.of(
+                "quantity", String.valueOf(random.nextInt(1, 10)),
+                "street", "Prosta 1",
+                "city", "Warszawa",
+                "zipCode", "00-001",
+                "pickUpDate", LocalDate.now().plusDays(random.nextInt(1, 30)).toString(),
+                "pickUpTime", "10:30",
+                "pickUpComment", "Load test",
+                "phoneNumber", "123456789",
+                "institution", String.valueOf(institutionIds.get(random.nextInt(institutionIds.size())))
+        )));
+        int categoryCount = random.nextInt(1, Math.min(3, categoryIds.size()) + 1);
+        random.ints(0, categoryIds.size()).distinct().limit(categoryCount)
+                .forEach(index -> form.add("categories=" + categoryIds.get(index)));
+        return form.toString();
+    }
+
+    private static String form(Map<String, String> fields) {
+        StringJoiner form = new StringJoiner("&");
+        fields.forEach((name, value) -> form.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return form.toString();
+    }
+
+    private static String location(HttpResponse<?> response) {
+        return response.headers().firstValue("Location").orElse("");
+    }
+
+    @FunctionalInterface
+    private interface ResponseCheck {
+        boolean isSuccessful(HttpResponse<String> response);
+    }
+}
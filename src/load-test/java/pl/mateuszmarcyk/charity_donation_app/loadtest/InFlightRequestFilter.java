@@ -0,0 +1,54 @@
+package pl.mateuszmarcyk.charity_donation_app.loadtest;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//    counts requests that reached the servlet container, the ones still waiting for a Tomcat worker are not in flight.
+//    The optional sleep stands in for MySQL and SMTP round trips, which the in-memory H2 database does not have
+public class InFlightRequestFilter implements Filter {
+
+    private final long simulatedIoMillis;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public InFlightRequestFilter(long simulatedIoMillis) {
+        this.simulatedIoMillis = simulatedIoMillis;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            simulateIo();
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public void reset() {
+        maxInFlight.set(inFlight.get());
+    }
+
+    private void simulateIo() throws ServletException {
+        if (simulatedIoMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(simulatedIoMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while simulating I/O", e);
+        }
+    }
+}
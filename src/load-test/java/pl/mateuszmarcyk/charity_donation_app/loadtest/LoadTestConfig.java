@@ -0,0 +1,35 @@
+package pl.mateuszmarcyk.charity_donation_app.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class LoadTestConfig {
+
+    private int users;
+    private int institutions;
+    private int categories;
+    private int concurrency;
+    private int sessions;
+    private int warmupSessions;
+    private int donationsPerSession;
+    private boolean virtualThreads;
+    private int simulatedIoMillis;
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.institutions", 10),
+                Integer.getInteger("loadtest.categories", 10),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Integer.getInteger("loadtest.sessions", 200),
+                Integer.getInteger("loadtest.warmup-sessions", 20),
+                Integer.getInteger("loadtest.donations-per-session", 5),
+                Boolean.parseBoolean(System.getProperty("loadtest.virtual-threads", "true")),
+                Integer.getInteger("loadtest.simulated-io-ms", 0)
+        );
+    }
+}
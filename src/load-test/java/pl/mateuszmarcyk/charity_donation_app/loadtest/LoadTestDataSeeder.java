@@ -0,0 +1,91 @@
+package pl.mateuszmarcyk.charity_donation_app.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
+import pl.mateuszmarcyk.charity_donation_app.entity.UserType;
+import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
+import pl.mateuszmarcyk.charity_donation_app.repository.CategoryRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.InstitutionRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserTypeRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class LoadTestDataSeeder {
+
+    public static final String PASSWORD = "Password123!";
+
+    private static final long USER_ROLE_ID = 1L;
+
+    private final ApplicationContext context;
+
+    @Getter
+    private final List<String> userEmails = new ArrayList<>();
+    @Getter
+    private final List<Long> institutionIds = new ArrayList<>();
+    @Getter
+    private final List<Long> categoryIds = new ArrayList<>();
+
+    public void seed(LoadTestConfig config) {
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        transactionTemplate.executeWithoutResult(status -> {
+            seedInstitutions(config.getInstitutions());
+            seedCategories(config.getCategories());
+            seedUsers(config.getUsers());
+        });
+    }
+
+    private void seedInstitutions(int institutionCount) {
+        List<Institution> institutions = new ArrayList<>();
+        for (int i = 0; i < institutionCount; i++) {
+            institutions.add(new Institution(null, "Fundacja " + i, "Opis fundacji " + i, new ArrayList<>()));
+        }
+        context.getBean(InstitutionRepository.class).saveAll(institutions)
+                .forEach(institution -> institutionIds.add(institution.getId()));
+    }
+
+    private void seedCategories(int categoryCount) {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < categoryCount; i++) {
+            categories.add(new Category(null, "Kategoria " + i, new ArrayList<>()));
+        }
+        context.getBean(CategoryRepository.class).saveAll(categories)
+                .forEach(category -> categoryIds.add(category.getId()));
+    }
+
+//    every user shares one hash so seeding does not spend minutes in BCrypt
+    private void seedUsers(int userCount) {
+        UserType userRole = context.getBean(UserTypeRepository.class).findById(USER_ROLE_ID)
+                .orElseThrow(() -> new ResourceNotFoundException("Cannot find", "Cannot find user type"));
+        String encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            User user = new User();
+            user.setEmail("loadtest-user-" + i + "@example.com");
+            user.setPassword(encodedPassword);
+            user.setEnabled(true);
+            user.setBlocked(false);
+            user.setUserTypes(new HashSet<>(Set.of(userRole)));
+
+            UserProfile profile = new UserProfile();
+            profile.setFirstName("Donor " + i);
+            user.setProfile(profile);
+
+            users.add(user);
+        }
+        context.getBean(UserRepository.class).saveAll(users)
+                .forEach(user -> userEmails.add(user.getEmail()));
+    }
+}
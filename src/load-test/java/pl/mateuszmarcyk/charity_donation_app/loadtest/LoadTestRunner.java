@@ -0,0 +1,145 @@
+package pl.mateuszmarcyk.charity_donation_app.loadtest;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.mateuszmarcyk.charity_donation_app.CharityDonationAppApplication;
+import pl.mateuszmarcyk.charity_donation_app.util.FakeSmtpServer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//    boots the app on the in-memory H2 "test" profile with a local SMTP sink and drives the donation flow over HTTP
+public final class LoadTestRunner {
+
+    private static final List<String> ENDPOINTS = List.of(
+            DonationFlowSession.LOGIN,
+            DonationFlowSession.DONATION_FORM,
+            DonationFlowSession.DONATION_SUBMIT,
+            DonationFlowSession.DONATION_LIST
+    );
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Load test configuration: " + config);
+
+        InFlightRequestFilter inFlightRequestFilter = new InFlightRequestFilter(config.getSimulatedIoMillis());
+        int failedRequests;
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer();
+             ConfigurableApplicationContext context = start(smtpServer.getPort(), config.isVirtualThreads(), inFlightRequestFilter);
+             ResourceSampler resourceSampler = new ResourceSampler()) {
+
+            LoadTestDataSeeder seeder = new LoadTestDataSeeder(context);
+            seeder.seed(config);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/app";
+
+            runSessions(config, seeder, baseUrl, config.getWarmupSessions(), createStats());
+
+            Map<String, EndpointStats> stats = createStats();
+            inFlightRequestFilter.reset();
+            resourceSampler.start();
+            long start = System.nanoTime();
+            runSessions(config, seeder, baseUrl, config.getSessions(), stats);
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            failedRequests = report(stats, elapsedSeconds);
+            reportThreading(Threading.VIRTUAL.isActive(context.getEnvironment()), inFlightRequestFilter, resourceSampler);
+            System.out.printf("Mails delivered to the SMTP sink so far: %d%n", smtpServer.getRecipients().size());
+        }
+
+        System.exit(failedRequests > 0 ? 1 : 0);
+    }
+
+//    passed as command line arguments so they win over application.properties, devtools restart would boot the app twice
+    private static ConfigurableApplicationContext start(int smtpPort, boolean virtualThreads, InFlightRequestFilter inFlightRequestFilter) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> arguments = List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.mail.host=localhost",
+                "--spring.mail.port=" + smtpPort,
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                "--spring.mail.properties.mail.smtp.starttls.required=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--logging.level.org.springframework.security=WARN"
+        );
+
+        return new SpringApplicationBuilder(CharityDonationAppApplication.class)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory().registerSingleton("inFlightRequestFilter", inFlightRequestFilter))
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static Map<String, EndpointStats> createStats() {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        ENDPOINTS.forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+        return stats;
+    }
+
+    private static void runSessions(LoadTestConfig config, LoadTestDataSeeder seeder, String baseUrl, int sessions, Map<String, EndpointStats> stats) throws Exception {
+        List<String> userEmails = seeder.getUserEmails();
+        AtomicInteger nextSession = new AtomicInteger();
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(config.getConcurrency());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                results.add(virtualUsers.submit(() -> {
+                    String email = userEmails.get(nextSession.getAndIncrement() % userEmails.size());
+                    new DonationFlowSession(baseUrl, stats).run(email, config.getDonationsPerSession(), seeder.getInstitutionIds(), seeder.getCategoryIds());
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            virtualUsers.shutdownNow();
+        }
+    }
+
+    private static int report(Map<String, EndpointStats> stats, double elapsedSeconds) {
+        System.out.printf("%n%-16s %8s %7s %10s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        int errors = 0;
+        for (EndpointStats endpointStats : stats.values()) {
+            errors += endpointStats.getErrors();
+            System.out.printf("%-16s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpointStats.getEndpoint(),
+                    endpointStats.getCount(),
+                    endpointStats.getErrors(),
+                    endpointStats.getCount() / elapsedSeconds,
+                    endpointStats.percentileMillis(50),
+                    endpointStats.percentileMillis(95),
+                    endpointStats.percentileMillis(99),
+                    endpointStats.percentileMillis(100));
+        }
+        System.out.printf("Measured %.1f s%n", elapsedSeconds);
+        return errors;
+    }
+
+//    virtual thread stacks live on the heap while platform worker stacks do not, so compare both numbers between modes
+    private static void reportThreading(boolean virtualThreads, InFlightRequestFilter inFlightRequestFilter, ResourceSampler resourceSampler) {
+        int maxInFlight = inFlightRequestFilter.getMaxInFlight();
+        long heapGrowth = resourceSampler.getPeakHeapUsed() - resourceSampler.getIdleHeapUsed();
+
+        System.out.printf("%nRequest threads: %s (Java %s)%n", virtualThreads ? "virtual" : "platform", Runtime.version().feature());
+        System.out.printf("Max in-flight requests: %d%n", maxInFlight);
+        System.out.printf("Peak Tomcat platform worker threads: %d%n", resourceSampler.getPeakWorkerThreads());
+        System.out.printf("Peak heap used: %.1f MB (idle %.1f MB)%n", resourceSampler.getPeakHeapUsed() / 1_048_576.0, resourceSampler.getIdleHeapUsed() / 1_048_576.0);
+        System.out.printf("Heap growth per in-flight request: %.1f KB%n", maxInFlight == 0 ? 0 : heapGrowth / 1024.0 / maxInFlight);
+    }
+}
@@ -0,0 +1,66 @@
+package pl.mateuszmarcyk.charity_donation_app.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//    the server shares the JVM with the load generator, so only Tomcat worker threads are counted
+public class ResourceSampler implements AutoCloseable {
+
+    private static final String TOMCAT_WORKER_PREFIX = "http-nio-";
+    private static final long SAMPLE_INTERVAL_MS = 50;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong peakHeapUsed = new AtomicLong();
+    private final AtomicLong peakWorkerThreads = new AtomicLong();
+
+    private long idleHeapUsed;
+
+    public void start() {
+        System.gc();
+        idleHeapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+        peakHeapUsed.set(idleHeapUsed);
+        peakWorkerThreads.set(0);
+        sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public long getIdleHeapUsed() {
+        return idleHeapUsed;
+    }
+
+    public long getPeakHeapUsed() {
+        return peakHeapUsed.get();
+    }
+
+    public long getPeakWorkerThreads() {
+        return peakWorkerThreads.get();
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        peakHeapUsed.accumulateAndGet(memoryBean.getHeapMemoryUsage().getUsed(), Math::max);
+
+        long workerThreads = 0;
+        for (ThreadInfo threadInfo : threadBean.getThreadInfo(threadBean.getAllThreadIds())) {
+            if (threadInfo != null && threadInfo.getThreadName().startsWith(TOMCAT_WORKER_PREFIX) && threadInfo.getThreadName().contains("-exec-")) {
+                workerThreads++;
+            }
+        }
+        peakWorkerThreads.accumulateAndGet(workerThreads, Math::max);
+    }
+}
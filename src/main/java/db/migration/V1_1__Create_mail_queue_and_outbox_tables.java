@@ -0,0 +1,72 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+//    MailQueueService and OutboxService came after script-01.sql, so a database baselined at version 1 has neither table;
+//    in Java because MySQL has no create index if not exists, the index is only created together with its table
+public class V1_1__Create_mail_queue_and_outbox_tables extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+
+        if (!tableExists(connection, "outbound_mails")) {
+            execute(connection, """
+                    create table if not exists outbound_mails
+                    (
+                        attempts          int           not null,
+                        created           datetime(6)   null,
+                        id                bigint auto_increment
+                            primary key,
+                        next_attempt_time datetime(6)   null,
+                        version           bigint        null,
+                        content           longtext      null,
+                        last_error        varchar(1000) null,
+                        recipient         varchar(255)  null,
+                        sender_name       varchar(255)  null,
+                        status            varchar(255)  null,
+                        subject           varchar(255)  null
+                    )""");
+            execute(connection, "create index idx_outbound_mails_status_next_attempt_time on outbound_mails (status, next_attempt_time)");
+        }
+
+        execute(connection, """
+                create table if not exists outbox_events
+                (
+                    attempts     int           not null,
+                    aggregate_id bigint        null,
+                    created      datetime(6)   null,
+                    id           bigint auto_increment
+                        primary key,
+                    dedup_key    varchar(255)  null,
+                    event_type   varchar(255)  null,
+                    last_error   varchar(1000) null,
+                    payload      varchar(1000) null,
+                    constraint UK_outbox_events_dedup_key
+                        unique (dedup_key)
+                )""");
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(), null, new String[]{"TABLE"})) {
+            while (tables.next()) {
+                if (table.equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserTypeRepository;
+import pl.mateuszmarcyk.charity_donation_app.service.RegisteredEmailFilter;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -27,6 +28,7 @@ public class AdminUserInitializer implements CommandLineRunner {
     private final UserRepository userRepository;
     private final UserTypeRepository userTypeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
     @Override
     @Transactional
@@ -45,6 +47,7 @@ public class AdminUserInitializer implements CommandLineRunner {
             admin.setProfile(new UserProfile());
             VerificationToken token = new VerificationToken(UUID.randomUUID().toString(), null, 15);
             admin.setVerificationToken(token);
+            registeredEmailFilter.recordEmail(admin.getEmail());
             userRepository.save(admin);
 
             log.info("Admin user created: admin@admin.com");
@@ -0,0 +1,98 @@
+package pl.mateuszmarcyk.charity_donation_app.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.mateuszmarcyk.charity_donation_app.config.security.BoundedPasswordEncoder;
+import pl.mateuszmarcyk.charity_donation_app.config.security.LoginAttemptLimiter;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
+import pl.mateuszmarcyk.charity_donation_app.service.ReferenceDataCacheService;
+import pl.mateuszmarcyk.charity_donation_app.service.UserCacheService;
+import pl.mateuszmarcyk.charity_donation_app.util.CacheRegionStats;
+import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
+import pl.mateuszmarcyk.charity_donation_app.util.MailTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+@Configuration
+public class MetricsConfig {
+
+//    the second-level cache regions only count hits and misses while Hibernate statistics are on
+    @Bean
+    @ConditionalOnProperty("cache.statistics.enabled")
+    public MeterBinder referenceDataCacheMetrics(ReferenceDataCacheService referenceDataCacheService) {
+        return registry -> bindCacheRegions(registry, referenceDataCacheService::getStatistics);
+    }
+
+    @Bean
+    public MeterBinder userCacheMetrics(UserCacheService userCacheService) {
+        return registry -> bindCacheRegions(registry, () -> List.of(userCacheService.getStatistics()));
+    }
+
+    @Bean
+    public MeterBinder mailTemplateMetrics(MailMessage mailMessage) {
+        return registry -> mailMessage.getTemplates().forEach(template ->
+                FunctionTimer.builder("mail.template.render", template, MailTemplate::getRenderCount, MailTemplate::getTotalRenderNanos, TimeUnit.NANOSECONDS)
+                        .tag("template", template.getName())
+                        .register(registry));
+    }
+
+//    counted on every scrape, not on every enqueue
+    @Bean
+    public MeterBinder mailQueueMetrics(MailQueueService mailQueueService) {
+        return registry -> Gauge.builder("mail.queue.depth", mailQueueService, MailQueueService::getQueueDepth)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder loginThrottlingMetrics(LoginAttemptLimiter loginAttemptLimiter, BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            FunctionCounter.builder("login.attempts.rejected", loginAttemptLimiter, LoginAttemptLimiter::getRejectedByAddressCount)
+                    .tag("reason", "address")
+                    .register(registry);
+            FunctionCounter.builder("login.attempts.rejected", loginAttemptLimiter, LoginAttemptLimiter::getRejectedByAccountCount)
+                    .tag("reason", "account")
+                    .register(registry);
+            FunctionCounter.builder("login.attempts.rejected", passwordEncoder, BoundedPasswordEncoder::getRejectedCount)
+                    .tag("reason", "busy")
+                    .register(registry);
+            FunctionCounter.builder("password.verifications.queued", passwordEncoder, BoundedPasswordEncoder::getQueuedCount)
+                    .register(registry);
+            Gauge.builder("password.verifications.waiting", passwordEncoder, BoundedPasswordEncoder::getWaitingCount)
+                    .register(registry);
+            Gauge.builder("password.verifications.active", passwordEncoder, BoundedPasswordEncoder::getActiveCount)
+                    .register(registry);
+        };
+    }
+
+//    statistics are read only when the registry is scraped
+    static void bindCacheRegions(MeterRegistry registry, Supplier<List<CacheRegionStats>> statistics) {
+        statistics.get().forEach(regionStats -> {
+            String region = regionStats.getRegion();
+            bindRegionCounter(registry, statistics, region, "cache.region.gets", "hit", CacheRegionStats::getHitCount);
+            bindRegionCounter(registry, statistics, region, "cache.region.gets", "miss", CacheRegionStats::getMissCount);
+            bindRegionCounter(registry, statistics, region, "cache.region.puts", null, CacheRegionStats::getPutCount);
+        });
+    }
+
+    private static void bindRegionCounter(MeterRegistry registry, Supplier<List<CacheRegionStats>> statistics, String region,
+                                          String name, String result, ToLongFunction<CacheRegionStats> value) {
+        FunctionCounter.Builder<Supplier<List<CacheRegionStats>>> counter = FunctionCounter.builder(name, statistics, source -> source.get().stream()
+                        .filter(regionStats -> region.equals(regionStats.getRegion()))
+                        .mapToLong(value)
+                        .sum())
+                .tag("region", region);
+        if (result != null) {
+            counter.tag("result", result);
+        }
+        counter.register(registry);
+    }
+}
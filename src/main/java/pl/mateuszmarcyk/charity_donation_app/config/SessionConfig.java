@@ -0,0 +1,26 @@
+package pl.mateuszmarcyk.charity_donation_app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import pl.mateuszmarcyk.charity_donation_app.config.security.CompactSessionAttributeSerializer;
+
+//    sessions live in the SPRING_SESSION tables, so any node can serve any request without sticky sessions;
+//    session.store=memory goes with excluding SessionAutoConfiguration and leaves them in the servlet container of the node
+@Configuration
+public class SessionConfig {
+
+//    picked up by name by the JDBC session repository to turn attributes into ATTRIBUTE_BYTES and back
+    @Bean
+    public ConversionService springSessionConversionService() {
+        CompactSessionAttributeSerializer serializer = new CompactSessionAttributeSerializer(CompactSessionAttributeSerializer.class.getClassLoader());
+
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(serializer));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(serializer));
+        return conversionService;
+    }
+}
@@ -0,0 +1,125 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+//    the security context is written on every login and read whenever a node loads the session, Java serialization
+//    spends most of its bytes on class descriptors; a context holding a CustomUserDetails is written field by field,
+//    the first byte tells the two formats apart and every other attribute falls back to Java serialization
+public class CompactSessionAttributeSerializer implements Serializer<Object>, Deserializer<Object> {
+
+    private static final int JAVA_SERIALIZATION = 0;
+    private static final int SECURITY_CONTEXT = 1;
+
+    private final DefaultSerializer javaSerializer = new DefaultSerializer();
+    private final DefaultDeserializer javaDeserializer;
+
+    public CompactSessionAttributeSerializer(ClassLoader classLoader) {
+        this.javaDeserializer = new DefaultDeserializer(classLoader);
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) throws IOException {
+        if (isCompactSecurityContext(object)) {
+            outputStream.write(SECURITY_CONTEXT);
+            writeSecurityContext(((SecurityContextImpl) object).getAuthentication(), new DataOutputStream(outputStream));
+            return;
+        }
+
+        outputStream.write(JAVA_SERIALIZATION);
+        javaSerializer.serialize(object, outputStream);
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException {
+        int format = inputStream.read();
+        return switch (format) {
+            case SECURITY_CONTEXT -> readSecurityContext(new DataInputStream(inputStream));
+            case JAVA_SERIALIZATION -> javaDeserializer.deserialize(inputStream);
+            default -> throw new IOException("Unknown session attribute format " + format);
+        };
+    }
+
+//    only what the compact format can restore exactly, authorities are rebuilt from the roles of the principal
+    private static boolean isCompactSecurityContext(Object object) {
+        if (object == null || object.getClass() != SecurityContextImpl.class) {
+            return false;
+        }
+
+        Authentication authentication = ((SecurityContextImpl) object).getAuthentication();
+        return authentication != null
+                && authentication.getClass() == UsernamePasswordAuthenticationToken.class
+                && authentication.isAuthenticated()
+                && authentication.getCredentials() == null
+                && authentication.getPrincipal() instanceof CustomUserDetails userDetails
+                && authentication.getAuthorities().equals(userDetails.getAuthorities())
+                && (authentication.getDetails() == null || authentication.getDetails().getClass() == WebAuthenticationDetails.class);
+    }
+
+    private static void writeSecurityContext(Authentication authentication, DataOutputStream output) throws IOException {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+
+        output.writeBoolean(userDetails.getId() != null);
+        if (userDetails.getId() != null) {
+            output.writeLong(userDetails.getId());
+        }
+        writeNullableString(output, userDetails.getEmail());
+        writeNullableString(output, userDetails.getPassword());
+        output.writeInt(userDetails.getRoles());
+        output.writeBoolean(userDetails.isEnabled());
+        output.writeBoolean(userDetails.isBlocked());
+        writeNullableString(output, userDetails.getFirstName());
+        writeNullableString(output, userDetails.getLastName());
+        writeNullableString(output, userDetails.getProfilePhoto());
+
+        WebAuthenticationDetails details = (WebAuthenticationDetails) authentication.getDetails();
+        output.writeBoolean(details != null);
+        if (details != null) {
+            writeNullableString(output, details.getRemoteAddress());
+            writeNullableString(output, details.getSessionId());
+        }
+        output.flush();
+    }
+
+    private static SecurityContextImpl readSecurityContext(DataInputStream input) throws IOException {
+        Long id = input.readBoolean() ? input.readLong() : null;
+        String email = readNullableString(input);
+        String password = readNullableString(input);
+        int roles = input.readInt();
+        boolean enabled = input.readBoolean();
+        boolean blocked = input.readBoolean();
+        String firstName = readNullableString(input);
+        String lastName = readNullableString(input);
+        String profilePhoto = readNullableString(input);
+        CustomUserDetails userDetails = new CustomUserDetails(id, email, roles, enabled, blocked, firstName, lastName, profilePhoto, password);
+
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+        if (input.readBoolean()) {
+            authentication.setDetails(new WebAuthenticationDetails(readNullableString(input), readNullableString(input)));
+        }
+        return new SecurityContextImpl(authentication);
+    }
+
+    private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
@@ -17,7 +17,9 @@ public class CustomAuthenticationFailureHandler implements org.springframework.s
         String errorMessage ="Invalid username or password.";
 
         Throwable cause = exception.getCause();
-        if (cause instanceof DisabledException) {
+        if (exception instanceof LoginThrottledException || cause instanceof LoginThrottledException) {
+            errorMessage = "Too many login attempts, try again later.";
+        } else if (cause instanceof DisabledException) {
             errorMessage = "Your account is not enabled.";
         } else if (cause instanceof LockedException) {
             errorMessage = "Your account is blocked.";
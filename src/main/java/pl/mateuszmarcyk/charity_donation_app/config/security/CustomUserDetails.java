@@ -1,42 +1,80 @@
 package pl.mateuszmarcyk.charity_donation_app.config.security;
 
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.With;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
 import pl.mateuszmarcyk.charity_donation_app.entity.UserType;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
+//    kept in the HTTP session for the whole login, so it copies the few fields the security layer and the page header need
+//    instead of holding the User entity; LoggedUserModelHandler loads the entity when a controller needs it
 @Getter
-@RequiredArgsConstructor
-public class CustomUserDetails implements UserDetails {
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
 
-    private final User user;
+    private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    private final Long id;
+    private final String email;
+    private final int roles;
+    private final boolean enabled;
+    private final boolean blocked;
+    private final String firstName;
+    private final String lastName;
+    private final String profilePhoto;
+
+    @Getter(AccessLevel.NONE)
+    @With(AccessLevel.PACKAGE)
+    private String password;
+
+    public CustomUserDetails(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.roles = toRoleBits(user);
+        this.enabled = user.isEnabled();
+        this.blocked = user.isBlocked();
+
+        UserProfile profile = user.getProfile();
+        this.firstName = profile == null ? null : profile.getFirstName();
+        this.lastName = profile == null ? null : profile.getLastName();
+        this.profilePhoto = profile == null ? null : profile.getProfilePhoto();
+    }
+
+    public boolean hasRole(String role) {
+        int index = ROLES.indexOf(role);
+        return index >= 0 && (roles & (1 << index)) != 0;
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-
-        Set<UserType> userTypes = user.getUserTypes();
         List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-        userTypes.forEach(type -> authorities.add(new SimpleGrantedAuthority(type.getRole())));
-
+        for (int i = 0; i < ROLES.size(); i++) {
+            if ((roles & (1 << i)) != 0) {
+                authorities.add(new SimpleGrantedAuthority(ROLES.get(i)));
+            }
+        }
         return authorities;
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -46,7 +84,7 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return !user.isBlocked();
+        return !blocked;
     }
 
     @Override
@@ -56,6 +94,28 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.isEnabled();
+        return enabled;
+    }
+
+//    the hash is only needed while the login is checked, the session keeps the principal without it
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+//    user_types holds exactly these roles, see V1__baseline_schema.sql
+    private static int toRoleBits(User user) {
+        int bits = 0;
+        if (user.getUserTypes() == null) {
+            return bits;
+        }
+
+        for (UserType userType : user.getUserTypes()) {
+            int index = ROLES.indexOf(userType.getRole());
+            if (index >= 0) {
+                bits |= 1 << index;
+            }
+        }
+        return bits;
     }
 }
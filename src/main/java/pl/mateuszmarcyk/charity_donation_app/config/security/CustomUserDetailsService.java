@@ -1,21 +1,26 @@
 package pl.mateuszmarcyk.charity_donation_app.config.security;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.service.UserCacheService;
 
 @RequiredArgsConstructor
 @Component
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
+    private final UserCacheService userCacheService;
     private final UserRepository userRepository;
 
+//    never from UserCacheService, a new password, a block or an activation must take effect on every node at once
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("Could not find the user"));
@@ -29,4 +34,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         return new CustomUserDetails(user);
     }
+
+//    DaoAuthenticationProvider hands over a new hash after a login whose stored hash has a lower bcrypt strength than configured;
+//    only the password column is written, the user entity is not loaded for it
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        CustomUserDetails customUserDetails = (CustomUserDetails) userDetails;
+
+        userRepository.updatePassword(customUserDetails.getId(), newPassword);
+        userCacheService.evict(customUserDetails.getId());
+        return customUserDetails.withPassword(newPassword);
+    }
 }
@@ -0,0 +1,166 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.mateuszmarcyk.charity_donation_app.service.RegisteredEmailFilter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+//    counts failed logins per remote address (credential stuffing over many accounts) and per account (guessing one password
+//    from many addresses); an attempt over either limit is turned away before the user is loaded or a password is hashed
+@Component
+public class LoginAttemptLimiter {
+
+    private final StripedWindows failuresByAddress;
+    private final StripedWindows failuresByAccount;
+    private final LongSupplier currentTimeMillis;
+    private final LongAdder rejectedByAddress = new LongAdder();
+    private final LongAdder rejectedByAccount = new LongAdder();
+
+    @Autowired
+    public LoginAttemptLimiter(@Value("${security.login.window:15m}") Duration window,
+                               @Value("${security.login.max-failures-per-address:50}") int maxFailuresPerAddress,
+                               @Value("${security.login.max-failures-per-account:10}") int maxFailuresPerAccount,
+                               @Value("${security.login.stripes:64}") int stripes,
+                               @Value("${security.login.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this(window, maxFailuresPerAddress, maxFailuresPerAccount, stripes, maxTrackedKeys, System::currentTimeMillis);
+    }
+
+    LoginAttemptLimiter(Duration window, int maxFailuresPerAddress, int maxFailuresPerAccount, int stripes, int maxTrackedKeys,
+                        LongSupplier currentTimeMillis) {
+        this.failuresByAddress = new StripedWindows(window.toMillis(), maxFailuresPerAddress, stripes, maxTrackedKeys);
+        this.failuresByAccount = new StripedWindows(window.toMillis(), maxFailuresPerAccount, stripes, maxTrackedKeys);
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    public void checkAllowed(String remoteAddress, String username) {
+        long now = currentTimeMillis.getAsLong();
+
+        if (remoteAddress != null && failuresByAddress.isOverLimit(remoteAddress, now)) {
+            rejectedByAddress.increment();
+            throw new LoginThrottledException("Too many failed logins from " + remoteAddress);
+        }
+
+        if (username != null && failuresByAccount.isOverLimit(accountKey(username), now)) {
+            rejectedByAccount.increment();
+            throw new LoginThrottledException("Too many failed logins for the account");
+        }
+    }
+
+    public void recordFailure(String remoteAddress, String username) {
+        long now = currentTimeMillis.getAsLong();
+
+        if (remoteAddress != null) {
+            failuresByAddress.increment(remoteAddress, now);
+        }
+        if (username != null) {
+            failuresByAccount.increment(accountKey(username), now);
+        }
+    }
+
+//    the address keeps its count, a stuffing run that guesses one password right is still slowed down
+    public void recordSuccess(String username) {
+        if (username != null) {
+            failuresByAccount.remove(accountKey(username));
+        }
+    }
+
+    public long getRejectedByAddressCount() {
+        return rejectedByAddress.sum();
+    }
+
+    public long getRejectedByAccountCount() {
+        return rejectedByAccount.sum();
+    }
+
+    private static String accountKey(String username) {
+        return RegisteredEmailFilter.normalize(username);
+    }
+
+//    every stripe has its own lock, so logins for different keys rarely wait for each other, and forgets the key used least
+//    recently once it is full, so a flood of made up addresses or emails cannot grow the heap
+    private static final class StripedWindows {
+
+        private final long windowMillis;
+        private final int limit;
+        private final Map<String, SlidingWindow>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        private StripedWindows(long windowMillis, int limit, int stripeCount, int maxTrackedKeys) {
+            this.windowMillis = Math.max(windowMillis, 1);
+            this.limit = limit;
+            this.stripes = new Map[Math.max(stripeCount, 1)];
+
+            int keysPerStripe = Math.max(maxTrackedKeys / stripes.length, 1);
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, SlidingWindow> eldest) {
+                        return size() > keysPerStripe;
+                    }
+                };
+            }
+        }
+
+        private boolean isOverLimit(String key, long now) {
+            Map<String, SlidingWindow> stripe = stripeOf(key);
+            synchronized (stripe) {
+                SlidingWindow window = stripe.get(key);
+                return window != null && window.count(now, windowMillis) >= limit;
+            }
+        }
+
+        private void increment(String key, long now) {
+            Map<String, SlidingWindow> stripe = stripeOf(key);
+            synchronized (stripe) {
+                stripe.computeIfAbsent(key, k -> new SlidingWindow()).increment(now, windowMillis);
+            }
+        }
+
+        private void remove(String key) {
+            Map<String, SlidingWindow> stripe = stripeOf(key);
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+
+        private Map<String, SlidingWindow> stripeOf(String key) {
+            return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        }
+    }
+
+//    two fixed windows, the previous one weighted by how much of it still overlaps the sliding window
+    private static final class SlidingWindow {
+
+        private long windowIndex;
+        private int current;
+        private int previous;
+
+        private void increment(long now, long windowMillis) {
+            roll(now, windowMillis);
+            current++;
+        }
+
+        private double count(long now, long windowMillis) {
+            roll(now, windowMillis);
+            double elapsedFraction = (double) (now % windowMillis) / windowMillis;
+            return previous * (1 - elapsedFraction) + current;
+        }
+
+        private void roll(long now, long windowMillis) {
+            long index = now / windowMillis;
+            if (index == windowIndex) {
+                return;
+            }
+
+            previous = index == windowIndex + 1 ? current : 0;
+            current = 0;
+            windowIndex = index;
+        }
+    }
+}
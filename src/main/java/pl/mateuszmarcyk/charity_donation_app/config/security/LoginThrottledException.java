@@ -0,0 +1,10 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+public class LoginThrottledException extends AuthenticationException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+//    the limiter is asked before loadUserByUsername, a throttled attempt costs neither a query nor a bcrypt verification;
+//    unknown emails surface as BadCredentialsException too, so they count like wrong passwords
+public class ThrottlingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    public ThrottlingAuthenticationProvider(LoginAttemptLimiter loginAttemptLimiter) {
+        this.loginAttemptLimiter = loginAttemptLimiter;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String remoteAddress = authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : null;
+        String username = authentication.getName();
+
+        loginAttemptLimiter.checkAllowed(remoteAddress, username);
+        try {
+            Authentication result = super.authenticate(authentication);
+            loginAttemptLimiter.recordSuccess(username);
+            return result;
+        } catch (BadCredentialsException e) {
+            loginAttemptLimiter.recordFailure(remoteAddress, username);
+            throw e;
+        }
+    }
+}
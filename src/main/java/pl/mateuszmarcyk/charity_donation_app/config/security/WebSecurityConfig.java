@@ -1,6 +1,8 @@
 package pl.mateuszmarcyk.charity_donation_app.config.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -13,6 +15,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 
+import java.time.Duration;
+
 @RequiredArgsConstructor
 @Configuration
 public class WebSecurityConfig {
@@ -63,13 +67,16 @@ public class WebSecurityConfig {
     };
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity security, AuthenticationSuccessHandler authenticationSuccessHandler) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity security, AuthenticationSuccessHandler authenticationSuccessHandler,
+                                            AuthenticationProvider authenticationProvider) throws Exception {
 
-        security.authenticationProvider(authenticationProvider());
+        security.authenticationProvider(authenticationProvider);
 
         security.authorizeHttpRequests(auth -> {
             auth.requestMatchers(urlsForUnauthenticatedOnly).anonymous();
             auth.requestMatchers(publicUrls).permitAll();
+//            matches only on the management port, the application port does not serve actuator at all
+            auth.requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll();
             auth.requestMatchers(userUrls).hasAuthority("ROLE_USER");
             auth.requestMatchers(availableForAuthenticated).hasAnyAuthority("ROLE_USER", "ROLE_ADMIN");
             auth.requestMatchers(adminUrls).hasAuthority("ROLE_ADMIN");
@@ -95,18 +102,23 @@ public class WebSecurityConfig {
         return security.build();
     }
 
+//    raising the strength rehashes every password on its next successful login through updatePassword of CustomUserDetailsService
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                                                  @Value("${security.password.max-concurrent-verifications:0}") int maxConcurrentVerifications,
+                                                  @Value("${security.password.max-wait:2s}") Duration maxWait) {
+        int maxConcurrent = maxConcurrentVerifications > 0 ? maxConcurrentVerifications : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), maxConcurrent, maxWait);
     }
 
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder, LoginAttemptLimiter loginAttemptLimiter) {
 
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        DaoAuthenticationProvider authenticationProvider = new ThrottlingAuthenticationProvider(loginAttemptLimiter);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         authenticationProvider.setUserDetailsService(customUserDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authenticationProvider;
     }
 
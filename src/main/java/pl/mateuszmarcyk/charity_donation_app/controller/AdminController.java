@@ -1,10 +1,14 @@
 package pl.mateuszmarcyk.charity_donation_app.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.propertyeditors.StringTrimmerEditor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,17 +16,28 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.*;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.service.CategoryService;
+import pl.mateuszmarcyk.charity_donation_app.service.DonationExportService;
+import pl.mateuszmarcyk.charity_donation_app.service.DonationImportService;
 import pl.mateuszmarcyk.charity_donation_app.service.DonationService;
 import pl.mateuszmarcyk.charity_donation_app.service.InstitutionService;
 import pl.mateuszmarcyk.charity_donation_app.service.UserService;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkResult;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportFormat;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportReport;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationPage;
 import pl.mateuszmarcyk.charity_donation_app.util.FileUploadUtil;
 import pl.mateuszmarcyk.charity_donation_app.util.LoggedUserModelHandler;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -36,6 +51,9 @@ public class AdminController {
     private static final String REDIRECT_TO_ALL_DONATIONS_URL = "redirect:/admins/donations";
     private static final String CATEGORY_MODEL_ATTRIBUTE_KEY = "category";
     private static final String INSTITUTION_MODEL_ATTRIBUTE_KEY = "institution";
+    private static final String ADMIN_DONATIONS_IMPORT_VIEW = "admin-donations-import";
+    private static final String BULK_RESULT_ATTRIBUTE_KEY = "bulkResult";
+    private static final String UNIQUE_EMAIL_ERROR_CODE = "UniqueEmail";
 
     private final UserService userService;
     private final FileUploadUtil fileUploadUtil;
@@ -43,6 +61,8 @@ public class AdminController {
     private final CategoryService categoryService;
     private final InstitutionService institutionService;
     private final LoggedUserModelHandler loggedUserModelHandler;
+    private final DonationExportService donationExportService;
+    private final DonationImportService donationImportService;
 
     @InitBinder
     public void initBinder(WebDataBinder dataBinder) {
@@ -90,7 +110,7 @@ public class AdminController {
 
         User user = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(user, model);
-        User searchedUser = userService.findUserById(id);
+        User searchedUser = userService.findCachedUserById(id);
         if (searchedUser.getUserTypes().stream().anyMatch(role -> role.getRole().equals("ROLE_ADMIN"))) {
             model.addAttribute("admin", true);
         }
@@ -104,7 +124,7 @@ public class AdminController {
 
         User user = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(user, model);
-        User searchedUser = userService.findUserById(id);
+        User searchedUser = userService.findCachedUserById(id);
         model.addAttribute("profile", searchedUser.getProfile());
 
         return "admin-user-profile-details";
@@ -172,7 +192,12 @@ public class AdminController {
             return "admin-user-email-edit-form";
         }
 
-        userService.updateUserEmail(userToEdit);
+        try {
+            userService.updateUserEmail(userToEdit);
+        } catch (EmailAlreadyUsedException e) {
+            bindingResult.reject(UNIQUE_EMAIL_ERROR_CODE, e.getMessage());
+            return "admin-user-email-edit-form";
+        }
         return REDIRECT_TO_USER_ACCOUNT_DETAILS_URL.formatted(userToEdit.getId());
     }
 
@@ -223,7 +248,7 @@ public class AdminController {
     @PostMapping("/users/delete")
     public String deleteUser(@RequestParam(name = "id") Long id) {
 
-        User userToDelete = userService.findUserById(id);
+        User userToDelete = userService.findCachedUserById(id);
         userService.deleteUser(id);
 
         if (userToDelete.getUserTypes().stream().anyMatch(role -> role.getRole().equals("ROLE_ADMIN"))) {
@@ -236,14 +261,64 @@ public class AdminController {
     public String showAllDonations(@AuthenticationPrincipal CustomUserDetails userDetails, Model model, HttpServletRequest request) {
 
         String sortType = request.getParameter("sortType");
+        String afterCursor = request.getParameter("after");
+        String beforeCursor = request.getParameter("before");
         User user = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(user, model);
-        List<Donation> allDonations = donationService.findAll(sortType);
-        model.addAttribute("donations", allDonations);
+        DonationPage donationPage = donationService.findAllPage(sortType, afterCursor, beforeCursor);
+        model.addAttribute("donations", donationPage.getDonations());
+        model.addAttribute("sortType", sortType);
+        model.addAttribute("previousCursor", donationPage.getPreviousCursor());
+        model.addAttribute("nextCursor", donationPage.getNextCursor());
 
         return "admin-donations-all";
     }
 
+//    the body is written on an async thread so the export never holds a request thread or the whole result in memory;
+//    the task carries its own timeout, a full export outlives the application wide async request timeout
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/donations/export")
+    public WebAsyncTask<Void> exportDonations(@RequestParam(name = "format", required = false) String format, HttpServletResponse response) {
+
+        DonationExportFormat exportFormat = DonationExportFormat.fromName(format);
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("donations." + exportFormat.getExtension())
+                .build()
+                .toString());
+
+        Callable<Void> export = () -> {
+            donationExportService.export(exportFormat, response.getOutputStream());
+            return null;
+        };
+        return new WebAsyncTask<>(donationExportService.getTimeout().toMillis(), export);
+    }
+
+    @GetMapping("/donations/import")
+    public String showDonationImportForm(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
+
+        User user = loggedUserModelHandler.getUser(userDetails);
+        loggedUserModelHandler.addUserToModel(user, model);
+
+        return ADMIN_DONATIONS_IMPORT_VIEW;
+    }
+
+    @PostMapping("/donations/import")
+    public String importDonations(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                  @RequestParam("file") MultipartFile file,
+                                  Model model) throws IOException {
+
+        User user = loggedUserModelHandler.getUser(userDetails);
+        loggedUserModelHandler.addUserToModel(user, model);
+
+        try (InputStream inputStream = file.getInputStream()) {
+            DonationImportReport report = donationImportService.importDonations(inputStream);
+            model.addAttribute("report", report);
+        }
+
+        return ADMIN_DONATIONS_IMPORT_VIEW;
+    }
+
     @PostMapping("/donations/archive")
     public String archiveDonation(@RequestParam("donationId") Long id) {
 
@@ -274,6 +349,34 @@ public class AdminController {
     }
 
 
+    @PostMapping("/donations/bulk/archive")
+    public String archiveDonations(@RequestParam(name = "donationIds", required = false) List<Long> ids, RedirectAttributes redirectAttributes) {
+
+        DonationBulkResult result = donationService.archiveDonations(ids);
+        redirectAttributes.addFlashAttribute(BULK_RESULT_ATTRIBUTE_KEY, result);
+
+        return REDIRECT_TO_ALL_DONATIONS_URL;
+    }
+
+    @PostMapping("/donations/bulk/unarchive")
+    public String unArchiveDonations(@RequestParam(name = "donationIds", required = false) List<Long> ids, RedirectAttributes redirectAttributes) {
+
+        DonationBulkResult result = donationService.unArchiveDonations(ids);
+        redirectAttributes.addFlashAttribute(BULK_RESULT_ATTRIBUTE_KEY, result);
+
+        return REDIRECT_TO_ALL_DONATIONS_URL;
+    }
+
+    @PostMapping("/donations/bulk/delete")
+    public String deleteDonations(@RequestParam(name = "donationIds", required = false) List<Long> ids, RedirectAttributes redirectAttributes) {
+
+        DonationBulkResult result = donationService.deleteDonations(ids);
+        redirectAttributes.addFlashAttribute(BULK_RESULT_ATTRIBUTE_KEY, result);
+
+        return REDIRECT_TO_ALL_DONATIONS_URL;
+    }
+
+
     @GetMapping("/donations/{id}")
     public String showDonationDetails(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Long id, Model model) {
 
@@ -89,7 +89,7 @@ public class DonationController {
             return "user-donation-form";
         }
 
-        User user = userService.findUserById(userDetails.getUser().getId());
+        User user = userService.getUserReference(userDetails.getId());
         donation.setUser(user);
         donationService.save(donation);
         return "form-confirmation";
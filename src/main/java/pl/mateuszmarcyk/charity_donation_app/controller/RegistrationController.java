@@ -13,6 +13,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.service.RegistrationService;
 import pl.mateuszmarcyk.charity_donation_app.service.UserService;
 import pl.mateuszmarcyk.charity_donation_app.util.MessageDTO;
@@ -25,6 +26,8 @@ import java.util.Locale;
 @RequestMapping("/register")
 public class RegistrationController {
 
+    private static final String UNIQUE_EMAIL_ERROR_CODE = "UniqueEmail";
+
     private final RegistrationService registrationService;
     private final UserService userService;
     private final MessageSource messageSource;
@@ -83,7 +86,15 @@ public class RegistrationController {
             return "register-form";
         }
 
-        registrationService.registerUser(user, request);
+        try {
+            registrationService.registerUser(user, request);
+        } catch (EmailAlreadyUsedException e) {
+//            the password was already replaced by its hash, the form asks for it again
+            user.setPassword(null);
+            user.setPasswordRepeat(null);
+            bindingResult.reject(UNIQUE_EMAIL_ERROR_CODE, e.getMessage());
+            return "register-form";
+        }
 
         model.addAttribute("registrationMessage", registrationService.getRegistrationCompleteMessage());
 
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.propertyeditors.StringTrimmerEditor;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Page;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,14 +21,15 @@ import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.service.DonationService;
 import pl.mateuszmarcyk.charity_donation_app.service.UserService;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
 import pl.mateuszmarcyk.charity_donation_app.util.FileUploadUtil;
 import pl.mateuszmarcyk.charity_donation_app.util.LoggedUserModelHandler;
 import pl.mateuszmarcyk.charity_donation_app.util.LogoutHandler;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Locale;
 
 @Slf4j
@@ -36,6 +38,7 @@ import java.util.Locale;
 public class UserController {
 
     private static final String REDIRECT_TO_HOME_URL = "redirect:/";
+    private static final String UNIQUE_EMAIL_ERROR_CODE = "UniqueEmail";
 
     private final UserService userService;
     private final DonationService donationService;
@@ -78,9 +81,9 @@ public class UserController {
                                          @AuthenticationPrincipal CustomUserDetails userDetails,
                                          @RequestParam("image") MultipartFile image) throws IOException {
 
-        User loggedUser = loggedUserModelHandler.getUser(userDetails);
+        User profileOwner = userService.findUserById(userDetails.getId());
 
-        fileUploadUtil.saveImage(profileToEdit, image, loggedUser);
+        fileUploadUtil.saveImage(profileToEdit, image, profileOwner);
 
         return "redirect:/profile";
     }
@@ -98,8 +101,10 @@ public class UserController {
 
         User loggedUser = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(loggedUser, model);
-        model.addAttribute("userToEdit", loggedUser);
-        loggedUser.setPasswordRepeat(loggedUser.getPassword());
+        User userToEdit = userService.findUserById(userDetails.getId());
+
+        userToEdit.setPasswordRepeat(userToEdit.getPassword());
+        model.addAttribute("userToEdit", userToEdit);
 
         return "user-email-edit-form";
     }
@@ -109,8 +114,10 @@ public class UserController {
 
         User loggedUser = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(loggedUser, model);
-        model.addAttribute("userToEdit", loggedUser);
-        loggedUser.setPasswordRepeat(loggedUser.getPassword());
+        User userToEdit = userService.findUserById(userDetails.getId());
+
+        userToEdit.setPasswordRepeat(userToEdit.getPassword());
+        model.addAttribute("userToEdit", userToEdit);
 
         return "user-password-edit-form";
     }
@@ -138,7 +145,7 @@ public class UserController {
     public String processUserChangeEmailForm(@Valid @ModelAttribute(name = "userToEdit") User userToEdit,
                                          BindingResult bindingResult,
                                          @AuthenticationPrincipal CustomUserDetails userDetails,
-                                         Model model) {
+                                         Model model, HttpServletRequest request, HttpServletResponse response) {
 
         User loggedUser = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(loggedUser, model);
@@ -151,23 +158,34 @@ public class UserController {
         log.info(userToEdit.getEmail());
         log.info(userToEdit.getPassword());
 
-        User updatedUser  = userService.changeEmail(userToEdit);
-        logoutHandler.changeEmailInUserDetails(updatedUser);
+        User updatedUser;
+        try {
+            updatedUser = userService.changeEmail(userToEdit);
+        } catch (EmailAlreadyUsedException e) {
+            bindingResult.reject(UNIQUE_EMAIL_ERROR_CODE, e.getMessage());
+            return "user-email-edit-form";
+        }
+        logoutHandler.changeEmailInUserDetails(updatedUser, request, response);
 
         return REDIRECT_TO_HOME_URL;
     }
 
 
     @GetMapping("/donations")
-    public String showAllDonations(@AuthenticationPrincipal CustomUserDetails userDetails, Model model, HttpServletRequest request) {
+    public String showAllDonations(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                   @RequestParam(name = "page", defaultValue = "0") int page,
+                                   @RequestParam(name = "size", defaultValue = "20") int size,
+                                   Model model, HttpServletRequest request) {
 
         User loggedUser = loggedUserModelHandler.getUser(userDetails);
         loggedUserModelHandler.addUserToModel(loggedUser, model);
 
         String sortType = request.getParameter("sortType");
 
-        List<Donation> donations = donationService.getDonationsForUserSortedBy(sortType, loggedUser);
-        model.addAttribute("donations", donations);
+        Page<DonationRow> donationsPage = donationService.getDonationsForUserSortedBy(sortType, loggedUser, page, size);
+        model.addAttribute("donations", donationsPage.getContent());
+        model.addAttribute("donationsPage", donationsPage);
+        model.addAttribute("sortType", sortType);
 
         return "user-donations";
     }
@@ -210,13 +228,13 @@ public class UserController {
 
 
     @PostMapping("/account/downgrade")
-    public String downgradeYourself(@AuthenticationPrincipal CustomUserDetails userDetails) {
+    public String downgradeYourself(@AuthenticationPrincipal CustomUserDetails userDetails, HttpServletRequest request, HttpServletResponse response) {
 
         User loggedUser = loggedUserModelHandler.getUser(userDetails);
 
         User updatedUser = userService.removeAdminRole(loggedUser.getId());
 
-        logoutHandler.changeEmailInUserDetails(updatedUser);
+        logoutHandler.changeEmailInUserDetails(updatedUser, request, response);
 
         return REDIRECT_TO_HOME_URL;
     }
@@ -0,0 +1,72 @@
+package pl.mateuszmarcyk.charity_donation_app.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import pl.mateuszmarcyk.charity_donation_app.util.Mail;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "outbound_mails")
+public class OutboundMail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "recipient")
+    private String recipient;
+
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "sender_name")
+    private String senderName;
+
+    @ToString.Exclude
+    @Lob
+    @Column(name = "content")
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OutboundMailStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_time")
+    private LocalDateTime nextAttemptTime;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    public OutboundMail(String recipient, Mail mail) {
+        this.recipient = recipient;
+        this.subject = mail.getSubject();
+        this.senderName = mail.getSenderName();
+        this.content = mail.getMailContent();
+        this.status = OutboundMailStatus.PENDING;
+        this.created = LocalDateTime.now();
+        this.nextAttemptTime = created;
+    }
+
+    public Mail toMail() {
+        return new Mail(subject, senderName, content);
+    }
+}
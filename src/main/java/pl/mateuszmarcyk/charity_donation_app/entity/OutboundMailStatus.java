@@ -0,0 +1,7 @@
+package pl.mateuszmarcyk.charity_donation_app.entity;
+
+public enum OutboundMailStatus {
+    PENDING,
+    SENDING,
+    DEAD
+}
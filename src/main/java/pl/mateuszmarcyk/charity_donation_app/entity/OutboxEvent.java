@@ -0,0 +1,57 @@
+package pl.mateuszmarcyk.charity_donation_app.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "payload", length = 1000)
+    private String payload;
+
+    @Column(name = "dedup_key", unique = true)
+    private String dedupKey;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    @Column(name = "next_attempt_time")
+    private LocalDateTime nextAttemptTime;
+
+    public OutboxEvent(OutboxEventType eventType, Long aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.dedupKey = eventType + ":" + aggregateId;
+        this.created = LocalDateTime.now();
+        this.nextAttemptTime = this.created;
+    }
+}
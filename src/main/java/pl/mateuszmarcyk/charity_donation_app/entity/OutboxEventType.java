@@ -0,0 +1,6 @@
+package pl.mateuszmarcyk.charity_donation_app.entity;
+
+public enum OutboxEventType {
+    DONATION_PROCESS_COMPLETE,
+    REGISTRATION_COMPLETE
+}
@@ -1,6 +1,7 @@
 package pl.mateuszmarcyk.charity_donation_app.entity;
 import jakarta.persistence.*;
 import lombok.*;
+import pl.mateuszmarcyk.charity_donation_app.util.UuidTokenConverter;
 
 import java.time.LocalDateTime;
 
@@ -18,7 +19,8 @@ public class VerificationToken {
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "token")
+    @Convert(converter = UuidTokenConverter.class)
+    @Column(name = "token_value", length = 16)
     private String token;
 
     @Column(name = "expiration_time")
@@ -0,0 +1,15 @@
+package pl.mateuszmarcyk.charity_donation_app.exception;
+
+public class EmailAlreadyUsedException extends RuntimeException implements BusinessException {
+    private final String title;
+
+    public EmailAlreadyUsedException(String message, String title) {
+        super(message);
+        this.title = title;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
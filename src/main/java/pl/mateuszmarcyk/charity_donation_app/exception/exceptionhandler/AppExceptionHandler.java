@@ -15,7 +15,8 @@ public class AppExceptionHandler {
             EntityDeletionException.class,
             PasswordTokenAlreadyExpiredException.class,
             MailException.class,
-            SaveException.class
+            SaveException.class,
+            EmailAlreadyUsedException.class
     })
     public String handleException(BusinessException exception, Model model) {
 
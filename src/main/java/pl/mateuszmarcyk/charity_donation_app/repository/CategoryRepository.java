@@ -1,14 +1,37 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import pl.mateuszmarcyk.charity_donation_app.entity.Category;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    String CATEGORIES_QUERY_REGION = "categories-query";
+
+    @Query("SELECT c FROM Category c")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATEGORIES_QUERY_REGION)
+    })
+    List<Category> findAll();
+
     @Query(value = "SELECT c FROM Category c LEFT JOIN FETCH c.donations WHERE c.id=:donationId")
     Optional<Category> findByIdFetchDonations(Long donationId);
+
+//    donations that would be left without any category if this one disappeared
+    @Query("SELECT COUNT(d) FROM Donation d JOIN d.categories c WHERE c.id = :categoryId AND SIZE(d.categories) = 1")
+    long countDonationsWithOnlyCategory(Long categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "donations_categories"))
+    @Query(value = "DELETE FROM donations_categories WHERE category_id = :categoryId", nativeQuery = true)
+    int deleteDonationLinksByCategoryId(Long categoryId);
 }
@@ -0,0 +1,11 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+
+import java.util.List;
+
+public interface DonationBatchRepository {
+
+//    writes the donations and their categories with plain JDBC batches and sets the generated ids on them
+    void insertAll(List<Donation> donations);
+}
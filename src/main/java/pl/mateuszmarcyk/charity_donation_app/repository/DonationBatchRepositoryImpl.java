@@ -0,0 +1,92 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+//    identity ids stop Hibernate from batching inserts, so bulk writes bypass the persistence context entirely
+@RequiredArgsConstructor
+public class DonationBatchRepositoryImpl implements DonationBatchRepository {
+
+    private static final String INSERT_DONATION = """
+            INSERT INTO donations (quantity, street, city, zip_code, pick_up_date, pick_up_time, pick_up_comment,
+                phone_number, institution_id, user_id, created, received, donation_passed_time)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_DONATION_CATEGORY = "INSERT INTO donations_categories (donation_id, category_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<Donation> donations) {
+        if (donations.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_DONATION, Statement.RETURN_GENERATED_KEYS)) {
+                for (Donation donation : donations) {
+                    bindDonation(statement, donation);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    for (Donation donation : donations) {
+                        if (!generatedKeys.next()) {
+                            throw new IllegalStateException("Database returned fewer generated keys than inserted donations");
+                        }
+                        donation.setId(generatedKeys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+
+        List<Object[]> donationCategories = new ArrayList<>();
+        for (Donation donation : donations) {
+            for (Category category : donation.getCategories()) {
+                donationCategories.add(new Object[]{donation.getId(), category.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_DONATION_CATEGORY, donationCategories);
+    }
+
+    private static void bindDonation(PreparedStatement statement, Donation donation) throws SQLException {
+        statement.setInt(1, donation.getQuantity());
+        statement.setString(2, donation.getStreet());
+        statement.setString(3, donation.getCity());
+        statement.setString(4, donation.getZipCode());
+        statement.setDate(5, Date.valueOf(donation.getPickUpDate()));
+        statement.setTime(6, Time.valueOf(donation.getPickUpTime()));
+        statement.setString(7, donation.getPickUpComment());
+        statement.setString(8, donation.getPhoneNumber());
+        statement.setLong(9, donation.getInstitution().getId());
+        if (donation.getUser() == null) {
+            statement.setNull(10, Types.BIGINT);
+        } else {
+            statement.setLong(10, donation.getUser().getId());
+        }
+        statement.setTimestamp(11, Timestamp.valueOf(donation.getCreated()));
+        statement.setBoolean(12, donation.isReceived());
+        if (donation.getDonationPassedTime() == null) {
+            statement.setNull(13, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(13, Timestamp.valueOf(donation.getDonationPassedTime()));
+        }
+    }
+}
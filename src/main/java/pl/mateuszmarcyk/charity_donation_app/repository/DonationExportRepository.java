@@ -0,0 +1,11 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportLine;
+
+import java.util.stream.Stream;
+
+public interface DonationExportRepository {
+
+//    rows of one donation are adjacent so the caller can fold them while scrolling forward
+    Stream<DonationExportLine> streamExportLines();
+}
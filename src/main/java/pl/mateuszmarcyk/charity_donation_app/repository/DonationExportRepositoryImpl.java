@@ -0,0 +1,45 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportLine;
+
+import java.util.stream.Stream;
+
+//    Connector/J buffers the whole result set for any fetch size but Integer.MIN_VALUE, which streams it row by row;
+//    the streaming fetch size is set on the export query alone, every other query keeps the driver defaults
+public class DonationExportRepositoryImpl implements DonationExportRepository {
+
+    private static final String EXPORT_LINES = """
+            SELECT new pl.mateuszmarcyk.charity_donation_app.util.DonationExportLine(
+                d.id, d.created, d.quantity, d.received, d.donationPassedTime, d.pickUpDate, d.pickUpTime,
+                d.street, d.city, d.zipCode, d.phoneNumber, d.pickUpComment, i.name, u.email, c.name)
+            FROM Donation d
+            LEFT JOIN d.institution i
+            LEFT JOIN d.user u
+            LEFT JOIN d.categories c
+            ORDER BY d.id, c.id""";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final String MYSQL_DATABASE_NAME = "MySQL";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<DonationExportLine> streamExportLines() {
+        return entityManager.createQuery(EXPORT_LINES, DonationExportLine.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+//    asks the driver rather than the configured dialect, other databases reject a negative fetch size
+    private int exportFetchSize() {
+        String databaseName = entityManager.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+        return MYSQL_DATABASE_NAME.equals(databaseName) ? MYSQL_STREAMING_FETCH_SIZE : EXPORT_FETCH_SIZE;
+    }
+}
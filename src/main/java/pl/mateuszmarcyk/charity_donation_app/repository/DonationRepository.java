@@ -1,14 +1,28 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationKey;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface DonationRepository extends JpaRepository<Donation, Long> {
+public interface DonationRepository extends JpaRepository<Donation, Long>, DonationBatchRepository, DonationExportRepository {
 
     @Query("SELECT COUNT(*) FROM Donation d")
     Integer countAll();
@@ -19,36 +33,40 @@ public interface DonationRepository extends JpaRepository<Donation, Long> {
     @Query("SELECT d FROM Donation d WHERE d.user.id=:id ORDER BY d.created")
     List<Donation> findAllDonationsByUserIdSortedByCreation(Long id);
 
-    List<Donation> findAllDonationsByUser(User user);
+    Window<DonationKey> findKeysBy(ScrollPosition position, Sort sort, Limit limit);
 
-    @Query(value = "SELECT d FROM Donation d WHERE d.user=:loggedUser ORDER BY d.created DESC")
-    List<Donation> findAllDonationsByUserSortedByCreated(User loggedUser);
+    @Query("SELECT d.id FROM Donation d WHERE d.user = :user")
+    Page<Long> findIdsByUser(User user, Pageable pageable);
 
-    @Query(value = "SELECT d FROM Donation d WHERE d.user=:loggedUser ORDER BY d.quantity DESC")
-    List<Donation> findAllDonationsByUserSortedByQuantityDesc(User loggedUser);
+    @Query("""
+            SELECT new pl.mateuszmarcyk.charity_donation_app.util.DonationRow(
+                d.id, d.quantity, d.created, d.received, d.donationPassedTime, i.name,
+                LISTAGG(c.name, ', ') WITHIN GROUP (ORDER BY c.id))
+            FROM Donation d
+            LEFT JOIN d.institution i
+            LEFT JOIN d.categories c
+            WHERE d.id IN :ids
+            GROUP BY d.id, d.quantity, d.created, d.received, d.donationPassedTime, i.name""")
+    List<DonationRow> findRowsByIdIn(Collection<Long> ids);
 
-    @Query(value = "SELECT d FROM Donation d WHERE d.user=:loggedUser ORDER BY d.quantity ASC")
-    List<Donation> findAllDonationsByUserSortedByQuantityAsc(User loggedUser);
-
-    @Query(value = "SELECT d FROM Donation d WHERE d.user=:loggedUser ORDER BY d.received ASC")
-    List<Donation> findAllDonationsByUserSortedByReceived(User loggedUser);
-
-    @Query(value = "SELECT d FROM Donation d WHERE d.user=:loggedUser ORDER BY d.received DESC")
-    List<Donation> findAllDonationsByUserSortedByUnreceived(User loggedUser);
-
-//    method to test
-    @Query("SELECT d FROM Donation d ORDER BY d.created DESC")
-    List<Donation> findAllDonationsSortedByCreated();
+    @Query("SELECT d FROM Donation d WHERE d.user =:owner AND d.id=:id")
+    Optional<Donation> findUserDonationById(User owner, Long id);
 
-    @Query("SELECT d FROM Donation d ORDER BY d.quantity DESC")
-    List<Donation> findAllDonationsByQuantityDesc();
+    @Query("SELECT COALESCE(SUM(d.quantity), 0) FROM Donation d WHERE d.id IN :ids")
+    Integer sumQuantityByIdIn(Collection<Long> ids);
 
-    @Query("SELECT d FROM Donation d ORDER BY d.received ASC")
-    List<Donation> findAllDonationsSortedByReceivedAsc();
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Donation d SET d.received = :received, d.donationPassedTime = :passedTime WHERE d.id IN :ids AND d.received <> :received")
+    int updateReceivedByIdIn(Collection<Long> ids, boolean received, LocalDateTime passedTime);
 
-    @Query("SELECT d FROM Donation d ORDER BY d.quantity ASC")
-    List<Donation> findAllDonationsSortedByQuantityAsc();
+//    native statements with space hints keep Hibernate from invalidating every second level cache region
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "donations_categories"))
+    @Query(value = "DELETE FROM donations_categories WHERE donation_id IN :ids", nativeQuery = true)
+    int deleteCategoryLinksByDonationIdIn(Collection<Long> ids);
 
-    @Query("SELECT d FROM Donation d WHERE d.user =:owner AND d.id=:id")
-    Optional<Donation> findUserDonationById(User owner, Long id);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "donations"))
+    @Query(value = "DELETE FROM donations WHERE id IN :ids", nativeQuery = true)
+    int deleteAllByIdIn(Collection<Long> ids);
 }
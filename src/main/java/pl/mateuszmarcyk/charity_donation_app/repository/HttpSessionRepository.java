@@ -0,0 +1,40 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+//    the SPRING_SESSION tables belong to spring-session-jdbc and have no entities, the attributes go with the session
+//    through the ON DELETE CASCADE foreign key
+@Repository
+@RequiredArgsConstructor
+public class HttpSessionRepository {
+
+    private static final String FIND_EXPIRED_SESSION_IDS = """
+            SELECT PRIMARY_ID FROM SPRING_SESSION
+            WHERE EXPIRY_TIME < :expiredBefore
+            ORDER BY EXPIRY_TIME
+            LIMIT :limit""";
+    private static final String DELETE_EXPIRED_SESSIONS = """
+            DELETE FROM SPRING_SESSION
+            WHERE PRIMARY_ID IN (:ids) AND EXPIRY_TIME < :expiredBefore""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+//    a session used again between the two statements has a new EXPIRY_TIME and is kept
+    public int deleteExpiredSessions(long expiredBeforeMillis, int batchSize) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("expiredBefore", expiredBeforeMillis)
+                .addValue("limit", batchSize);
+
+        List<String> expiredSessionIds = jdbcTemplate.queryForList(FIND_EXPIRED_SESSION_IDS, parameters, String.class);
+        if (expiredSessionIds.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(DELETE_EXPIRED_SESSIONS, parameters.addValue("ids", expiredSessionIds));
+    }
+}
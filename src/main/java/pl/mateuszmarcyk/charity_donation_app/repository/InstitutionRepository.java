@@ -1,13 +1,28 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
 
 import java.util.List;
 
 public interface InstitutionRepository extends JpaRepository<Institution, Long> {
 
+    String INSTITUTIONS_QUERY_REGION = "institutions-query";
+
     @Query("SELECT i FROM Institution i")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = INSTITUTIONS_QUERY_REGION)
+    })
     List<Institution> findAll();
+
+//    a single UPDATE keeps the donation history of a removed institution without loading every donation into the session
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Donation d SET d.institution = null WHERE d.institution.id = :institutionId")
+    int detachDonations(Long institutionId);
 }
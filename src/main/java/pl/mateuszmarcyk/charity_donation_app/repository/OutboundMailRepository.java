@@ -0,0 +1,17 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMail;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMailStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+
+    long countByStatusIn(Collection<OutboundMailStatus> statuses);
+
+    List<OutboundMail> findByStatusInAndNextAttemptTimeLessThanEqualOrderByNextAttemptTime(Collection<OutboundMailStatus> statuses, LocalDateTime time, Limit limit);
+}
@@ -0,0 +1,15 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    boolean existsByDedupKey(String dedupKey);
+
+    List<OutboxEvent> findByAttemptsLessThanAndNextAttemptTimeLessThanEqualOrderByNextAttemptTimeAscIdAsc(int attempts, LocalDateTime time, Limit limit);
+}
@@ -1,13 +1,29 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationToken;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PasswordResetVerificationTokenRepository extends JpaRepository<PasswordResetVerificationToken, Long> {
 
     @Query("SELECT t FROM PasswordResetVerificationToken t WHERE t.token=:token")
     Optional<PasswordResetVerificationToken> findByToken(String token);
+
+    @Query("SELECT t.id FROM PasswordResetVerificationToken t WHERE t.expirationTime < :expiredBefore ORDER BY t.id")
+    List<Long> findIdsByExpirationTimeBefore(LocalDateTime expiredBefore, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "password_reset_verification_tokens"))
+    @Query(value = "DELETE FROM password_reset_verification_tokens WHERE id IN :ids", nativeQuery = true)
+    int deleteAllByIdIn(Collection<Long> ids);
 }
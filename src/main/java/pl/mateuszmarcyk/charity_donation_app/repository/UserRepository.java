@@ -1,19 +1,37 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String EMAIL_FETCH_SIZE = "1000";
+
     Optional<User> findByEmail(@NotNull @Email String email);
 
+//    email_normalized is generated as lower(email) and carries the case-insensitive unique index
+    @Query(value = "SELECT u.id FROM users u WHERE u.email_normalized = :normalizedEmail", nativeQuery = true)
+    Optional<Long> findIdByNormalizedEmail(String normalizedEmail);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EMAIL_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    Stream<String> streamAllEmails();
+
     Optional<User> findUserByVerificationToken_Token(String token);
 
     @Query(value = "SELECT u.* FROM users u " +
@@ -29,4 +47,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.passwordResetVerificationToken.token=:token")
     Optional<User> findUserByPasswordResetVerificationToken(String token);
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Donation d SET d.user = null WHERE d.user.id = :userId")
+    int detachDonations(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :userId")
+    int updatePassword(Long userId, String password);
 }
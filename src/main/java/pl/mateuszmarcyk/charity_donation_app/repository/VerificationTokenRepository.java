@@ -1,12 +1,29 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Long> {
 
     Optional<VerificationToken> findByToken(String token);
 
+//    the token of a user who never activated the account is the only way RegistrationService.resendToken finds that user again
+    @Query("SELECT t.id FROM VerificationToken t LEFT JOIN t.user u WHERE t.expirationTime < :expiredBefore AND (u IS NULL OR u.enabled) ORDER BY t.id")
+    List<Long> findIdsByExpirationTimeBefore(LocalDateTime expiredBefore, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "verification_tokens"))
+    @Query(value = "DELETE FROM verification_tokens WHERE id IN :ids", nativeQuery = true)
+    int deleteAllByIdIn(Collection<Long> ids);
 }
@@ -17,6 +17,7 @@ import java.util.List;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ReferenceDataCacheService referenceDataCacheService;
 
     public List<Category> findAll() {
         return categoryRepository.findAll();
@@ -33,28 +34,25 @@ public class CategoryService {
 
     @Transactional
     public Category save(Category category) {
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        referenceDataCacheService.evictCategories();
+        return savedCategory;
     }
 
     @Transactional
     public void deleteById(Long categoryId) {
 
-        Category category = findByIdFetchDonations(categoryId);
+        Category category = findCategoryById(categoryId);
 
+        if (categoryRepository.countDonationsWithOnlyCategory(categoryId) > 0) {
+            log.info("Category {} is the only category of some donations", categoryId);
+            throw new EntityDeletionException("Nie można usunąć kategorii", "Do kategorii przypisane są dary");
+        }
 
-        log.info("{}", category);
-        category.getDonations().forEach(donation -> {
-            if (donation.getCategories().size() == 1) {
-                log.info("This donation has only one category");
-                throw new EntityDeletionException("Nie można usunąć kategorii", "Do kategorii przypisane są dary");
-            } else {
-                donation.removeCategory(category);
-                log.info("Removing category from donation");
-            }
-        });
-
+        int removedLinks = categoryRepository.deleteDonationLinksByCategoryId(categoryId);
+        log.info("Removed category {} from {} donations", categoryId, removedLinks);
 
         categoryRepository.delete(category);
-
+        referenceDataCacheService.evictCategories();
     }
 }
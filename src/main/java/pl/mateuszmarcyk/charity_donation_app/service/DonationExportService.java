@@ -0,0 +1,75 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.transaction.Transactional;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportFormat;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportLine;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class DonationExportService {
+
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+
+    private final DonationRepository donationRepository;
+    @Getter
+    private final Duration timeout;
+
+    public DonationExportService(DonationRepository donationRepository, @Value("${donation.export.timeout:30m}") Duration timeout) {
+        this.donationRepository = donationRepository;
+        this.timeout = timeout;
+    }
+
+//    projections are streamed straight from the cursor, the persistence context never holds more than the current row
+    @Transactional
+    public long export(DonationExportFormat format, OutputStream outputStream) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITER_BUFFER_SIZE);
+        DonationExportWriter exportWriter = DonationExportWriter.create(format, writer);
+        exportWriter.writeHeader();
+
+        long exported = 0;
+        try (Stream<DonationExportLine> lines = donationRepository.streamExportLines()) {
+            Iterator<DonationExportLine> iterator = lines.iterator();
+            DonationExportLine current = null;
+            List<String> categories = new ArrayList<>();
+
+            while (iterator.hasNext()) {
+                DonationExportLine line = iterator.next();
+                if (current != null && !current.getId().equals(line.getId())) {
+                    exportWriter.write(current, categories);
+                    exported++;
+                    categories.clear();
+                }
+                current = line;
+                if (line.getCategoryName() != null) {
+                    categories.add(line.getCategoryName());
+                }
+            }
+
+            if (current != null) {
+                exportWriter.write(current, categories);
+                exported++;
+            }
+        }
+
+        exportWriter.flush();
+        log.info("Exported {} donations as {}", exported, format);
+        return exported;
+    }
+}
@@ -0,0 +1,297 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.exception.SaveException;
+import pl.mateuszmarcyk.charity_donation_app.repository.CategoryRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.InstitutionRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.ApplicationMetrics;
+import pl.mateuszmarcyk.charity_donation_app.util.CsvRecordReader;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportError;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportReport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class DonationImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final int MAX_CACHED_USER_IDS = 10_000;
+    static final List<String> REQUIRED_COLUMNS = List.of(
+            "quantity", "pick_up_date", "pick_up_time", "street", "city", "zip_code", "phone_number", "institution", "categories");
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String IMPORT_ERROR_TITLE = "Błąd importu";
+
+    private final DonationRepository donationRepository;
+    private final CategoryRepository categoryRepository;
+    private final InstitutionRepository institutionRepository;
+    private final UserRepository userRepository;
+    private final DonationStatisticsService donationStatisticsService;
+    private final ApplicationMetrics applicationMetrics;
+    private final Validator validator;
+    private final int batchSize;
+
+    @Autowired
+    public DonationImportService(DonationRepository donationRepository,
+                                 CategoryRepository categoryRepository,
+                                 InstitutionRepository institutionRepository,
+                                 UserRepository userRepository,
+                                 DonationStatisticsService donationStatisticsService,
+                                 ApplicationMetrics applicationMetrics,
+                                 Validator validator,
+                                 @Value("${donation.import.batch-size:1000}") int batchSize) {
+        this.donationRepository = donationRepository;
+        this.categoryRepository = categoryRepository;
+        this.institutionRepository = institutionRepository;
+        this.userRepository = userRepository;
+        this.donationStatisticsService = donationStatisticsService;
+        this.applicationMetrics = applicationMetrics;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+//    rows are parsed and validated one by one, only the current batch is held in memory
+    public DonationImportReport importDonations(InputStream inputStream) {
+        long start = System.nanoTime();
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+
+        List<String> header = readRecord(reader, 0);
+        if (header == null) {
+            throw new SaveException("Plik jest pusty", IMPORT_ERROR_TITLE);
+        }
+        Map<String, Integer> columns = mapColumns(header);
+
+        ImportLookup lookup = new ImportLookup();
+        ImportProgress progress = new ImportProgress();
+        List<Donation> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        List<String> record;
+        while ((record = readRecord(reader, progress.imported)) != null) {
+            long lineNumber = reader.getRecordLineNumber();
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+
+            try {
+                batch.add(toDonation(record, columns, lookup));
+                batchLines.add(lineNumber);
+            } catch (IllegalArgumentException e) {
+                progress.fail(lineNumber, e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) {
+                flush(batch, batchLines, progress);
+                batch = new ArrayList<>(batchSize);
+                batchLines = new ArrayList<>(batchSize);
+            }
+        }
+        flush(batch, batchLines, progress);
+
+        if (progress.imported > 0) {
+            donationStatisticsService.reconcile();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        DonationImportReport report = new DonationImportReport(progress.imported, progress.failed, elapsedMillis, progress.errors);
+        log.info("Imported {} donations, {} rows rejected, {} rows/s", report.getImportedCount(), report.getFailedCount(), report.getRowsPerSecond());
+        return report;
+    }
+
+//    batches written before a malformed record stay in the database, the message tells the admin how far the import got
+    private static List<String> readRecord(CsvRecordReader reader, long importedCount) {
+        try {
+            return reader.next();
+        } catch (IOException e) {
+            throw new SaveException("Nie udało się odczytać pliku (zaimportowano %d darów): %s".formatted(importedCount, e.getMessage()), IMPORT_ERROR_TITLE);
+        }
+    }
+
+    private void flush(List<Donation> batch, List<Long> batchLines, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            donationRepository.insertAll(batch);
+            progress.imported += batch.size();
+            applicationMetrics.donationsImported(batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Donation import batch starting on line {} failed", batchLines.get(0), e);
+            batchLines.forEach(lineNumber -> progress.fail(lineNumber, "Nie udało się zapisać wiersza: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    private static Map<String, Integer> mapColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> missingColumns = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .toList();
+        if (!missingColumns.isEmpty()) {
+            throw new SaveException("Brak wymaganych kolumn: " + String.join(", ", missingColumns), IMPORT_ERROR_TITLE);
+        }
+        return columns;
+    }
+
+    private Donation toDonation(List<String> record, Map<String, Integer> columns, ImportLookup lookup) {
+        Donation donation = new Donation();
+        donation.setQuantity(parse(record, columns, "quantity", Integer::valueOf));
+        donation.setStreet(value(record, columns, "street"));
+        donation.setCity(value(record, columns, "city"));
+        donation.setZipCode(value(record, columns, "zip_code"));
+        donation.setPickUpDate(parse(record, columns, "pick_up_date", LocalDate::parse));
+        donation.setPickUpTime(parse(record, columns, "pick_up_time", LocalTime::parse));
+        donation.setPickUpComment(value(record, columns, "pick_up_comment"));
+        donation.setPhoneNumber(value(record, columns, "phone_number"));
+        donation.setInstitution(lookup.institution(value(record, columns, "institution")));
+        donation.setCategories(lookup.categories(value(record, columns, "categories")));
+        donation.setUser(lookup.user(value(record, columns, "user_email")));
+
+        LocalDateTime created = parse(record, columns, "created", text -> LocalDateTime.parse(text, DATE_TIME_FORMATTER));
+        donation.setCreated(created == null ? LocalDateTime.now() : created);
+        donation.setReceived(Boolean.TRUE.equals(parse(record, columns, "received", Boolean::valueOf)));
+        donation.setDonationPassedTime(parse(record, columns, "donation_passed_time", text -> LocalDateTime.parse(text, DATE_TIME_FORMATTER)));
+
+        validate(donation);
+        return donation;
+    }
+
+//    historical pick up dates are in the past by definition, every other constraint of the form still applies
+    private void validate(Donation donation) {
+        String violations = validator.validate(donation).stream()
+                .filter(violation -> !(violation.getConstraintDescriptor().getAnnotation() instanceof Future))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations);
+        }
+    }
+
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(List<String> record, Map<String, Integer> columns, String column, Function<String, T> parser) {
+        String value = value(record, columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Nieprawidłowa wartość w kolumnie " + column + ": " + value);
+        }
+    }
+
+    private static final class ImportProgress {
+        private long imported;
+        private long failed;
+        private final List<DonationImportError> errors = new ArrayList<>();
+
+        private void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new DonationImportError(lineNumber, message));
+            }
+        }
+    }
+
+//    reference data is loaded once per import, donors only as ids when their email first shows up,
+//    the least recently seen emails drop out of the map so a file with many donors does not grow it without end
+    private final class ImportLookup {
+        private final Map<String, Institution> institutionsByName = institutionRepository.findAll().stream()
+                .collect(Collectors.toMap(institution -> normalize(institution.getName()), Function.identity(), (first, second) -> first));
+        private final Map<String, Category> categoriesByName = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(category -> normalize(category.getName()), Function.identity(), (first, second) -> first));
+        private final Map<String, Optional<Long>> userIdsByEmail = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Long>> eldest) {
+                return size() > MAX_CACHED_USER_IDS;
+            }
+        };
+
+        private Institution institution(String name) {
+            if (name == null) {
+                return null;
+            }
+            Institution institution = institutionsByName.get(normalize(name));
+            if (institution == null) {
+                throw new IllegalArgumentException("Nieznana instytucja: " + name);
+            }
+            return institution;
+        }
+
+        private List<Category> categories(String names) {
+            if (names == null) {
+                return new ArrayList<>();
+            }
+            List<Category> categories = new ArrayList<>();
+            for (String name : names.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                Category category = categoriesByName.get(normalize(name));
+                if (category == null) {
+                    throw new IllegalArgumentException("Nieznana kategoria: " + name.trim());
+                }
+                if (!categories.contains(category)) {
+                    categories.add(category);
+                }
+            }
+            return categories;
+        }
+
+        private User user(String email) {
+            if (email == null) {
+                return null;
+            }
+            Long userId = userIdsByEmail.computeIfAbsent(normalize(email), userRepository::findIdByNormalizedEmail)
+                    .orElseThrow(() -> new IllegalArgumentException("Nieznany użytkownik: " + email));
+
+//            the batch insert only writes the id, a fresh reference per row keeps donations from piling up on a shared user
+            User user = new User();
+            user.setId(userId);
+            return user;
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,40 +3,71 @@ package pl.mateuszmarcyk.charity_donation_app.service;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
+import pl.mateuszmarcyk.charity_donation_app.exception.SaveException;
 import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
-import pl.mateuszmarcyk.charity_donation_app.util.event.DonationProcessCompleteEvent;
+import pl.mateuszmarcyk.charity_donation_app.util.ApplicationMetrics;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkOperation;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkResult;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationCursor;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationKey;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationPage;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationSortType;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class DonationService {
 
+    private static final int DONATIONS_PAGE_SIZE = 20;
+    private static final int MAX_USER_DONATIONS_PAGE_SIZE = 50;
+    static final int MAX_BULK_DONATIONS = 500;
+    private static final String ID_PROPERTY = "id";
+    private static final Sort UNRECEIVED_FIRST_SORT = Sort.by(Sort.Direction.DESC, "received");
+    private static final Map<String, Sort> USER_DONATION_SORTS = Map.of(
+            "created", Sort.by(Sort.Direction.DESC, "created"),
+            "quantity desc", Sort.by(Sort.Direction.DESC, "quantity"),
+            "quantity asc", Sort.by(Sort.Direction.ASC, "quantity"),
+            "received asc", Sort.by(Sort.Direction.ASC, "received"),
+            "received desc", UNRECEIVED_FIRST_SORT
+    );
+
     private final DonationRepository donationRepository;
-    private final ApplicationEventPublisher publisher;
+    private final DonationStatisticsService donationStatisticsService;
+    private final OutboxService outboxService;
+    private final ApplicationMetrics applicationMetrics;
 
     public Integer countAllDonations() {
-        Integer allDonations = donationRepository.countAll();
-        return allDonations == null ? 0 : allDonations;
+        return donationStatisticsService.getDonationCount();
     }
 
     public Integer countAllBags() {
-        Integer allBags =  donationRepository.countAllBags();
-        return allBags == null ? 0 : allBags;
+        return donationStatisticsService.getBagCount();
     }
 
     @Transactional
     public void save(@Valid Donation donation) {
         Donation savedDonation = donationRepository.save(donation);
+        donationStatisticsService.recordDonationAdded(savedDonation);
 
-        publisher.publishEvent(new DonationProcessCompleteEvent(savedDonation, donation.getUser()));
+        outboxService.record(OutboxEventType.DONATION_PROCESS_COMPLETE, savedDonation.getId(), null);
+        applicationMetrics.donationCreated();
     }
 
     public Donation findDonationById(Long id) {
@@ -48,32 +79,54 @@ public class DonationService {
         donationToArchive.setReceived(true);
         donationToArchive.setDonationPassedTime(LocalDateTime.now());
         donationRepository.save(donationToArchive);
+        applicationMetrics.donationArchived();
     }
 
-    public List<Donation> getDonationsForUserSortedBy(String sortType, User loggedUser) {
-        if (sortType != null) {
-            return switch (sortType) {
-                case "created" -> donationRepository.findAllDonationsByUserSortedByCreated(loggedUser);
-                case "quantity desc" -> donationRepository.findAllDonationsByUserSortedByQuantityDesc(loggedUser);
-                case "quantity asc" -> donationRepository.findAllDonationsByUserSortedByQuantityAsc(loggedUser);
-                case "received asc" -> donationRepository.findAllDonationsByUserSortedByReceived(loggedUser);
-                default -> donationRepository.findAllDonationsByUserSortedByUnreceived(loggedUser);
-            };
+    public Page<DonationRow> getDonationsForUserSortedBy(String sortType, User loggedUser, int page, int size) {
+        Sort sort = sortType == null ? Sort.unsorted() : USER_DONATION_SORTS.getOrDefault(sortType, UNRECEIVED_FIRST_SORT);
+        int pageSize = Math.min(Math.max(size, 1), MAX_USER_DONATIONS_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize, sort.and(Sort.by(ID_PROPERTY)));
+
+        Page<Long> donationIds = donationRepository.findIdsByUser(loggedUser, pageable);
+        List<DonationRow> donationRows = findDonationRows(donationIds.getContent());
+
+        return new PageImpl<>(donationRows, donationIds.getPageable(), donationIds.getTotalElements());
+    }
+
+    public DonationPage findAllPage(String sortTypeName, String afterCursor, String beforeCursor) {
+        DonationSortType sortType = DonationSortType.fromSortTypeName(sortTypeName);
+        boolean backward = afterCursor == null && beforeCursor != null;
+        KeysetScrollPosition position = DonationCursor.decode(backward ? beforeCursor : afterCursor, sortType, backward);
+
+        Window<DonationKey> window = donationRepository.findKeysBy(position, sortType.getSort(), Limit.of(DONATIONS_PAGE_SIZE));
+        List<DonationKey> donationKeys = window.getContent();
+
+        if (donationKeys.isEmpty()) {
+            return new DonationPage(List.of(), null, null);
         }
-            return donationRepository.findAllDonationsByUser(loggedUser);
 
+        List<DonationRow> donations = findDonationRows(donationKeys.stream().map(DonationKey::getId).toList());
+        String firstCursor = DonationCursor.encode(window.positionAt(0), sortType);
+        String lastCursor = DonationCursor.encode(window.positionAt(donationKeys.size() - 1), sortType);
+
+        if (position.scrollsBackward()) {
+            return new DonationPage(donations, window.hasNext() ? firstCursor : null, lastCursor);
         }
+        return new DonationPage(donations, position.isInitial() ? null : firstCursor, window.hasNext() ? lastCursor : null);
+    }
 
-    public List<Donation> findAll(String sortType) {
-        if (sortType != null) {
-            return switch (sortType) {
-                case "quantity desc" -> donationRepository.findAllDonationsByQuantityDesc();
-                case "quantity asc" -> donationRepository.findAllDonationsSortedByQuantityAsc();
-                case "received asc" -> donationRepository.findAllDonationsSortedByReceivedAsc();
-                default -> donationRepository.findAllDonationsSortedByCreated();
-            };
+//    rows come back grouped in arbitrary order, so they are put back in the order of the page ids
+    private List<DonationRow> findDonationRows(List<Long> donationIds) {
+        if (donationIds.isEmpty()) {
+            return List.of();
         }
-        return donationRepository.findAllDonationsSortedByCreated();
+
+        Map<Long, DonationRow> rowsById = donationRepository.findRowsByIdIn(donationIds).stream()
+                .collect(Collectors.toMap(DonationRow::getId, Function.identity()));
+
+        return donationIds.stream()
+                .map(rowsById::get)
+                .toList();
     }
 
     @Transactional
@@ -81,6 +134,7 @@ public class DonationService {
         donationToArchive.setReceived(false);
         donationToArchive.setDonationPassedTime(null);
         donationRepository.save(donationToArchive);
+        applicationMetrics.donationUnarchived();
     }
 
     @Transactional
@@ -96,6 +150,41 @@ public class DonationService {
         }
 
         donationRepository.delete(donationToDelete);
+        donationStatisticsService.recordDonationRemoved(donationToDelete);
+        applicationMetrics.donationDeleted();
+    }
+
+    @Transactional
+    public DonationBulkResult archiveDonations(Collection<Long> ids) {
+        Set<Long> donationIds = toBulkIds(ids);
+        int archived = donationIds.isEmpty() ? 0 : donationRepository.updateReceivedByIdIn(donationIds, true, LocalDateTime.now());
+        applicationMetrics.donationsArchived(archived);
+        return new DonationBulkResult(DonationBulkOperation.ARCHIVE, donationIds.size(), archived);
+    }
+
+    @Transactional
+    public DonationBulkResult unArchiveDonations(Collection<Long> ids) {
+        Set<Long> donationIds = toBulkIds(ids);
+        int unarchived = donationIds.isEmpty() ? 0 : donationRepository.updateReceivedByIdIn(donationIds, false, null);
+        applicationMetrics.donationsUnarchived(unarchived);
+        return new DonationBulkResult(DonationBulkOperation.UNARCHIVE, donationIds.size(), unarchived);
+    }
+
+//    join rows go first, the bags are summed before the rows disappear so the cached statistics stay exact
+    @Transactional
+    public DonationBulkResult deleteDonations(Collection<Long> ids) {
+        Set<Long> donationIds = toBulkIds(ids);
+        if (donationIds.isEmpty()) {
+            return new DonationBulkResult(DonationBulkOperation.DELETE, 0, 0);
+        }
+
+        int quantity = donationRepository.sumQuantityByIdIn(donationIds);
+        donationRepository.deleteCategoryLinksByDonationIdIn(donationIds);
+        int deleted = donationRepository.deleteAllByIdIn(donationIds);
+
+        donationStatisticsService.recordDonationsRemoved(deleted, quantity);
+        applicationMetrics.donationsDeleted(deleted);
+        return new DonationBulkResult(DonationBulkOperation.DELETE, donationIds.size(), deleted);
     }
 
     public Donation getUserDonationById(User owner, Long id) {
@@ -108,4 +197,18 @@ public class DonationService {
         Donation donationToArchive = getUserDonationById(owner, id);
         archiveDonation(donationToArchive);
     }
+
+    private static Set<Long> toBulkIds(Collection<Long> ids) {
+        if (ids == null) {
+            return Set.of();
+        }
+
+        Set<Long> donationIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (donationIds.size() > MAX_BULK_DONATIONS) {
+            throw new SaveException("Jednorazowo można zmienić najwyżej %d darów, wybrano %d".formatted(MAX_BULK_DONATIONS, donationIds.size()), "Zbyt wiele darów");
+        }
+        return donationIds;
+    }
 }
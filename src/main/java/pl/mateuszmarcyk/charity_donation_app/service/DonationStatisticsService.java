@@ -0,0 +1,104 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DonationStatisticsService {
+
+    private final DonationRepository donationRepository;
+
+    private final AtomicInteger donationCount = new AtomicInteger();
+    private final AtomicInteger bagCount = new AtomicInteger();
+    private volatile boolean loaded;
+
+    public Integer getDonationCount() {
+        loadIfNecessary();
+        return donationCount.get();
+    }
+
+    public Integer getBagCount() {
+        loadIfNecessary();
+        return bagCount.get();
+    }
+
+    public void recordDonationAdded(Donation donation) {
+        int quantity = getQuantity(donation);
+        runAfterCommit(() -> {
+            donationCount.incrementAndGet();
+            bagCount.addAndGet(quantity);
+        });
+    }
+
+    public void recordDonationRemoved(Donation donation) {
+        int quantity = getQuantity(donation);
+        runAfterCommit(() -> {
+            donationCount.decrementAndGet();
+            bagCount.addAndGet(-quantity);
+        });
+    }
+
+    public void recordDonationsRemoved(int count, int quantity) {
+        runAfterCommit(() -> {
+            donationCount.addAndGet(-count);
+            bagCount.addAndGet(-quantity);
+        });
+    }
+
+//    updates committed while the aggregates are being read may be overwritten, the next run corrects them
+    @Scheduled(initialDelayString = "${donation.statistics.reconcile-interval-ms:300000}",
+            fixedDelayString = "${donation.statistics.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Integer allDonations = donationRepository.countAll();
+        Integer allBags = donationRepository.countAllBags();
+        int actualDonationCount = allDonations == null ? 0 : allDonations;
+        int actualBagCount = allBags == null ? 0 : allBags;
+
+        if (loaded && (donationCount.get() != actualDonationCount || bagCount.get() != actualBagCount)) {
+            log.warn("Donation statistics drifted: donations {} -> {}, bags {} -> {}",
+                    donationCount.get(), actualDonationCount, bagCount.get(), actualBagCount);
+        }
+
+        donationCount.set(actualDonationCount);
+        bagCount.set(actualBagCount);
+        loaded = true;
+    }
+
+    private void loadIfNecessary() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reconcile();
+                }
+            }
+        }
+    }
+
+    private void runAfterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static int getQuantity(Donation donation) {
+        return donation.getQuantity() == null ? 0 : donation.getQuantity();
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 public class InstitutionService {
 
     private final InstitutionRepository institutionRepository;
+    private final ReferenceDataCacheService referenceDataCacheService;
 
     public List<Institution> findAll() {
         return institutionRepository.findAll();
@@ -29,16 +30,17 @@ public class InstitutionService {
     public void saveInstitution(Institution institution) {
 
         institutionRepository.save(institution);
+        referenceDataCacheService.evictInstitutions();
     }
 
     @Transactional
     public void deleteIntitutionById(Long id) {
         Institution institution = findInstitutionById(id);
 
-        institution.getDonations().forEach(donation -> donation.setInstitution(null));
+        institutionRepository.detachDonations(institution.getId());
 
         institutionRepository.delete(institution);
-
+        referenceDataCacheService.evictInstitutions();
     }
 }
 
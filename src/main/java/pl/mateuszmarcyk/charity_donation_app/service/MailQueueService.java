@@ -0,0 +1,143 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMail;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMailStatus;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.repository.OutboundMailRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.AddressedMail;
+import pl.mateuszmarcyk.charity_donation_app.util.AppMailSender;
+import pl.mateuszmarcyk.charity_donation_app.util.Mail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class MailQueueService {
+
+    private static final Set<OutboundMailStatus> QUEUED_STATUSES = Set.of(OutboundMailStatus.PENDING, OutboundMailStatus.SENDING);
+    private static final Duration SENDING_LEASE = Duration.ofMinutes(10);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final AppMailSender appMailSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public MailQueueService(OutboundMailRepository outboundMailRepository,
+                            AppMailSender appMailSender,
+                            @Value("${mail.queue.batch-size:50}") int batchSize,
+                            @Value("${mail.queue.max-attempts:8}") int maxAttempts,
+                            @Value("${mail.queue.initial-backoff:30s}") Duration initialBackoff,
+                            @Value("${mail.queue.max-backoff:1h}") Duration maxBackoff) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.appMailSender = appMailSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+//    the table absorbs bursts instead of refusing them, a growing backlog shows up in the mail.queue.depth gauge
+    @Transactional
+    public void enqueue(User recipient, Mail mail) {
+        outboundMailRepository.save(new OutboundMail(recipient.getEmail(), mail));
+    }
+
+    public long getQueueDepth() {
+        return outboundMailRepository.countByStatusIn(QUEUED_STATUSES);
+    }
+
+//    mails left in SENDING by a crashed worker become claimable again once their lease expires
+    @Transactional
+    public List<Long> claimDueMails() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundMail> dueMails = outboundMailRepository.findByStatusInAndNextAttemptTimeLessThanEqualOrderByNextAttemptTime(QUEUED_STATUSES, now, Limit.of(batchSize));
+
+        dueMails.forEach(outboundMail -> {
+            outboundMail.setStatus(OutboundMailStatus.SENDING);
+            outboundMail.setNextAttemptTime(now.plus(SENDING_LEASE));
+        });
+
+        return outboundMailRepository.saveAllAndFlush(dueMails).stream().map(OutboundMail::getId).toList();
+    }
+
+    public void deliverBatch(List<Long> ids) {
+        Map<AddressedMail, OutboundMail> claimedMails = new LinkedHashMap<>();
+        outboundMailRepository.findAllById(ids).stream()
+                .filter(outboundMail -> outboundMail.getStatus() == OutboundMailStatus.SENDING)
+                .forEach(outboundMail -> claimedMails.put(new AddressedMail(outboundMail.getRecipient(), outboundMail.toMail()), outboundMail));
+
+        if (claimedMails.isEmpty()) {
+            return;
+        }
+
+        Map<AddressedMail, Exception> failures;
+        try {
+            failures = appMailSender.sendEmails(claimedMails.keySet());
+        } catch (RuntimeException e) {
+            failures = new HashMap<>();
+            for (AddressedMail addressedMail : claimedMails.keySet()) {
+                failures.put(addressedMail, e);
+            }
+        }
+
+        List<OutboundMail> deliveredMails = new ArrayList<>();
+        for (Map.Entry<AddressedMail, OutboundMail> claimedMail : claimedMails.entrySet()) {
+            Exception failure = failures.get(claimedMail.getKey());
+            if (failure == null) {
+                deliveredMails.add(claimedMail.getValue());
+            } else {
+                registerFailure(claimedMail.getValue(), failure);
+            }
+        }
+
+        if (!deliveredMails.isEmpty()) {
+            outboundMailRepository.deleteAll(deliveredMails);
+        }
+    }
+
+    private void registerFailure(OutboundMail outboundMail, Exception exception) {
+        int attempts = outboundMail.getAttempts() + 1;
+        outboundMail.setAttempts(attempts);
+        outboundMail.setLastError(abbreviate(exception.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            outboundMail.setStatus(OutboundMailStatus.DEAD);
+            log.error("Mail {} to {} moved to dead letter after {} attempts: {}", outboundMail.getId(), outboundMail.getRecipient(), attempts, exception.getMessage());
+        } else {
+            outboundMail.setStatus(OutboundMailStatus.PENDING);
+            outboundMail.setNextAttemptTime(LocalDateTime.now().plus(getBackoff(attempts)));
+            log.warn("Mail {} to {} failed on attempt {}: {}", outboundMail.getId(), outboundMail.getRecipient(), attempts, exception.getMessage());
+        }
+
+        outboundMailRepository.save(outboundMail);
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
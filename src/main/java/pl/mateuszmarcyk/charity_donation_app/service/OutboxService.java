@@ -0,0 +1,131 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEvent;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.OutboxEventRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.event.DonationProcessCompleteEvent;
+import pl.mateuszmarcyk.charity_donation_app.util.event.RegistrationCompleteEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DonationRepository donationRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         DonationRepository donationRepository,
+                         UserRepository userRepository,
+                         ApplicationEventPublisher publisher,
+                         @Value("${outbox.relay.batch-size:100}") int batchSize,
+                         @Value("${outbox.relay.max-attempts:15}") int maxAttempts,
+                         @Value("${outbox.relay.initial-backoff:10s}") Duration initialBackoff,
+                         @Value("${outbox.relay.max-backoff:1h}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.donationRepository = donationRepository;
+        this.userRepository = userRepository;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Transactional
+    public void record(OutboxEventType eventType, Long aggregateId, String payload) {
+        OutboxEvent outboxEvent = new OutboxEvent(eventType, aggregateId, payload);
+        if (outboxEventRepository.existsByDedupKey(outboxEvent.getDedupKey())) {
+            log.info("Outbox event {} already recorded", outboxEvent.getDedupKey());
+            return;
+        }
+
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    public List<Long> findPendingEventIds() {
+        return outboxEventRepository.findByAttemptsLessThanAndNextAttemptTimeLessThanEqualOrderByNextAttemptTimeAscIdAsc(maxAttempts, LocalDateTime.now(), Limit.of(batchSize)).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+    }
+
+//    listeners write to the same database, so their work and the removal of the event commit together
+    @Transactional
+    public void process(Long id) {
+        OutboxEvent outboxEvent = outboxEventRepository.findById(id).orElse(null);
+        if (outboxEvent == null) {
+            return;
+        }
+
+        Optional<ApplicationEvent> applicationEvent = toApplicationEvent(outboxEvent);
+        if (applicationEvent.isPresent()) {
+            publisher.publishEvent(applicationEvent.get());
+        } else {
+            log.info("Skipping outbox event {}, its {} no longer exists", outboxEvent.getDedupKey(), outboxEvent.getAggregateId());
+        }
+
+        outboxEventRepository.delete(outboxEvent);
+    }
+
+//    backs off exponentially so an outage of the mail queue or the database is waited out instead of burning every attempt within seconds
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void registerFailure(Long id, Exception exception) {
+        outboxEventRepository.findById(id).ifPresent(outboxEvent -> {
+            int attempts = outboxEvent.getAttempts() + 1;
+            outboxEvent.setAttempts(attempts);
+            outboxEvent.setLastError(abbreviate(exception.getMessage()));
+            outboxEvent.setNextAttemptTime(LocalDateTime.now().plus(getBackoff(attempts)));
+            outboxEventRepository.save(outboxEvent);
+
+            if (attempts >= maxAttempts) {
+                log.error("Outbox event {} abandoned after {} attempts: {}", outboxEvent.getDedupKey(), attempts, exception.getMessage());
+            } else {
+                log.warn("Outbox event {} failed on attempt {}: {}", outboxEvent.getDedupKey(), attempts, exception.getMessage());
+            }
+        });
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private Optional<ApplicationEvent> toApplicationEvent(OutboxEvent outboxEvent) {
+        return switch (outboxEvent.getEventType()) {
+            case DONATION_PROCESS_COMPLETE -> donationRepository.findById(outboxEvent.getAggregateId())
+                    .map(donation -> new DonationProcessCompleteEvent(donation, donation.getUser()));
+            case REGISTRATION_COMPLETE -> userRepository.findById(outboxEvent.getAggregateId())
+                    .map(user -> new RegistrationCompleteEvent(user, outboxEvent.getPayload()));
+        };
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
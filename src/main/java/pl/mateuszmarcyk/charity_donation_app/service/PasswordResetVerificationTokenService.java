@@ -1,12 +1,16 @@
 package pl.mateuszmarcyk.charity_donation_app.service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.PasswordResetVerificationTokenRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 
 @Service
@@ -25,4 +29,14 @@ public class PasswordResetVerificationTokenService {
         String tokenNotFoundMessage = messageSource.getMessage("error.tokennotfound.message", null, Locale.getDefault());
         return passwordResetVerificationTokenRepository.findByToken(token).orElseThrow(() -> new TokenNotFoundException(tokenErrorTitle , tokenNotFoundMessage));
     }
+
+    @Transactional
+    public int deleteExpiredTokens(LocalDateTime expiredBefore, int batchSize) {
+        List<Long> expiredTokenIds = passwordResetVerificationTokenRepository.findIdsByExpirationTimeBefore(expiredBefore, Limit.of(batchSize));
+        if (expiredTokenIds.isEmpty()) {
+            return 0;
+        }
+
+        return passwordResetVerificationTokenRepository.deleteAllByIdIn(expiredTokenIds);
+    }
 }
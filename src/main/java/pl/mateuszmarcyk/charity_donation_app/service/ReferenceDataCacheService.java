@@ -0,0 +1,90 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.repository.CategoryRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.InstitutionRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.CacheRegionStats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+public class ReferenceDataCacheService {
+
+    static final List<String> ENTITY_REGIONS = List.of("categories", "institutions", "user-types");
+    static final List<String> QUERY_REGIONS = List.of(CategoryRepository.CATEGORIES_QUERY_REGION, InstitutionRepository.INSTITUTIONS_QUERY_REGION);
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public ReferenceDataCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+//    only writes made through CategoryService and InstitutionService evict, rows changed by direct SQL or on another node
+//    stay cached on this node until the entries are evicted by size or the node restarts
+    public void evictCategories() {
+        runAfterCommit(() -> {
+            sessionFactory.getCache().evictEntityData(Category.class);
+            sessionFactory.getCache().evictQueryRegion(CategoryRepository.CATEGORIES_QUERY_REGION);
+            log.debug("Category cache evicted");
+        });
+    }
+
+    public void evictInstitutions() {
+        runAfterCommit(() -> {
+            sessionFactory.getCache().evictEntityData(Institution.class);
+            sessionFactory.getCache().evictQueryRegion(InstitutionRepository.INSTITUTIONS_QUERY_REGION);
+            log.debug("Institution cache evicted");
+        });
+    }
+
+    public List<CacheRegionStats> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStats> regionStats = new ArrayList<>();
+
+        ENTITY_REGIONS.forEach(region -> regionStats.add(toStats(region, statistics.getDomainDataRegionStatistics(region))));
+        QUERY_REGIONS.forEach(region -> regionStats.add(toStats(region, queryRegionExists(region) ? statistics.getQueryRegionStatistics(region) : null)));
+
+        return regionStats;
+    }
+
+//    Hibernate remembers a statistics lookup for a query region that is not created yet as missing for good, later misses in that region then fail
+    private boolean queryRegionExists(String region) {
+        return !(sessionFactory.getCache() instanceof CacheImplementor cache) || cache.getQueryResultsCacheStrictly(region) != null;
+    }
+
+    private static CacheRegionStats toStats(String region, CacheRegionStatistics statistics) {
+        if (statistics == null) {
+            return new CacheRegionStats(region, 0, 0, 0);
+        }
+        return new CacheRegionStats(region, statistics.getHitCount(), statistics.getMissCount(), statistics.getPutCount());
+    }
+
+//    evicting before commit would let a concurrent reader cache the old rows again
+    private void runAfterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.BloomFilter;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+//    answers "certainly not registered" without a query; a "maybe" still goes to the database,
+//    emails registered on another instance reach this one with the next rebuild and the unique index guards them until then
+@Slf4j
+@Service
+public class RegisteredEmailFilter {
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    private final Set<String> recordedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter filter;
+    private volatile boolean rebuilding;
+
+    @Autowired
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 @Value("${user.email-filter.expected-users:100000}") long expectedUsers,
+                                 @Value("${user.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean mightBeRegistered(String email) {
+        BloomFilter currentFilter = filter;
+        return currentFilter == null || currentFilter.mightContain(normalize(email));
+    }
+
+//    called before the user is saved, a rolled back registration only leaves a false positive behind
+    public void recordEmail(String email) {
+        if (email == null) {
+            return;
+        }
+
+        String normalizedEmail = normalize(email);
+        if (rebuilding) {
+            recordedDuringRebuild.add(normalizedEmail);
+        }
+        BloomFilter currentFilter = filter;
+        if (currentFilter != null) {
+            currentFilter.put(normalizedEmail);
+        }
+    }
+
+//    a fresh filter also forgets the emails of deleted users and the old emails of users who changed them
+    @Transactional
+    @Scheduled(initialDelay = 0, fixedDelayString = "${user.email-filter.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            long registeredUsers = userRepository.count();
+            BloomFilter rebuiltFilter = new BloomFilter(Math.max(registeredUsers * 2, expectedUsers), falsePositiveRate);
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.map(RegisteredEmailFilter::normalize).forEach(rebuiltFilter::put);
+            }
+            filter = rebuiltFilter;
+        } finally {
+            rebuilding = false;
+        }
+
+        BloomFilter currentFilter = filter;
+        for (Iterator<String> iterator = recordedDuringRebuild.iterator(); iterator.hasNext(); ) {
+            String email = iterator.next();
+            if (currentFilter != null) {
+                currentFilter.put(email);
+            }
+            iterator.remove();
+        }
+        log.debug("Registered email filter rebuilt");
+    }
+}
@@ -6,8 +6,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
-import pl.mateuszmarcyk.charity_donation_app.util.event.RegistrationCompleteEvent;
 import pl.mateuszmarcyk.charity_donation_app.util.event.ResendTokenEvent;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
 import java.util.Locale;
@@ -19,6 +19,7 @@ public class RegistrationService {
     private final UserService userService;
     private final ApplicationEventPublisher publisher;
     private final MessageSource messageSource;
+    private final OutboxService outboxService;
 
     public String getApplicationUrl(HttpServletRequest request) {
         return "http://" + request.getServerName() + ":" + request.getServerPort() + request.getContextPath();
@@ -29,7 +30,7 @@ public class RegistrationService {
 
         User savedUser = userService.save(user);
 
-        publisher.publishEvent(new RegistrationCompleteEvent(savedUser, getApplicationUrl(request)));
+        outboxService.record(OutboxEventType.REGISTRATION_COMPLETE, savedUser.getId(), getApplicationUrl(request));
     }
 
     public void resendToken(String oldToken, HttpServletRequest request) {
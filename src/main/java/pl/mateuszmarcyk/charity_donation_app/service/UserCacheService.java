@@ -0,0 +1,78 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.CacheRegionStats;
+
+import java.time.Duration;
+import java.util.Optional;
+
+//    holds detached snapshots for read-only paths, never hand them to code that persists or lazily loads associations;
+//    the snapshot of another node can be a TTL old, so logins read the database through CustomUserDetailsService
+@Slf4j
+@Service
+public class UserCacheService {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> usersById;
+
+    @Autowired
+    public UserCacheService(UserRepository userRepository,
+                            @Value("${user.cache.ttl:60s}") Duration ttl,
+                            @Value("${user.cache.maximum-size:10000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.usersById = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(usersById.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        runAfterCommit(() -> {
+            usersById.invalidate(userId);
+            log.debug("User {} evicted from cache", userId);
+        });
+    }
+
+    public CacheRegionStats getStatistics() {
+        CacheStats stats = usersById.stats();
+        return new CacheRegionStats("users", stats.hitCount(), stats.missCount(), stats.loadSuccessCount());
+    }
+
+//    evicting before commit would let a concurrent reader cache the old row again
+    private void runAfterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -6,10 +6,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import pl.mateuszmarcyk.charity_donation_app.entity.*;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.exception.EntityDeletionException;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenAlreadyConsumedException;
@@ -32,6 +34,9 @@ public class UserService {
     private static final String ADMIN_ROLE_ROLE = "ROLE_ADMIN";
     private static final String USER_NOT_FOUND_EXCEPTION_TITLE = "Brak użytkownika";
     private static final String USER_NOT_FOUND_EXCEPTION_MESSAGE= "Użytkownik nie istnieje";
+    private static final String EMAIL_ALREADY_USED_TITLE = "Email zajęty";
+    private static final String EMAIL_ALREADY_USED_MESSAGE = "Ten email jest już w użyciu";
+    private static final String EMAIL_UNIQUE_INDEX = "uk_users_email_normalized";
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
@@ -40,6 +45,8 @@ public class UserService {
     private final ApplicationEventPublisher publisher;
     private final PasswordResetVerificationTokenService passwordResetVerificationTokenService;
     private final MessageSource messageSource;
+    private final UserCacheService userCacheService;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
     @Transactional
     public User save(User user) {
@@ -52,7 +59,8 @@ public class UserService {
 
         user.addUserType(userRoleType);
         user.setUserProfile(new UserProfile());
-        return userRepository.save(user);
+        registeredEmailFilter.recordEmail(user.getEmail());
+        return saveWithUniqueEmail(user);
     }
 
     public User findUserByEmail(String email) {
@@ -81,6 +89,7 @@ public class UserService {
 
         user.setEnabled(true);
         userRepository.save(user);
+        userCacheService.evict(user.getId());
     }
 
     @Transactional
@@ -119,14 +128,24 @@ public class UserService {
        return userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_TITLE, USER_NOT_FOUND_EXCEPTION_MESSAGE));
     }
 
+    public User findCachedUserById(Long id) {
+        return userCacheService.findById(id).orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_TITLE, USER_NOT_FOUND_EXCEPTION_MESSAGE));
+    }
+
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
     @Transactional
     public void updateUserEmail(@Valid User userToEdit) {
 
         User userInDatabase = findUserById(userToEdit.getId());
 
         userInDatabase.setEmail(userToEdit.getEmail());
+        registeredEmailFilter.recordEmail(userInDatabase.getEmail());
 
-        userRepository.save(userInDatabase);
+        saveWithUniqueEmail(userInDatabase);
+        userCacheService.evict(userInDatabase.getId());
     }
 
     @Transactional
@@ -140,6 +159,7 @@ public class UserService {
         }
         userFromDatabase.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(userFromDatabase);
+        userCacheService.evict(userFromDatabase.getId());
     }
 
     public User findUserByProfileId(Long id) {
@@ -150,6 +170,7 @@ public class UserService {
     @Transactional
     public void updateUser(User user) {
         userRepository.save(user);
+        userCacheService.evict(user.getId());
     }
 
     @Transactional
@@ -164,10 +185,11 @@ public class UserService {
             }
         }
 
-        userToDelete.getDonations().forEach(donation -> donation.setUser(null));
+        userRepository.detachDonations(userToDelete.getId());
         userToDelete.getUserTypes().forEach(userType -> userType.removeUser(userToDelete));
 
         userRepository.delete(userToDelete);
+        userCacheService.evict(userToDelete.getId());
     }
 
     public List<User> findAllUsers(User user) {
@@ -182,6 +204,7 @@ public class UserService {
 
         userToBlock.setBlocked(true);
         userRepository.save(userToBlock);
+        userCacheService.evict(userToBlock.getId());
     }
 
     @Transactional
@@ -191,6 +214,7 @@ public class UserService {
 
         userToUnblock.setBlocked(false);
         userRepository.save(userToUnblock);
+        userCacheService.evict(userToUnblock.getId());
     }
 
     @Transactional
@@ -199,6 +223,7 @@ public class UserService {
         UserType userType = userTypeService.findById(ADMIN_USER_TYPE_ID);
         userToUpgrade.addUserType(userType);
         userRepository.save(userToUpgrade);
+        userCacheService.evict(userToUpgrade.getId());
     }
 
     @Transactional
@@ -215,6 +240,7 @@ public class UserService {
 
             UserType userType = userTypeService.findById(ADMIN_USER_TYPE_ID);
             userToDowngrade.removeUserType(userType);
+            userCacheService.evict(userToDowngrade.getId());
             return userRepository.save(userToDowngrade);
         } else {
             throw new EntityDeletionException("Nie usunąć funkcji admina", "Ten użytkownik nie posiada statusu admina");
@@ -238,6 +264,32 @@ public class UserService {
     public User changeEmail(@Valid User userToEdit) {
         User userFromDatabase = findUserById(userToEdit.getId());
         userFromDatabase.setEmail(userToEdit.getEmail());
-        return userRepository.save(userFromDatabase);
+        registeredEmailFilter.recordEmail(userFromDatabase.getEmail());
+        userCacheService.evict(userFromDatabase.getId());
+        return saveWithUniqueEmail(userFromDatabase);
+    }
+
+//    UniqueEmail trusts a filter that can be stale on another node, so the unique index may still refuse the email;
+//    flushing here turns that refusal into the same error the form shows instead of a failed commit
+    private User saveWithUniqueEmail(User user) {
+        try {
+            User savedUser = userRepository.save(user);
+            userRepository.flush();
+            return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailIndexViolation(e)) {
+                throw new EmailAlreadyUsedException(EMAIL_ALREADY_USED_MESSAGE, EMAIL_ALREADY_USED_TITLE);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailIndexViolation(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_UNIQUE_INDEX)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
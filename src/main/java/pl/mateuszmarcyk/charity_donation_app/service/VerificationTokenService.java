@@ -3,11 +3,14 @@ package pl.mateuszmarcyk.charity_donation_app.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.VerificationTokenRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 
 
@@ -30,4 +33,15 @@ public class VerificationTokenService {
 
         return verificationTokenRepository.findByToken(token).orElseThrow(() -> new TokenNotFoundException(tokenErrorTitle , tokenNotFoundMessage));
     }
+
+//    one short transaction per chunk, so the delete never holds locks on the whole table
+    @Transactional
+    public int deleteExpiredTokens(LocalDateTime expiredBefore, int batchSize) {
+        List<Long> expiredTokenIds = verificationTokenRepository.findIdsByExpirationTimeBefore(expiredBefore, Limit.of(batchSize));
+        if (expiredTokenIds.isEmpty()) {
+            return 0;
+        }
+
+        return verificationTokenRepository.deleteAllByIdIn(expiredTokenIds);
+    }
 }
@@ -0,0 +1,11 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AddressedMail {
+    private String recipient;
+    private Mail mail;
+}
@@ -4,12 +4,18 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class AppMailSender {
@@ -17,12 +23,15 @@ public class AppMailSender {
     private final JavaMailSender mailSender;
     private final String appEmail;
     private final MimeMessageHelperFactory mimeMessageHelperFactory;
+    private final ApplicationMetrics applicationMetrics;
 
     @Autowired
-    public AppMailSender(JavaMailSender mailSender, @Value("${spring.mail.username}") String appEmail, MimeMessageHelperFactory mimeMessageHelperFactory) {
+    public AppMailSender(JavaMailSender mailSender, @Value("${spring.mail.username}") String appEmail, MimeMessageHelperFactory mimeMessageHelperFactory,
+                         ApplicationMetrics applicationMetrics) {
         this.mailSender = mailSender;
         this.appEmail = appEmail;
         this.mimeMessageHelperFactory = mimeMessageHelperFactory;
+        this.applicationMetrics = applicationMetrics;
 
     }
 
@@ -32,7 +41,56 @@ public class AppMailSender {
         var messageHelper = getMimeMessageHelper(mimeMessage, mail);
 
         messageHelper.setTo(user.getEmail());
-        mailSender.send(mimeMessage);
+        send(mimeMessage);
+    }
+
+    public void sendEmail(String recipient, Mail mail) throws MessagingException, UnsupportedEncodingException {
+
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        var messageHelper = getMimeMessageHelper(mimeMessage, mail);
+
+        messageHelper.setTo(recipient);
+        send(mimeMessage);
+    }
+
+//    all prepared messages go over a single SMTP connection; returns the mails that could not be delivered
+    public Map<AddressedMail, Exception> sendEmails(Collection<AddressedMail> mails) {
+
+        Map<AddressedMail, Exception> failures = new HashMap<>();
+        Map<MimeMessage, AddressedMail> preparedMessages = new LinkedHashMap<>();
+
+        for (AddressedMail addressedMail : mails) {
+            try {
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                var messageHelper = getMimeMessageHelper(mimeMessage, addressedMail.getMail());
+                messageHelper.setTo(addressedMail.getRecipient());
+                preparedMessages.put(mimeMessage, addressedMail);
+            } catch (MessagingException | UnsupportedEncodingException | RuntimeException e) {
+                failures.put(addressedMail, e);
+            }
+        }
+
+        if (preparedMessages.isEmpty()) {
+            return failures;
+        }
+
+        long start = System.nanoTime();
+        int preparationFailures = failures.size();
+        try {
+            mailSender.send(preparedMessages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                preparedMessages.values().forEach(addressedMail -> failures.put(addressedMail, e));
+            } else {
+                e.getFailedMessages().forEach((message, exception) -> failures.put(preparedMessages.get(message), exception));
+            }
+        } catch (MailException e) {
+            preparedMessages.values().forEach(addressedMail -> failures.put(addressedMail, e));
+        }
+        int sendFailures = failures.size() - preparationFailures;
+        applicationMetrics.mailSendCompleted(System.nanoTime() - start, preparedMessages.size() - sendFailures, failures.size());
+
+        return failures;
     }
 
     public void sendMailMessage(Mail mail) throws MessagingException, UnsupportedEncodingException {
@@ -42,7 +100,18 @@ public class AppMailSender {
 
         messageHelper.setTo(appEmail);
 
-        mailSender.send(mimeMessage);
+        send(mimeMessage);
+    }
+
+    private void send(MimeMessage mimeMessage) {
+        long start = System.nanoTime();
+        try {
+            mailSender.send(mimeMessage);
+        } catch (MailException e) {
+            applicationMetrics.mailSendCompleted(System.nanoTime() - start, 0, 1);
+            throw e;
+        }
+        applicationMetrics.mailSendCompleted(System.nanoTime() - start, 1, 0);
     }
 
     private MimeMessageHelper getMimeMessageHelper(MimeMessage mimeMessage, Mail mail) throws MessagingException, UnsupportedEncodingException {
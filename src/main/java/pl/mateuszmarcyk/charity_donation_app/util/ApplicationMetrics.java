@@ -0,0 +1,84 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+//    meters are registered once, so the hot paths only increment already resolved counters
+@Component
+public class ApplicationMetrics {
+
+    private final Counter donationsCreated;
+    private final Counter donationsArchived;
+    private final Counter donationsUnarchived;
+    private final Counter donationsDeleted;
+    private final Counter donationsImported;
+    private final Timer mailSendTimer;
+    private final Counter mailsSent;
+    private final Counter mailsFailed;
+
+    public ApplicationMetrics(MeterRegistry meterRegistry) {
+        this.donationsCreated = donationCounter(meterRegistry, "created");
+        this.donationsArchived = donationCounter(meterRegistry, "archived");
+        this.donationsUnarchived = donationCounter(meterRegistry, "unarchived");
+        this.donationsDeleted = donationCounter(meterRegistry, "deleted");
+        this.donationsImported = donationCounter(meterRegistry, "imported");
+        this.mailSendTimer = Timer.builder("mail.send")
+                .description("Time spent handing messages to the SMTP server, one sample per connection")
+                .register(meterRegistry);
+        this.mailsSent = Counter.builder("mail.messages")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.mailsFailed = Counter.builder("mail.messages")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    public void donationCreated() {
+        donationsCreated.increment();
+    }
+
+    public void donationArchived() {
+        donationsArchived.increment();
+    }
+
+    public void donationUnarchived() {
+        donationsUnarchived.increment();
+    }
+
+    public void donationDeleted() {
+        donationsDeleted.increment();
+    }
+
+    public void donationsArchived(int count) {
+        donationsArchived.increment(count);
+    }
+
+    public void donationsUnarchived(int count) {
+        donationsUnarchived.increment(count);
+    }
+
+    public void donationsDeleted(int count) {
+        donationsDeleted.increment(count);
+    }
+
+    public void donationsImported(int count) {
+        donationsImported.increment(count);
+    }
+
+    public void mailSendCompleted(long elapsedNanos, int sentCount, int failedCount) {
+        mailSendTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        mailsSent.increment(sentCount);
+        mailsFailed.increment(failedCount);
+    }
+
+    private static Counter donationCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("donations")
+                .description("Donation lifecycle operations")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+//    reads RFC 4180 records one at a time, quoted fields may contain separators, quotes and line breaks
+public class CsvRecordReader {
+
+    private static final int END_OF_STREAM = -1;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private long recordLineNumber;
+    private int pushedBack = END_OF_STREAM;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+//    line of the input on which the last returned record started
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    public List<String> next() throws IOException {
+        int character = read();
+        if (character == END_OF_STREAM) {
+            return null;
+        }
+
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        field.setLength(0);
+
+        while (true) {
+            if (quoted) {
+                if (character == END_OF_STREAM) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLineNumber);
+                }
+                if (character == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pushedBack = following;
+                    }
+                } else {
+                    countLine(character);
+                    field.append((char) character);
+                }
+            } else if (character == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (character == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (character == '\r' || character == '\n' || character == END_OF_STREAM) {
+                if (character == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushedBack = following;
+                    }
+                }
+                if (character != END_OF_STREAM) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) character);
+            }
+            character = read();
+        }
+    }
+
+    private void countLine(int character) {
+        if (character == '\n') {
+            lineNumber++;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != END_OF_STREAM) {
+            int character = pushedBack;
+            pushedBack = END_OF_STREAM;
+            return character;
+        }
+        return reader.read();
+    }
+}
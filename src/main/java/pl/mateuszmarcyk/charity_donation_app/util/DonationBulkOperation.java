@@ -0,0 +1,17 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.Getter;
+
+@Getter
+public enum DonationBulkOperation {
+
+    ARCHIVE("Oznaczono jako odebrane"),
+    UNARCHIVE("Oznaczono jako nieodebrane"),
+    DELETE("Usunięto");
+
+    private final String summary;
+
+    DonationBulkOperation(String summary) {
+        this.summary = summary;
+    }
+}
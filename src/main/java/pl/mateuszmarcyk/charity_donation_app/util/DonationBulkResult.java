@@ -0,0 +1,19 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class DonationBulkResult {
+    private DonationBulkOperation operation;
+    private int requestedCount;
+    private int affectedCount;
+
+//    donations already in the target state or removed meanwhile
+    public int getSkippedCount() {
+        return requestedCount - affectedCount;
+    }
+}
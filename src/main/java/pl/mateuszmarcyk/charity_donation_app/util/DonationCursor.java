@@ -0,0 +1,43 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class DonationCursor {
+
+    private static final String ID_PROPERTY = "id";
+    private static final String SEPARATOR = "|";
+
+    private DonationCursor() {
+    }
+
+    public static String encode(ScrollPosition position, DonationSortType sortType) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        String cursor = keys.get(sortType.getProperty()) + SEPARATOR + keys.get(ID_PROPERTY);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String cursor, DonationSortType sortType, boolean backward) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decodedCursor.lastIndexOf(SEPARATOR);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortType.getProperty(), sortType.parseKey(decodedCursor.substring(0, separatorIndex)));
+            keys.put(ID_PROPERTY, Long.valueOf(decodedCursor.substring(separatorIndex + 1)));
+
+            return backward ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+}
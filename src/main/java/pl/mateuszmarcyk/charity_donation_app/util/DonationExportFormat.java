@@ -0,0 +1,29 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@Getter
+public enum DonationExportFormat {
+
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    DonationExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public static DonationExportFormat fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.getExtension().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(CSV);
+    }
+}
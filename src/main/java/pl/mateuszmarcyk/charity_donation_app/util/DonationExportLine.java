@@ -0,0 +1,30 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+//    one row per donation and category, rows of the same donation arrive next to each other
+@Getter
+@AllArgsConstructor
+public class DonationExportLine {
+
+    private Long id;
+    private LocalDateTime created;
+    private Integer quantity;
+    private boolean received;
+    private LocalDateTime donationPassedTime;
+    private LocalDate pickUpDate;
+    private LocalTime pickUpTime;
+    private String street;
+    private String city;
+    private String zipCode;
+    private String phoneNumber;
+    private String pickUpComment;
+    private String institutionName;
+    private String userEmail;
+    private String categoryName;
+}
@@ -0,0 +1,161 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+
+//    writes one donation at a time, nothing but the current record is kept in memory
+public abstract class DonationExportWriter {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CATEGORY_SEPARATOR = ", ";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    static final List<String> COLUMNS = List.of(
+            "id", "created", "quantity", "received", "donation_passed_time", "pick_up_date", "pick_up_time",
+            "street", "city", "zip_code", "phone_number", "pick_up_comment", "institution", "user_email", "categories");
+
+    public static DonationExportWriter create(DonationExportFormat format, Writer writer) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(writer);
+            case NDJSON -> new NdjsonWriter(writer);
+        };
+    }
+
+    public abstract void writeHeader() throws IOException;
+
+    public abstract void write(DonationExportLine donation, List<String> categories) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    static String format(TemporalAccessor temporal) {
+        if (temporal == null) {
+            return null;
+        }
+        return temporal instanceof LocalDateTime ? DATE_TIME_FORMATTER.format(temporal) : temporal.toString();
+    }
+
+    private static final class CsvWriter extends DonationExportWriter {
+
+        private final Writer writer;
+
+        private CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(DonationExportLine donation, List<String> categories) throws IOException {
+            writer.write(String.valueOf(donation.getId()));
+            writeField(format(donation.getCreated()));
+            writeField(donation.getQuantity() == null ? null : donation.getQuantity().toString());
+            writeField(String.valueOf(donation.isReceived()));
+            writeField(format(donation.getDonationPassedTime()));
+            writeField(format(donation.getPickUpDate()));
+            writeField(format(donation.getPickUpTime()));
+            writeText(donation.getStreet());
+            writeText(donation.getCity());
+            writeText(donation.getZipCode());
+            writeText(donation.getPhoneNumber());
+            writeText(donation.getPickUpComment());
+            writeText(donation.getInstitutionName());
+            writeText(donation.getUserEmail());
+            writeText(String.join(CATEGORY_SEPARATOR, categories));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+//    Excel and Sheets run a cell starting like a formula when an admin opens the file, the leading quote keeps typed text plain
+        private void writeText(String value) throws IOException {
+            if (value != null && !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                writer.write(',');
+                writeQuoted("'" + value);
+                return;
+            }
+            writeField(value);
+        }
+
+        private void writeField(String value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writeQuoted(value);
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonWriter extends DonationExportWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(Writer writer) throws IOException {
+            this.generator = new JsonFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void write(DonationExportLine donation, List<String> categories) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", donation.getId());
+            generator.writeStringField("created", format(donation.getCreated()));
+            if (donation.getQuantity() == null) {
+                generator.writeNullField("quantity");
+            } else {
+                generator.writeNumberField("quantity", donation.getQuantity());
+            }
+            generator.writeBooleanField("received", donation.isReceived());
+            generator.writeStringField("donationPassedTime", format(donation.getDonationPassedTime()));
+            generator.writeStringField("pickUpDate", format(donation.getPickUpDate()));
+            generator.writeStringField("pickUpTime", format(donation.getPickUpTime()));
+            generator.writeStringField("street", donation.getStreet());
+            generator.writeStringField("city", donation.getCity());
+            generator.writeStringField("zipCode", donation.getZipCode());
+            generator.writeStringField("phoneNumber", donation.getPhoneNumber());
+            generator.writeStringField("pickUpComment", donation.getPickUpComment());
+            generator.writeStringField("institution", donation.getInstitutionName());
+            generator.writeStringField("userEmail", donation.getUserEmail());
+            generator.writeArrayFieldStart("categories");
+            for (String category : categories) {
+                generator.writeString(category);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class DonationImportError {
+    private long lineNumber;
+    private String message;
+}
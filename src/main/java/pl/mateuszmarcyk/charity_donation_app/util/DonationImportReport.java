@@ -0,0 +1,27 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class DonationImportReport {
+    private long importedCount;
+    private long failedCount;
+    private long elapsedMillis;
+    private List<DonationImportError> errors;
+
+    public long getRowsPerSecond() {
+        long processed = importedCount + failedCount;
+        return elapsedMillis == 0 ? processed * 1000 : processed * 1000 / elapsedMillis;
+    }
+
+//    only the first errors are kept so a broken file cannot exhaust memory
+    public boolean isErrorListTruncated() {
+        return errors.size() < failedCount;
+    }
+}
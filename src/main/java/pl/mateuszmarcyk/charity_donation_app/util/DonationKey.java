@@ -0,0 +1,14 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import java.time.LocalDateTime;
+
+public interface DonationKey {
+
+    Long getId();
+
+    Integer getQuantity();
+
+    LocalDateTime getCreated();
+
+    boolean isReceived();
+}
@@ -0,0 +1,13 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class DonationPage {
+    private List<DonationRow> donations;
+    private String previousCursor;
+    private String nextCursor;
+}
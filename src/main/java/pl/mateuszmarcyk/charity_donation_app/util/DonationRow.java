@@ -0,0 +1,30 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Getter
+@AllArgsConstructor
+public class DonationRow {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private Long id;
+    private Integer quantity;
+    private LocalDateTime created;
+    private boolean received;
+    private LocalDateTime donationPassedTime;
+    private String institutionName;
+    private String categoriesString;
+
+    public String getCreatedDateTime() {
+        return created.format(DATE_TIME_FORMATTER);
+    }
+
+    public String getDonationPassedDateTime() {
+        return donationPassedTime.format(DATE_TIME_FORMATTER);
+    }
+}
@@ -0,0 +1,46 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+
+@Getter
+public enum DonationSortType {
+
+    CREATED("created", "created", Sort.Direction.DESC, LocalDateTime::parse),
+    QUANTITY_DESC("quantity desc", "quantity", Sort.Direction.DESC, Integer::valueOf),
+    QUANTITY_ASC("quantity asc", "quantity", Sort.Direction.ASC, Integer::valueOf),
+    RECEIVED_ASC("received asc", "received", Sort.Direction.ASC, Boolean::valueOf);
+
+    private static final String ID_PROPERTY = "id";
+
+    private final String sortTypeName;
+    private final String property;
+    private final Sort.Direction direction;
+    private final Function<String, Object> keyParser;
+
+    DonationSortType(String sortTypeName, String property, Sort.Direction direction, Function<String, Object> keyParser) {
+        this.sortTypeName = sortTypeName;
+        this.property = property;
+        this.direction = direction;
+        this.keyParser = keyParser;
+    }
+
+    public Sort getSort() {
+        return Sort.by(direction, property, ID_PROPERTY);
+    }
+
+    public Object parseKey(String key) {
+        return keyParser.apply(key);
+    }
+
+    public static DonationSortType fromSortTypeName(String sortTypeName) {
+        return Arrays.stream(values())
+                .filter(sortType -> sortType.getSortTypeName().equals(sortTypeName))
+                .findFirst()
+                .orElse(CREATED);
+    }
+}
@@ -0,0 +1,43 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.mateuszmarcyk.charity_donation_app.repository.HttpSessionRepository;
+
+//    replaces the cleanup of spring-session-jdbc (spring.session.jdbc.cleanup-cron=-), which deletes every expired
+//    session in one statement on every node at the same second
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "session.store", havingValue = "jdbc", matchIfMissing = true)
+public class ExpiredSessionReaper {
+
+    private final HttpSessionRepository httpSessionRepository;
+    private final int batchSize;
+
+    @Autowired
+    public ExpiredSessionReaper(HttpSessionRepository httpSessionRepository,
+                                @Value("${session.reaper.batch-size:500}") int batchSize) {
+        this.httpSessionRepository = httpSessionRepository;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Scheduled(initialDelayString = "${session.reaper.interval-ms:60000}", fixedDelayString = "${session.reaper.interval-ms:60000}")
+    public void reap() {
+        long expiredBefore = System.currentTimeMillis();
+
+        int total = 0;
+        int deleted;
+        do {
+            deleted = httpSessionRepository.deleteExpiredSessions(expiredBefore, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Deleted {} sessions expired before {}", total, expiredBefore);
+        }
+    }
+}
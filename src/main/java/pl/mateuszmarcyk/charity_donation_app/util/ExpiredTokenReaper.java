@@ -0,0 +1,59 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.mateuszmarcyk.charity_donation_app.service.PasswordResetVerificationTokenService;
+import pl.mateuszmarcyk.charity_donation_app.service.VerificationTokenService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+@Slf4j
+@Component
+public class ExpiredTokenReaper {
+
+    private final VerificationTokenService verificationTokenService;
+    private final PasswordResetVerificationTokenService passwordResetVerificationTokenService;
+    private final int batchSize;
+    private final Duration retention;
+
+    @Autowired
+    public ExpiredTokenReaper(VerificationTokenService verificationTokenService,
+                              PasswordResetVerificationTokenService passwordResetVerificationTokenService,
+                              @Value("${token.reaper.batch-size:500}") int batchSize,
+                              @Value("${token.reaper.retention:7d}") Duration retention) {
+        this.verificationTokenService = verificationTokenService;
+        this.passwordResetVerificationTokenService = passwordResetVerificationTokenService;
+        this.batchSize = Math.max(batchSize, 1);
+        this.retention = retention;
+    }
+
+//    expired tokens are kept for the retention period, a user clicking an old link still gets a new verification mail
+//    or the "already used" page instead of "not found"; consumed reset tokens expire like any other;
+//    verification tokens of accounts that were never activated stay, their email is taken and only the token can activate them
+    @Scheduled(initialDelayString = "${token.reaper.interval-ms:3600000}", fixedDelayString = "${token.reaper.interval-ms:3600000}")
+    public void reap() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(retention);
+
+        int verificationTokens = deleteInChunks(() -> verificationTokenService.deleteExpiredTokens(expiredBefore, batchSize));
+        int passwordResetTokens = deleteInChunks(() -> passwordResetVerificationTokenService.deleteExpiredTokens(expiredBefore, batchSize));
+
+        if (verificationTokens > 0 || passwordResetTokens > 0) {
+            log.info("Deleted {} verification tokens and {} password reset tokens expired before {}", verificationTokens, passwordResetTokens, expiredBefore);
+        }
+    }
+
+    private int deleteInChunks(IntSupplier deleteChunk) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deleteChunk.getAsInt();
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
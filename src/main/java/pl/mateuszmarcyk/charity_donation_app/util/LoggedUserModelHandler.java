@@ -1,16 +1,23 @@
 package pl.mateuszmarcyk.charity_donation_app.util;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.Model;
 import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
+import pl.mateuszmarcyk.charity_donation_app.service.UserService;
 
+@RequiredArgsConstructor
 @Component
 public class LoggedUserModelHandler {
 
+    private final UserService userService;
+
+//    the principal only carries the id, the entity comes from the user cache and reflects edits made since login
+//    the instance is shared by every request of that user, paths that modify the user load their own copy with UserService.findUserById
     public User getUser(CustomUserDetails userDetails) {
-        return userDetails.getUser();
+        return userService.findCachedUserById(userDetails.getId());
     }
 
     public void addUserToModel(User user, Model model) {
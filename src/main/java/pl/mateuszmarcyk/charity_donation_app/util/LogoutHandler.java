@@ -4,8 +4,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
@@ -13,14 +16,26 @@ import pl.mateuszmarcyk.charity_donation_app.entity.User;
 @Component
 public class LogoutHandler {
     SecurityContextLogoutHandler securityContextLogoutHandler = new SecurityContextLogoutHandler();
+    SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
 
     public void performLogout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
         securityContextLogoutHandler.logout(request, response, authentication);
     }
 
-    public void changeEmailInUserDetails(User updatedUser) {
+//    the session only stores the context when it is set again, and only a context without the hash fits the compact session format
+    public void changeEmailInUserDetails(User updatedUser, HttpServletRequest request, HttpServletResponse response) {
         CustomUserDetails userDetails = new CustomUserDetails(updatedUser);
-        Authentication newAuth = new UsernamePasswordAuthenticationToken(userDetails, userDetails.getPassword(), userDetails.getAuthorities());
-        SecurityContextHolder.getContext().setAuthentication(newAuth);
+        userDetails.eraseCredentials();
+        UsernamePasswordAuthenticationToken newAuth = UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+
+        Authentication currentAuth = SecurityContextHolder.getContext().getAuthentication();
+        if (currentAuth != null) {
+            newAuth.setDetails(currentAuth.getDetails());
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(newAuth);
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
     }
 }
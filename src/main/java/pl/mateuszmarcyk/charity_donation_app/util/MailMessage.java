@@ -3,6 +3,8 @@ package pl.mateuszmarcyk.charity_donation_app.util;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 
+import java.util.List;
+
 @Component
 public class MailMessage {
 
@@ -387,10 +389,17 @@ public class MailMessage {
                      </html>
             """;
 
+    private static final MailTemplate DONATION_TEMPLATE = MailTemplate.compile("donation", DONATION_MESSAGE);
+    private static final MailTemplate CONTACT_MAIL_TEMPLATE = MailTemplate.compile("contact", CONTACT_MAIL_MESSAGE);
+    private static final MailTemplate PASSWORD_RESET_TEMPLATE = MailTemplate.compile("password-reset", PASSWORD_RESET_MESSAGE);
+    private static final MailTemplate REGISTRATION_TEMPLATE = MailTemplate.compile("registration", REGISTRATION_MESSAGE);
 
+    public List<MailTemplate> getTemplates() {
+        return List.of(DONATION_TEMPLATE, CONTACT_MAIL_TEMPLATE, PASSWORD_RESET_TEMPLATE, REGISTRATION_TEMPLATE);
+    }
 
     public String buildMessage(String url) {
-        return REGISTRATION_MESSAGE.formatted(url);
+        return REGISTRATION_TEMPLATE.render(url);
     }
 
     public String buildDonationMessage(Donation donation) {
@@ -408,14 +417,14 @@ public class MailMessage {
         String phoneNumber = donation.getPhoneNumber();
         String comment = donation.getPickUpComment() == null || donation.getPickUpComment().isEmpty() ? "Brak uwag" : donation.getPickUpComment();
 
-        return DONATION_MESSAGE.formatted(userName, institutionName, quantity, categories, street, city, zipCode, pickUpDate, pickUpTime, phoneNumber, comment);
+        return DONATION_TEMPLATE.render(userName, institutionName, quantity, categories, street, city, zipCode, pickUpDate, pickUpTime, phoneNumber, comment);
     }
 
     public  String getMailMessage(MessageDTO messageDTO) {
-        return CONTACT_MAIL_MESSAGE.formatted(messageDTO.getFirstName(), messageDTO.getLastName(), messageDTO.getEmail(), messageDTO.getMessage());
+        return CONTACT_MAIL_TEMPLATE.render(messageDTO.getFirstName(), messageDTO.getLastName(), messageDTO.getEmail(), messageDTO.getMessage());
     }
 
     public String buildPasswordResetMessage(String url) {
-        return PASSWORD_RESET_MESSAGE.formatted(url);
+        return PASSWORD_RESET_TEMPLATE.render(url);
     }
 }
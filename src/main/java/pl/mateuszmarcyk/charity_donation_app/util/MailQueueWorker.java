@@ -0,0 +1,48 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Component
+public class MailQueueWorker {
+
+    private final MailQueueService mailQueueService;
+    private final Executor mailExecutor;
+    private final int connectionBatchSize;
+
+    @Autowired
+    public MailQueueWorker(MailQueueService mailQueueService,
+                           @Qualifier("mailExecutor") Executor mailExecutor,
+                           @Value("${mail.queue.connection-batch-size:25}") int connectionBatchSize) {
+        this.mailQueueService = mailQueueService;
+        this.mailExecutor = mailExecutor;
+        this.connectionBatchSize = Math.max(connectionBatchSize, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.queue.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<Long> claimedMailIds;
+        try {
+            claimedMailIds = mailQueueService.claimDueMails();
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Mails already claimed by another worker: {}", e.getMessage());
+            return;
+        }
+
+//    each chunk is delivered over its own SMTP connection, so chunks still run in parallel on the mail executor
+        for (int from = 0; from < claimedMailIds.size(); from += connectionBatchSize) {
+            List<Long> chunk = claimedMailIds.subList(from, Math.min(from + connectionBatchSize, claimedMailIds.size()));
+            mailExecutor.execute(() -> mailQueueService.deliverBatch(chunk));
+        }
+    }
+}
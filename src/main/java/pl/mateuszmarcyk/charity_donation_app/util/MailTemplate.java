@@ -0,0 +1,140 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MailTemplate {
+
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    @Getter
+    private final String name;
+    private final String[] chunks;
+    private final PlaceholderType[] placeholders;
+    private final int staticLength;
+    private final LongAdder renderCount = new LongAdder();
+    private final LongAdder renderNanos = new LongAdder();
+
+    private MailTemplate(String name, String[] chunks, PlaceholderType[] placeholders) {
+        this.name = name;
+        this.chunks = chunks;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String chunk : chunks) {
+            length += chunk.length();
+        }
+        this.staticLength = length;
+    }
+
+//    Supports the subset of format specifiers used by mail templates: %s (escaped text), %d (integer) and %%
+    public static MailTemplate compile(String name, String source) {
+        List<String> chunks = new ArrayList<>();
+        List<PlaceholderType> placeholders = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+
+        for (int i = 0; i < source.length(); i++) {
+            char character = source.charAt(i);
+            if (character != '%') {
+                chunk.append(character);
+                continue;
+            }
+
+            if (i + 1 == source.length()) {
+                throw new IllegalArgumentException("Unterminated placeholder in template " + name);
+            }
+
+            char specifier = source.charAt(++i);
+            switch (specifier) {
+                case '%' -> chunk.append('%');
+                case 's', 'd' -> {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                    placeholders.add(specifier == 's' ? PlaceholderType.TEXT : PlaceholderType.INTEGER);
+                }
+                default -> throw new IllegalArgumentException("Unsupported placeholder %" + specifier + " in template " + name);
+            }
+        }
+        chunks.add(chunk.toString());
+
+        return new MailTemplate(name, chunks.toArray(String[]::new), placeholders.toArray(PlaceholderType[]::new));
+    }
+
+    public String render(Object... values) {
+        if (values.length != placeholders.length) {
+            throw new IllegalArgumentException("Template " + name + " expects " + placeholders.length + " values but got " + values.length);
+        }
+
+        long start = System.nanoTime();
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(staticLength + 64 * values.length);
+
+        for (int i = 0; i < placeholders.length; i++) {
+            buffer.append(chunks[i]);
+            placeholders[i].append(buffer, values[i]);
+        }
+        buffer.append(chunks[placeholders.length]);
+
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+            BUFFER.remove();
+        }
+
+        renderNanos.add(System.nanoTime() - start);
+        renderCount.increment();
+        return rendered;
+    }
+
+    public int getPlaceholderCount() {
+        return placeholders.length;
+    }
+
+    public long getRenderCount() {
+        return renderCount.sum();
+    }
+
+    public long getTotalRenderNanos() {
+        return renderNanos.sum();
+    }
+
+    static void escapeHtml(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '&' -> buffer.append("&amp;");
+                case '<' -> buffer.append("&lt;");
+                case '>' -> buffer.append("&gt;");
+                case '"' -> buffer.append("&quot;");
+                case '\'' -> buffer.append("&#39;");
+                default -> buffer.append(character);
+            }
+        }
+    }
+
+    private enum PlaceholderType {
+
+        TEXT {
+            @Override
+            void append(StringBuilder buffer, Object value) {
+                escapeHtml(buffer, String.valueOf(value));
+            }
+        },
+        INTEGER {
+            @Override
+            void append(StringBuilder buffer, Object value) {
+                if (!(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)) {
+                    throw new IllegalArgumentException("Integer placeholder requires an integral value but got " + value);
+                }
+                buffer.append(((Number) value).longValue());
+            }
+        };
+
+        abstract void append(StringBuilder buffer, Object value);
+    }
+}
@@ -0,0 +1,30 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.mateuszmarcyk.charity_donation_app.service.OutboxService;
+
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:1000}")
+    public void relay() {
+        List<Long> pendingEventIds = outboxService.findPendingEventIds();
+
+        for (Long id : pendingEventIds) {
+            try {
+                outboxService.process(id);
+            } catch (RuntimeException e) {
+                outboxService.registerFailure(id, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+//    tokens are random UUIDs, kept as 16 bytes instead of the 36 character text; text that is not a UUID can never match a stored token
+@Converter
+public class UuidTokenConverter implements AttributeConverter<String, byte[]> {
+
+    private static final int UUID_BYTES = 16;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(token.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ByteBuffer.allocate(UUID_BYTES)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] value) {
+        if (value == null || value.length != UUID_BYTES) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
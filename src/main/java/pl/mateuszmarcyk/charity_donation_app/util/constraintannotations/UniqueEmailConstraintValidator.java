@@ -3,24 +3,25 @@ package pl.mateuszmarcyk.charity_donation_app.util.constraintannotations;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.service.RegisteredEmailFilter;
 
 import java.util.Optional;
 
-@Slf4j
 @Component
 @NoArgsConstructor
 public class UniqueEmailConstraintValidator implements ConstraintValidator<UniqueEmail, User> {
 
     private UserRepository userRepository;
+    private RegisteredEmailFilter registeredEmailFilter;
 
     @Autowired
-    public UniqueEmailConstraintValidator(UserRepository userRepository) {
+    public UniqueEmailConstraintValidator(UserRepository userRepository, RegisteredEmailFilter registeredEmailFilter) {
         this.userRepository = userRepository;
+        this.registeredEmailFilter = registeredEmailFilter;
     }
 
     @Override
@@ -28,36 +29,18 @@ public class UniqueEmailConstraintValidator implements ConstraintValidator<Uniqu
         ConstraintValidator.super.initialize(constraintAnnotation);
     }
 
+//    a user keeping their own email, even with different letter case, is not a duplicate
     @Override
     public boolean isValid(User userToValidate, ConstraintValidatorContext constraintValidatorContext) {
         if (userToValidate.getEmail() == null) {
             return true;
         }
 
-        log.info("Validated user id {}", userToValidate.getId());
-        log.info("Validated user email  ={}", userToValidate.getEmail());
-
-
-        Optional<User> optionalUser = userRepository.findByEmail(userToValidate.getEmail());
-        if (optionalUser.isPresent()) {
-            User foundUser = optionalUser.get();
-            log.info("Found user id {}", foundUser.getId());
-            log.info("Found user email {}", foundUser.getEmail());
-            if (userToValidate.getId() == null) {
-               log.info("Email is invalid");
-                return false;
-            } else {
-                if (userToValidate.getId().equals(foundUser.getId())) {
-                   log.info("User is updating his own email");
-                    return true;
-                } else {
-                   log.info("They are different users - one user is in database with such email already.");
-                    return false;
-                }
-            }
+        if (!registeredEmailFilter.mightBeRegistered(userToValidate.getEmail())) {
+            return true;
         }
-        return true;
+
+        Optional<Long> foundUserId = userRepository.findIdByNormalizedEmail(RegisteredEmailFilter.normalize(userToValidate.getEmail()));
+        return foundUserId.isEmpty() || foundUserId.get().equals(userToValidate.getId());
     }
 }
-
-
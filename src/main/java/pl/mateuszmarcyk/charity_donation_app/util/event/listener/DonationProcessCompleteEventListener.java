@@ -1,6 +1,5 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationListener;
@@ -8,14 +7,12 @@ import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
-import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
-import pl.mateuszmarcyk.charity_donation_app.util.AppMailSender;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.util.Mail;
 import pl.mateuszmarcyk.charity_donation_app.util.MailFactory;
 import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
 import pl.mateuszmarcyk.charity_donation_app.util.event.DonationProcessCompleteEvent;
 
-import java.io.UnsupportedEncodingException;
 import java.util.Locale;
 
 @Slf4j
@@ -24,7 +21,7 @@ import java.util.Locale;
 public class DonationProcessCompleteEventListener implements ApplicationListener<DonationProcessCompleteEvent> {
 
     private final MessageSource messageSource;
-    private final AppMailSender appMailSender;
+    private final MailQueueService mailQueueService;
     private final MailMessage mailMessage;
     private final MailFactory mailFactory;
 
@@ -39,12 +36,7 @@ public class DonationProcessCompleteEventListener implements ApplicationListener
 
         Mail mail =  mailFactory.createMail(donationSubject, applicationName, donationMessage);
 
-        try {
-            appMailSender.sendEmail(user, mail);
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            log.info(e.getMessage());
-            throw new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać");
-        }
+        mailQueueService.enqueue(user, mail);
 
     }
 }
@@ -1,6 +1,5 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationListener;
@@ -8,12 +7,11 @@ import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Component;
 import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
-import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.service.PasswordResetVerificationTokenService;
 import pl.mateuszmarcyk.charity_donation_app.util.*;
 import pl.mateuszmarcyk.charity_donation_app.util.event.PasswordResetEvent;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.Locale;
 import java.util.UUID;
@@ -24,7 +22,7 @@ import java.util.UUID;
 public class PasswordResetEventListener implements ApplicationListener<PasswordResetEvent> {
 
     private final PasswordResetVerificationTokenService passwordResetVerificationTokenService;
-    private final AppMailSender appMailSender;
+    private final MailQueueService mailQueueService;
     private final MessageSource messageSource;
     private final MailMessage mailMessage;
     private final TokenFactory tokenFactory;
@@ -52,11 +50,6 @@ public class PasswordResetEventListener implements ApplicationListener<PasswordR
         String mailContent = mailMessage.buildPasswordResetMessage(url);
         Mail mail = mailFactory.createMail(registrationMailSubject, applicationName, mailContent);
 
-        try {
-            appMailSender.sendEmail(user, mail);
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            log.info(e.getMessage());
-            throw new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać");
-        }
+        mailQueueService.enqueue(user, mail);
     }
 }
@@ -1,22 +1,19 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Component;
-import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
 import pl.mateuszmarcyk.charity_donation_app.util.MailFactory;
 import pl.mateuszmarcyk.charity_donation_app.util.event.ResendTokenEvent;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.service.VerificationTokenService;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
-import pl.mateuszmarcyk.charity_donation_app.util.AppMailSender;
 import pl.mateuszmarcyk.charity_donation_app.util.Mail;
 import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.Locale;
 import java.util.UUID;
@@ -28,7 +25,7 @@ public class ResendTokenEventListener implements ApplicationListener<ResendToken
 
     private final MessageSource messageSource;
     private final VerificationTokenService verificationTokenService;
-    private final AppMailSender appMailSender;
+    private final MailQueueService mailQueueService;
     private final MailMessage mailMessage;
     private final MailFactory mailFactory;
 
@@ -54,10 +51,6 @@ public class ResendTokenEventListener implements ApplicationListener<ResendToken
         String registrationMailContent = mailMessage.buildMessage(url);
         Mail mail = mailFactory.createMail(registrationMailSubject, applicationName, registrationMailContent);
 
-        try {
-            appMailSender.sendEmail(user, mail);
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            log.info(e.getMessage());
-            throw new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać");        }
+        mailQueueService.enqueue(user, mail);
     }
 }
@@ -0,0 +1,35 @@
+-- UserRepository.findByEmail runs on every login and in UniqueEmailConstraintValidator
+create unique index uk_users_email
+    on users (email);
+
+-- VerificationTokenRepository.findByToken and PasswordResetVerificationTokenRepository.findByToken
+create unique index uk_verification_tokens_token
+    on verification_tokens (token);
+
+create unique index uk_password_reset_verification_tokens_token
+    on password_reset_verification_tokens (token);
+
+-- UserRepository.findUsersByRoleNative
+create unique index uk_user_types_role
+    on user_types (role);
+
+-- DonationRepository.findIdsByUser with the sorts of DonationService.USER_DONATION_SORTS, the id tie breaker is always ascending
+create index idx_donations_user_created
+    on donations (user_id, created desc, id);
+
+create index idx_donations_user_quantity
+    on donations (user_id, quantity, id);
+
+create index idx_donations_user_received
+    on donations (user_id, received, id);
+
+-- DonationRepository.findKeysBy keyset pages and the findAllDonationsSorted* queries of the admin donation list,
+-- created is only ever listed newest first, quantity in both directions is read backwards from the same index
+create index idx_donations_created
+    on donations (created desc, id desc);
+
+create index idx_donations_quantity
+    on donations (quantity, id);
+
+create index idx_donations_received
+    on donations (received, id);
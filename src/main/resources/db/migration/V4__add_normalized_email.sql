@@ -0,0 +1,7 @@
+-- UniqueEmailConstraintValidator looks emails up case-insensitively through UserRepository.findIdByNormalizedEmail,
+-- the generated column keeps the unique index usable without relying on the collation of email
+alter table users
+    add column email_normalized varchar(255) generated always as (lower(email));
+
+create unique index uk_users_email_normalized
+    on users (email_normalized);
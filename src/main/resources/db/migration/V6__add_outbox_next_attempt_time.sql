@@ -0,0 +1,9 @@
+-- OutboxService.registerFailure backs a failed event off, OutboxService.findPendingEventIds only reads events that are due
+alter table outbox_events
+    add column next_attempt_time datetime(6) null;
+
+update outbox_events
+set next_attempt_time = coalesce(created, current_timestamp(6));
+
+create index idx_outbox_events_next_attempt_time
+    on outbox_events (next_attempt_time, id);
@@ -238,7 +238,9 @@ document.addEventListener("DOMContentLoaded", function() {
   const confirmationModal = document.getElementById("confirmationModal");
   const confirmDeleteButton = document.getElementById("confirmDelete");
   const cancelDeleteButton = document.getElementById("cancelDelete");
+  const deleteButtons = document.querySelectorAll(".delete-button");
   let formToSubmit = null;
+  let actionToSubmit = null;
 
   deleteForms.forEach((form) => {
     form.addEventListener("submit", (event) => {
@@ -249,6 +251,20 @@ document.addEventListener("DOMContentLoaded", function() {
 
       // Store the form reference to submit later if confirmed
       formToSubmit = form;
+      actionToSubmit = null;
+    });
+  });
+
+  // Buttons that delete through another action of a shared form, e.g. the bulk delete of the selected donations
+  deleteButtons.forEach((button) => {
+    button.addEventListener("click", (event) => {
+      event.preventDefault();
+
+      confirmationModal.style.display = "block";
+
+      // form.submit() ignores the formaction of the clicked button, so remember it
+      formToSubmit = button.form;
+      actionToSubmit = button.formAction;
     });
   });
 
@@ -256,6 +272,9 @@ document.addEventListener("DOMContentLoaded", function() {
     // Handle confirmation
     confirmDeleteButton.addEventListener("click", () => {
       if (formToSubmit) {
+        if (actionToSubmit) {
+          formToSubmit.action = actionToSubmit;
+        }
         formToSubmit.submit(); // Submit the form if confirmed
       }
       confirmationModal.style.display = "none"; // Hide the modal
@@ -13,6 +13,7 @@ import pl.mateuszmarcyk.charity_donation_app.exception.BusinessException;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserTypeRepository;
+import pl.mateuszmarcyk.charity_donation_app.service.RegisteredEmailFilter;
 
 import java.util.ArrayList;
 import java.util.Optional;
@@ -37,6 +38,9 @@ class AdminUserInitializerTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
 
     @Test
     void whenRun_thenThrowResourceNotFoundException() {
@@ -96,6 +100,7 @@ class AdminUserInitializerTest {
                 () -> assertThat(capturedUser.getVerificationToken()).isNotNull(),
                 () -> assertThat(capturedUser.getPasswordResetVerificationToken()).isNull()
         );
+        verify(registeredEmailFilter, times(1)).recordEmail(adminEmail);
     }
 
     @Test
@@ -4,6 +4,7 @@ public class ErrorMessages {
     public static final String ACCOUNT_DISABLED = "/app/login?error=Your account is not enabled.";
     public static final String ACCOUNT_BLOCKED = "/app/login?error=Your account is blocked.";
     public static final String INVALID_CREDENTIALS = "/app/login?error=Invalid username or password.";
+    public static final String LOGIN_THROTTLED = "/app/login?error=Too many login attempts, try again later.";
     public static final String USERNAME_NOT_FOUND_EXCEPTION_MESSAGE = "Could not find the user";
     public static final String DISABLED_EXCEPTION_MESSAGE = "User is not enabled";
     public static final String LOCKED_EXCEPTION_MESSAGE = "User is blocked";
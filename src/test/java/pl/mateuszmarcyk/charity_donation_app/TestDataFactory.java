@@ -3,6 +3,7 @@ package pl.mateuszmarcyk.charity_donation_app;
 import org.springframework.ui.Model;
 import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.*;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
 import pl.mateuszmarcyk.charity_donation_app.util.LoggedUserModelHandler;
 
 import java.time.LocalDate;
@@ -83,6 +84,10 @@ public class TestDataFactory {
         return donationOne;
     }
 
+    public static DonationRow getDonationRow() {
+        return new DonationRow(1L, 10, LocalDateTime.parse("2024-12-20T12:00:00"), false, null, "Pomocna Dłoń", "Jedzenie");
+    }
+
     public static Category getCategory() {
         return new Category(1L, "CategoryName", new ArrayList<>());
     }
@@ -26,6 +26,9 @@ public class UrlTemplates {
     public static final String ADMIN_DONATIONS_ARCHIVE_URL = "/admins/donations/archive";
     public static final String ADMIN_DONATIONS_UN_ARCHIVE_URL = "/admins/donations/unarchive";
     public static final String ADMIN_DONATIONS_DELETE_URL = "/admins/donations/delete";
+    public static final String ADMIN_DONATIONS_EXPORT_URL = "/admins/donations/export";
+    public static final String ADMIN_DONATIONS_IMPORT_URL = "/admins/donations/import";
+    public static final String ADMIN_DONATIONS_BULK_URL = "/admins/donations/bulk/{operation}";
     public static final String ADMIN_DONATIONS_DONATION_DETAILS_URL = "/admins/donations/{id}";
     public static final String ADMIN_CATEGORIES_URL = "/admins/categories";
     public static final String ADMIN_CATEGORIES_DETAILS_URL = "/admins/categories/{categoryId}";
@@ -10,6 +10,7 @@ public class ViewNames {
     public static final String ADMIN_USERS_CHANGE_PASSWORD_FORM_VIEW = "admin-user-password-edit-form";
     public static final String ADMIN_DONATIONS_ALL_VIEW = "admin-donations-all";
     public static final String ADMIN_DONATIONS_DETAILS_VIEW = "admin-donation-details";
+    public static final String ADMIN_DONATIONS_IMPORT_VIEW = "admin-donations-import";
     public static final String ADMIN_CATEGORY_FORM_VIEW = "admin-category-form";
     public static final String ADMIN_CATEGORY_DETAILS_VIEW = "admin-category-details";
     public static final String ADMIN_CATEGORIES_ALL_VIEW = "admin-categories-all";
@@ -0,0 +1,43 @@
+package pl.mateuszmarcyk.charity_donation_app.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailQueueConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(MailQueueConfig.class)
+            .withPropertyValues("mail.queue.workers=3");
+
+    @Test
+    void givenVirtualThreadsDisabled_whenContextStarts_thenPooledMailExecutorCreated() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=false")
+                .run(context -> {
+                    ThreadPoolTaskExecutor mailExecutor = context.getBean("mailExecutor", ThreadPoolTaskExecutor.class);
+                    assertThat(mailExecutor.getMaxPoolSize()).isEqualTo(3);
+                });
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void givenVirtualThreadsEnabledBeforeJava21_whenContextStarts_thenPooledMailExecutorKept() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context.getBean("mailExecutor")).isInstanceOf(ThreadPoolTaskExecutor.class));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void givenVirtualThreadsEnabledOnJava21_whenContextStarts_thenLimitedVirtualThreadMailExecutorCreated() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> {
+                    SimpleAsyncTaskExecutor mailExecutor = context.getBean("mailExecutor", SimpleAsyncTaskExecutor.class);
+                    assertThat(mailExecutor.getConcurrencyLimit()).isEqualTo(3);
+                });
+    }
+}
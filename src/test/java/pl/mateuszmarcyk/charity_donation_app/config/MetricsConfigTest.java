@@ -0,0 +1,124 @@
+package pl.mateuszmarcyk.charity_donation_app.config;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.config.security.BoundedPasswordEncoder;
+import pl.mateuszmarcyk.charity_donation_app.config.security.LoginAttemptLimiter;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
+import pl.mateuszmarcyk.charity_donation_app.service.ReferenceDataCacheService;
+import pl.mateuszmarcyk.charity_donation_app.service.UserCacheService;
+import pl.mateuszmarcyk.charity_donation_app.util.CacheRegionStats;
+import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsConfigTest {
+
+    @Mock
+    private ReferenceDataCacheService referenceDataCacheService;
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private MailQueueService mailQueueService;
+
+    private final MetricsConfig metricsConfig = new MetricsConfig();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void givenReferenceDataCacheStatistics_whenBound_thenCountersFollowCurrentStatistics() {
+        when(referenceDataCacheService.getStatistics()).thenReturn(
+                List.of(new CacheRegionStats("categories", 1, 2, 3), new CacheRegionStats("institutions", 4, 5, 6)),
+                List.of(new CacheRegionStats("categories", 10, 20, 30), new CacheRegionStats("institutions", 4, 5, 6)));
+
+        metricsConfig.referenceDataCacheMetrics(referenceDataCacheService).bindTo(meterRegistry);
+
+        assertAll(
+                () -> assertThat(meterRegistry.get("cache.region.gets").tags("region", "categories", "result", "hit").functionCounter().count()).isEqualTo(10),
+                () -> assertThat(meterRegistry.get("cache.region.gets").tags("region", "categories", "result", "miss").functionCounter().count()).isEqualTo(20),
+                () -> assertThat(meterRegistry.get("cache.region.puts").tags("region", "categories").functionCounter().count()).isEqualTo(30),
+                () -> assertThat(meterRegistry.get("cache.region.gets").tags("region", "institutions", "result", "hit").functionCounter().count()).isEqualTo(4)
+        );
+    }
+
+    @Test
+    void givenUserCacheStatistics_whenBound_thenUsersRegionCountersRegistered() {
+        when(userCacheService.getStatistics()).thenReturn(new CacheRegionStats("users", 7, 3, 3));
+
+        metricsConfig.userCacheMetrics(userCacheService).bindTo(meterRegistry);
+
+        assertAll(
+                () -> assertThat(meterRegistry.get("cache.region.gets").tags("region", "users", "result", "hit").functionCounter().count()).isEqualTo(7),
+                () -> assertThat(meterRegistry.get("cache.region.gets").tags("region", "users", "result", "miss").functionCounter().count()).isEqualTo(3)
+        );
+    }
+
+    @Test
+    void givenMailTemplates_whenBoundAndTemplateRendered_thenRenderTimerPerTemplateCountsRender() {
+        MailMessage mailMessage = new MailMessage();
+        metricsConfig.mailTemplateMetrics(mailMessage).bindTo(meterRegistry);
+        FunctionTimer registrationTimer = meterRegistry.get("mail.template.render").tag("template", "registration").functionTimer();
+        double rendersBefore = registrationTimer.count();
+
+        mailMessage.buildMessage("http://localhost/app/register/verifyEmail?token=token");
+
+        assertAll(
+                () -> assertThat(meterRegistry.get("mail.template.render").functionTimers()).hasSize(mailMessage.getTemplates().size()),
+                () -> assertThat(registrationTimer.count()).isEqualTo(rendersBefore + 1)
+        );
+    }
+
+    @Test
+    void givenQueuedMails_whenBound_thenDepthGaugeReadsCurrentCount() {
+        when(mailQueueService.getQueueDepth()).thenReturn(3L, 42L);
+
+        metricsConfig.mailQueueMetrics(mailQueueService).bindTo(meterRegistry);
+
+        assertAll(
+                () -> assertThat(meterRegistry.get("mail.queue.depth").gauge().value()).isEqualTo(3),
+                () -> assertThat(meterRegistry.get("mail.queue.depth").gauge().value()).isEqualTo(42)
+        );
+    }
+
+    @Test
+    void givenLoginThrottlingCounts_whenBound_thenRejectedAndQueuedAttemptsReported() {
+        when(loginAttemptLimiter.getRejectedByAddressCount()).thenReturn(5L);
+        when(loginAttemptLimiter.getRejectedByAccountCount()).thenReturn(2L);
+        when(passwordEncoder.getRejectedCount()).thenReturn(1L);
+        when(passwordEncoder.getQueuedCount()).thenReturn(8L);
+        when(passwordEncoder.getWaitingCount()).thenReturn(3);
+
+        metricsConfig.loginThrottlingMetrics(loginAttemptLimiter, passwordEncoder).bindTo(meterRegistry);
+
+        assertAll(
+                () -> assertThat(meterRegistry.get("login.attempts.rejected").tag("reason", "address").functionCounter().count()).isEqualTo(5),
+                () -> assertThat(meterRegistry.get("login.attempts.rejected").tag("reason", "account").functionCounter().count()).isEqualTo(2),
+                () -> assertThat(meterRegistry.get("login.attempts.rejected").tag("reason", "busy").functionCounter().count()).isEqualTo(1),
+                () -> assertThat(meterRegistry.get("password.verifications.queued").functionCounter().count()).isEqualTo(8),
+                () -> assertThat(meterRegistry.get("password.verifications.waiting").gauge().value()).isEqualTo(3)
+        );
+    }
+}
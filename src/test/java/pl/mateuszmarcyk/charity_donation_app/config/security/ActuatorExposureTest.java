@@ -0,0 +1,61 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+class ActuatorExposureTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void givenManagementPort_whenScrapeWithoutSession_thenHealthAndMetricsServed() throws Exception {
+        HttpResponse<String> prometheus = get("http://127.0.0.1:%d/actuator/prometheus".formatted(managementPort));
+        HttpResponse<String> health = get("http://127.0.0.1:%d/actuator/health".formatted(managementPort));
+
+        assertAll(
+                () -> assertThat(managementPort).isNotEqualTo(serverPort),
+                () -> assertThat(prometheus.statusCode()).isEqualTo(200),
+                () -> assertThat(prometheus.body()).contains("http_server_requests"),
+//                the mail server is not running in tests, so health may report DOWN, but it must answer instead of redirecting
+                () -> assertThat(health.body()).contains("\"status\"")
+        );
+    }
+
+    @Test
+    void givenApplicationPort_whenScrapeWithoutSession_thenRedirectedToLogin() throws Exception {
+        HttpResponse<String> prometheus = get("http://127.0.0.1:%d/app/actuator/prometheus".formatted(serverPort));
+        HttpResponse<String> health = get("http://127.0.0.1:%d/app/actuator/health".formatted(serverPort));
+
+        assertAll(
+                () -> assertThat(prometheus.statusCode()).isEqualTo(302),
+                () -> assertThat(prometheus.headers().firstValue("Location")).hasValueSatisfying(location -> assertThat(location).endsWith("/app/login")),
+                () -> assertThat(health.statusCode()).isEqualTo(302)
+        );
+    }
+
+    private HttpResponse<String> get(String url) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
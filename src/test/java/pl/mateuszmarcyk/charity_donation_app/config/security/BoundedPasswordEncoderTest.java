@@ -0,0 +1,95 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void givenAllPermitsTaken_whenMatchesWaitsLongerThanMaxWait_thenLoginThrottledExceptionThrown() throws Exception {
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(delegate, 1, Duration.ofMillis(20));
+        CountDownLatch verificationStarted = new CountDownLatch(1);
+        CountDownLatch finishVerification = new CountDownLatch(1);
+        when(delegate.matches("slow", "hash")).thenAnswer(invocation -> {
+            verificationStarted.countDown();
+            return finishVerification.await(5, TimeUnit.SECONDS);
+        });
+
+        Future<Boolean> slowVerification = executorService.submit(() -> passwordEncoder.matches("slow", "hash"));
+        assertThat(verificationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertAll(
+                () -> assertThatThrownBy(() -> passwordEncoder.matches("fast", "hash")).isInstanceOf(LoginThrottledException.class),
+                () -> assertThat(passwordEncoder.getActiveCount()).isEqualTo(1),
+                () -> assertThat(passwordEncoder.getQueuedCount()).isEqualTo(1),
+                () -> assertThat(passwordEncoder.getRejectedCount()).isEqualTo(1)
+        );
+
+        finishVerification.countDown();
+        assertAll(
+                () -> assertThat(slowVerification.get(5, TimeUnit.SECONDS)).isTrue(),
+                () -> assertThat(passwordEncoder.getActiveCount()).isZero()
+        );
+    }
+
+    @Test
+    void givenFreePermit_whenMatches_thenDelegateVerifiesWithoutQueueing() {
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(delegate, 1, Duration.ofMillis(20));
+        when(delegate.matches("password", "hash")).thenReturn(true);
+
+        boolean matches = passwordEncoder.matches("password", "hash");
+
+        assertAll(
+                () -> assertThat(matches).isTrue(),
+                () -> assertThat(passwordEncoder.getQueuedCount()).isZero(),
+                () -> assertThat(passwordEncoder.getActiveCount()).isZero()
+        );
+    }
+
+    @Test
+    void givenHashWithLowerStrength_whenUpgradeEncoding_thenUpgradeRequested() {
+        String weakerHash = new BCryptPasswordEncoder(4).encode("password");
+        String currentHash = new BCryptPasswordEncoder(5).encode("password");
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, Duration.ofMillis(20));
+
+        assertAll(
+                () -> assertThat(passwordEncoder.upgradeEncoding(weakerHash)).isTrue(),
+                () -> assertThat(passwordEncoder.upgradeEncoding(currentHash)).isFalse(),
+                () -> assertThat(passwordEncoder.matches("password", weakerHash)).isTrue()
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class CompactSessionAttributeSerializerTest {
+
+    private final CompactSessionAttributeSerializer serializer = new CompactSessionAttributeSerializer(getClass().getClassLoader());
+
+    @Test
+    void givenSecurityContextOfLoggedUser_whenSerializedAndDeserialized_thenPrincipalAndDetailsRestored() throws IOException {
+        SecurityContextImpl securityContext = securityContextOfLoggedUser();
+        CustomUserDetails userDetails = (CustomUserDetails) securityContext.getAuthentication().getPrincipal();
+
+        SecurityContextImpl restored = (SecurityContextImpl) serializer.deserialize(new ByteArrayInputStream(serialize(securityContext)));
+
+        CustomUserDetails restoredUserDetails = (CustomUserDetails) restored.getAuthentication().getPrincipal();
+        WebAuthenticationDetails restoredDetails = (WebAuthenticationDetails) restored.getAuthentication().getDetails();
+        assertAll(
+                () -> assertThat(restored.getAuthentication().isAuthenticated()).isTrue(),
+                () -> assertThat(restored.getAuthentication().getCredentials()).isNull(),
+                () -> assertThat(restored.getAuthentication().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER"),
+                () -> assertThat(restoredUserDetails).usingRecursiveComparison().isEqualTo(userDetails),
+                () -> assertThat(restoredDetails.getRemoteAddress()).isEqualTo("127.0.0.1"),
+                () -> assertThat(restoredDetails.getSessionId()).isNull()
+        );
+    }
+
+    @Test
+    void givenSecurityContextOfLoggedUser_whenSerialized_thenSmallerThanJavaSerialization() throws IOException {
+        SecurityContextImpl securityContext = securityContextOfLoggedUser();
+        ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+        new DefaultSerializer().serialize(securityContext, javaSerialized);
+
+        byte[] compact = serialize(securityContext);
+
+        assertThat(compact.length).isLessThan(javaSerialized.size() / 4);
+    }
+
+    @Test
+    void givenOtherAttribute_whenSerializedAndDeserialized_thenJavaSerializationUsed() throws IOException {
+        Map<String, Integer> attribute = new HashMap<>(Map.of("page", 2));
+
+        Object restored = serializer.deserialize(new ByteArrayInputStream(serialize(attribute)));
+
+        assertThat(restored).isEqualTo(attribute);
+    }
+
+    @Test
+    void givenAuthenticationWithCredentials_whenSerializedAndDeserialized_thenCredentialsKept() throws IOException {
+        CustomUserDetails userDetails = new CustomUserDetails(TestDataFactory.getUser());
+        SecurityContextImpl securityContext = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(userDetails, "testPW123!!", userDetails.getAuthorities()));
+
+        SecurityContextImpl restored = (SecurityContextImpl) serializer.deserialize(new ByteArrayInputStream(serialize(securityContext)));
+
+        assertThat(restored.getAuthentication().getCredentials()).isEqualTo("testPW123!!");
+    }
+
+    @Test
+    void givenUnknownFormat_whenDeserialized_thenIOExceptionThrown() {
+        assertThatThrownBy(() -> serializer.deserialize(new ByteArrayInputStream(new byte[]{7})))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unknown session attribute format 7");
+    }
+
+    private static SecurityContextImpl securityContextOfLoggedUser() {
+        CustomUserDetails userDetails = new CustomUserDetails(TestDataFactory.getUser());
+        userDetails.eraseCredentials();
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", null));
+        return new SecurityContextImpl(authentication);
+    }
+
+    private byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.serialize(object, bytes);
+        return bytes.toByteArray();
+    }
+}
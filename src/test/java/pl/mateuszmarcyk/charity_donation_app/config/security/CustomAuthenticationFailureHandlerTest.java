@@ -58,6 +58,15 @@ class CustomAuthenticationFailureHandlerTest {
         assertFailureHandlerRedirects(exception, ErrorMessages.INVALID_CREDENTIALS);
     }
 
+    @Test
+    void givenLoginThrottledException_whenAuthenticationFails_thenRedirectsWithThrottledErrorMessage() throws IOException, ServletException {
+        // Arrange
+        AuthenticationException exception = new LoginThrottledException("Too many failed logins for the account");
+
+        // Act & Assert
+        assertFailureHandlerRedirects(exception, ErrorMessages.LOGIN_THROTTLED);
+    }
+
     private void assertFailureHandlerRedirects(AuthenticationException exception, String expectedRedirect) throws IOException, ServletException {
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
         customAuthenticationFailureHandler.onAuthenticationFailure(request, response, exception);
@@ -15,11 +15,13 @@ import pl.mateuszmarcyk.charity_donation_app.ErrorMessages;
 import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.service.UserCacheService;
 
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +30,9 @@ class CustomUserDetailsServiceTest {
     @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
+    @Mock
+    private UserCacheService userCacheService;
+
     @Mock
     private UserRepository userRepository;
 
@@ -81,12 +86,35 @@ class CustomUserDetailsServiceTest {
 
 //        Act & Assert
         UserDetails customUserDetails = customUserDetailsService.loadUserByUsername(email);
-        if (customUserDetails instanceof CustomUserDetails details) {
-            assertThat(details.getUser()).isEqualTo(user);
-        }
+        assertThat(customUserDetails).isInstanceOf(CustomUserDetails.class);
+        CustomUserDetails details = (CustomUserDetails) customUserDetails;
+        assertAll(
+                () -> assertThat(details.getId()).isEqualTo(user.getId()),
+                () -> assertThat(details.getUsername()).isEqualTo(user.getEmail()),
+                () -> assertThat(details.getPassword()).isEqualTo(user.getPassword()),
+                () -> assertThat(details.hasRole("ROLE_USER")).isTrue()
+        );
         verifyUserRepositoryUsage(email);
     }
 
+    @Test
+    void whenUpdatePassword_thenPasswordColumnUpdatedAndCachedUserEvicted() {
+        //        Arrange
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        String newPassword = "$2a$12$rehashedPasswordHash";
+
+//        Act
+        UserDetails updatedUserDetails = customUserDetailsService.updatePassword(userDetails, newPassword);
+
+//        Assert
+        assertAll(
+                () -> assertThat(updatedUserDetails.getPassword()).isEqualTo(newPassword),
+                () -> assertThat(updatedUserDetails.getUsername()).isEqualTo(user.getEmail()),
+                () -> verify(userRepository, times(1)).updatePassword(user.getId(), newPassword),
+                () -> verify(userCacheService, times(1)).evict(user.getId())
+        );
+    }
+
     private void assertExceptionAndMessage(String email, Class<? extends Exception> exceptionClass, String expectedExceptionMessage) {
         assertThatThrownBy(() -> customUserDetailsService.loadUserByUsername(email))
                 .isInstanceOf(exceptionClass)
@@ -98,5 +126,7 @@ class CustomUserDetailsServiceTest {
         verify(userRepository, times(1)).findByEmail(stringArgumentCaptor.capture());
         String capturedEmail = stringArgumentCaptor.getValue();
         assertThat(capturedEmail).isEqualTo(email);
+//        the cache of this node may still hold the user from before a password change, block or activation
+        verifyNoInteractions(userCacheService);
     }
 }
\ No newline at end of file
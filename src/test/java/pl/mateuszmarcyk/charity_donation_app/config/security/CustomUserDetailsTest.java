@@ -0,0 +1,99 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.entity.UserType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class CustomUserDetailsTest {
+
+    @Test
+    void givenUser_whenCreated_thenDisplayFieldsCopied() {
+        User user = TestDataFactory.getUser();
+
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+
+        assertAll(
+                () -> assertThat(userDetails.getId()).isEqualTo(user.getId()),
+                () -> assertThat(userDetails.getUsername()).isEqualTo(user.getEmail()),
+                () -> assertThat(userDetails.getFirstName()).isEqualTo(user.getProfile().getFirstName()),
+                () -> assertThat(userDetails.getLastName()).isEqualTo(user.getProfile().getLastName()),
+                () -> assertThat(userDetails.isEnabled()).isEqualTo(user.isEnabled()),
+                () -> assertThat(userDetails.isAccountNonLocked()).isEqualTo(!user.isBlocked())
+        );
+    }
+
+    @Test
+    void givenUserWithBothRoles_whenGetAuthorities_thenBothRolesGranted() {
+        User user = TestDataFactory.getUser();
+        user.getUserTypes().add(new UserType(2L, "ROLE_ADMIN", new ArrayList<>()));
+
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+
+        assertAll(
+                () -> assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN"),
+                () -> assertThat(userDetails.hasRole("ROLE_ADMIN")).isTrue(),
+                () -> assertThat(userDetails.hasRole("ROLE_WRONG")).isFalse()
+        );
+    }
+
+    @Test
+    void givenUserWithoutProfileAndRoles_whenCreated_thenNoAuthorities() {
+        CustomUserDetails userDetails = new CustomUserDetails(new User());
+
+        assertAll(
+                () -> assertThat(userDetails.getAuthorities()).isEmpty(),
+                () -> assertThat(userDetails.getFirstName()).isNull()
+        );
+    }
+
+    @Test
+    void givenAuthenticatedUser_whenEraseCredentials_thenPasswordRemoved() {
+        CustomUserDetails userDetails = new CustomUserDetails(TestDataFactory.getUser());
+
+        userDetails.eraseCredentials();
+
+        assertThat(userDetails.getPassword()).isNull();
+    }
+
+//    the User entity was not serializable at all, the session now holds the same few fields however many donations the user has
+    @Test
+    void givenUserWithManyDonations_whenSecurityContextSerialized_thenSizeIndependentOfDonations() throws IOException {
+        User userWithoutDonations = TestDataFactory.getUser();
+        User userWithDonations = TestDataFactory.getUser();
+        for (int i = 0; i < 100; i++) {
+            Donation donation = TestDataFactory.getDonation();
+            userWithDonations.getDonations().add(donation);
+        }
+
+        int sizeWithoutDonations = serializedSize(securityContextOf(userWithoutDonations));
+        int sizeWithDonations = serializedSize(securityContextOf(userWithDonations));
+
+        assertThat(sizeWithDonations).isEqualTo(sizeWithoutDonations);
+    }
+
+    private static SecurityContextImpl securityContextOf(User user) {
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        return new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private static int serializedSize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(object);
+        }
+        return bytes.size();
+    }
+}
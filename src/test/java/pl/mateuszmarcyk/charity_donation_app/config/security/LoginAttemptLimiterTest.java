@@ -0,0 +1,96 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class LoginAttemptLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+    private static final String ADDRESS = "10.0.0.1";
+    private static final String EMAIL = "test@email.com";
+
+    private final AtomicLong now = new AtomicLong(WINDOW.toMillis() * 100);
+
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptLimiter = new LoginAttemptLimiter(WINDOW, 5, 3, 4, 1000, now::get);
+    }
+
+    @Test
+    void givenFailuresForAccountUpToLimit_whenCheckAllowed_thenAccountRejectedFromAnyAddress() {
+        for (int i = 0; i < 3; i++) {
+            loginAttemptLimiter.recordFailure("10.0.0." + i, EMAIL);
+        }
+
+        assertAll(
+                () -> assertThatThrownBy(() -> loginAttemptLimiter.checkAllowed("10.0.0.99", "Test@Email.com"))
+                        .isInstanceOf(LoginThrottledException.class),
+                () -> assertThatCode(() -> loginAttemptLimiter.checkAllowed("10.0.0.99", "other@email.com")).doesNotThrowAnyException(),
+                () -> assertThat(loginAttemptLimiter.getRejectedByAccountCount()).isEqualTo(1)
+        );
+    }
+
+    @Test
+    void givenFailuresFromAddressOverManyAccounts_whenCheckAllowed_thenAddressRejected() {
+        for (int i = 0; i < 5; i++) {
+            loginAttemptLimiter.recordFailure(ADDRESS, "user" + i + "@email.com");
+        }
+
+        assertAll(
+                () -> assertThatThrownBy(() -> loginAttemptLimiter.checkAllowed(ADDRESS, "new@email.com"))
+                        .isInstanceOf(LoginThrottledException.class),
+                () -> assertThatCode(() -> loginAttemptLimiter.checkAllowed("10.0.0.2", "new@email.com")).doesNotThrowAnyException(),
+                () -> assertThat(loginAttemptLimiter.getRejectedByAddressCount()).isEqualTo(1)
+        );
+    }
+
+    @Test
+    void givenFailuresForAccount_whenLoginSucceeds_thenAccountCountCleared() {
+        loginAttemptLimiter.recordFailure(ADDRESS, EMAIL);
+        loginAttemptLimiter.recordFailure(ADDRESS, EMAIL);
+
+        loginAttemptLimiter.recordSuccess(EMAIL);
+        loginAttemptLimiter.recordFailure(ADDRESS, EMAIL);
+
+        assertThatCode(() -> loginAttemptLimiter.checkAllowed("10.0.0.2", EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void givenFailuresInPreviousWindow_whenWindowSlides_thenOnlyOverlappingShareCounted() {
+        for (int i = 0; i < 3; i++) {
+            loginAttemptLimiter.recordFailure(ADDRESS, EMAIL);
+        }
+
+        now.addAndGet(WINDOW.toMillis() / 2);
+        assertThatThrownBy(() -> loginAttemptLimiter.checkAllowed(null, EMAIL)).isInstanceOf(LoginThrottledException.class);
+
+        now.addAndGet(WINDOW.toMillis());
+        assertThatCode(() -> loginAttemptLimiter.checkAllowed(null, EMAIL)).doesNotThrowAnyException();
+
+        now.addAndGet(WINDOW.toMillis() * 2);
+        assertThatCode(() -> loginAttemptLimiter.checkAllowed(null, EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void givenMoreKeysThanTracked_whenCheckAllowed_thenLeastRecentlyUsedKeysForgotten() {
+        LoginAttemptLimiter smallLimiter = new LoginAttemptLimiter(WINDOW, 1, 1, 1, 2, now::get);
+        smallLimiter.recordFailure(null, "first@email.com");
+        smallLimiter.recordFailure(null, "second@email.com");
+        smallLimiter.recordFailure(null, "third@email.com");
+
+        assertAll(
+                () -> assertThatCode(() -> smallLimiter.checkAllowed(null, "first@email.com")).doesNotThrowAnyException(),
+                () -> assertThatThrownBy(() -> smallLimiter.checkAllowed(null, "third@email.com")).isInstanceOf(LoginThrottledException.class)
+        );
+    }
+}
@@ -0,0 +1,102 @@
+package pl.mateuszmarcyk.charity_donation_app.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ThrottlingAuthenticationProviderTest {
+
+    private static final String ADDRESS = "10.0.0.1";
+    private static final String PASSWORD = "testPW123!!";
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    private ThrottlingAuthenticationProvider authenticationProvider;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptLimiter = new LoginAttemptLimiter(Duration.ofMinutes(15), 10, 1, 4, 1000, System::currentTimeMillis);
+        authenticationProvider = new ThrottlingAuthenticationProvider(loginAttemptLimiter);
+        authenticationProvider.setPasswordEncoder(new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, Duration.ofSeconds(1)));
+        authenticationProvider.setUserDetailsService(customUserDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(customUserDetailsService);
+
+        user = TestDataFactory.getUser();
+        user.setPassword(new BCryptPasswordEncoder(5).encode(PASSWORD));
+    }
+
+    @Test
+    void givenWrongPassword_whenAuthenticate_thenFailureRecordedAndNextAttemptThrottledBeforeUserLoaded() {
+        when(customUserDetailsService.loadUserByUsername(user.getEmail())).thenReturn(new CustomUserDetails(user));
+
+        assertThatThrownBy(() -> authenticationProvider.authenticate(loginRequest(user.getEmail(), "wrongPassword")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> authenticationProvider.authenticate(loginRequest(user.getEmail(), PASSWORD)))
+                .isInstanceOf(LoginThrottledException.class);
+
+        verify(customUserDetailsService, times(1)).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    void givenCorrectPassword_whenAuthenticate_thenAuthenticatedWithoutRehash() {
+        when(customUserDetailsService.loadUserByUsername(user.getEmail())).thenReturn(new CustomUserDetails(user));
+
+        Authentication authentication = authenticationProvider.authenticate(loginRequest(user.getEmail(), PASSWORD));
+
+        assertAll(
+                () -> assertThat(authentication.isAuthenticated()).isTrue(),
+                () -> assertThat(((CustomUserDetails) authentication.getPrincipal()).getId()).isEqualTo(user.getId()),
+                () -> verify(customUserDetailsService, never()).updatePassword(any(), anyString())
+        );
+    }
+
+    @Test
+    void givenHashWithLowerStrength_whenAuthenticate_thenPasswordRehashedWithConfiguredStrength() {
+        user.setPassword(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        when(customUserDetailsService.loadUserByUsername(user.getEmail())).thenReturn(userDetails);
+        when(customUserDetailsService.updatePassword(eq(userDetails), anyString()))
+                .thenAnswer(invocation -> userDetails.withPassword(invocation.getArgument(1)));
+
+        authenticationProvider.authenticate(loginRequest(user.getEmail(), PASSWORD));
+
+        ArgumentCaptor<String> newPasswordCaptor = ArgumentCaptor.forClass(String.class);
+        verify(customUserDetailsService).updatePassword(eq(userDetails), newPasswordCaptor.capture());
+        assertAll(
+                () -> assertThat(newPasswordCaptor.getValue()).startsWith("$2a$05$"),
+                () -> assertThat(new BCryptPasswordEncoder(5).matches(PASSWORD, newPasswordCaptor.getValue())).isTrue()
+        );
+    }
+
+    private static UsernamePasswordAuthenticationToken loginRequest(String email, String password) {
+        UsernamePasswordAuthenticationToken loginRequest = UsernamePasswordAuthenticationToken.unauthenticated(email, password);
+        loginRequest.setDetails(new WebAuthenticationDetails(ADDRESS, null));
+        return loginRequest;
+    }
+}
@@ -20,24 +20,41 @@ import pl.mateuszmarcyk.charity_donation_app.UrlTemplates;
 import pl.mateuszmarcyk.charity_donation_app.ViewNames;
 import pl.mateuszmarcyk.charity_donation_app.config.security.WithMockCustomUser;
 import pl.mateuszmarcyk.charity_donation_app.entity.*;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
 import pl.mateuszmarcyk.charity_donation_app.service.CategoryService;
+import pl.mateuszmarcyk.charity_donation_app.service.DonationExportService;
+import pl.mateuszmarcyk.charity_donation_app.service.DonationImportService;
 import pl.mateuszmarcyk.charity_donation_app.service.DonationService;
 import pl.mateuszmarcyk.charity_donation_app.service.InstitutionService;
+import pl.mateuszmarcyk.charity_donation_app.service.RegisteredEmailFilter;
 import pl.mateuszmarcyk.charity_donation_app.service.UserService;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkOperation;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkResult;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportFormat;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportError;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportReport;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationPage;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
 import pl.mateuszmarcyk.charity_donation_app.util.FileUploadUtil;
 import pl.mateuszmarcyk.charity_donation_app.util.LoggedUserModelHandler;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static pl.mateuszmarcyk.charity_donation_app.ErrorMessages.USER_NOT_FOUND_EXCEPTION_MESSAGE;
 import static pl.mateuszmarcyk.charity_donation_app.ErrorMessages.USER_NOT_FOUND_EXCEPTION_TITLE;
 import static pl.mateuszmarcyk.charity_donation_app.TestDataFactory.*;
@@ -74,6 +91,15 @@ class AdminControllerTest {
     @MockBean
     private InstitutionService institutionService;
 
+    @MockBean
+    private DonationExportService donationExportService;
+
+    @MockBean
+    private DonationImportService donationImportService;
+
+    @MockBean
+    private RegisteredEmailFilter registeredEmailFilter;
+
     private User loggedInUser;
 
     private Map<String, Object> expectedAttributes;
@@ -172,7 +198,7 @@ class AdminControllerTest {
         User userToFind = TestDataFactory.getUser();
         Long userId = 1L;
 
-        when(userService.findUserById(userId)).thenReturn(userToFind);
+        when(userService.findCachedUserById(userId)).thenReturn(userToFind);
         expectedAttributes.put("searchedUser", userToFind);
 
         // Act
@@ -184,7 +210,7 @@ class AdminControllerTest {
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
                 () -> {
                     ArgumentCaptor<Long> longArgumentCaptor = ArgumentCaptor.forClass(Long.class);
-                    verify(userService, times(1)).findUserById(longArgumentCaptor.capture());
+                    verify(userService, times(1)).findCachedUserById(longArgumentCaptor.capture());
                     assertThat(longArgumentCaptor.getValue()).isEqualTo(userId);
                 },
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
@@ -203,7 +229,7 @@ class AdminControllerTest {
         userToFind.getUserTypes().add(new UserType(1L, "ROLE_ADMIN", new ArrayList<>()));
         Long userId = 1L;
 
-        when(userService.findUserById(userId)).thenReturn(userToFind);
+        when(userService.findCachedUserById(userId)).thenReturn(userToFind);
         expectedAttributes.put("searchedUser", userToFind);
         expectedAttributes.put("admin", true);
 
@@ -216,7 +242,7 @@ class AdminControllerTest {
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
                 () -> {
                     ArgumentCaptor<Long> longArgumentCaptor = ArgumentCaptor.forClass(Long.class);
-                    verify(userService, times(1)).findUserById(longArgumentCaptor.capture());
+                    verify(userService, times(1)).findCachedUserById(longArgumentCaptor.capture());
                     assertThat(longArgumentCaptor.getValue()).isEqualTo(userId);
                 },
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes)
@@ -234,7 +260,7 @@ class AdminControllerTest {
         String exceptionMessage = USER_NOT_FOUND_EXCEPTION_MESSAGE;
         Long userId = 1L;
 
-        when(userService.findUserById(userId)).thenThrow(new ResourceNotFoundException(exceptionTitle, exceptionMessage));
+        when(userService.findCachedUserById(userId)).thenThrow(new ResourceNotFoundException(exceptionTitle, exceptionMessage));
 
         expectedAttributes = new HashMap<>(Map.of(
                 "errorTitle", exceptionTitle,
@@ -250,7 +276,7 @@ class AdminControllerTest {
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
                 () -> {
                     ArgumentCaptor<Long> longArgumentCaptor = ArgumentCaptor.forClass(Long.class);
-                    verify(userService, times(1)).findUserById(longArgumentCaptor.capture());
+                    verify(userService, times(1)).findCachedUserById(longArgumentCaptor.capture());
                     assertThat(longArgumentCaptor.getValue()).isEqualTo(userId);
                 },
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
@@ -268,7 +294,7 @@ class AdminControllerTest {
         User userToFind = TestDataFactory.getUser();
         Long userId = 1L;
 
-        when(userService.findUserById(userId)).thenReturn(userToFind);
+        when(userService.findCachedUserById(userId)).thenReturn(userToFind);
 
         expectedAttributes = new HashMap<>(this.expectedAttributes);
         expectedAttributes.put("profile", userToFind.getProfile());
@@ -282,21 +308,48 @@ class AdminControllerTest {
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
                 () -> {
                     ArgumentCaptor<Long> longArgumentCaptor = ArgumentCaptor.forClass(Long.class);
-                    verify(userService, times(1)).findUserById(longArgumentCaptor.capture());
+                    verify(userService, times(1)).findCachedUserById(longArgumentCaptor.capture());
                     assertThat(longArgumentCaptor.getValue()).isEqualTo(userId);
                 },
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler)
         );
     }
 
-    @ParameterizedTest
-    @CsvSource(value = {
-            ADMIN_USER_PROFILE_DETAILS_URL,
-            ADMIN_USER_PROFILE_DETAILS_EDIT_URL
-    })
+    @Test
     @WithMockCustomUser(roles = {"ROLE_ADMIN"})
-    void whenShowUserProfileDetailsByUserIdOrShowUserProfileDetailsEditFormForUserThatIsNotInDatabase_thenAppExceptionHandlerHandlesException(String urlTemplate) throws Exception {
+    void whenShowUserProfileDetailsByUserIdForUserThatIsNotInDatabase_thenAppExceptionHandlerHandlesException() throws Exception {
         // Arrange
+        String urlTemplate = ADMIN_USER_PROFILE_DETAILS_URL;
+        String expectedView = ERROR_PAGE_VIEW;
+        String exceptionTitle = USER_NOT_FOUND_EXCEPTION_TITLE;
+        String exceptionMessage = USER_NOT_FOUND_EXCEPTION_MESSAGE;
+        Long userId = 1L;
+
+        when(userService.findCachedUserById(userId)).thenThrow(new ResourceNotFoundException(exceptionTitle, exceptionMessage));
+
+        expectedAttributes = Map.of(
+                "errorTitle", exceptionTitle,
+                "errorMessage", exceptionMessage
+        );
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get(urlTemplate, userId.toString())).andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertMvcResult(mvcResult, expectedView, 200),
+                () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
+                () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
+                () -> verify(userService, times(1)).findCachedUserById(userId),
+                () -> assertThat(mvcResult.getModelAndView().getModel().get("searchedUser")).isNull()
+
+        );
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {"ROLE_ADMIN"})
+    void whenShowUserProfileDetailsEditFormForUserThatIsNotInDatabase_thenAppExceptionHandlerHandlesException() throws Exception {
+        // Arrange
+        String urlTemplate = ADMIN_USER_PROFILE_DETAILS_EDIT_URL;
         String expectedView = ERROR_PAGE_VIEW;
         String exceptionTitle = USER_NOT_FOUND_EXCEPTION_TITLE;
         String exceptionMessage = USER_NOT_FOUND_EXCEPTION_MESSAGE;
@@ -467,7 +520,7 @@ class AdminControllerTest {
                 () -> assertMvcResult(mvcResult, expectedView, 200),
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
-                () -> verify(userRepository, never()).findByEmail(userToEdit.getEmail()),
+                () -> verify(userRepository, never()).findIdByNormalizedEmail(any()),
                 () -> verify(userService, never()).updateUserEmail(any(User.class))
         );
     }
@@ -482,7 +535,8 @@ class AdminControllerTest {
         userToEdit.setId(22L);
         String expectedRedirectUrl = UrlTemplates.ADMIN_ALL_USERS_URL + "/" + userToEdit.getId();
 
-        when(userRepository.findByEmail(userToEdit.getEmail())).thenReturn(Optional.empty());
+        when(registeredEmailFilter.mightBeRegistered(userToEdit.getEmail())).thenReturn(true);
+        when(userRepository.findIdByNormalizedEmail(RegisteredEmailFilter.normalize(userToEdit.getEmail()))).thenReturn(Optional.empty());
 
         // Act
         MvcResult mvcResult = mockMvc.perform(post(urlTemplate)
@@ -502,12 +556,44 @@ class AdminControllerTest {
 
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
 
-                () -> verify(userRepository, times(1)).findByEmail(userToEdit.getEmail()),
+                () -> verify(userRepository, times(1)).findIdByNormalizedEmail(RegisteredEmailFilter.normalize(userToEdit.getEmail())),
                 () -> verify(userService, times(1)).updateUserEmail(userArgumentCaptor.capture()),
                 () -> assertThat(userArgumentCaptor.getValue()).isSameAs(userToEdit)
         );
     }
 
+    @Test
+    @WithMockCustomUser(email = "admin@admin.com", roles = {"ROLE_ADMIN"})
+    void whenProcessChangeEmailFormAndEmailTakenMeanwhile_thenStatusIsOkAndFormRenderedWithError() throws Exception {
+        // Arrange
+        String urlTemplate = UrlTemplates.ADMIN_USERS_EMAIL_CHANGE_URL;
+        String expectedViewName = ViewNames.ADMIN_USERS_CHANGE_EMAIL_FORM_VIEW;
+
+        User userToEdit = TestDataFactory.getUser();
+        userToEdit.setId(22L);
+
+        when(registeredEmailFilter.mightBeRegistered(userToEdit.getEmail())).thenReturn(false);
+        doThrow(new EmailAlreadyUsedException("Ten email jest już w użyciu", "Email zajęty"))
+                .when(userService).updateUserEmail(userToEdit);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(post(urlTemplate)
+                        .flashAttr("userToEdit", userToEdit)
+                        .param("id", String.valueOf(userToEdit.getId()))
+                        .with(csrf()))
+                .andExpect(model().attributeHasErrors("userToEdit"))
+                .andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertThat(mvcResult.getResponse().getStatus()).isEqualTo(200),
+                () -> assertThat(mvcResult.getModelAndView()).isNotNull(),
+                () -> assertThat(mvcResult.getModelAndView().getViewName()).isEqualTo(expectedViewName),
+                () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
+                () -> verify(userService, times(1)).updateUserEmail(userToEdit)
+        );
+    }
+
     @Test
     @WithMockCustomUser(roles = {"ROLE_ADMIN"})
     void whenProcessChangePasswordFormForValidPassword_thenPasswordChangedAndStatusIsRedirected() throws Exception {
@@ -789,7 +875,7 @@ class AdminControllerTest {
         String expectedRedirectedUrl = ADMIN_ALL_USERS_URL;
         Long userId = 1L;
 
-        when(userService.findUserById(userId)).thenReturn(loggedInUser);
+        when(userService.findCachedUserById(userId)).thenReturn(loggedInUser);
 
         // Act
         MvcResult mvcResult = mockMvc.perform(post(urlTemplate)
@@ -818,7 +904,7 @@ class AdminControllerTest {
         Long userId = 1L;
         loggedInUser.getUserTypes().add(new UserType(1L, "ROLE_ADMIN", new ArrayList<>()));
 
-        when(userService.findUserById(userId)).thenReturn(loggedInUser);
+        when(userService.findCachedUserById(userId)).thenReturn(loggedInUser);
 
         // Act
         MvcResult mvcResult = mockMvc.perform(post(urlTemplate)
@@ -881,15 +967,21 @@ class AdminControllerTest {
         String urlTemplate = UrlTemplates.ADMIN_DONATIONS_URL;
         String expectedView = ADMIN_DONATIONS_ALL_VIEW;
         String sortType = "testSortType";
-        List<Donation> donations = List.of(getDonation(), getDonation());
+        String afterCursor = "afterCursor";
+        List<DonationRow> donations = List.of(getDonationRow(), getDonationRow());
+        DonationPage donationPage = new DonationPage(donations, "previousCursor", "nextCursor");
 
-        when(donationService.findAll(sortType)).thenReturn(donations);
+        when(donationService.findAllPage(sortType, afterCursor, null)).thenReturn(donationPage);
 
         expectedAttributes.put("donations", donations);
+        expectedAttributes.put("sortType", sortType);
+        expectedAttributes.put("previousCursor", "previousCursor");
+        expectedAttributes.put("nextCursor", "nextCursor");
 
         // Act
         MvcResult mvcResult = mockMvc.perform(get(urlTemplate)
-                        .param("sortType", sortType))
+                        .param("sortType", sortType)
+                        .param("after", afterCursor))
                 .andReturn();
 
         // Assert
@@ -899,7 +991,7 @@ class AdminControllerTest {
                 () -> assertMvcResult(mvcResult, expectedView, 200),
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
-                () -> verify(donationService, times(1)).findAll(stringArgumentCaptor.capture()),
+                () -> verify(donationService, times(1)).findAllPage(stringArgumentCaptor.capture(), eq(afterCursor), isNull()),
                 () -> assertThat(stringArgumentCaptor.getValue()).isEqualTo(sortType)
         );
     }
@@ -1071,6 +1163,140 @@ class AdminControllerTest {
         );
     }
 
+    @ParameterizedTest(name = "format={0}")
+    @CsvSource({
+            "csv, CSV, text/csv;charset=UTF-8, donations.csv",
+            "ndjson, NDJSON, application/x-ndjson;charset=UTF-8, donations.ndjson"
+    })
+    @WithMockCustomUser(roles = {"ROLE_ADMIN"})
+    void whenExportDonations_thenBodyStreamedAsAttachment(String format, DonationExportFormat expectedFormat, String expectedContentType, String expectedFileName) throws Exception {
+        // Arrange
+        String urlTemplate = ADMIN_DONATIONS_EXPORT_URL;
+        when(donationExportService.getTimeout()).thenReturn(Duration.ofMinutes(30));
+        when(donationExportService.export(eq(expectedFormat), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("exported".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // Act
+        MvcResult asyncResult = mockMvc.perform(get(urlTemplate).param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertThat(mvcResult.getResponse().getStatus()).isEqualTo(200),
+                () -> assertThat(mvcResult.getResponse().getContentType()).isEqualTo(expectedContentType),
+                () -> assertThat(mvcResult.getResponse().getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"" + expectedFileName + "\""),
+                () -> assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo("exported"),
+                () -> assertThat(asyncResult.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis()),
+                () -> assertThat(mvcResult.getResponse().getForwardedUrl()).isNull(),
+                () -> verify(donationExportService, times(1)).export(eq(expectedFormat), any(OutputStream.class))
+        );
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {"ROLE_USER"})
+    void givenNonAdminUser_whenExportDonations_thenAccessDenied() throws Exception {
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get(ADMIN_DONATIONS_EXPORT_URL)).andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertThat(mvcResult.getResponse().getForwardedUrl()).isEqualTo("/error/403"),
+                () -> verify(donationExportService, never()).export(any(), any())
+        );
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {"ROLE_ADMIN"})
+    void whenShowDonationImportForm_thenStatusIsOkAndModelIsPopulated() throws Exception {
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get(ADMIN_DONATIONS_IMPORT_URL)).andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertMvcResult(mvcResult, ADMIN_DONATIONS_IMPORT_VIEW, 200),
+                () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler)
+        );
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {"ROLE_ADMIN"})
+    void whenImportDonations_thenReportAddedToModel() throws Exception {
+        // Arrange
+        byte[] content = "quantity\n1\n".getBytes(StandardCharsets.UTF_8);
+        DonationImportReport report = new DonationImportReport(1L, 1L, 10L, List.of(new DonationImportError(3L, "Nieznana kategoria: Meble")));
+        when(donationImportService.importDonations(any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream inputStream = invocation.getArgument(0);
+            assertThat(inputStream.readAllBytes()).isEqualTo(content);
+            return report;
+        });
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(multipart(ADMIN_DONATIONS_IMPORT_URL)
+                        .file(new MockMultipartFile("file", "donations.csv", "text/csv", content))
+                        .with(csrf()))
+                .andReturn();
+
+        // Assert
+        expectedAttributes.put("report", report);
+        assertAll(
+                () -> assertMvcResult(mvcResult, ADMIN_DONATIONS_IMPORT_VIEW, 200),
+                () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
+                () -> assertThat(mvcResult.getResponse().getContentAsString()).contains("Nieznana kategoria: Meble"),
+                () -> verify(donationImportService, times(1)).importDonations(any(InputStream.class))
+        );
+    }
+
+    @ParameterizedTest(name = "operation={0}")
+    @CsvSource({"archive, ARCHIVE", "unarchive, UNARCHIVE", "delete, DELETE"})
+    @WithMockCustomUser(roles = {"ROLE_ADMIN"})
+    void whenBulkDonationOperation_thenSelectedIdsPassedAndSummaryFlashed(String operation, DonationBulkOperation expectedOperation) throws Exception {
+        // Arrange
+        DonationBulkResult result = new DonationBulkResult(expectedOperation, 3, 2);
+        List<Long> expectedIds = List.of(1L, 2L, 3L);
+        switch (expectedOperation) {
+            case ARCHIVE -> when(donationService.archiveDonations(expectedIds)).thenReturn(result);
+            case UNARCHIVE -> when(donationService.unArchiveDonations(expectedIds)).thenReturn(result);
+            case DELETE -> when(donationService.deleteDonations(expectedIds)).thenReturn(result);
+        }
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(post(ADMIN_DONATIONS_BULK_URL, operation)
+                        .param("donationIds", "1", "2", "3")
+                        .with(csrf()))
+                .andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertThat(mvcResult.getResponse().getStatus()).isEqualTo(302),
+                () -> assertThat(mvcResult.getResponse().getRedirectedUrl()).isEqualTo(ADMIN_DONATIONS_URL),
+                () -> assertThat(mvcResult.getFlashMap().get("bulkResult")).isSameAs(result),
+                () -> verify(donationService, never()).findDonationById(any()),
+                () -> verify(donationService, never()).archiveDonation(any(Donation.class)),
+                () -> verify(donationService, never()).deleteDonation(any(Donation.class))
+        );
+    }
+
+    @Test
+    @WithMockCustomUser(roles = {"ROLE_ADMIN"})
+    void whenBulkArchiveWithoutSelection_thenServiceCalledWithNoIds() throws Exception {
+        // Arrange
+        when(donationService.archiveDonations(null)).thenReturn(new DonationBulkResult(DonationBulkOperation.ARCHIVE, 0, 0));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(post(ADMIN_DONATIONS_BULK_URL, "archive").with(csrf())).andReturn();
+
+        // Assert
+        assertAll(
+                () -> assertThat(mvcResult.getResponse().getStatus()).isEqualTo(302),
+                () -> verify(donationService, times(1)).archiveDonations(null)
+        );
+    }
+
     @Test
     @WithMockCustomUser(roles = {"ROLE_ADMIN"})
     void whenShowDonationDetails_thenStatusIsOkAndAllAttributesAddedToModel() throws Exception {
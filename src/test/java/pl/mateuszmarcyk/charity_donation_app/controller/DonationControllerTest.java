@@ -125,7 +125,7 @@ class DonationControllerTest {
 
         Long id = 1L;
         Donation spyDonationToSave = spy(getDonation());
-        when(userService.findUserById(id)).thenReturn(loggedInUser);
+        when(userService.getUserReference(id)).thenReturn(loggedInUser);
 
         // Act
         MvcResult mvcResult = mockMvc.perform(post(urlTemplate)
@@ -138,7 +138,7 @@ class DonationControllerTest {
                 () -> verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler),
                 () -> {
                     ArgumentCaptor<Long> longArgumentCaptor = ArgumentCaptor.forClass(Long.class);
-                    verify(userService).findUserById(longArgumentCaptor.capture());
+                    verify(userService).getUserReference(longArgumentCaptor.capture());
                     Long capturedUserId = longArgumentCaptor.getValue();
                     assertThat(capturedUserId).isEqualTo(id);
                 },
@@ -193,7 +193,7 @@ class DonationControllerTest {
                 () -> verify(institutionService, times(1)).findAll(),
                 () -> verify(messageSource, times(1)).getMessage("donation.form.error.message", null, Locale.getDefault()),
                 () -> assertModelAndViewAttributes(mvcResult, expectedAttributes),
-                () -> verify(userService, never()).findUserById(any(Long.class)),
+                () -> verify(userService, never()).getUserReference(any(Long.class)),
                 () -> verify(invalidDonation, never()).setUser(any(User.class)),
                 () -> verify(donationService, never()).save(any(Donation.class))
         );
@@ -20,6 +20,7 @@ import pl.mateuszmarcyk.charity_donation_app.UrlTemplates;
 import pl.mateuszmarcyk.charity_donation_app.ViewNames;
 import pl.mateuszmarcyk.charity_donation_app.config.security.WithMockCustomUser;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenAlreadyExpiredException;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenNotFoundException;
@@ -152,6 +153,32 @@ class RegistrationControllerTest {
         assertThat(modelAndView.getModel()).containsEntry("registrationMessage", registrationCompleteMessage);
     }
 
+    @Test
+    @WithAnonymousUser
+    void whenProcessRegistrationFormAndEmailTakenMeanwhile_thenStatusIsOkAndFormRenderedWithError() throws Exception {
+//        Arrange
+        String urlTemplate = UrlTemplates.REGISTRATION_URL;
+        String expectedViewName = ViewNames.REGISTER_FORM_VIEW;
+        User userToRegister = TestDataFactory.getUser();
+
+        doThrow(new EmailAlreadyUsedException("Ten email jest już w użyciu", "Email zajęty"))
+                .when(registrationService).registerUser(any(User.class), any(HttpServletRequest.class));
+
+//        Act & Assert
+        mockMvc.perform(post(urlTemplate)
+                        .flashAttr("user", userToRegister))
+                .andExpect(status().isOk())
+                .andExpect(view().name(expectedViewName))
+                .andExpect(model().attributeHasErrors("user"))
+                .andReturn();
+
+        verify(registrationService, never()).getRegistrationCompleteMessage();
+        assertAll(
+                () -> assertThat(userToRegister.getPassword()).isNull(),
+                () -> assertThat(userToRegister.getPasswordRepeat()).isNull()
+        );
+    }
+
     @Test
     @WithAnonymousUser
     void whenProcessRegistrationFormAndUseIsInvalid_thenStatusIsOkAndViewRendered() throws Exception {
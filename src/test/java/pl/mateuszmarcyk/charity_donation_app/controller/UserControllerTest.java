@@ -12,6 +12,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,10 +32,12 @@ import pl.mateuszmarcyk.charity_donation_app.config.security.WithMockCustomUser;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
+import pl.mateuszmarcyk.charity_donation_app.exception.EmailAlreadyUsedException;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
 import pl.mateuszmarcyk.charity_donation_app.service.DonationService;
 import pl.mateuszmarcyk.charity_donation_app.service.UserService;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
 import pl.mateuszmarcyk.charity_donation_app.util.FileUploadUtil;
 import pl.mateuszmarcyk.charity_donation_app.util.LoggedUserModelHandler;
 import pl.mateuszmarcyk.charity_donation_app.util.LogoutHandler;
@@ -44,6 +49,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -137,8 +143,9 @@ class UserControllerTest {
         String expectedRedirectUrl = UrlTemplates.USER_PROFILE_DETAILS_URL;
         
         MockMultipartFile multipartFile = new MockMultipartFile("image", new byte[0]);
+        User profileOwner = TestDataFactory.getUser();
 
-        when(loggedUserModelHandler.getUser(any(CustomUserDetails.class))).thenReturn(loggedInUser);
+        when(userService.findUserById(1L)).thenReturn(profileOwner);
 
 //        Act & Assert
         mockMvc.perform(multipart(urlTemplate)
@@ -150,7 +157,8 @@ class UserControllerTest {
                 .andExpect(redirectedUrl(expectedRedirectUrl))
                 .andReturn();
 
-        verify(loggedUserModelHandler, times(1)).getUser(any(CustomUserDetails.class));
+//        the cached user is shared between requests, the profile is set on a freshly loaded one
+        verify(loggedUserModelHandler, never()).getUser(any(CustomUserDetails.class));
 
         ArgumentCaptor<UserProfile> userProfileArgumentCaptor = ArgumentCaptor.forClass(UserProfile.class);
         ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
@@ -160,7 +168,7 @@ class UserControllerTest {
         assertThat(capturedProfile).isSameAs(loggedInUser.getProfile());
 
         User capturedUser = userArgumentCaptor.getValue();
-        assertThat(capturedUser).isSameAs(loggedInUser);
+        assertThat(capturedUser).isSameAs(profileOwner);
     }
 
     @Test
@@ -194,6 +202,8 @@ class UserControllerTest {
     void whenShowUserPasswordOrEmailEditForm_thenStatusIsOkAndModelAttributesAdded(String urlTemplate, String expectedView) throws Exception {
         //        Arrange
         loggedInUser.setPasswordRepeat(null);
+        User userToEdit = TestDataFactory.getUser();
+        when(userService.findUserById(1L)).thenReturn(userToEdit);
 //        Act & Assert
         MvcResult mvcResult = mockMvc.perform(get(urlTemplate))
                 .andExpect(status().isOk())
@@ -205,9 +215,11 @@ class UserControllerTest {
 
         GlobalTestMethodVerifier.verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler);
 
-        assertThat(loggedInUser.getPasswordRepeat()).isEqualTo(loggedInUser.getPassword());
+//        the form fills passwordRepeat on its own copy, the cached user seen by other requests stays untouched
+        assertThat(loggedInUser.getPasswordRepeat()).isNull();
+        assertThat(userToEdit.getPasswordRepeat()).isEqualTo(userToEdit.getPassword());
         assertUserAndProfileInModel(modelAndView, loggedInUser);
-        assertThat(modelAndView.getModel()).containsEntry("userToEdit", loggedInUser);
+        assertThat(modelAndView.getModel().get("userToEdit")).isSameAs(userToEdit);
     }
 
     @Test
@@ -285,7 +297,7 @@ class UserControllerTest {
         User capturedUser = userArgumentCaptor.getValue();
         assertThat(capturedUser).isSameAs(loggedInUser);
 
-        verify(logoutHandler, times(1)).changeEmailInUserDetails(userArgumentCaptor.capture());
+        verify(logoutHandler, times(1)).changeEmailInUserDetails(userArgumentCaptor.capture(), any(HttpServletRequest.class), any(HttpServletResponse.class));
         assertThat(userArgumentCaptor.getValue()).isEqualTo(changedUser);
     }
 
@@ -314,6 +326,29 @@ class UserControllerTest {
     }
 
 
+    @Test
+    @WithMockCustomUser
+    void whenProcessChangeEmailFormAndEmailTakenMeanwhile_thenStatusIsOkAndFormRenderedWithError() throws Exception {
+        String utlTemplate = UrlTemplates.USER_ACCOUNT_CHANGE_EMAIL_URL;
+        String expectedViewName = ViewNames.USER_EMAIL_EDIT_VIEW;
+
+        when(userService.changeEmail(loggedInUser)).thenThrow(new EmailAlreadyUsedException("Ten email jest już w użyciu", "Email zajęty"));
+
+//        Act & Assert
+        mockMvc.perform(post(utlTemplate)
+                        .param("id", "1")
+                        .flashAttr("userToEdit", loggedInUser))
+                .andExpect(status().isOk())
+                .andExpect(view().name(expectedViewName))
+                .andExpect(model().attributeHasErrors("userToEdit"))
+                .andReturn();
+
+        GlobalTestMethodVerifier.verifyInvocationOfLoggedUserModelHandlerMethods(loggedUserModelHandler);
+
+        verify(userService, times(1)).changeEmail(loggedInUser);
+        verify(logoutHandler, never()).changeEmailInUserDetails(any(User.class), any(HttpServletRequest.class), any(HttpServletResponse.class));
+    }
+
     @Test
     @WithMockCustomUser
     void whenArchiveDonation_thenDonationServiceInvokedStatusIsRedirected() throws Exception {
@@ -392,7 +427,7 @@ class UserControllerTest {
         assertThat(capturedId).isEqualTo(loggedInUser.getId());
 
         ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(logoutHandler, times(1)).changeEmailInUserDetails(userArgumentCaptor.capture());
+        verify(logoutHandler, times(1)).changeEmailInUserDetails(userArgumentCaptor.capture(), any(HttpServletRequest.class), any(HttpServletResponse.class));
         assertThat(userArgumentCaptor.getValue()).isEqualTo(updatedUser);
     }
 
@@ -403,12 +438,13 @@ class UserControllerTest {
         String utlTemplate = UrlTemplates.USER_DONATIONS_URL;
         String expectedViewName = ViewNames.USER_DONATIONS_VIEW;
         String sortType = "testSortType";
-        List<Donation> donations = new ArrayList<>(List.of(TestDataFactory.getDonation(), TestDataFactory.getDonation()));
+        List<DonationRow> donations = new ArrayList<>(List.of(TestDataFactory.getDonationRow(), TestDataFactory.getDonationRow()));
+        Page<DonationRow> donationsPage = new PageImpl<>(donations, PageRequest.of(1, 2), 6);
+
+        when(donationService.getDonationsForUserSortedBy(sortType, loggedInUser, 1, 2)).thenReturn(donationsPage);
 
-        when(donationService.getDonationsForUserSortedBy(sortType, loggedInUser)).thenReturn(donations);
-        
 //        Act & Assert
-        MvcResult mvcResult = mockMvc.perform(get(utlTemplate).param("sortType", sortType))
+        MvcResult mvcResult = mockMvc.perform(get(utlTemplate).param("sortType", sortType).param("page", "1").param("size", "2"))
                 .andExpect(status().isOk())
                 .andExpect(view().name(expectedViewName))
                 .andReturn();
@@ -421,7 +457,7 @@ class UserControllerTest {
 
         ArgumentCaptor<String> stringArgumentCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationService, times(1)).getDonationsForUserSortedBy(stringArgumentCaptor.capture(), userArgumentCaptor.capture());
+        verify(donationService, times(1)).getDonationsForUserSortedBy(stringArgumentCaptor.capture(), userArgumentCaptor.capture(), eq(1), eq(2));
 
         String capturedSortType = stringArgumentCaptor.getValue();
         User capturedUser = userArgumentCaptor.getValue();
@@ -429,10 +465,29 @@ class UserControllerTest {
         assertAll(
                 () -> assertThat(capturedSortType).isEqualTo(sortType),
                 () -> assertThat(capturedUser).isSameAs(loggedInUser),
-                () -> assertIterableEquals(donations, (List) modelAndView.getModel().get("donations"))
+                () -> assertIterableEquals(donations, (List) modelAndView.getModel().get("donations")),
+                () -> assertThat(modelAndView.getModel().get("donationsPage")).isSameAs(donationsPage),
+                () -> assertThat(modelAndView.getModel().get("sortType")).isEqualTo(sortType)
         );
     }
 
+    @Test
+    @WithMockCustomUser
+    void whenShowAllDonationsWithoutPageParameters_thenDefaultPageRequested() throws Exception {
+        //       Arrange
+        String utlTemplate = UrlTemplates.USER_DONATIONS_URL;
+        String expectedViewName = ViewNames.USER_DONATIONS_VIEW;
+
+        when(donationService.getDonationsForUserSortedBy(null, loggedInUser, 0, 20)).thenReturn(Page.empty());
+
+//        Act & Assert
+        mockMvc.perform(get(utlTemplate))
+                .andExpect(status().isOk())
+                .andExpect(view().name(expectedViewName));
+
+        verify(donationService, times(1)).getDonationsForUserSortedBy(null, loggedInUser, 0, 20);
+    }
+
     @Test
     @WithMockCustomUser
     void whenShowDonationDetails_thenStatusIsOkAndAllAttributesAddedToModel() throws Exception {
@@ -1,6 +1,9 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +18,7 @@ import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,6 +37,9 @@ class CategoryRepositoryTest {
     @Autowired
     TestEntityManager testEntityManager;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
 
     @Test
     void givenCategoryRepository_whenFindByIdFetchDonations_thenReturnCategoryWithoutDonations() {
@@ -88,4 +95,66 @@ class CategoryRepositoryTest {
 
         assertThat(optionalCategory).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenCategoriesAlreadyQueried_whenFindAll_thenResultServedFromCacheWithoutStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Category> firstResult = categoryRepository.findAll();
+        testEntityManager.clear();
+
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+        long preparedStatements = statistics.getPrepareStatementCount();
+
+        List<Category> secondResult = categoryRepository.findAll();
+
+        assertAll(
+                () -> assertThat(secondResult).extracting(Category::getId).containsExactlyElementsOf(firstResult.stream().map(Category::getId).toList()),
+                () -> assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits + 1),
+                () -> assertThat(statistics.getPrepareStatementCount()).isEqualTo(preparedStatements)
+        );
+    }
+
+    @Test
+    void givenDonationsWithOneAndManyCategories_whenCountDonationsWithOnlyCategory_thenOnlySingleCategoryDonationsCounted() {
+        Institution institution = testEntityManager.find(Institution.class, 1L);
+        User user = testEntityManager.find(User.class, 2L);
+        Category food = testEntityManager.find(Category.class, 1L);
+        Category toys = testEntityManager.find(Category.class, 2L);
+
+        Donation onlyFood = TestDataFactory.getDonationForRepositoryTest(user, institution, food);
+        Donation foodAndToys = TestDataFactory.getDonationForRepositoryTest(user, institution, food);
+        foodAndToys.getCategories().add(toys);
+        testEntityManager.persist(onlyFood);
+        testEntityManager.persist(foodAndToys);
+        testEntityManager.flush();
+
+        assertAll(
+                () -> assertThat(categoryRepository.countDonationsWithOnlyCategory(food.getId())).isEqualTo(1L),
+                () -> assertThat(categoryRepository.countDonationsWithOnlyCategory(toys.getId())).isZero(),
+                () -> assertThat(categoryRepository.countDonationsWithOnlyCategory(3L)).isZero()
+        );
+    }
+
+    @Test
+    void givenCategoryLinkedToDonations_whenDeleteDonationLinksByCategoryId_thenOnlyItsJoinRowsRemoved() {
+        Institution institution = testEntityManager.find(Institution.class, 1L);
+        User user = testEntityManager.find(User.class, 2L);
+        Category food = testEntityManager.find(Category.class, 1L);
+        Category toys = testEntityManager.find(Category.class, 2L);
+
+        Donation foodAndToys = TestDataFactory.getDonationForRepositoryTest(user, institution, food);
+        foodAndToys.getCategories().add(toys);
+        testEntityManager.persist(foodAndToys);
+        testEntityManager.flush();
+
+        int removedLinks = categoryRepository.deleteDonationLinksByCategoryId(toys.getId());
+        testEntityManager.clear();
+        Donation donation = testEntityManager.find(Donation.class, foodAndToys.getId());
+
+        assertAll(
+                () -> assertThat(removedLinks).isEqualTo(1),
+                () -> assertThat(donation.getCategories()).extracting(Category::getId).containsExactly(food.getId())
+        );
+    }
+}
@@ -1,11 +1,21 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -14,13 +24,26 @@ import pl.mateuszmarcyk.charity_donation_app.entity.Category;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
-
+import pl.mateuszmarcyk.charity_donation_app.service.DonationService;
+import pl.mateuszmarcyk.charity_donation_app.service.DonationStatisticsService;
+import pl.mateuszmarcyk.charity_donation_app.service.OutboxService;
+import pl.mateuszmarcyk.charity_donation_app.util.ApplicationMetrics;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationKey;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationPage;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportLine;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationSortType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.mock;
 
 @Transactional
 @Sql(scripts = "classpath:setup-data.sql")
@@ -29,12 +52,17 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 @ActiveProfiles("test")
 class DonationRepositoryTest {
 
+    private static final int LARGE_DONATION_COUNT = 500;
+
     @Autowired
     private DonationRepository donationRepository;
 
     @Autowired
     TestEntityManager testEntityManager;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     void givenDonationRepository_whenCountDonations_thenReturnZero() {
 
@@ -180,110 +208,75 @@ class DonationRepositoryTest {
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserInDatabaseAndNoDonations_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 2L);
-
-        List<Donation> donations = donationRepository.findAllDonationsByUser(user);
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationsByNullUserInDatabaseAndNoDonations_thenListIsEmpty() {
-        List<Donation> donations = donationRepository.findAllDonationsByUser(null);
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationsByUser_thenListSizeIsTwo() {
+    void givenDonationRepository_whenFindUserDonationById_thenDonationFound() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
         Category category = testEntityManager.find(Category.class, 1L);
 
         Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        donationOne.setQuantity(10);
 
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        Donation savedDonationOne = testEntityManager.persist(donationOne);
 
-        testEntityManager.persist(donationOne);
-        testEntityManager.persist(donationTwo);
+        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(user, savedDonationOne.getId());
 
-        List<Donation> donations = donationRepository.findAllDonationsByUser(user);
-        assertThat(donations).hasSize(2);
+        assertAll(
+                () -> assertThat(optionalDonation).isPresent(),
+                () -> assertThat(optionalDonation).contains(savedDonationOne),
+                () -> assertThat(optionalDonation.get().getUser()).isEqualTo(user)
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByCreated_thenReturnEmptyList() {
+    void givenDonationRepository_whenFindUserDonationByIdForNullUser_thenDonationNotFound() {
+        Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
+        Category category = testEntityManager.find(Category.class, 1L);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByCreated(user);
-
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationsByNullUserSortedByCreated_thenReturnEmptyList() {
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByCreated(null);
-
-        assertThat(donations).isEmpty();
-    }
+        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        donationOne.setQuantity(10);
 
-    @Test
-    void givenDonationRepository_whenFindAllDonationsByUserThatDoesNotExistSortedByCreated_thenReturnEmptyList() {
-        User user = testEntityManager.find(User.class, 4L);
+        Donation savedDonationOne = testEntityManager.persist(donationOne);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByCreated(user);
+        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(null, savedDonationOne.getId());
 
-        assertThat(donations).isEmpty();
+        assertThat(optionalDonation).isEmpty();
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByCreated_thenListSorted() {
-
+    void givenDonationRepository_whenFindUserDonationByIdForNullUserAndNullDonationId_thenDonationNotFound() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
         Category category = testEntityManager.find(Category.class, 1L);
 
         Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        donationOne.setQuantity(10);
 
         testEntityManager.persist(donationOne);
-        testEntityManager.persist(donationTwo);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByCreated(user);
+        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(null, null);
 
-        assertAll(
-                () -> assertThat(donations).isSortedAccordingTo(Comparator.comparing(Donation::getCreated).reversed()),
-                () -> assertThat(donations).hasSize(2));
+        assertThat(optionalDonation).isEmpty();
     }
 
-
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByQuantityDesc_thenListIsEmpty() {
+    void givenDonationRepository_whenFindUserDonationByIdForUserAndNullDonationId_thenDonationNotFound() {
+        Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
+        Category category = testEntityManager.find(Category.class, 1L);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityDesc(user);
-
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationByNullUserSortedByQuantityDesc_thenListIsEmpty() {
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityDesc(null);
-
-        assertThat(donations).isEmpty();
-    }
+        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        donationOne.setQuantity(10);
 
-    @Test
-    void givenDonationRepository_whenFindAllDonationByUserNotPresentSortedByQuantityDesc_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 4L);
+        testEntityManager.persist(donationOne);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityDesc(user);
+        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(user, null);
 
-        assertThat(donations).isEmpty();
+        assertThat(optionalDonation).isEmpty();
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByQuantityDesc_thenListIsSorted() {
+    void givenDonationRepository_whenFindUserDonationByIdForUserAndDonationNotBelongingToUserId_thenDonationNotFound() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
         Category category = testEntityManager.find(Category.class, 1L);
@@ -291,249 +284,306 @@ class DonationRepositoryTest {
         Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
         donationOne.setQuantity(10);
 
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(null, institution, category);
 
         testEntityManager.persist(donationOne);
-        testEntityManager.persist(donationTwo);
+        Donation savedDonationTwo = testEntityManager.persist(donationTwo);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityDesc(user);
+        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(user, savedDonationTwo.getId());
 
-        System.out.println(donations);
-        assertAll(
-                () -> assertThat(donations).hasSize(2),
-                () -> assertThat(donations).isSortedAccordingTo(Comparator.comparing(Donation::getQuantity).reversed())
-        );
+        assertThat(optionalDonation).isEmpty();
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByQuantityAsc_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 2L);
+    void givenDonationRepository_whenFindByFromInitialPosition_thenFirstPageReturned() {
+        persistDonationsWithQuantities(3, 1, 2);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityAsc(user);
+        Window<DonationKey> window = donationRepository.findKeysBy(ScrollPosition.keyset(), DonationSortType.QUANTITY_DESC.getSort(), Limit.of(2));
 
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationByNullUserSortedByQuantityAsc_thenListIsEmpty() {
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityAsc(null);
-
-        assertThat(donations).isEmpty();
+        assertAll(
+                () -> assertThat(window.getContent()).extracting(DonationKey::getQuantity).containsExactly(3, 2),
+                () -> assertThat(window.hasNext()).isTrue()
+        );
     }
 
-
     @Test
-    void givenDonationRepository_whenFindAllDonationByUserNotPresentSortedByQuantityAsc_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 4L);
+    void givenDonationRepository_whenFindByFromLastElementOfFirstPage_thenNextPageReturned() {
+        persistDonationsWithQuantities(3, 1, 2);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityAsc(user);
+        Window<DonationKey> firstPage = donationRepository.findKeysBy(ScrollPosition.keyset(), DonationSortType.QUANTITY_DESC.getSort(), Limit.of(2));
+        Window<DonationKey> secondPage = donationRepository.findKeysBy(firstPage.positionAt(1), DonationSortType.QUANTITY_DESC.getSort(), Limit.of(2));
 
-        assertThat(donations).isEmpty();
+        assertAll(
+                () -> assertThat(secondPage.getContent()).extracting(DonationKey::getQuantity).containsExactly(1),
+                () -> assertThat(secondPage.hasNext()).isFalse()
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByQuantityAsc_thenListIsSorted() {
-        Institution institution = testEntityManager.find(Institution.class, 1L);
-        User user = testEntityManager.find(User.class, 2L);
-        Category category = testEntityManager.find(Category.class, 1L);
-
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
-
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+    void givenDonationRepository_whenFindByBackwardFromFirstElementOfSecondPage_thenPreviousPageReturned() {
+        persistDonationsWithQuantities(4, 3, 2, 1);
 
-        testEntityManager.persist(donationOne);
-        testEntityManager.persist(donationTwo);
+        Window<DonationKey> firstPage = donationRepository.findKeysBy(ScrollPosition.keyset(), DonationSortType.QUANTITY_ASC.getSort(), Limit.of(2));
+        Window<DonationKey> secondPage = donationRepository.findKeysBy(firstPage.positionAt(1), DonationSortType.QUANTITY_ASC.getSort(), Limit.of(2));
+        ScrollPosition backwardPosition = ScrollPosition.backward(((KeysetScrollPosition) secondPage.positionAt(0)).getKeys());
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByQuantityAsc(user);
+        Window<DonationKey> previousPage = donationRepository.findKeysBy(backwardPosition, DonationSortType.QUANTITY_ASC.getSort(), Limit.of(2));
 
-        System.out.println(donations);
         assertAll(
-                () -> assertThat(donations).hasSize(2),
-                () -> assertThat(donations).isSortedAccordingTo(Comparator.comparing(Donation::getQuantity))
+                () -> assertThat(secondPage.getContent()).extracting(DonationKey::getQuantity).containsExactly(3, 4),
+                () -> assertThat(previousPage.getContent()).extracting(DonationKey::getQuantity).containsExactly(1, 2)
         );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByReceived_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 2L);
+    void givenDonationRepository_whenFindBySortedByCreatedWithEqualTimestamps_thenIdBreaksTies() {
+        persistDonationsWithQuantities(1, 2, 3);
+        donationRepository.findAll().forEach(donation -> donation.setCreated(LocalDateTime.parse("2024-12-24T12:00:00")));
+        testEntityManager.flush();
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByReceived(user);
+        Window<DonationKey> firstPage = donationRepository.findKeysBy(ScrollPosition.keyset(), DonationSortType.CREATED.getSort(), Limit.of(2));
+        Window<DonationKey> secondPage = donationRepository.findKeysBy(firstPage.positionAt(1), DonationSortType.CREATED.getSort(), Limit.of(2));
 
-        assertThat(donations).isEmpty();
+        assertAll(
+                () -> assertThat(firstPage.getContent()).isSortedAccordingTo(Comparator.comparing(DonationKey::getId).reversed()),
+                () -> assertThat(secondPage.getContent()).hasSize(1),
+                () -> assertThat(secondPage.getContent().get(0).getId()).isLessThan(firstPage.getContent().get(1).getId())
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationByNullUserSortedByReceived_thenListIsEmpty() {
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByReceived(null);
+    void givenDonationRepository_whenFindIdsByUserWithPageable_thenSortedPageOfUserDonationIdsReturned() {
+        persistDonationsWithQuantities(3, 1, 4, 2, 5);
+        User user = testEntityManager.find(User.class, 2L);
 
-        assertThat(donations).isEmpty();
+        Page<Long> firstPage = donationRepository.findIdsByUser(user, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "quantity")));
+        Page<Long> lastPage = donationRepository.findIdsByUser(user, PageRequest.of(2, 2, Sort.by(Sort.Direction.DESC, "quantity")));
+
+        assertAll(
+                () -> assertThat(firstPage.getContent()).extracting(id -> donationRepository.findById(id).orElseThrow().getQuantity()).containsExactly(5, 4),
+                () -> assertThat(firstPage.getTotalElements()).isEqualTo(5),
+                () -> assertThat(firstPage.getTotalPages()).isEqualTo(3),
+                () -> assertThat(lastPage.getContent()).extracting(id -> donationRepository.findById(id).orElseThrow().getQuantity()).containsExactly(1),
+                () -> assertThat(lastPage.hasNext()).isFalse()
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationByUserNotPresentSortedByReceived_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 4L);
+    void givenDonationRepository_whenFindIdsByUserWithoutDonations_thenEmptyPageReturned() {
+        User user = testEntityManager.find(User.class, 2L);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByReceived(user);
+        Page<Long> page = donationRepository.findIdsByUser(user, PageRequest.of(0, 2));
 
-        assertThat(donations).isEmpty();
+        assertAll(
+                () -> assertThat(page.getContent()).isEmpty(),
+                () -> assertThat(page.getTotalElements()).isZero()
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByReceived_thenListIsSorted() {
+    void givenDonationRepository_whenFindRowsByIdIn_thenInstitutionNameAndCategoryNamesAggregated() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
-        Category category = testEntityManager.find(Category.class, 1L);
-
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
+        Category firstCategory = testEntityManager.find(Category.class, 1L);
+        Category secondCategory = testEntityManager.find(Category.class, 2L);
 
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-
-        testEntityManager.persist(donationOne);
-        testEntityManager.persist(donationTwo);
+        Donation donation = TestDataFactory.getDonationForRepositoryTest(user, institution, secondCategory);
+        donation.setCategories(new ArrayList<>(List.of(secondCategory, firstCategory)));
+        testEntityManager.persist(donation);
+        testEntityManager.flush();
+        testEntityManager.clear();
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByReceived(user);
+        List<DonationRow> rows = donationRepository.findRowsByIdIn(List.of(donation.getId()));
 
-        System.out.println(donations);
         assertAll(
-                () -> assertThat(donations).hasSize(2),
-                () -> assertThat(donations).isSortedAccordingTo(Comparator.comparing(Donation::isReceived))
+                () -> assertThat(rows).hasSize(1),
+                () -> assertThat(rows.get(0).getId()).isEqualTo(donation.getId()),
+                () -> assertThat(rows.get(0).getQuantity()).isEqualTo(donation.getQuantity()),
+                () -> assertThat(rows.get(0).getInstitutionName()).isEqualTo(institution.getName()),
+                () -> assertThat(rows.get(0).getCategoriesString()).isEqualTo(firstCategory.getName() + ", " + secondCategory.getName())
         );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByUnreceived_thenListIsEmpty() {
+    void givenDonationRepository_whenStreamExportLines_thenOneLinePerCategoryOrderedByDonation() {
+        Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
+        Category firstCategory = testEntityManager.find(Category.class, 1L);
+        Category secondCategory = testEntityManager.find(Category.class, 2L);
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByUnreceived(user);
-
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationByNullUserSortedByUnreceived_thenListIsEmpty() {
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByUnreceived(null);
-
-        assertThat(donations).isEmpty();
-    }
-
-    @Test
-    void givenDonationRepository_whenFindAllDonationByUserNotPresentSortedByUnreceived_thenListIsEmpty() {
-        User user = testEntityManager.find(User.class, 4L);
+        Donation donation = TestDataFactory.getDonationForRepositoryTest(user, institution, secondCategory);
+        donation.setCategories(new ArrayList<>(List.of(secondCategory, firstCategory)));
+        testEntityManager.persist(donation);
+        testEntityManager.flush();
+        testEntityManager.clear();
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByUnreceived(user);
+        List<DonationExportLine> lines;
+        try (Stream<DonationExportLine> exportLines = donationRepository.streamExportLines()) {
+            lines = exportLines.filter(line -> line.getId().equals(donation.getId())).toList();
+        }
 
-        assertThat(donations).isEmpty();
+        assertAll(
+                () -> assertThat(lines).hasSize(2),
+                () -> assertThat(lines).extracting(DonationExportLine::getCategoryName).containsExactly(firstCategory.getName(), secondCategory.getName()),
+                () -> assertThat(lines.get(0).getInstitutionName()).isEqualTo(institution.getName()),
+                () -> assertThat(lines.get(0).getUserEmail()).isEqualTo(user.getEmail()),
+                () -> assertThat(lines.get(0).getQuantity()).isEqualTo(donation.getQuantity())
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindAllDonationsByUserSortedByUnreceived_thenListIsSorted() {
+    void givenDonationRepository_whenInsertAll_thenDonationsAndCategoriesWrittenAndIdsAssigned() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
-        Category category = testEntityManager.find(Category.class, 1L);
-
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
+        Category firstCategory = testEntityManager.find(Category.class, 1L);
+        Category secondCategory = testEntityManager.find(Category.class, 2L);
 
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        Donation withUser = TestDataFactory.getDonationForRepositoryTest(user, institution, firstCategory);
+        withUser.setCategories(new ArrayList<>(List.of(firstCategory, secondCategory)));
+        withUser.setCreated(LocalDateTime.of(2020, 1, 1, 12, 0));
+        Donation withoutUser = TestDataFactory.getDonationForRepositoryTest(null, institution, secondCategory);
+        withoutUser.setCreated(LocalDateTime.of(2020, 1, 2, 12, 0));
+        withoutUser.setReceived(true);
+        withoutUser.setDonationPassedTime(LocalDateTime.of(2020, 1, 3, 12, 0));
 
-        testEntityManager.persist(donationOne);
-        testEntityManager.persist(donationTwo);
+        donationRepository.insertAll(List.of(withUser, withoutUser));
+        testEntityManager.clear();
 
-        List<Donation> donations = donationRepository.findAllDonationsByUserSortedByUnreceived(user);
+        Donation savedWithUser = testEntityManager.find(Donation.class, withUser.getId());
+        Donation savedWithoutUser = testEntityManager.find(Donation.class, withoutUser.getId());
 
-        System.out.println(donations);
         assertAll(
-                () -> assertThat(donations).hasSize(2),
-                () -> assertThat(donations).isSortedAccordingTo(Comparator.comparing(Donation::isReceived).reversed())
+                () -> assertThat(withUser.getId()).isNotNull(),
+                () -> assertThat(withoutUser.getId()).isGreaterThan(withUser.getId()),
+                () -> assertThat(savedWithUser.getUser().getId()).isEqualTo(user.getId()),
+                () -> assertThat(savedWithUser.getCreated()).isEqualTo(withUser.getCreated()),
+                () -> assertThat(savedWithUser.getCategories()).extracting(Category::getId).containsExactlyInAnyOrder(firstCategory.getId(), secondCategory.getId()),
+                () -> assertThat(savedWithoutUser.getUser()).isNull(),
+                () -> assertThat(savedWithoutUser.isReceived()).isTrue(),
+                () -> assertThat(savedWithoutUser.getDonationPassedTime()).isEqualTo(withoutUser.getDonationPassedTime()),
+                () -> assertThat(savedWithoutUser.getCategories()).extracting(Category::getId).containsExactly(secondCategory.getId())
         );
     }
 
     @Test
-    void givenDonationRepository_whenFindUserDonationById_thenDonationFound() {
+    void givenDonationRepository_whenUpdateReceivedByIdIn_thenOnlyDonationsInOtherStateChanged() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
         Category category = testEntityManager.find(Category.class, 1L);
 
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
-
-        Donation savedDonationOne = testEntityManager.persist(donationOne);
-
-        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(user, savedDonationOne.getId());
+        Donation notReceived = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        notReceived.setDonationPassedTime(null);
+        Donation received = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+        received.setReceived(true);
+        testEntityManager.persist(notReceived);
+        testEntityManager.persist(received);
+        testEntityManager.flush();
+        LocalDateTime passedTime = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+        int archived = donationRepository.updateReceivedByIdIn(List.of(notReceived.getId(), received.getId()), true, passedTime);
+        Donation archivedDonation = testEntityManager.find(Donation.class, notReceived.getId());
+        Donation alreadyReceivedDonation = testEntityManager.find(Donation.class, received.getId());
+        boolean archivedDonationReceived = archivedDonation.isReceived();
+        LocalDateTime archivedDonationPassedTime = archivedDonation.getDonationPassedTime();
+        LocalDateTime alreadyReceivedPassedTime = alreadyReceivedDonation.getDonationPassedTime();
+
+        int unarchived = donationRepository.updateReceivedByIdIn(List.of(notReceived.getId(), received.getId()), false, null);
+        Donation unarchivedDonation = testEntityManager.find(Donation.class, received.getId());
 
         assertAll(
-                () -> assertThat(optionalDonation).isPresent(),
-                () -> assertThat(optionalDonation).contains(savedDonationOne),
-                () -> assertThat(optionalDonation.get().getUser()).isEqualTo(user)
+                () -> assertThat(archived).isEqualTo(1),
+                () -> assertThat(archivedDonationReceived).isTrue(),
+                () -> assertThat(archivedDonationPassedTime).isEqualTo(passedTime),
+                () -> assertThat(alreadyReceivedPassedTime).isEqualTo(received.getDonationPassedTime()),
+                () -> assertThat(unarchived).isEqualTo(2),
+                () -> assertThat(unarchivedDonation.isReceived()).isFalse(),
+                () -> assertThat(unarchivedDonation.getDonationPassedTime()).isNull()
         );
     }
 
     @Test
-    void givenDonationRepository_whenFindUserDonationByIdForNullUser_thenDonationNotFound() {
+    void givenDonationRepository_whenDeleteCategoryLinksAndDonationsByIdIn_thenDonationsAndJoinRowsRemoved() {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
-        Category category = testEntityManager.find(Category.class, 1L);
-
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
+        Category firstCategory = testEntityManager.find(Category.class, 1L);
+        Category secondCategory = testEntityManager.find(Category.class, 2L);
 
-        Donation savedDonationOne = testEntityManager.persist(donationOne);
+        Donation toDelete = TestDataFactory.getDonationForRepositoryTest(user, institution, firstCategory);
+        toDelete.setCategories(new ArrayList<>(List.of(firstCategory, secondCategory)));
+        Donation toKeep = TestDataFactory.getDonationForRepositoryTest(user, institution, firstCategory);
+        testEntityManager.persist(toDelete);
+        testEntityManager.persist(toKeep);
+        testEntityManager.flush();
+        List<Long> ids = List.of(toDelete.getId());
 
-        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(null, savedDonationOne.getId());
+        Integer quantity = donationRepository.sumQuantityByIdIn(ids);
+        int deletedLinks = donationRepository.deleteCategoryLinksByDonationIdIn(ids);
+        int deletedDonations = donationRepository.deleteAllByIdIn(ids);
 
-        assertThat(optionalDonation).isEmpty();
+        assertAll(
+                () -> assertThat(quantity).isEqualTo(toDelete.getQuantity()),
+                () -> assertThat(deletedLinks).isEqualTo(2),
+                () -> assertThat(deletedDonations).isEqualTo(1),
+                () -> assertThat(testEntityManager.find(Donation.class, toDelete.getId())).isNull(),
+                () -> assertThat(testEntityManager.find(Donation.class, toKeep.getId()).getCategories()).extracting(Category::getId).containsExactly(firstCategory.getId())
+        );
     }
 
     @Test
-    void givenDonationRepository_whenFindUserDonationByIdForNullUserAndNullDonationId_thenDonationNotFound() {
-        Institution institution = testEntityManager.find(Institution.class, 1L);
+    void givenManyDonations_whenFindDonationPages_thenStatementCountDoesNotDependOnRowCount() {
+        persistDonationsWithTwoCategories(LARGE_DONATION_COUNT);
+        testEntityManager.flush();
+        testEntityManager.clear();
         User user = testEntityManager.find(User.class, 2L);
-        Category category = testEntityManager.find(Category.class, 1L);
 
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        DonationService donationService = new DonationService(donationRepository, mock(DonationStatisticsService.class), mock(OutboxService.class), mock(ApplicationMetrics.class));
 
-        testEntityManager.persist(donationOne);
+        long preparedStatements = statistics.getPrepareStatementCount();
+        DonationPage firstPage = donationService.findAllPage("created", null, null);
+        long firstPageStatements = statistics.getPrepareStatementCount() - preparedStatements;
 
-        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(null, null);
+        preparedStatements = statistics.getPrepareStatementCount();
+        DonationPage secondPage = donationService.findAllPage("created", firstPage.getNextCursor(), null);
+        long secondPageStatements = statistics.getPrepareStatementCount() - preparedStatements;
 
-        assertThat(optionalDonation).isEmpty();
+        preparedStatements = statistics.getPrepareStatementCount();
+        Page<DonationRow> userPage = donationService.getDonationsForUserSortedBy("created", user, 0, 50);
+        long userPageStatements = statistics.getPrepareStatementCount() - preparedStatements;
+
+        assertAll(
+                () -> assertThat(firstPage.getDonations()).hasSize(20).allMatch(row -> row.getCategoriesString().contains(", ")),
+                () -> assertThat(secondPage.getDonations()).hasSize(20),
+                () -> assertThat(firstPageStatements).isEqualTo(2),
+                () -> assertThat(secondPageStatements).isEqualTo(2),
+                () -> assertThat(userPage.getContent()).hasSize(50),
+                () -> assertThat(userPageStatements).isEqualTo(3)
+        );
     }
 
-    @Test
-    void givenDonationRepository_whenFindUserDonationByIdForUserAndNullDonationId_thenDonationNotFound() {
+    private void persistDonationsWithTwoCategories(int donationCount) {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
-        Category category = testEntityManager.find(Category.class, 1L);
-
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
+        Category firstCategory = testEntityManager.find(Category.class, 1L);
+        Category secondCategory = testEntityManager.find(Category.class, 2L);
 
-        testEntityManager.persist(donationOne);
-
-        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(user, null);
-
-        assertThat(optionalDonation).isEmpty();
+        for (int i = 0; i < donationCount; i++) {
+            Donation donation = TestDataFactory.getDonationForRepositoryTest(user, institution, firstCategory);
+            donation.setCategories(new ArrayList<>(List.of(firstCategory, secondCategory)));
+            donation.setQuantity(i + 1);
+            testEntityManager.persist(donation);
+        }
     }
 
-    @Test
-    void givenDonationRepository_whenFindUserDonationByIdForUserAndDonationNotBelongingToUserId_thenDonationNotFound() {
+    private void persistDonationsWithQuantities(Integer... quantities) {
         Institution institution = testEntityManager.find(Institution.class, 1L);
         User user = testEntityManager.find(User.class, 2L);
         Category category = testEntityManager.find(Category.class, 1L);
 
-        Donation donationOne = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
-        donationOne.setQuantity(10);
-
-        Donation donationTwo = TestDataFactory.getDonationForRepositoryTest(null, institution, category);
-
-        testEntityManager.persist(donationOne);
-        Donation savedDonationTwo = testEntityManager.persist(donationTwo);
-
-        Optional<Donation> optionalDonation = donationRepository.findUserDonationById(user, savedDonationTwo.getId());
-
-        assertThat(optionalDonation).isEmpty();
+        for (Integer quantity : quantities) {
+            Donation donation = TestDataFactory.getDonationForRepositoryTest(user, institution, category);
+            donation.setQuantity(quantity);
+            testEntityManager.persist(donation);
+        }
     }
-}
\ No newline at end of file
+}
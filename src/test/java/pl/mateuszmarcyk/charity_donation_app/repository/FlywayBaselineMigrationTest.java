@@ -0,0 +1,69 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+//    a database set up by script-01.sql has the tables of V1 but no flyway_schema_history, the application baselines it at version 1
+class FlywayBaselineMigrationTest {
+
+    @Test
+    void givenDatabaseCreatedByOldScript_whenBaselinedAndMigrated_thenMailQueueAndOutboxTablesCreated() {
+        DataSource dataSource = newDatabase();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(tableCount(jdbcTemplate, "OUTBOUND_MAILS")).isZero();
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        flyway.migrate();
+
+        assertAll(
+                () -> assertThat(tableCount(jdbcTemplate, "OUTBOUND_MAILS")).isOne(),
+                () -> assertThat(tableCount(jdbcTemplate, "OUTBOX_EVENTS")).isOne(),
+                () -> assertThat(indexCount(jdbcTemplate, "IDX_OUTBOUND_MAILS_STATUS_NEXT_ATTEMPT_TIME")).isOne(),
+                () -> assertThat(flyway.info().pending()).isEmpty()
+        );
+    }
+
+    @Test
+    void givenEmptyDatabase_whenMigrated_thenMailQueueAndOutboxTablesCreatedOnce() {
+        DataSource dataSource = newDatabase();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .load()
+                .migrate();
+
+        assertAll(
+                () -> assertThat(tableCount(jdbcTemplate, "OUTBOUND_MAILS")).isOne(),
+                () -> assertThat(tableCount(jdbcTemplate, "OUTBOX_EVENTS")).isOne(),
+                () -> assertThat(indexCount(jdbcTemplate, "IDX_OUTBOUND_MAILS_STATUS_NEXT_ATTEMPT_TIME")).isOne()
+        );
+    }
+
+    private static DataSource newDatabase() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static int tableCount(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?", Integer.class, table);
+    }
+
+    private static int indexCount(JdbcTemplate jdbcTemplate, String index) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = ?", Integer.class, index);
+    }
+}
@@ -0,0 +1,93 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+//    the session tables only exist in the Flyway migrations, not in import.sql
+@Transactional
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@Import(HttpSessionRepository.class)
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class HttpSessionRepositoryTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final String EXPIRED_1 = "00000000-0000-0000-0000-000000000001";
+    private static final String EXPIRED_2 = "00000000-0000-0000-0000-000000000002";
+    private static final String EXPIRED_3 = "00000000-0000-0000-0000-000000000003";
+    private static final String ACTIVE = "00000000-0000-0000-0000-000000000004";
+
+    @Autowired
+    private HttpSessionRepository httpSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        insertSession(EXPIRED_1, NOW - 3000);
+        insertSession(EXPIRED_2, NOW - 2000);
+        insertSession(EXPIRED_3, NOW - 1000);
+        insertSession(ACTIVE, NOW + 1000);
+    }
+
+    @Test
+    void givenExpiredSessions_whenDeleteExpiredSessions_thenOldestChunkDeleted() {
+        int deleted = httpSessionRepository.deleteExpiredSessions(NOW, 2);
+
+        assertAll(
+                () -> assertThat(deleted).isEqualTo(2),
+                () -> assertThat(sessionIds()).containsExactlyInAnyOrder(EXPIRED_3, ACTIVE)
+        );
+    }
+
+    @Test
+    void givenExpiredSessions_whenDeleteExpiredSessions_thenAttributesDeletedWithSession() {
+        httpSessionRepository.deleteExpiredSessions(NOW, 10);
+
+        assertAll(
+                () -> assertThat(sessionIds()).containsExactly(ACTIVE),
+                () -> assertThat(jdbcTemplate.queryForList("SELECT SESSION_PRIMARY_ID FROM SPRING_SESSION_ATTRIBUTES", String.class))
+                        .containsExactly(ACTIVE)
+        );
+    }
+
+    @Test
+    void givenNoExpiredSessions_whenDeleteExpiredSessions_thenNothingDeleted() {
+        int deleted = httpSessionRepository.deleteExpiredSessions(NOW - 5000, 10);
+
+        assertAll(
+                () -> assertThat(deleted).isZero(),
+                () -> assertThat(sessionIds()).hasSize(4)
+        );
+    }
+
+    private void insertSession(String id, long expiryTime) {
+        jdbcTemplate.update("""
+                INSERT INTO SPRING_SESSION (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME, MAX_INACTIVE_INTERVAL, EXPIRY_TIME)
+                VALUES (?, ?, ?, ?, 1800, ?)""", id, id, expiryTime - 1_800_000, expiryTime - 1_800_000, expiryTime);
+        jdbcTemplate.update("INSERT INTO SPRING_SESSION_ATTRIBUTES (SESSION_PRIMARY_ID, ATTRIBUTE_NAME, ATTRIBUTE_BYTES) VALUES (?, ?, ?)",
+                id, "SPRING_SECURITY_CONTEXT", new byte[]{1});
+    }
+
+    private List<String> sessionIds() {
+        return jdbcTemplate.queryForList("SELECT PRIMARY_ID FROM SPRING_SESSION", String.class);
+    }
+}
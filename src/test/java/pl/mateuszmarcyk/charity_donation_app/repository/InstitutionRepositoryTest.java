@@ -1,18 +1,27 @@
 package pl.mateuszmarcyk.charity_donation_app.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
 import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
 
 @Transactional
 @DataJpaTest
@@ -23,6 +32,12 @@ class InstitutionRepositoryTest {
     @Autowired
     private InstitutionRepository institutionRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     @Sql(scripts = "classpath:setup-data.sql")
     void givenInstitutionRepository_whenFindAll_thenReturnListOfInstitutions() {
@@ -30,4 +45,47 @@ class InstitutionRepositoryTest {
 
         assertThat(returnedInstitutions).hasSize(7);
         }
-}
\ No newline at end of file
+
+    @Test
+    @Sql(scripts = "classpath:setup-data.sql")
+    void givenInstitutionsAlreadyQueried_whenFindAll_thenResultServedFromCacheWithoutStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        institutionRepository.findAll();
+        testEntityManager.clear();
+
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+        long preparedStatements = statistics.getPrepareStatementCount();
+
+        List<Institution> returnedInstitutions = institutionRepository.findAll();
+
+        assertAll(
+                () -> assertThat(returnedInstitutions).hasSize(7),
+                () -> assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits + 1),
+                () -> assertThat(statistics.getPrepareStatementCount()).isEqualTo(preparedStatements)
+        );
+    }
+
+    @Test
+    @Sql(scripts = "classpath:setup-data.sql")
+    void givenDonationsOfTwoInstitutions_whenDetachDonations_thenOnlyDonationsOfGivenInstitutionDetached() {
+        Institution institution = testEntityManager.find(Institution.class, 1L);
+        Institution otherInstitution = testEntityManager.find(Institution.class, 2L);
+        User user = testEntityManager.find(User.class, 2L);
+        Category category = testEntityManager.find(Category.class, 1L);
+
+        Donation firstDonation = testEntityManager.persist(TestDataFactory.getDonationForRepositoryTest(user, institution, category));
+        Donation secondDonation = testEntityManager.persist(TestDataFactory.getDonationForRepositoryTest(user, institution, category));
+        Donation otherDonation = testEntityManager.persist(TestDataFactory.getDonationForRepositoryTest(user, otherInstitution, category));
+
+        int detachedDonations = institutionRepository.detachDonations(institution.getId());
+        testEntityManager.clear();
+
+        assertAll(
+                () -> assertThat(detachedDonations).isEqualTo(2),
+                () -> assertThat(testEntityManager.find(Donation.class, firstDonation.getId()).getInstitution()).isNull(),
+                () -> assertThat(testEntityManager.find(Donation.class, secondDonation.getId()).getInstitution()).isNull(),
+                () -> assertThat(testEntityManager.find(Donation.class, otherDonation.getId()).getInstitution().getId()).isEqualTo(otherInstitution.getId())
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMail;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMailStatus;
+import pl.mateuszmarcyk.charity_donation_app.util.Mail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@Transactional
+@Sql(scripts = "classpath:setup-data.sql")
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class OutboundMailRepositoryTest {
+
+    private static final Set<OutboundMailStatus> QUEUED_STATUSES = Set.of(OutboundMailStatus.PENDING, OutboundMailStatus.SENDING);
+
+    @Autowired
+    private OutboundMailRepository outboundMailRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void givenOutboundMailRepository_whenCountByQueuedStatuses_thenDeadMailsNotCounted() {
+        persistOutboundMail("one@example.com", OutboundMailStatus.PENDING, LocalDateTime.now());
+        persistOutboundMail("two@example.com", OutboundMailStatus.SENDING, LocalDateTime.now());
+        persistOutboundMail("three@example.com", OutboundMailStatus.DEAD, LocalDateTime.now());
+
+        long queuedMails = outboundMailRepository.countByStatusIn(QUEUED_STATUSES);
+
+        assertThat(queuedMails).isEqualTo(2);
+    }
+
+    @Test
+    void givenOutboundMailRepository_whenFindDueMails_thenOnlyDueQueuedMailsReturnedOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        persistOutboundMail("later@example.com", OutboundMailStatus.PENDING, now.minusMinutes(1));
+        persistOutboundMail("earlier@example.com", OutboundMailStatus.PENDING, now.minusMinutes(5));
+        persistOutboundMail("future@example.com", OutboundMailStatus.PENDING, now.plusMinutes(5));
+        persistOutboundMail("dead@example.com", OutboundMailStatus.DEAD, now.minusMinutes(10));
+
+        List<OutboundMail> dueMails = outboundMailRepository.findByStatusInAndNextAttemptTimeLessThanEqualOrderByNextAttemptTime(QUEUED_STATUSES, now, Limit.of(10));
+
+        assertThat(dueMails).extracting(OutboundMail::getRecipient).containsExactly("earlier@example.com", "later@example.com");
+    }
+
+    @Test
+    void givenOutboundMailRepository_whenFindDueMailsWithLimit_thenBatchSizeRespected() {
+        LocalDateTime now = LocalDateTime.now();
+        persistOutboundMail("one@example.com", OutboundMailStatus.PENDING, now.minusMinutes(3));
+        persistOutboundMail("two@example.com", OutboundMailStatus.SENDING, now.minusMinutes(2));
+        persistOutboundMail("three@example.com", OutboundMailStatus.PENDING, now.minusMinutes(1));
+
+        List<OutboundMail> dueMails = outboundMailRepository.findByStatusInAndNextAttemptTimeLessThanEqualOrderByNextAttemptTime(QUEUED_STATUSES, now, Limit.of(2));
+
+        assertAll(
+                () -> assertThat(dueMails).hasSize(2),
+                () -> assertThat(dueMails).extracting(OutboundMail::getRecipient).containsExactly("one@example.com", "two@example.com")
+        );
+    }
+
+    private void persistOutboundMail(String recipient, OutboundMailStatus status, LocalDateTime nextAttemptTime) {
+        OutboundMail outboundMail = new OutboundMail(recipient, new Mail("Subject", "Sender", "Content"));
+        outboundMail.setStatus(status);
+        outboundMail.setNextAttemptTime(nextAttemptTime);
+        testEntityManager.persist(outboundMail);
+    }
+}
@@ -0,0 +1,78 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEvent;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@Transactional
+@Sql(scripts = "classpath:setup-data.sql")
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void givenOutboxEventRepository_whenExistsByDedupKey_thenOnlyRecordedKeyFound() {
+        persistOutboxEvent(OutboxEventType.DONATION_PROCESS_COMPLETE, 1L, 0);
+
+        assertAll(
+                () -> assertThat(outboxEventRepository.existsByDedupKey("DONATION_PROCESS_COMPLETE:1")).isTrue(),
+                () -> assertThat(outboxEventRepository.existsByDedupKey("REGISTRATION_COMPLETE:1")).isFalse()
+        );
+    }
+
+    @Test
+    void givenOutboxEventRepository_whenFindDueEvents_thenAbandonedAndBackedOffEventsSkippedAndOrderKept() {
+        LocalDateTime now = LocalDateTime.now();
+        persistOutboxEvent(OutboxEventType.DONATION_PROCESS_COMPLETE, 1L, 0, now.minusMinutes(3));
+        persistOutboxEvent(OutboxEventType.DONATION_PROCESS_COMPLETE, 2L, 5, now.minusMinutes(4));
+        persistOutboxEvent(OutboxEventType.REGISTRATION_COMPLETE, 3L, 2, now.minusMinutes(2));
+        persistOutboxEvent(OutboxEventType.REGISTRATION_COMPLETE, 4L, 1, now.plusMinutes(1));
+        persistOutboxEvent(OutboxEventType.REGISTRATION_COMPLETE, 5L, 0, now.minusMinutes(1));
+
+        List<OutboxEvent> pendingEvents = outboxEventRepository.findByAttemptsLessThanAndNextAttemptTimeLessThanEqualOrderByNextAttemptTimeAscIdAsc(5, now, Limit.of(2));
+
+        assertThat(pendingEvents).extracting(OutboxEvent::getAggregateId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void givenOutboxEventRepository_whenSaveEventWithDuplicatedDedupKey_thenExceptionThrown() {
+        persistOutboxEvent(OutboxEventType.DONATION_PROCESS_COMPLETE, 1L, 0);
+
+        assertThatThrownBy(() -> persistOutboxEvent(OutboxEventType.DONATION_PROCESS_COMPLETE, 1L, 0))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    private void persistOutboxEvent(OutboxEventType eventType, Long aggregateId, int attempts) {
+        persistOutboxEvent(eventType, aggregateId, attempts, LocalDateTime.now());
+    }
+
+    private void persistOutboxEvent(OutboxEventType eventType, Long aggregateId, int attempts, LocalDateTime nextAttemptTime) {
+        OutboxEvent outboxEvent = new OutboxEvent(eventType, aggregateId, null);
+        outboxEvent.setAttempts(attempts);
+        outboxEvent.setNextAttemptTime(nextAttemptTime);
+        testEntityManager.persistAndFlush(outboxEvent);
+    }
+}
@@ -6,12 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -69,4 +72,33 @@ class PasswordResetVerificationTokenRepositoryTest {
 
         assertThat(foundToken).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenExpiredAndValidTokens_whenFindIdsByExpirationTimeBefore_thenOnlyExpiredIdsFound() {
+        User user = testEntityManager.find(User.class, 2L);
+        PasswordResetVerificationToken expiredToken = new PasswordResetVerificationToken(UUID.randomUUID().toString(), user, 15);
+        expiredToken.setExpirationTime(LocalDateTime.now().minusDays(8));
+        testEntityManager.persist(expiredToken);
+        PasswordResetVerificationToken validToken = testEntityManager.persist(new PasswordResetVerificationToken(UUID.randomUUID().toString(), null, 15));
+
+        List<Long> expiredTokenIds = passwordResetVerificationTokenRepository.findIdsByExpirationTimeBefore(LocalDateTime.now().minusDays(7), Limit.of(10));
+
+        assertAll(
+                () -> assertThat(expiredTokenIds).containsExactly(expiredToken.getId()),
+                () -> assertThat(expiredTokenIds).doesNotContain(validToken.getId())
+        );
+    }
+
+    @Test
+    void givenTokenIds_whenDeleteAllByIdIn_thenTokensDeleted() {
+        User user = testEntityManager.find(User.class, 2L);
+        PasswordResetVerificationToken token = testEntityManager.persist(new PasswordResetVerificationToken(UUID.randomUUID().toString(), user, 15));
+
+        int deleted = passwordResetVerificationTokenRepository.deleteAllByIdIn(List.of(token.getId()));
+
+        assertAll(
+                () -> assertThat(deleted).isEqualTo(1),
+                () -> assertThat(passwordResetVerificationTokenRepository.findByToken(token.getToken())).isEmpty()
+        );
+    }
+}
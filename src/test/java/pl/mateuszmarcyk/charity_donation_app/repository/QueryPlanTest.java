@@ -0,0 +1,108 @@
+package pl.mateuszmarcyk.charity_donation_app.repository;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//    runs the Flyway migrations instead of import.sql and checks that the hot queries of the repositories are served by an index
+@Transactional
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final String INDEX_SORTED = "index sorted";
+    private static final byte[] TOKEN_VALUE = new byte[16];
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> indexedLookups() {
+        return Stream.of(
+                Arguments.of("UserRepository.findByEmail",
+                        "SELECT u.id FROM users u WHERE u.email = ?", new Object[]{"user@example.com"}),
+                Arguments.of("UserRepository.findIdByNormalizedEmail",
+                        "SELECT u.id FROM users u WHERE u.email_normalized = ?", new Object[]{"user@example.com"}),
+                Arguments.of("UserRepository.findUserByVerificationToken_Token",
+                        "SELECT u.id FROM users u JOIN verification_tokens vt ON vt.user_id = u.id WHERE vt.token_value = ?", new Object[]{TOKEN_VALUE}),
+                Arguments.of("UserRepository.findUserByPasswordResetVerificationToken",
+                        "SELECT u.id FROM users u JOIN password_reset_verification_tokens t ON t.user_id = u.id WHERE t.token_value = ?", new Object[]{TOKEN_VALUE}),
+                Arguments.of("UserRepository.findByProfileId",
+                        "SELECT u.id FROM users u JOIN user_profiles p ON p.user_id = u.id WHERE p.id = ?", new Object[]{1L}),
+                Arguments.of("UserRepository.findUsersByRoleNative",
+                        "SELECT u.id FROM users u JOIN users_user_types uut ON u.id = uut.user_id JOIN user_types ut ON uut.user_type_id = ut.id WHERE ut.role = ?", new Object[]{"ROLE_USER"}),
+                Arguments.of("VerificationTokenRepository.findByToken",
+                        "SELECT vt.id FROM verification_tokens vt WHERE vt.token_value = ?", new Object[]{TOKEN_VALUE}),
+                Arguments.of("PasswordResetVerificationTokenRepository.findByToken",
+                        "SELECT t.id FROM password_reset_verification_tokens t WHERE t.token_value = ?", new Object[]{TOKEN_VALUE}),
+                Arguments.of("VerificationTokenRepository.findIdsByExpirationTimeBefore",
+                        "SELECT vt.id FROM verification_tokens vt LEFT JOIN users u ON u.id = vt.user_id WHERE vt.expiration_time < ? AND (u.id IS NULL OR u.is_active = TRUE) ORDER BY vt.id LIMIT 500", new Object[]{LocalDateTime.now()}),
+                Arguments.of("PasswordResetVerificationTokenRepository.findIdsByExpirationTimeBefore",
+                        "SELECT t.id FROM password_reset_verification_tokens t WHERE t.expiration_time < ? ORDER BY t.id LIMIT 500", new Object[]{LocalDateTime.now()}),
+                Arguments.of("OutboxEventRepository.findByAttemptsLessThanAndNextAttemptTimeLessThanEqual",
+                        "SELECT o.id FROM outbox_events o WHERE o.attempts < ? AND o.next_attempt_time <= ? ORDER BY o.next_attempt_time, o.id LIMIT 100", new Object[]{15, LocalDateTime.now()}),
+                Arguments.of("HttpSessionRepository.deleteExpiredSessions",
+                        "SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT 500", new Object[]{System.currentTimeMillis()}),
+                Arguments.of("DonationRepository.findIdsByUser created",
+                        "SELECT d.id FROM donations d WHERE d.user_id = ? ORDER BY d.created DESC, d.id LIMIT 10", new Object[]{1L}),
+                Arguments.of("DonationRepository.findIdsByUser quantity desc",
+                        "SELECT d.id FROM donations d WHERE d.user_id = ? ORDER BY d.quantity DESC, d.id LIMIT 10", new Object[]{1L}),
+                Arguments.of("DonationRepository.findIdsByUser received desc",
+                        "SELECT d.id FROM donations d WHERE d.user_id = ? ORDER BY d.received DESC, d.id LIMIT 10", new Object[]{1L}),
+                Arguments.of("DonationRepository.findIdsByUser count",
+                        "SELECT COUNT(d.id) FROM donations d WHERE d.user_id = ?", new Object[]{1L}),
+                Arguments.of("DonationRepository.findUserDonationById",
+                        "SELECT d.id FROM donations d WHERE d.user_id = ? AND d.id = ?", new Object[]{1L, 1L})
+        );
+    }
+
+//    nothing narrows the rows, only an index in ORDER BY order saves sorting the whole table;
+//    H2 cannot read an index backwards, so the quantity DESC variants MySQL serves from idx_donations_quantity are left out
+    static Stream<Arguments> indexSortedQueries() {
+        return Stream.of(
+                Arguments.of("DonationRepository.findKeysBy created",
+                        "SELECT d.id, d.created FROM donations d ORDER BY d.created DESC, d.id DESC LIMIT 21", new Object[]{}),
+                Arguments.of("DonationRepository.findKeysBy quantity asc",
+                        "SELECT d.id, d.quantity FROM donations d ORDER BY d.quantity, d.id LIMIT 21", new Object[]{}),
+                Arguments.of("DonationRepository.findKeysBy received asc",
+                        "SELECT d.id, d.received FROM donations d ORDER BY d.received, d.id LIMIT 21", new Object[]{})
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedLookups")
+    void givenMigratedSchema_whenExplainLookup_thenNoTableScan(String query, String sql, Object[] parameters) {
+        String plan = explain(sql, parameters);
+
+        assertThat(plan).as(query).doesNotContain(TABLE_SCAN);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexSortedQueries")
+    void givenMigratedSchema_whenExplainSortedQuery_thenRowsReadInIndexOrder(String query, String sql, Object[] parameters) {
+        String plan = explain(sql, parameters);
+
+        assertThat(plan).as(query).contains(INDEX_SORTED).doesNotContain(TABLE_SCAN);
+    }
+
+    private String explain(String sql, Object[] parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+    }
+}
@@ -6,18 +6,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
 import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.UserType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 @Transactional
@@ -46,6 +54,34 @@ class UserRepositoryTest {
         );
     }
 
+    @Test
+    void givenEmailInOtherLetterCase_whenFindIdByNormalizedEmail_thenIdOfUserFound() {
+        Long idFromScript = 2L;
+        User user = testEntityManager.find(User.class, idFromScript);
+        user.setEmail("TestUser@Example.com");
+        testEntityManager.flush();
+
+        Optional<Long> foundUserId = userRepository.findIdByNormalizedEmail("testuser@example.com");
+        Optional<Long> notFoundUserId = userRepository.findIdByNormalizedEmail("wrong.email@example.com");
+
+        assertAll(
+                () -> assertThat(foundUserId).contains(idFromScript),
+                () -> assertThat(notFoundUserId).isEmpty()
+        );
+    }
+
+    @Test
+    void givenUserRepository_whenStreamAllEmails_thenEmailsOfAllUsersStreamed() {
+        String emailFromSqlScript = "testuser@example.com";
+
+        List<String> emails;
+        try (Stream<String> emailStream = userRepository.streamAllEmails()) {
+            emails = emailStream.toList();
+        }
+
+        assertThat(emails).containsExactly(emailFromSqlScript);
+    }
+
     @Test
     void givenUserRepository_whenFindByEmail_thenUserIsEmpty() {
         String email = "wrong.email@example.com";
@@ -246,4 +282,58 @@ class UserRepositoryTest {
                 () -> assertThat(optionalUser.get().getPasswordResetVerificationToken().getToken()).isEqualTo(token.getToken())
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenDonationsOfTwoUsers_whenDetachDonations_thenOnlyDonationsOfGivenUserDetached() {
+        User user = testEntityManager.find(User.class, 2L);
+        User otherUser = new User();
+        otherUser.setEmail("other@example.com");
+        otherUser.setPassword("P@ssword123");
+        otherUser.setPasswordRepeat("P@ssword123");
+        otherUser.setRegistrationDate(LocalDateTime.parse("2024-12-24T12:00:00"));
+        testEntityManager.persist(otherUser);
+        Institution institution = testEntityManager.find(Institution.class, 1L);
+        Category category = testEntityManager.find(Category.class, 1L);
+
+        Donation donation = testEntityManager.persist(TestDataFactory.getDonationForRepositoryTest(user, institution, category));
+        Donation otherDonation = testEntityManager.persist(TestDataFactory.getDonationForRepositoryTest(otherUser, institution, category));
+
+        int detachedDonations = userRepository.detachDonations(user.getId());
+        testEntityManager.clear();
+
+        assertAll(
+                () -> assertThat(detachedDonations).isEqualTo(1),
+                () -> assertThat(testEntityManager.find(Donation.class, donation.getId()).getUser()).isNull(),
+                () -> assertThat(testEntityManager.find(Donation.class, otherDonation.getId()).getUser().getId()).isEqualTo(otherUser.getId())
+        );
+    }
+
+    @Test
+    void givenUser_whenUpdatePassword_thenOnlyPasswordOfGivenUserChanged() {
+        User user = testEntityManager.find(User.class, 2L);
+        String email = user.getEmail();
+
+        int updatedUsers = userRepository.updatePassword(user.getId(), "$2a$12$rehashedPasswordHash");
+        testEntityManager.clear();
+
+        User updatedUser = testEntityManager.find(User.class, 2L);
+        assertAll(
+                () -> assertThat(updatedUsers).isEqualTo(1),
+                () -> assertThat(updatedUser.getPassword()).isEqualTo("$2a$12$rehashedPasswordHash"),
+                () -> assertThat(updatedUser.getEmail()).isEqualTo(email)
+        );
+    }
+
+    @Test
+    void givenEmailOfOtherUserInOtherLetterCase_whenSaveAndFlush_thenNormalizedEmailIndexViolated() {
+        testEntityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO users (id, email, is_active, blocked, password) VALUES (100, 'other@example.com', TRUE, FALSE, 'P@ssword123')")
+                .executeUpdate();
+        User otherUser = testEntityManager.find(User.class, 100L);
+        otherUser.setEmail("TestUser@Example.com");
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(otherUser))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(exception -> assertThat(exception.getMessage()).containsIgnoringCase("uk_users_email_normalized"));
+    }
+}
@@ -5,11 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +28,9 @@ class VerificationTokenRepositoryTest {
     @Autowired
     private VerificationTokenRepository verificationTokenRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void givenVerificationTokenRepository_whenFindByToken_thenTokenIsEmpty() {
         String token = "ac0596ff-958d-481a-bf11-39ac6874248f";
@@ -55,4 +62,44 @@ class VerificationTokenRepositoryTest {
         );
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenTokenFromSqlScript_whenFindIdsByExpirationTimeBefore_thenFoundOnlyOnceExpired() {
+        Long tokenIdFromScript = 1L;
+        LocalDateTime tokenExpirationTimeFromScript = LocalDateTime.of(2024, 12, 6, 15, 29, 10);
+
+        List<Long> expiredTokenIds = verificationTokenRepository.findIdsByExpirationTimeBefore(tokenExpirationTimeFromScript.plusDays(1), Limit.of(10));
+        List<Long> notYetExpiredTokenIds = verificationTokenRepository.findIdsByExpirationTimeBefore(tokenExpirationTimeFromScript.minusDays(1), Limit.of(10));
+
+        assertAll(
+                () -> assertThat(expiredTokenIds).containsExactly(tokenIdFromScript),
+                () -> assertThat(notYetExpiredTokenIds).isEmpty()
+        );
+    }
+
+    @Test
+    void givenExpiredTokenOfNeverActivatedUser_whenFindIdsByExpirationTimeBefore_thenTokenKept() {
+        Long activatedUserTokenId = 1L;
+        LocalDateTime tokenExpirationTimeFromScript = LocalDateTime.of(2024, 12, 6, 15, 29, 10);
+        jdbcTemplate.update("INSERT INTO users (id, email, is_active, blocked, password, registration_date_time) VALUES (3, 'inactive@example.com', false, false, 'P@ssword123', '2024-12-01 12:00:00')");
+        jdbcTemplate.update("INSERT INTO verification_tokens (expiration_time, id, user_id, token_value) VALUES ('2024-12-01 12:15:00', 2, 3, X'9d3a4f0e5b6c47d8a1e2f3a4b5c6d7e8')");
+
+        List<Long> expiredTokenIds = verificationTokenRepository.findIdsByExpirationTimeBefore(tokenExpirationTimeFromScript.plusDays(1), Limit.of(10));
+
+//        resendToken finds the inactive user only through this token, deleting it would leave the email taken for good
+        assertThat(expiredTokenIds).containsExactly(activatedUserTokenId);
+    }
+
+    @Test
+    void givenTokenIds_whenDeleteAllByIdIn_thenTokensDeleted() {
+        String tokenFromSqlScript = "81c34626-3a06-4813-a292-c57dcdd6e04a";
+        Long tokenIdFromScript = 1L;
+
+        int deleted = verificationTokenRepository.deleteAllByIdIn(List.of(tokenIdFromScript));
+
+        assertAll(
+                () -> assertThat(deleted).isEqualTo(1),
+                () -> assertThat(verificationTokenRepository.findByToken(tokenFromSqlScript)).isEmpty()
+        );
+    }
+}
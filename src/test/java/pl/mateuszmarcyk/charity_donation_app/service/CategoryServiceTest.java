@@ -3,6 +3,7 @@ package pl.mateuszmarcyk.charity_donation_app.service;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -32,6 +33,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ReferenceDataCacheService referenceDataCacheService;
+
     @Test
     void givenCategoryService_whenFindAll_thenReturnCategoryList() {
 
@@ -183,6 +187,8 @@ class CategoryServiceTest {
         Category categorySavedByService = categoryService.save(category);
 
         verify(categoryRepository).save(argumentCaptor.capture());
+
+        verify(referenceDataCacheService, times(1)).evictCategories();
         Category categoryParameterForRepositorySaveMethod = argumentCaptor.getValue();
 
         assertAll(
@@ -196,13 +202,15 @@ class CategoryServiceTest {
         Category category = new Category();
         Long categoryId = category.getId();
 
-        when(categoryRepository.findByIdFetchDonations(category.getId())).thenReturn(Optional.empty());
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.empty());
 
         ArgumentCaptor<Long> argumentCaptor = ArgumentCaptor.forClass(Long.class);
 
         assertThatThrownBy(() -> categoryService.deleteById(categoryId)).isInstanceOf(ResourceNotFoundException.class).hasMessage("Kategoria nie istnieje");
-        verify(categoryRepository).findByIdFetchDonations(argumentCaptor.capture());
+        verify(categoryRepository).findById(argumentCaptor.capture());
+        verify(categoryRepository, never()).deleteDonationLinksByCategoryId(any());
         verify(categoryRepository, never()).delete(category);
+        verify(referenceDataCacheService, never()).evictCategories();
         Long idForSearch = argumentCaptor.getValue();
 
         assertThat(idForSearch).isEqualTo(category.getId());
@@ -214,13 +222,15 @@ class CategoryServiceTest {
         category.setId(1L);
         Long categoryId = category.getId();
 
-        when(categoryRepository.findByIdFetchDonations(category.getId())).thenReturn(Optional.empty());
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.empty());
 
         ArgumentCaptor<Long> argumentCaptor = ArgumentCaptor.forClass(Long.class);
 
         assertThatThrownBy(() -> categoryService.deleteById(categoryId)).isInstanceOf(ResourceNotFoundException.class).hasMessage("Kategoria nie istnieje");
-        verify(categoryRepository).findByIdFetchDonations(argumentCaptor.capture());
+        verify(categoryRepository).findById(argumentCaptor.capture());
+        verify(categoryRepository, never()).deleteDonationLinksByCategoryId(any());
         verify(categoryRepository, never()).delete(category);
+        verify(referenceDataCacheService, never()).evictCategories();
         Long idForSearch = argumentCaptor.getValue();
 
         assertThat(idForSearch).isEqualTo(category.getId());
@@ -231,13 +241,17 @@ class CategoryServiceTest {
         Category category = getCategory();
         Long categoryId = category.getId();
 
-        when(categoryRepository.findByIdFetchDonations(category.getId())).thenReturn(Optional.of(category));
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryRepository.countDonationsWithOnlyCategory(categoryId)).thenReturn(1L);
 
         assertThatThrownBy(() -> categoryService.deleteById(categoryId)).isInstanceOf(EntityDeletionException.class).hasMessage("Do kategorii przypisane są dary");
         ArgumentCaptor<Long> argumentCaptor = ArgumentCaptor.forClass(Long.class);
 
-        verify(categoryRepository, times(1)).findByIdFetchDonations(argumentCaptor.capture());
+        verify(categoryRepository, times(1)).countDonationsWithOnlyCategory(argumentCaptor.capture());
+        verify(categoryRepository, never()).findByIdFetchDonations(any());
+        verify(categoryRepository, never()).deleteDonationLinksByCategoryId(any());
         verify(categoryRepository, never()).delete(category);
+        verify(referenceDataCacheService, never()).evictCategories();
         Long idForSearch = argumentCaptor.getValue();
 
         assertThat(idForSearch).isEqualTo(category.getId());
@@ -246,30 +260,23 @@ class CategoryServiceTest {
     @Test
     void givenCategoryService_whenDeleteByIdCategoryWithDonationsThatHaveMoreThanOneCategory_thenCategoryDeleted() {
         Category category = new Category(1L, "Jedzenie", new ArrayList<>());
-        Category secondCategory = new Category(2L, "Ubrania", new ArrayList<>());
-
-        Donation donation = TestDataFactory.getDonationForCategory(category);
-        donation.getCategories().add(secondCategory);
-
-        category.setDonations(new ArrayList<>(List.of(donation)));
-        secondCategory.setDonations(new ArrayList<>(List.of(donation)));
 
-        ArgumentCaptor<Long> argumentCaptor = ArgumentCaptor.forClass(Long.class);
         ArgumentCaptor<Category> categoryArgumentCaptor = ArgumentCaptor.forClass(Category.class);
 
-        when(categoryRepository.findByIdFetchDonations(category.getId())).thenReturn(Optional.of(category));
+        when(categoryRepository.findById(category.getId())).thenReturn(Optional.of(category));
+        when(categoryRepository.countDonationsWithOnlyCategory(category.getId())).thenReturn(0L);
+        when(categoryRepository.deleteDonationLinksByCategoryId(category.getId())).thenReturn(3);
         categoryService.deleteById(category.getId());
 
-        verify(categoryRepository).findByIdFetchDonations(argumentCaptor.capture());
-        verify(categoryRepository, times(1)).delete(categoryArgumentCaptor.capture());
-
-        Long idUsedForSearch = argumentCaptor.getValue();
-        Category categoryToDelete = categoryArgumentCaptor.getValue();
+        InOrder inOrder = inOrder(categoryRepository, referenceDataCacheService);
+        inOrder.verify(categoryRepository).countDonationsWithOnlyCategory(category.getId());
+        inOrder.verify(categoryRepository).deleteDonationLinksByCategoryId(category.getId());
+        inOrder.verify(categoryRepository).delete(categoryArgumentCaptor.capture());
+        inOrder.verify(referenceDataCacheService).evictCategories();
 
         assertAll(
-                () -> assertThat(idUsedForSearch).isEqualTo(category.getId()),
-                () -> assertThat(categoryToDelete).isEqualTo(category),
-                () -> assertThat(category.getDonations().get(0).getCategories()).hasSize(1)
+                () -> assertThat(categoryArgumentCaptor.getValue()).isEqualTo(category),
+                () -> verify(categoryRepository, never()).findByIdFetchDonations(any())
         );
     }
 
@@ -0,0 +1,142 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportFormat;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationExportLine;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DonationExportServiceTest {
+
+    private static final String CSV_HEADER = "id,created,quantity,received,donation_passed_time,pick_up_date,pick_up_time,street,city,zip_code,phone_number,pick_up_comment,institution,user_email,categories";
+
+    @InjectMocks
+    private DonationExportService donationExportService;
+
+    @Mock
+    private DonationRepository donationRepository;
+
+    @Test
+    void givenDonationsWithManyCategories_whenExportCsv_thenOneRecordPerDonationWritten() throws Exception {
+        when(donationRepository.streamExportLines()).thenReturn(Stream.of(
+                getLine(1L, "Ubrania"),
+                getLine(1L, "Zabawki"),
+                getLine(2L, "Książki")
+        ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = donationExportService.export(DonationExportFormat.CSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertAll(
+                () -> assertThat(exported).isEqualTo(2L),
+                () -> assertThat(lines).hasSize(3),
+                () -> assertThat(lines[0]).isEqualTo(CSV_HEADER),
+                () -> assertThat(lines[1]).isEqualTo("1,2024-05-01 10:15:30,3,false,,2024-05-10,12:30,Prosta 1,Warszawa,00-001,123456789,,Fundacja,user@example.com,\"Ubrania, Zabawki\""),
+                () -> assertThat(lines[2]).startsWith("2,").endsWith(",Książki")
+        );
+    }
+
+    @Test
+    void givenFieldsWithQuotesAndNewLines_whenExportCsv_thenFieldsEscaped() throws Exception {
+        DonationExportLine line = new DonationExportLine(1L, null, null, true, null, null, null,
+                "Ulica \"Nowa\"", "Kraków", null, null, "Pierwsza linia\nDruga linia", null, null, null);
+        when(donationRepository.streamExportLines()).thenReturn(Stream.of(line));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        donationExportService.export(DonationExportFormat.CSV, outputStream);
+
+        String csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertAll(
+                () -> assertThat(csv).contains("1,,,true,,,,\"Ulica \"\"Nowa\"\"\",Kraków,,,\"Pierwsza linia\nDruga linia\",,,\r\n"),
+                () -> assertThat(csv).doesNotContain("null")
+        );
+    }
+
+    @Test
+    void givenFieldsStartingLikeFormulas_whenExportCsv_thenFieldsQuotedAsText() throws Exception {
+        DonationExportLine line = new DonationExportLine(1L, null, null, true, null, null, null,
+                "=HYPERLINK(\"http://evil.example\",\"x\")", "@SUM(A1)", null, "+48123456789", "-2+3", null, null, "\tKsiążki");
+        when(donationRepository.streamExportLines()).thenReturn(Stream.of(line));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        donationExportService.export(DonationExportFormat.CSV, outputStream);
+
+        String record = outputStream.toString(StandardCharsets.UTF_8).split("\r\n")[1];
+        assertThat(record).isEqualTo("1,,,true,,,,\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"x\"\")\",\"'@SUM(A1)\",,\"'+48123456789\",\"'-2+3\",,,\"'\tKsiążki\"");
+    }
+
+    @Test
+    void givenDonationsWithManyCategories_whenExportNdjson_thenOneJsonObjectPerLineWritten() throws Exception {
+        when(donationRepository.streamExportLines()).thenReturn(Stream.of(
+                getLine(1L, "Ubrania"),
+                getLine(1L, "Zabawki"),
+                getLine(2L, null)
+        ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        donationExportService.export(DonationExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertAll(
+                () -> assertThat(lines).hasSize(2),
+                () -> assertThat(first.get("id").asLong()).isEqualTo(1L),
+                () -> assertThat(first.get("quantity").asInt()).isEqualTo(3),
+                () -> assertThat(first.get("userEmail").asText()).isEqualTo("user@example.com"),
+                () -> assertThat(first.get("categories")).extracting(JsonNode::asText).containsExactly("Ubrania", "Zabawki"),
+                () -> assertThat(second.get("id").asLong()).isEqualTo(2L),
+                () -> assertThat(second.get("categories")).isEmpty()
+        );
+    }
+
+    @Test
+    void givenNoDonations_whenExport_thenOnlyHeaderWrittenAndStreamClosed() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(donationRepository.streamExportLines()).thenReturn(Stream.<DonationExportLine>empty().onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = donationExportService.export(DonationExportFormat.CSV, outputStream);
+
+        assertAll(
+                () -> assertThat(exported).isZero(),
+                () -> assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(CSV_HEADER + "\r\n"),
+                () -> assertThat(closed).isTrue()
+        );
+    }
+
+    @Test
+    void givenUnknownFormatName_whenFromName_thenCsvReturned() {
+        assertAll(
+                () -> assertThat(DonationExportFormat.fromName("ndjson")).isEqualTo(DonationExportFormat.NDJSON),
+                () -> assertThat(DonationExportFormat.fromName("xml")).isEqualTo(DonationExportFormat.CSV),
+                () -> assertThat(DonationExportFormat.fromName(null)).isEqualTo(DonationExportFormat.CSV)
+        );
+    }
+
+    private static DonationExportLine getLine(Long id, String categoryName) {
+        return new DonationExportLine(id, LocalDateTime.of(2024, 5, 1, 10, 15, 30), 3, false, null,
+                LocalDate.of(2024, 5, 10), LocalTime.of(12, 30), "Prosta 1", "Warszawa", "00-001", "123456789",
+                null, "Fundacja", "user@example.com", categoryName);
+    }
+}
@@ -0,0 +1,222 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.exception.SaveException;
+import pl.mateuszmarcyk.charity_donation_app.repository.CategoryRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.InstitutionRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.ApplicationMetrics;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportError;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationImportReport;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DonationImportServiceTest {
+
+    private static final String HEADER = "id,created,quantity,received,donation_passed_time,pick_up_date,pick_up_time,street,city,zip_code,phone_number,pick_up_comment,institution,user_email,categories\n";
+
+    @Mock
+    private DonationRepository donationRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private InstitutionRepository institutionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DonationStatisticsService donationStatisticsService;
+
+    @Mock
+    private ApplicationMetrics applicationMetrics;
+
+    private DonationImportService donationImportService;
+
+    private Institution institution;
+    private Category clothes;
+    private Category toys;
+
+    @BeforeEach
+    void setUp() {
+        donationImportService = new DonationImportService(donationRepository, categoryRepository, institutionRepository,
+                userRepository, donationStatisticsService, applicationMetrics,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+
+        institution = new Institution();
+        institution.setId(1L);
+        institution.setName("Fundacja");
+        clothes = new Category();
+        clothes.setId(1L);
+        clothes.setName("Ubrania");
+        toys = new Category();
+        toys.setId(2L);
+        toys.setName("Zabawki");
+    }
+
+    @Test
+    void givenValidRows_whenImportDonations_thenDonationsInsertedInBatches() throws Exception {
+        stubReferenceData();
+        when(userRepository.findIdByNormalizedEmail("user@example.com")).thenReturn(Optional.of(5L));
+
+        DonationImportReport report = donationImportService.importDonations(csv(HEADER
+                + "1,2020-05-01 10:15:30,3,true,2020-05-11 09:00:00,2020-05-10,12:30,Prosta 1,Warszawa,00-001,123456789,,Fundacja,user@example.com,\"Ubrania, Zabawki\"\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,Dzwonić,fundacja,User@Example.com,zabawki\n"
+                + ",,2,,,2020-07-10,08:00:00,Prosta 3,Gdańsk,80-001,111222333,,Fundacja,,Ubrania\n"));
+
+        ArgumentCaptor<List<Donation>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(donationRepository, times(2)).insertAll(batchCaptor.capture());
+        Donation first = batchCaptor.getAllValues().get(0).get(0);
+        Donation second = batchCaptor.getAllValues().get(0).get(1);
+
+        assertAll(
+                () -> assertThat(report.getImportedCount()).isEqualTo(3L),
+                () -> assertThat(report.getFailedCount()).isZero(),
+                () -> assertThat(report.getErrors()).isEmpty(),
+                () -> assertThat(first.getQuantity()).isEqualTo(3),
+                () -> assertThat(first.isReceived()).isTrue(),
+                () -> assertThat(first.getCreated()).isEqualTo(LocalDateTime.of(2020, 5, 1, 10, 15, 30)),
+                () -> assertThat(first.getPickUpDate()).isEqualTo(LocalDate.of(2020, 5, 10)),
+                () -> assertThat(first.getInstitution()).isSameAs(institution),
+                () -> assertThat(first.getCategories()).containsExactly(clothes, toys),
+                () -> assertThat(first.getUser().getId()).isEqualTo(5L),
+                () -> assertThat(second.getUser().getId()).isEqualTo(5L),
+                () -> assertThat(second.getUser()).isNotSameAs(first.getUser()),
+                () -> verify(userRepository, times(1)).findIdByNormalizedEmail("user@example.com"),
+                () -> verify(userRepository, never()).findByEmail(any()),
+                () -> verify(applicationMetrics, times(1)).donationsImported(2),
+                () -> verify(applicationMetrics, times(1)).donationsImported(1),
+                () -> verify(donationStatisticsService, times(1)).reconcile()
+        );
+    }
+
+    @Test
+    void givenInvalidRows_whenImportDonations_thenRowsRejectedWithLineNumbers() throws Exception {
+        stubReferenceData();
+        when(userRepository.findIdByNormalizedEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        DonationImportReport report = donationImportService.importDonations(csv(HEADER
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Nieznana,,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Fundacja,,Meble\n"
+                + ",,0,,,2020-06-10,08:00,Prosta 2,Kraków,300-01,987654321,,Fundacja,,Ubrania\n"
+                + ",,dużo,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Fundacja,,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Fundacja,missing@example.com,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Fundacja,,\n"));
+
+        assertAll(
+                () -> assertThat(report.getImportedCount()).isZero(),
+                () -> assertThat(report.getFailedCount()).isEqualTo(6L),
+                () -> assertThat(report.getErrors()).extracting(DonationImportError::getLineNumber).containsExactly(2L, 3L, 4L, 5L, 6L, 7L),
+                () -> assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Nieznana instytucja: Nieznana"),
+                () -> assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Nieznana kategoria: Meble"),
+                () -> assertThat(report.getErrors().get(2).getMessage()).contains("donation.quantity.min").contains("donation.zipCode.pattern"),
+                () -> assertThat(report.getErrors().get(3).getMessage()).isEqualTo("Nieprawidłowa wartość w kolumnie quantity: dużo"),
+                () -> assertThat(report.getErrors().get(4).getMessage()).isEqualTo("Nieznany użytkownik: missing@example.com"),
+                () -> assertThat(report.getErrors().get(5).getMessage()).contains("donation.categories.notempty"),
+                () -> verify(donationRepository, never()).insertAll(anyList()),
+                () -> verify(donationStatisticsService, never()).reconcile()
+        );
+    }
+
+    @Test
+    void givenFailingBatch_whenImportDonations_thenAllRowsOfBatchRejectedAndImportContinues() throws Exception {
+        stubReferenceData();
+        doThrow(new DataIntegrityViolationException("constraint", new RuntimeException("duplicate")))
+                .doNothing()
+                .when(donationRepository).insertAll(anyList());
+
+        DonationImportReport report = donationImportService.importDonations(csv(HEADER
+                + ",,1,,,2020-06-10,08:00,Prosta 1,Kraków,30-001,987654321,,Fundacja,,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Fundacja,,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 3,Kraków,30-001,987654321,,Fundacja,,Ubrania\n"));
+
+        assertAll(
+                () -> assertThat(report.getImportedCount()).isEqualTo(1L),
+                () -> assertThat(report.getFailedCount()).isEqualTo(2L),
+                () -> assertThat(report.getErrors()).extracting(DonationImportError::getLineNumber).containsExactly(2L, 3L),
+                () -> assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Nie udało się zapisać wiersza: duplicate")
+        );
+    }
+
+    @Test
+    void givenMissingColumns_whenImportDonations_thenSaveExceptionThrown() {
+        assertThatThrownBy(() -> donationImportService.importDonations(csv("quantity,street,city\n1,Prosta,Kraków\n")))
+                .isInstanceOf(SaveException.class)
+                .hasMessage("Brak wymaganych kolumn: pick_up_date, pick_up_time, zip_code, phone_number, institution, categories");
+
+        verify(donationRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void givenMalformedRecord_whenImportDonations_thenSaveExceptionThrownWithImportedCount() {
+        stubReferenceData();
+
+        assertThatThrownBy(() -> donationImportService.importDonations(csv(HEADER
+                + ",,1,,,2020-06-10,08:00,Prosta 1,Kraków,30-001,987654321,,Fundacja,,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,Prosta 2,Kraków,30-001,987654321,,Fundacja,,Ubrania\n"
+                + ",,1,,,2020-06-10,08:00,\"Prosta 3,Kraków\n")))
+                .isInstanceOf(SaveException.class)
+                .hasMessage("Nie udało się odczytać pliku (zaimportowano 2 darów): Unterminated quoted field starting on line 4");
+    }
+
+    @Test
+    void givenEmptyFile_whenImportDonations_thenSaveExceptionThrown() {
+        assertThatThrownBy(() -> donationImportService.importDonations(csv("")))
+                .isInstanceOf(SaveException.class)
+                .hasMessage("Plik jest pusty");
+    }
+
+    @Test
+    void givenMoreErrorsThanReported_whenImportDonations_thenErrorListTruncated() throws Exception {
+        stubReferenceData();
+        StringBuilder rows = new StringBuilder(HEADER);
+        for (int i = 0; i < DonationImportService.MAX_REPORTED_ERRORS + 5; i++) {
+            rows.append(",,1,,,2020-06-10,08:00,Prosta 1,Kraków,30-001,987654321,,Nieznana,,Ubrania\n");
+        }
+
+        DonationImportReport report = donationImportService.importDonations(csv(rows.toString()));
+
+        assertAll(
+                () -> assertThat(report.getFailedCount()).isEqualTo(DonationImportService.MAX_REPORTED_ERRORS + 5L),
+                () -> assertThat(report.getErrors()).hasSize(DonationImportService.MAX_REPORTED_ERRORS),
+                () -> assertThat(report.isErrorListTruncated()).isTrue()
+        );
+    }
+
+    private void stubReferenceData() {
+        when(institutionRepository.findAll()).thenReturn(List.of(institution));
+        when(categoryRepository.findAll()).thenReturn(new ArrayList<>(List.of(clothes, toys)));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
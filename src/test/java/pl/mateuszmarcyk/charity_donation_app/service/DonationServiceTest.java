@@ -5,26 +5,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
 import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
 import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
+import pl.mateuszmarcyk.charity_donation_app.exception.SaveException;
 import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
-import pl.mateuszmarcyk.charity_donation_app.util.event.DonationProcessCompleteEvent;
+import pl.mateuszmarcyk.charity_donation_app.util.ApplicationMetrics;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkOperation;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationBulkResult;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationCursor;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationKey;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationPage;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationRow;
+import pl.mateuszmarcyk.charity_donation_app.util.DonationSortType;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,78 +53,58 @@ class DonationServiceTest {
     private DonationRepository donationRepository;
 
     @Mock
-    private ApplicationEventPublisher publisher;
+    private DonationStatisticsService donationStatisticsService;
 
-    @Test
-    void givenDonationService_whenCountAllDonationsReturnsNull_thenCountIsZero() {
-
-        when(donationRepository.countAll()).thenReturn(null);
-
-        Integer donationCount = donationService.countAllDonations();
-
-        verify(donationRepository, times(1)).countAll();
+    @Mock
+    private OutboxService outboxService;
 
-        assertThat(donationCount).isZero();
-    }
+    @Mock
+    private ApplicationMetrics applicationMetrics;
 
     @Test
-    void givenDonationService_whenCountAllDonationsReturnsResult_thenResultIsCorrect() {
+    void givenDonationService_whenCountAllDonations_thenCountReadFromStatistics() {
 
-        when(donationRepository.countAll()).thenReturn(10);
+        when(donationStatisticsService.getDonationCount()).thenReturn(10);
 
         Integer donationCount = donationService.countAllDonations();
 
-        verify(donationRepository, times(1)).countAll();
+        verify(donationStatisticsService, times(1)).getDonationCount();
+        verifyNoInteractions(donationRepository);
 
         assertThat(donationCount).isEqualTo(10);
     }
 
-
     @Test
-    void givenDonationService_whenCountAllBagsReturnsNull_thenResultIsZero() {
+    void givenDonationService_whenCountAllBags_thenCountReadFromStatistics() {
 
-        when(donationRepository.countAllBags()).thenReturn(null);
+        when(donationStatisticsService.getBagCount()).thenReturn(10);
 
         Integer allBagsCountedByService = donationService.countAllBags();
 
-        verify(donationRepository, times(1)).countAllBags();
-        assertThat(allBagsCountedByService).isZero();
-    }
+        verify(donationStatisticsService, times(1)).getBagCount();
+        verifyNoInteractions(donationRepository);
 
-    @Test
-    void givenDonationService_whenCountAllBags_thenResultIsCorrect() {
-
-        when(donationRepository.countAllBags()).thenReturn(10);
-
-        Integer allBagsCountedByService = donationService.countAllBags();
-
-        verify(donationRepository, times(1)).countAllBags();
         assertThat(allBagsCountedByService).isEqualTo(10);
     }
 
     @Test
-    void givenDonationService_WhenSaveDonation_thenSaveMethodInvokedAndDonationProcessCompleteEventPublished() {
+    void givenDonationService_WhenSaveDonation_thenSaveMethodInvokedAndDonationProcessCompleteEventRecordedInOutbox() {
         Donation donation = TestDataFactory.getDonation();
-        User user = donation.getUser();
+        donation.setId(7L);
 
         when(donationRepository.save(donation)).thenReturn(donation);
         ArgumentCaptor<Donation> donationArgumentCaptor = ArgumentCaptor.forClass(Donation.class);
-        ArgumentCaptor<DonationProcessCompleteEvent> argumentCaptor = ArgumentCaptor.forClass(DonationProcessCompleteEvent.class);
 
         donationService.save(donation);
 
         verify(donationRepository).save(donationArgumentCaptor.capture());
-        verify(publisher).publishEvent(argumentCaptor.capture());
+        verify(donationStatisticsService).recordDonationAdded(donation);
+        verify(outboxService).record(OutboxEventType.DONATION_PROCESS_COMPLETE, 7L, null);
+        verify(applicationMetrics).donationCreated();
 
         Donation persistedDonation = donationArgumentCaptor.getValue();
-        DonationProcessCompleteEvent event = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(persistedDonation).isEqualTo(donation),
-                () -> assertThat(event.getDonation()).isEqualTo(donation),
-                () -> assertThat(event.getUser()).isEqualTo(user)
-        );
 
+        assertThat(persistedDonation).isEqualTo(donation);
     }
 
     @Test
@@ -170,6 +166,7 @@ class DonationServiceTest {
         donationService.archiveDonation(donation);
 
         verify(donationRepository, times(1)).save(argumentCaptor.capture());
+        verify(applicationMetrics, times(1)).donationArchived();
 
         Donation archievedDonation = argumentCaptor.getValue();
 
@@ -181,197 +178,6 @@ class DonationServiceTest {
 
     }
 
-    @Test
-    void givenDonationService_whenGetDonationsForUserSortedByNullSortType_thenFindAllDonationsByUserInvoked() {
-        User user = new User();
-        user.setId(1L);
-        String sortType = null;
-
-        when(donationRepository.findAllDonationsByUser(user)).thenReturn(new ArrayList<>());
-
-        List<Donation> donationsRetrievedByService = donationService.getDonationsForUserSortedBy(sortType, user);
-
-        ArgumentCaptor<User> argumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationRepository, times(1)).findAllDonationsByUser(argumentCaptor.capture());
-
-        User userUsedInService = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(donationsRetrievedByService).isEmpty(),
-                () -> assertThat(userUsedInService).isEqualTo(user)
-        );
-    }
-
-    @Test
-    void givenDonationService_whenGetDonationsForUserSortedByCreatedSortType_thenFindAllDonationsByUserSortedByCreatedInvoked() {
-        User user = new User();
-        user.setId(1L);
-        String sortType = "created";
-
-        when(donationRepository.findAllDonationsByUserSortedByCreated(user)).thenReturn(new ArrayList<>());
-
-        List<Donation> donationsRetrievedByService = donationService.getDonationsForUserSortedBy(sortType, user);
-
-        ArgumentCaptor<User> argumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationRepository, times(1)).findAllDonationsByUserSortedByCreated(argumentCaptor.capture());
-
-        User userUsedInService = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(donationsRetrievedByService).isEmpty(),
-                () -> assertThat(userUsedInService).isEqualTo(user)
-        );
-    }
-
-    @Test
-    void givenDonationService_whenGetDonationsForUserSortedByQuantityDescSortType_thenFindAllDonationsByUserSortedByQuantityDescInvoked() {
-        User user = new User();
-        user.setId(1L);
-        String sortType = "quantity desc";
-
-        when(donationRepository.findAllDonationsByUserSortedByQuantityDesc(user)).thenReturn(new ArrayList<>());
-
-        List<Donation> donationsRetrievedByService = donationService.getDonationsForUserSortedBy(sortType, user);
-
-        ArgumentCaptor<User> argumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationRepository, times(1)).findAllDonationsByUserSortedByQuantityDesc(argumentCaptor.capture());
-
-        User userUsedInService = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(donationsRetrievedByService).isEmpty(),
-                () -> assertThat(userUsedInService).isEqualTo(user)
-        );
-    }
-
-    @Test
-    void givenDonationService_whenGetDonationsForUserSortedByQuantityAscSortType_thenFindAllDonationsByUserSortedByQuantityAscInvoked() {
-        User user = new User();
-        user.setId(1L);
-        String sortType = "quantity asc";
-
-        when(donationRepository.findAllDonationsByUserSortedByQuantityAsc(user)).thenReturn(new ArrayList<>());
-
-        List<Donation> donationsRetrievedByService = donationService.getDonationsForUserSortedBy(sortType, user);
-
-        ArgumentCaptor<User> argumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationRepository, times(1)).findAllDonationsByUserSortedByQuantityAsc(argumentCaptor.capture());
-
-        User userUsedInService = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(donationsRetrievedByService).isEmpty(),
-                () -> assertThat(userUsedInService).isEqualTo(user)
-        );
-    }
-
-    @Test
-    void givenDonationService_whenGetDonationsForUserSortedByReceivedAscSortType_thenFindAllDonationsByUserSortedByReceivedInvoked() {
-        User user = new User();
-        user.setId(1L);
-        String sortType = "received asc";
-
-        when(donationRepository.findAllDonationsByUserSortedByReceived(user)).thenReturn(new ArrayList<>());
-
-        List<Donation> donationsRetrievedByService = donationService.getDonationsForUserSortedBy(sortType, user);
-
-        ArgumentCaptor<User> argumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationRepository, times(1)).findAllDonationsByUserSortedByReceived(argumentCaptor.capture());
-
-        User userUsedInService = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(donationsRetrievedByService).isEmpty(),
-                () -> assertThat(userUsedInService).isEqualTo(user)
-        );
-    }
-
-    @Test
-    void givenDonationService_whenGetDonationsForUserSortedByIncorrectSortType_thenFindAllDonationsByUserSortedByUnreceivedInvoked() {
-        User user = new User();
-        user.setId(1L);
-        String sortType = "wrong sort";
-
-        when(donationRepository.findAllDonationsByUserSortedByUnreceived(user)).thenReturn(new ArrayList<>());
-
-        List<Donation> donationsRetrievedByService = donationService.getDonationsForUserSortedBy(sortType, user);
-
-        ArgumentCaptor<User> argumentCaptor = ArgumentCaptor.forClass(User.class);
-        verify(donationRepository, times(1)).findAllDonationsByUserSortedByUnreceived(argumentCaptor.capture());
-
-        User userUsedInService = argumentCaptor.getValue();
-
-        assertAll(
-                () -> assertThat(donationsRetrievedByService).isEmpty(),
-                () -> assertThat(userUsedInService).isEqualTo(user)
-        );
-    }
-
-    @ParameterizedTest
-    @CsvSource({"created", "invalid"})
-    void givenDonationService_whenFindAllWithCreatedOrInvalidSortType_thenFindAllDonationsSortedByCreated(String sortType) {
-        List<Donation> donationsToReturnByMock = new ArrayList<>();
-        when(donationRepository.findAllDonationsSortedByCreated()).thenReturn(donationsToReturnByMock);
-
-        List<Donation> donations = donationService.findAll(sortType);
-
-        verify(donationRepository, times(1)).findAllDonationsSortedByCreated();
-
-        assertIterableEquals(donationsToReturnByMock, donations);
-    }
-
-    @Test
-    void givenDonationService_whenFindAllWithNullSortType_thenFindDonationsSortedByCreated() {
-        String sortType = null;
-        List<Donation> donationsToReturnByMock = new ArrayList<>();
-        when(donationRepository.findAllDonationsSortedByCreated()).thenReturn(donationsToReturnByMock);
-
-        List<Donation> donations = donationService.findAll(sortType);
-
-        verify(donationRepository, times(1)).findAllDonationsSortedByCreated();
-
-        assertIterableEquals(donationsToReturnByMock, donations);
-    }
-
-    @Test
-    void givenDonationService_whenFindAllWithQuantityDescSortType_thenFindAllDonationsByQuantityDescInvoked() {
-        String sortType = "quantity desc";
-        List<Donation> donationsToReturnByMock = new ArrayList<>();
-        when(donationRepository.findAllDonationsByQuantityDesc()).thenReturn(donationsToReturnByMock);
-
-        List<Donation> donations = donationService.findAll(sortType);
-
-        verify(donationRepository, times(1)).findAllDonationsByQuantityDesc();
-
-        assertIterableEquals(donationsToReturnByMock, donations);
-    }
-
-    @Test
-    void givenDonationService_whenFindAllWithQuantityDescSortType_thenFindAllDonationsByQuantityAscInvoked() {
-        String sortType = "quantity asc";
-        List<Donation> donationsToReturnByMock = new ArrayList<>();
-        when(donationRepository.findAllDonationsSortedByQuantityAsc()).thenReturn(donationsToReturnByMock);
-
-        List<Donation> donations = donationService.findAll(sortType);
-
-        verify(donationRepository, times(1)).findAllDonationsSortedByQuantityAsc();
-
-        assertIterableEquals(donationsToReturnByMock, donations);
-    }
-
-    @Test
-    void givenDonationService_whenFindAllWithReceivedAscSortType_thenFindAllDonationsByReceivedAscInvoked() {
-        String sortType = "received asc";
-        List<Donation> donationsToReturnByMock = new ArrayList<>();
-        when(donationRepository.findAllDonationsSortedByReceivedAsc()).thenReturn(donationsToReturnByMock);
-
-        List<Donation> donations = donationService.findAll(sortType);
-
-        verify(donationRepository, times(1)).findAllDonationsSortedByReceivedAsc();
-
-        assertIterableEquals(donationsToReturnByMock, donations);
-    }
-
     @Test
     void givenDonationService_whenUnArchiveDonation_thenDonationIsUnArchived() {
         Donation donation = new Donation();
@@ -383,6 +189,7 @@ class DonationServiceTest {
         donationService.unArchiveDonation(donation);
 
         verify(donationRepository, times(1)).save(argumentCaptor.capture());
+        verify(applicationMetrics, times(1)).donationUnarchived();
 
         Donation archievedDonation = argumentCaptor.getValue();
 
@@ -403,6 +210,8 @@ class DonationServiceTest {
         donationService.deleteDonation(donation);
 
         verify(donationRepository, times(1)).delete(donationArgumentCaptor.capture());
+        verify(donationStatisticsService, times(1)).recordDonationRemoved(donation);
+        verify(applicationMetrics, times(1)).donationDeleted();
 
         Donation deletedDonation = donationArgumentCaptor.getValue();
 
@@ -427,6 +236,7 @@ class DonationServiceTest {
         donationService.deleteDonation(donation);
 
         verify(donationRepository, times(1)).delete(donationArgumentCaptor.capture());
+        verify(donationStatisticsService, times(1)).recordDonationRemoved(donation);
 
         Donation deletedDonation = donationArgumentCaptor.getValue();
 
@@ -450,6 +260,7 @@ class DonationServiceTest {
         donationService.deleteDonation(donation);
 
         verify(donationRepository, times(1)).delete(donationArgumentCaptor.capture());
+        verify(donationStatisticsService, times(1)).recordDonationRemoved(donation);
 
         Donation deletedDonation = donationArgumentCaptor.getValue();
 
@@ -474,6 +285,7 @@ class DonationServiceTest {
         donationService.deleteDonation(donation);
 
         verify(donationRepository, times(1)).delete(donationArgumentCaptor.capture());
+        verify(donationStatisticsService, times(1)).recordDonationRemoved(donation);
 
         Donation deletedDonation = donationArgumentCaptor.getValue();
 
@@ -486,6 +298,84 @@ class DonationServiceTest {
         );
     }
 
+    @Test
+    void givenDuplicatedAndNullIds_whenArchiveDonations_thenOneSetBasedUpdateIssued() {
+
+        when(donationRepository.updateReceivedByIdIn(eq(Set.of(1L, 2L, 3L)), eq(true), any(LocalDateTime.class))).thenReturn(2);
+
+        DonationBulkResult result = donationService.archiveDonations(Arrays.asList(1L, 2L, null, 2L, 3L));
+
+        assertAll(
+                () -> assertThat(result.getOperation()).isEqualTo(DonationBulkOperation.ARCHIVE),
+                () -> assertThat(result.getRequestedCount()).isEqualTo(3),
+                () -> assertThat(result.getAffectedCount()).isEqualTo(2),
+                () -> assertThat(result.getSkippedCount()).isEqualTo(1),
+                () -> verify(donationRepository, times(1)).updateReceivedByIdIn(eq(Set.of(1L, 2L, 3L)), eq(true), any(LocalDateTime.class)),
+                () -> verify(donationRepository, never()).save(any(Donation.class)),
+                () -> verify(applicationMetrics, times(1)).donationsArchived(2)
+        );
+    }
+
+    @Test
+    void givenIds_whenUnArchiveDonations_thenOneSetBasedUpdateIssued() {
+
+        when(donationRepository.updateReceivedByIdIn(Set.of(4L, 5L), false, null)).thenReturn(2);
+
+        DonationBulkResult result = donationService.unArchiveDonations(List.of(4L, 5L));
+
+        assertAll(
+                () -> assertThat(result.getOperation()).isEqualTo(DonationBulkOperation.UNARCHIVE),
+                () -> assertThat(result.getAffectedCount()).isEqualTo(2),
+                () -> assertThat(result.getSkippedCount()).isZero(),
+                () -> verify(applicationMetrics, times(1)).donationsUnarchived(2)
+        );
+    }
+
+    @Test
+    void givenIds_whenDeleteDonations_thenJoinRowsRemovedBeforeDonationsAndStatisticsUpdated() {
+
+        Set<Long> ids = Set.of(1L, 2L);
+        when(donationRepository.sumQuantityByIdIn(ids)).thenReturn(7);
+        when(donationRepository.deleteAllByIdIn(ids)).thenReturn(2);
+
+        DonationBulkResult result = donationService.deleteDonations(List.of(1L, 2L));
+
+        InOrder inOrder = inOrder(donationRepository);
+        assertAll(
+                () -> assertThat(result.getOperation()).isEqualTo(DonationBulkOperation.DELETE),
+                () -> assertThat(result.getAffectedCount()).isEqualTo(2),
+                () -> inOrder.verify(donationRepository).sumQuantityByIdIn(ids),
+                () -> inOrder.verify(donationRepository).deleteCategoryLinksByDonationIdIn(ids),
+                () -> inOrder.verify(donationRepository).deleteAllByIdIn(ids),
+                () -> verify(donationStatisticsService, times(1)).recordDonationsRemoved(2, 7),
+                () -> verify(applicationMetrics, times(1)).donationsDeleted(2)
+        );
+    }
+
+    @Test
+    void givenNoIds_whenDeleteDonations_thenNothingQueried() {
+
+        DonationBulkResult result = donationService.deleteDonations(null);
+
+        assertAll(
+                () -> assertThat(result.getRequestedCount()).isZero(),
+                () -> assertThat(result.getAffectedCount()).isZero(),
+                () -> verifyNoInteractions(donationRepository, donationStatisticsService)
+        );
+    }
+
+    @Test
+    void givenMoreIdsThanAllowed_whenArchiveDonations_thenSaveExceptionThrownAndNothingUpdated() {
+
+        List<Long> ids = LongStream.rangeClosed(1, DonationService.MAX_BULK_DONATIONS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> donationService.archiveDonations(ids))
+                .isInstanceOf(SaveException.class)
+                .hasMessage("Jednorazowo można zmienić najwyżej 500 darów, wybrano 501");
+
+        verify(donationRepository, never()).updateReceivedByIdIn(anyCollection(), anyBoolean(), any());
+    }
+
     @Test
     void givenDonationService_whenGetUserDonationById_thenThrowResourceNotFoundException() {
         Long id = 1L;
@@ -559,5 +449,173 @@ class DonationServiceTest {
         Donation capturedDonation = donationArgumentCaptor.getValue();
         assertThat(capturedDonation).isSameAs(donationToArchive);
     }
-    
+
+    @Test
+    void givenDonationService_whenFindAllPageWithoutCursors_thenFirstPageWithNextCursorReturned() {
+        List<DonationKey> donationKeys = List.of(getDonationKey(2L, 8), getDonationKey(1L, 5));
+        Window<DonationKey> window = Window.from(donationKeys, index -> quantityPosition(donationKeys.get(index)), true);
+        DonationRow firstRow = getDonationRow(2L, 8);
+        DonationRow secondRow = getDonationRow(1L, 5);
+        when(donationRepository.findKeysBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(window);
+        when(donationRepository.findRowsByIdIn(List.of(2L, 1L))).thenReturn(List.of(secondRow, firstRow));
+
+        DonationPage donationPage = donationService.findAllPage("quantity desc", null, null);
+
+        ArgumentCaptor<ScrollPosition> positionArgumentCaptor = ArgumentCaptor.forClass(ScrollPosition.class);
+        ArgumentCaptor<Sort> sortArgumentCaptor = ArgumentCaptor.forClass(Sort.class);
+        verify(donationRepository).findKeysBy(positionArgumentCaptor.capture(), sortArgumentCaptor.capture(), any(Limit.class));
+
+        assertAll(
+                () -> assertThat(positionArgumentCaptor.getValue().isInitial()).isTrue(),
+                () -> assertThat(sortArgumentCaptor.getValue()).isEqualTo(DonationSortType.QUANTITY_DESC.getSort()),
+                () -> assertThat(donationPage.getDonations()).containsExactly(firstRow, secondRow),
+                () -> assertThat(donationPage.getPreviousCursor()).isNull(),
+                () -> assertThat(donationPage.getNextCursor()).isEqualTo(DonationCursor.encode(quantityPosition(donationKeys.get(1)), DonationSortType.QUANTITY_DESC))
+        );
+    }
+
+    @Test
+    void givenDonationService_whenFindAllPageWithAfterCursorOnLastPage_thenOnlyPreviousCursorReturned() {
+        List<DonationKey> donationKeys = List.of(getDonationKey(3L, 4));
+        Window<DonationKey> window = Window.from(donationKeys, index -> quantityPosition(donationKeys.get(index)), false);
+        when(donationRepository.findKeysBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(window);
+        when(donationRepository.findRowsByIdIn(List.of(3L))).thenReturn(List.of(getDonationRow(3L, 4)));
+        String afterCursor = DonationCursor.encode(quantityPosition(getDonationKey(1L, 5)), DonationSortType.QUANTITY_DESC);
+
+        DonationPage donationPage = donationService.findAllPage("quantity desc", afterCursor, null);
+
+        ArgumentCaptor<ScrollPosition> positionArgumentCaptor = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(donationRepository).findKeysBy(positionArgumentCaptor.capture(), any(Sort.class), any(Limit.class));
+        KeysetScrollPosition usedPosition = (KeysetScrollPosition) positionArgumentCaptor.getValue();
+
+        assertAll(
+                () -> assertThat(usedPosition.scrollsForward()).isTrue(),
+                () -> assertThat(usedPosition.getKeys()).containsEntry("quantity", 5).containsEntry("id", 1L),
+                () -> assertThat(donationPage.getPreviousCursor()).isEqualTo(DonationCursor.encode(quantityPosition(donationKeys.get(0)), DonationSortType.QUANTITY_DESC)),
+                () -> assertThat(donationPage.getNextCursor()).isNull()
+        );
+    }
+
+    @Test
+    void givenDonationService_whenFindAllPageWithBeforeCursorOnFirstPage_thenOnlyNextCursorReturned() {
+        List<DonationKey> donationKeys = List.of(getDonationKey(2L, 8), getDonationKey(1L, 5));
+        Window<DonationKey> window = Window.from(donationKeys, index -> quantityPosition(donationKeys.get(index)), false);
+        when(donationRepository.findKeysBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(window);
+        when(donationRepository.findRowsByIdIn(List.of(2L, 1L))).thenReturn(List.of(getDonationRow(2L, 8), getDonationRow(1L, 5)));
+        String beforeCursor = DonationCursor.encode(quantityPosition(getDonationKey(3L, 4)), DonationSortType.QUANTITY_DESC);
+
+        DonationPage donationPage = donationService.findAllPage("quantity desc", null, beforeCursor);
+
+        ArgumentCaptor<ScrollPosition> positionArgumentCaptor = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(donationRepository).findKeysBy(positionArgumentCaptor.capture(), any(Sort.class), any(Limit.class));
+
+        assertAll(
+                () -> assertThat(((KeysetScrollPosition) positionArgumentCaptor.getValue()).scrollsBackward()).isTrue(),
+                () -> assertThat(donationPage.getPreviousCursor()).isNull(),
+                () -> assertThat(donationPage.getNextCursor()).isEqualTo(DonationCursor.encode(quantityPosition(donationKeys.get(1)), DonationSortType.QUANTITY_DESC))
+        );
+    }
+
+    @Test
+    void givenDonationService_whenFindAllPageReturnsNoDonations_thenNoCursorsReturnedAndRowsNotQueried() {
+        when(donationRepository.findKeysBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        DonationPage donationPage = donationService.findAllPage(null, null, null);
+
+        ArgumentCaptor<Sort> sortArgumentCaptor = ArgumentCaptor.forClass(Sort.class);
+        verify(donationRepository).findKeysBy(any(ScrollPosition.class), sortArgumentCaptor.capture(), any(Limit.class));
+
+        assertAll(
+                () -> assertThat(sortArgumentCaptor.getValue()).isEqualTo(DonationSortType.CREATED.getSort()),
+                () -> assertThat(donationPage.getDonations()).isEmpty(),
+                () -> assertThat(donationPage.getPreviousCursor()).isNull(),
+                () -> assertThat(donationPage.getNextCursor()).isNull(),
+                () -> verify(donationRepository, never()).findRowsByIdIn(any())
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "created, created, DESC",
+            "quantity desc, quantity, DESC",
+            "quantity asc, quantity, ASC",
+            "received asc, received, ASC",
+            "received desc, received, DESC",
+            "unknown, received, DESC"
+    })
+    void givenDonationService_whenGetDonationsForUserSortedBy_thenPageRequestedWithWhitelistedSortAndIdTiebreak(String sortType, String property, Sort.Direction direction) {
+        User user = TestDataFactory.getUser();
+        DonationRow firstRow = getDonationRow(4L, 2);
+        DonationRow secondRow = getDonationRow(3L, 1);
+        Page<Long> donationIdsPage = new PageImpl<>(List.of(4L, 3L), PageRequest.of(1, 10), 12);
+
+        when(donationRepository.findIdsByUser(eq(user), any(Pageable.class))).thenReturn(donationIdsPage);
+        when(donationRepository.findRowsByIdIn(List.of(4L, 3L))).thenReturn(List.of(secondRow, firstRow));
+
+        Page<DonationRow> result = donationService.getDonationsForUserSortedBy(sortType, user, 1, 10);
+
+        ArgumentCaptor<Pageable> pageableArgumentCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(donationRepository, times(1)).findIdsByUser(eq(user), pageableArgumentCaptor.capture());
+        Pageable capturedPageable = pageableArgumentCaptor.getValue();
+
+        assertAll(
+                () -> assertThat(result.getContent()).containsExactly(firstRow, secondRow),
+                () -> assertThat(result.getTotalElements()).isEqualTo(12),
+                () -> assertThat(capturedPageable.getPageNumber()).isEqualTo(1),
+                () -> assertThat(capturedPageable.getPageSize()).isEqualTo(10),
+                () -> assertThat(capturedPageable.getSort()).isEqualTo(Sort.by(direction, property).and(Sort.by("id")))
+        );
+    }
+
+    @Test
+    void givenDonationService_whenGetDonationsForUserSortedByNullSortType_thenPageSortedById() {
+        User user = TestDataFactory.getUser();
+
+        when(donationRepository.findIdsByUser(eq(user), any(Pageable.class))).thenReturn(Page.empty());
+
+        donationService.getDonationsForUserSortedBy(null, user, 0, 20);
+
+        ArgumentCaptor<Pageable> pageableArgumentCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(donationRepository, times(1)).findIdsByUser(eq(user), pageableArgumentCaptor.capture());
+
+        assertThat(pageableArgumentCaptor.getValue().getSort()).isEqualTo(Sort.by("id"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "-3, 0, 0, 1",
+            "2, 500, 2, 50",
+            "0, 20, 0, 20"
+    })
+    void givenDonationService_whenGetDonationsForUserSortedByWithOutOfRangePage_thenPageAndSizeClamped(int page, int size, int expectedPage, int expectedSize) {
+        User user = TestDataFactory.getUser();
+
+        when(donationRepository.findIdsByUser(eq(user), any(Pageable.class))).thenReturn(Page.empty());
+
+        donationService.getDonationsForUserSortedBy("created", user, page, size);
+
+        ArgumentCaptor<Pageable> pageableArgumentCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(donationRepository, times(1)).findIdsByUser(eq(user), pageableArgumentCaptor.capture());
+        Pageable capturedPageable = pageableArgumentCaptor.getValue();
+
+        assertAll(
+                () -> assertThat(capturedPageable.getPageNumber()).isEqualTo(expectedPage),
+                () -> assertThat(capturedPageable.getPageSize()).isEqualTo(expectedSize)
+        );
+    }
+
+    private static DonationKey getDonationKey(Long id, Integer quantity) {
+        DonationKey donationKey = mock(DonationKey.class);
+        lenient().when(donationKey.getId()).thenReturn(id);
+        lenient().when(donationKey.getQuantity()).thenReturn(quantity);
+        return donationKey;
+    }
+
+    private static DonationRow getDonationRow(Long id, Integer quantity) {
+        return new DonationRow(id, quantity, LocalDateTime.now(), false, null, "Institution", "Category");
+    }
+
+    private static ScrollPosition quantityPosition(DonationKey donationKey) {
+        return ScrollPosition.forward(Map.of("quantity", donationKey.getQuantity(), "id", donationKey.getId()));
     }
+}
@@ -0,0 +1,133 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DonationStatisticsServiceTest {
+
+    @InjectMocks
+    private DonationStatisticsService donationStatisticsService;
+
+    @Mock
+    private DonationRepository donationRepository;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenDonationStatisticsService_whenCountsReturnNull_thenCountsAreZero() {
+
+        when(donationRepository.countAll()).thenReturn(null);
+        when(donationRepository.countAllBags()).thenReturn(null);
+
+        assertAll(
+                () -> assertThat(donationStatisticsService.getDonationCount()).isZero(),
+                () -> assertThat(donationStatisticsService.getBagCount()).isZero()
+        );
+    }
+
+    @Test
+    void givenDonationStatisticsService_whenCountsReadRepeatedly_thenAggregatesQueriedOnce() {
+
+        when(donationRepository.countAll()).thenReturn(10);
+        when(donationRepository.countAllBags()).thenReturn(25);
+
+        donationStatisticsService.getDonationCount();
+        donationStatisticsService.getBagCount();
+        Integer donationCount = donationStatisticsService.getDonationCount();
+        Integer bagCount = donationStatisticsService.getBagCount();
+
+        verify(donationRepository, times(1)).countAll();
+        verify(donationRepository, times(1)).countAllBags();
+
+        assertAll(
+                () -> assertThat(donationCount).isEqualTo(10),
+                () -> assertThat(bagCount).isEqualTo(25)
+        );
+    }
+
+    @Test
+    void givenDonationStatisticsService_whenDonationAddedAndRemoved_thenCountsUpdatedWithoutQueries() {
+        Donation addedDonation = TestDataFactory.getDonation();
+        addedDonation.setQuantity(4);
+        Donation removedDonation = TestDataFactory.getDonation();
+        removedDonation.setQuantity(3);
+
+        when(donationRepository.countAll()).thenReturn(10);
+        when(donationRepository.countAllBags()).thenReturn(25);
+        donationStatisticsService.getDonationCount();
+
+        donationStatisticsService.recordDonationAdded(addedDonation);
+        donationStatisticsService.recordDonationAdded(addedDonation);
+        donationStatisticsService.recordDonationRemoved(removedDonation);
+
+        verify(donationRepository, times(1)).countAll();
+        verify(donationRepository, times(1)).countAllBags();
+
+        assertAll(
+                () -> assertThat(donationStatisticsService.getDonationCount()).isEqualTo(11),
+                () -> assertThat(donationStatisticsService.getBagCount()).isEqualTo(30)
+        );
+    }
+
+    @Test
+    void givenDonationStatisticsServiceInTransaction_whenDonationAdded_thenCountsUpdatedOnlyAfterCommit() {
+        Donation donation = TestDataFactory.getDonation();
+        donation.setQuantity(4);
+
+        when(donationRepository.countAll()).thenReturn(10);
+        when(donationRepository.countAllBags()).thenReturn(25);
+        donationStatisticsService.getDonationCount();
+
+        TransactionSynchronizationManager.initSynchronization();
+        donationStatisticsService.recordDonationAdded(donation);
+
+        Integer donationCountBeforeCommit = donationStatisticsService.getDonationCount();
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCommit());
+        Integer donationCountAfterCommit = donationStatisticsService.getDonationCount();
+
+        assertAll(
+                () -> assertThat(donationCountBeforeCommit).isEqualTo(10),
+                () -> assertThat(donationCountAfterCommit).isEqualTo(11),
+                () -> assertThat(donationStatisticsService.getBagCount()).isEqualTo(29)
+        );
+    }
+
+    @Test
+    void givenDonationStatisticsService_whenReconcile_thenCountsReplacedWithDatabaseValues() {
+        Donation donation = TestDataFactory.getDonation();
+        donation.setQuantity(4);
+
+        when(donationRepository.countAll()).thenReturn(10, 12);
+        when(donationRepository.countAllBags()).thenReturn(25, 40);
+        donationStatisticsService.getDonationCount();
+        donationStatisticsService.recordDonationAdded(donation);
+
+        donationStatisticsService.reconcile();
+
+        verify(donationRepository, times(2)).countAll();
+        verify(donationRepository, times(2)).countAllBags();
+
+        assertAll(
+                () -> assertThat(donationStatisticsService.getDonationCount()).isEqualTo(12),
+                () -> assertThat(donationStatisticsService.getBagCount()).isEqualTo(40)
+        );
+    }
+}
@@ -29,6 +29,9 @@ class InstitutionServiceTest {
     @Mock
     private InstitutionRepository institutionRepository;
 
+    @Mock
+    private ReferenceDataCacheService referenceDataCacheService;
+
     @Test
     void givenInstitutionService_whenFindAll_thenFindAllInvoked() {
         List<Institution> institutions = new ArrayList<>(List.of(
@@ -88,6 +91,8 @@ class InstitutionServiceTest {
         institutionService.saveInstitution(institution);
 
         verify(institutionRepository, times(1)).save(argumentCaptor.capture());
+
+        verify(referenceDataCacheService, times(1)).evictInstitutions();
         Institution savedInstitution = argumentCaptor.getValue();
 
         assertThat(savedInstitution).isEqualTo(institution);
@@ -114,11 +119,15 @@ class InstitutionServiceTest {
         Long idToFindInstitution = argumentCaptor.getValue();
 
         verify(institutionRepository).delete(institutionArgumentCaptor.capture());
+
+        verify(referenceDataCacheService, times(1)).evictInstitutions();
         Institution deletedInstitution = institutionArgumentCaptor.getValue();
 
+        verify(institutionRepository, times(1)).detachDonations(institution.getId());
+
         assertAll(
-                () -> assertThat(firstDonation.getInstitution()).isNull(),
-                () -> assertThat(secondDonation.getInstitution()).isNull(),
+                () -> assertThat(firstDonation.getInstitution()).isSameAs(institution),
+                () -> assertThat(secondDonation.getInstitution()).isSameAs(institution),
                 () -> assertThat(idToFindInstitution).isEqualTo(institution.getId()),
                 () -> assertThat(deletedInstitution).isEqualTo(institution)
         );
@@ -137,6 +146,8 @@ class InstitutionServiceTest {
 
         verify(institutionRepository, never()).delete(institution);
 
+        verify(referenceDataCacheService, never()).evictInstitutions();
+
         Long usedId = argumentCaptor.getValue();
         assertThat(usedId).isEqualTo(institution.getId());
     }
@@ -0,0 +1,198 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMail;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMailStatus;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.repository.OutboundMailRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.AddressedMail;
+import pl.mateuszmarcyk.charity_donation_app.util.AppMailSender;
+import pl.mateuszmarcyk.charity_donation_app.util.Mail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailQueueServiceTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private OutboundMailRepository outboundMailRepository;
+
+    @Mock
+    private AppMailSender appMailSender;
+
+    private MailQueueService mailQueueService;
+
+    @BeforeEach
+    void setUp() {
+        mailQueueService = new MailQueueService(outboundMailRepository, appMailSender, BATCH_SIZE, MAX_ATTEMPTS, Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void whenEnqueue_thenPendingMailSavedWithoutCountingQueue() {
+        User user = new User();
+        user.setEmail("user@example.com");
+        Mail mail = new Mail("Subject", "Sender", "Content");
+
+        mailQueueService.enqueue(user, mail);
+
+        verify(outboundMailRepository, never()).countByStatusIn(anyCollection());
+
+        ArgumentCaptor<OutboundMail> outboundMailArgumentCaptor = ArgumentCaptor.forClass(OutboundMail.class);
+        verify(outboundMailRepository, times(1)).save(outboundMailArgumentCaptor.capture());
+        OutboundMail savedMail = outboundMailArgumentCaptor.getValue();
+
+        assertAll(
+                () -> assertThat(savedMail.getRecipient()).isEqualTo("user@example.com"),
+                () -> assertThat(savedMail.getSubject()).isEqualTo("Subject"),
+                () -> assertThat(savedMail.getSenderName()).isEqualTo("Sender"),
+                () -> assertThat(savedMail.getContent()).isEqualTo("Content"),
+                () -> assertThat(savedMail.getStatus()).isEqualTo(OutboundMailStatus.PENDING),
+                () -> assertThat(savedMail.getAttempts()).isZero(),
+                () -> assertThat(savedMail.getNextAttemptTime()).isNotNull()
+        );
+    }
+
+    @Test
+    void whenGetQueueDepth_thenPendingAndSendingMailsCounted() {
+        when(outboundMailRepository.countByStatusIn(anyCollection())).thenReturn(12_000L);
+
+        long queueDepth = mailQueueService.getQueueDepth();
+
+        ArgumentCaptor<Collection<OutboundMailStatus>> statusesArgumentCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(outboundMailRepository).countByStatusIn(statusesArgumentCaptor.capture());
+        assertAll(
+                () -> assertThat(queueDepth).isEqualTo(12_000L),
+                () -> assertThat(statusesArgumentCaptor.getValue()).containsExactlyInAnyOrder(OutboundMailStatus.PENDING, OutboundMailStatus.SENDING)
+        );
+    }
+
+    @Test
+    void givenDueMails_whenClaimDueMails_thenMailsLeasedAndIdsReturned() {
+        OutboundMail first = getOutboundMail(1L, OutboundMailStatus.PENDING, 0);
+        OutboundMail second = getOutboundMail(2L, OutboundMailStatus.SENDING, 1);
+        List<OutboundMail> dueMails = List.of(first, second);
+        LocalDateTime beforeClaim = LocalDateTime.now();
+
+        when(outboundMailRepository.findByStatusInAndNextAttemptTimeLessThanEqualOrderByNextAttemptTime(anyCollection(), any(LocalDateTime.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(dueMails);
+        when(outboundMailRepository.saveAllAndFlush(dueMails)).thenReturn(dueMails);
+
+        List<Long> claimedIds = mailQueueService.claimDueMails();
+
+        assertAll(
+                () -> assertThat(claimedIds).containsExactly(1L, 2L),
+                () -> assertThat(dueMails).allMatch(outboundMail -> outboundMail.getStatus() == OutboundMailStatus.SENDING),
+                () -> assertThat(dueMails).allMatch(outboundMail -> outboundMail.getNextAttemptTime().isAfter(beforeClaim.plusMinutes(9)))
+        );
+    }
+
+    @Test
+    void givenClaimedMails_whenDeliverBatchSucceeds_thenMailsSentTogetherAndRemovedFromQueue() {
+        OutboundMail first = getOutboundMail(1L, OutboundMailStatus.SENDING, 0);
+        OutboundMail second = getOutboundMail(2L, OutboundMailStatus.SENDING, 0);
+
+        when(outboundMailRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(appMailSender.sendEmails(anyCollection())).thenReturn(Map.of());
+
+        mailQueueService.deliverBatch(List.of(1L, 2L));
+
+        ArgumentCaptor<Collection<AddressedMail>> mailsArgumentCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(appMailSender, times(1)).sendEmails(mailsArgumentCaptor.capture());
+        verify(outboundMailRepository, times(1)).deleteAll(List.of(first, second));
+        verify(outboundMailRepository, never()).save(any(OutboundMail.class));
+
+        List<AddressedMail> sentMails = List.copyOf(mailsArgumentCaptor.getValue());
+        assertAll(
+                () -> assertThat(sentMails).hasSize(2),
+                () -> assertThat(sentMails).allMatch(mail -> mail.getRecipient().equals("user@example.com")),
+                () -> assertThat(sentMails.get(0).getMail().getSubject()).isEqualTo("Subject"),
+                () -> assertThat(sentMails.get(0).getMail().getSenderName()).isEqualTo("Sender"),
+                () -> assertThat(sentMails.get(0).getMail().getMailContent()).isEqualTo("Content")
+        );
+    }
+
+    @Test
+    void givenOneMailRejected_whenDeliverBatch_thenOnlyRejectedMailScheduledForRetry() {
+        OutboundMail delivered = getOutboundMail(1L, OutboundMailStatus.SENDING, 0);
+        OutboundMail rejected = getOutboundMail(2L, OutboundMailStatus.SENDING, 1);
+        LocalDateTime beforeDelivery = LocalDateTime.now();
+
+        when(outboundMailRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(delivered, rejected));
+        when(appMailSender.sendEmails(anyCollection())).thenAnswer(invocation -> {
+            Collection<AddressedMail> mails = invocation.getArgument(0);
+            AddressedMail secondMail = List.copyOf(mails).get(1);
+            return Map.of(secondMail, new MessagingException("SMTP unavailable"));
+        });
+
+        mailQueueService.deliverBatch(List.of(1L, 2L));
+
+        verify(outboundMailRepository, times(1)).deleteAll(List.of(delivered));
+        verify(outboundMailRepository, times(1)).save(rejected);
+
+        assertAll(
+                () -> assertThat(rejected.getStatus()).isEqualTo(OutboundMailStatus.PENDING),
+                () -> assertThat(rejected.getAttempts()).isEqualTo(2),
+                () -> assertThat(rejected.getLastError()).isEqualTo("SMTP unavailable"),
+                () -> assertThat(rejected.getNextAttemptTime()).isBetween(beforeDelivery.plusSeconds(60), LocalDateTime.now().plusSeconds(60)),
+                () -> assertThat(delivered.getAttempts()).isZero()
+        );
+    }
+
+    @Test
+    void givenMailOnLastAttempt_whenDeliverBatchFails_thenMailDeadLettered() {
+        OutboundMail outboundMail = getOutboundMail(1L, OutboundMailStatus.SENDING, MAX_ATTEMPTS - 1);
+
+        when(outboundMailRepository.findAllById(List.of(1L))).thenReturn(List.of(outboundMail));
+        when(appMailSender.sendEmails(anyCollection())).thenThrow(new IllegalStateException("Mailbox rejected"));
+
+        mailQueueService.deliverBatch(List.of(1L));
+
+        verify(outboundMailRepository, times(1)).save(outboundMail);
+        verify(outboundMailRepository, never()).deleteAll(anyList());
+
+        assertAll(
+                () -> assertThat(outboundMail.getStatus()).isEqualTo(OutboundMailStatus.DEAD),
+                () -> assertThat(outboundMail.getAttempts()).isEqualTo(MAX_ATTEMPTS),
+                () -> assertThat(outboundMail.getLastError()).isEqualTo("Mailbox rejected")
+        );
+    }
+
+    @Test
+    void givenMailsNoLongerClaimed_whenDeliverBatch_thenNothingSent() {
+        OutboundMail outboundMail = getOutboundMail(1L, OutboundMailStatus.DEAD, MAX_ATTEMPTS);
+
+        when(outboundMailRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(outboundMail));
+
+        mailQueueService.deliverBatch(List.of(1L, 2L));
+
+        verify(appMailSender, never()).sendEmails(anyCollection());
+        verify(outboundMailRepository, never()).save(any(OutboundMail.class));
+        verify(outboundMailRepository, never()).deleteAll(anyList());
+    }
+
+    private static OutboundMail getOutboundMail(Long id, OutboundMailStatus status, int attempts) {
+        OutboundMail outboundMail = new OutboundMail("user@example.com", new Mail("Subject", "Sender", "Content"));
+        outboundMail.setId(id);
+        outboundMail.setStatus(status);
+        outboundMail.setAttempts(attempts);
+        return outboundMail;
+    }
+}
@@ -0,0 +1,212 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
+import pl.mateuszmarcyk.charity_donation_app.entity.Donation;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEvent;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.repository.DonationRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.OutboxEventRepository;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.event.DonationProcessCompleteEvent;
+import pl.mateuszmarcyk.charity_donation_app.util.event.RegistrationCompleteEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(15);
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private DonationRepository donationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxEventRepository, donationRepository, userRepository, publisher, BATCH_SIZE, MAX_ATTEMPTS, INITIAL_BACKOFF, MAX_BACKOFF);
+    }
+
+    @Test
+    void givenNewEvent_whenRecord_thenEventSavedWithDedupKey() {
+        when(outboxEventRepository.existsByDedupKey("REGISTRATION_COMPLETE:5")).thenReturn(false);
+
+        outboxService.record(OutboxEventType.REGISTRATION_COMPLETE, 5L, "http://localhost:8080/app");
+
+        ArgumentCaptor<OutboxEvent> outboxEventArgumentCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(outboxEventArgumentCaptor.capture());
+        OutboxEvent savedEvent = outboxEventArgumentCaptor.getValue();
+
+        assertAll(
+                () -> assertThat(savedEvent.getEventType()).isEqualTo(OutboxEventType.REGISTRATION_COMPLETE),
+                () -> assertThat(savedEvent.getAggregateId()).isEqualTo(5L),
+                () -> assertThat(savedEvent.getPayload()).isEqualTo("http://localhost:8080/app"),
+                () -> assertThat(savedEvent.getDedupKey()).isEqualTo("REGISTRATION_COMPLETE:5"),
+                () -> assertThat(savedEvent.getAttempts()).isZero(),
+                () -> assertThat(savedEvent.getCreated()).isNotNull()
+        );
+    }
+
+    @Test
+    void givenAlreadyRecordedEvent_whenRecord_thenDuplicateNotSaved() {
+        when(outboxEventRepository.existsByDedupKey("DONATION_PROCESS_COMPLETE:5")).thenReturn(true);
+
+        outboxService.record(OutboxEventType.DONATION_PROCESS_COMPLETE, 5L, null);
+
+        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
+    }
+
+    @Test
+    void givenPendingEvents_whenFindPendingEventIds_thenIdsOfBatchReturned() {
+        OutboxEvent first = getOutboxEvent(1L, OutboxEventType.DONATION_PROCESS_COMPLETE, 3L, null);
+        OutboxEvent second = getOutboxEvent(2L, OutboxEventType.REGISTRATION_COMPLETE, 4L, "url");
+
+        when(outboxEventRepository.findByAttemptsLessThanAndNextAttemptTimeLessThanEqualOrderByNextAttemptTimeAscIdAsc(eq(MAX_ATTEMPTS), any(LocalDateTime.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(first, second));
+
+        LocalDateTime before = LocalDateTime.now();
+        List<Long> pendingEventIds = outboxService.findPendingEventIds();
+
+        ArgumentCaptor<LocalDateTime> timeArgumentCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository).findByAttemptsLessThanAndNextAttemptTimeLessThanEqualOrderByNextAttemptTimeAscIdAsc(eq(MAX_ATTEMPTS), timeArgumentCaptor.capture(), eq(Limit.of(BATCH_SIZE)));
+        assertAll(
+                () -> assertThat(pendingEventIds).containsExactly(1L, 2L),
+                () -> assertThat(timeArgumentCaptor.getValue()).isAfterOrEqualTo(before)
+        );
+    }
+
+    @Test
+    void givenDonationEvent_whenProcess_thenDonationProcessCompleteEventPublishedAndOutboxEventDeleted() {
+        Donation donation = TestDataFactory.getDonation();
+        OutboxEvent outboxEvent = getOutboxEvent(1L, OutboxEventType.DONATION_PROCESS_COMPLETE, 3L, null);
+
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(outboxEvent));
+        when(donationRepository.findById(3L)).thenReturn(Optional.of(donation));
+
+        outboxService.process(1L);
+
+        ArgumentCaptor<ApplicationEvent> applicationEventArgumentCaptor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(publisher, times(1)).publishEvent(applicationEventArgumentCaptor.capture());
+        verify(outboxEventRepository, times(1)).delete(outboxEvent);
+
+        DonationProcessCompleteEvent publishedEvent = (DonationProcessCompleteEvent) applicationEventArgumentCaptor.getValue();
+        assertAll(
+                () -> assertThat(publishedEvent.getDonation()).isSameAs(donation),
+                () -> assertThat(publishedEvent.getUser()).isSameAs(donation.getUser())
+        );
+    }
+
+    @Test
+    void givenRegistrationEvent_whenProcess_thenRegistrationCompleteEventPublishedWithApplicationUrl() {
+        User user = TestDataFactory.getUser();
+        OutboxEvent outboxEvent = getOutboxEvent(1L, OutboxEventType.REGISTRATION_COMPLETE, 4L, "http://localhost:8080/app");
+
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(outboxEvent));
+        when(userRepository.findById(4L)).thenReturn(Optional.of(user));
+
+        outboxService.process(1L);
+
+        ArgumentCaptor<ApplicationEvent> applicationEventArgumentCaptor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(publisher, times(1)).publishEvent(applicationEventArgumentCaptor.capture());
+        verify(outboxEventRepository, times(1)).delete(outboxEvent);
+
+        RegistrationCompleteEvent publishedEvent = (RegistrationCompleteEvent) applicationEventArgumentCaptor.getValue();
+        assertAll(
+                () -> assertThat(publishedEvent.getUser()).isSameAs(user),
+                () -> assertThat(publishedEvent.getApplicationUrl()).isEqualTo("http://localhost:8080/app")
+        );
+    }
+
+    @Test
+    void givenEventForDeletedDonation_whenProcess_thenNothingPublishedAndOutboxEventDeleted() {
+        OutboxEvent outboxEvent = getOutboxEvent(1L, OutboxEventType.DONATION_PROCESS_COMPLETE, 3L, null);
+
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(outboxEvent));
+        when(donationRepository.findById(3L)).thenReturn(Optional.empty());
+
+        outboxService.process(1L);
+
+        verify(publisher, never()).publishEvent(any(ApplicationEvent.class));
+        verify(outboxEventRepository, times(1)).delete(outboxEvent);
+    }
+
+    @Test
+    void givenAlreadyProcessedEvent_whenProcess_thenNothingPublished() {
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.empty());
+
+        outboxService.process(1L);
+
+        verifyNoInteractions(publisher);
+        verify(outboxEventRepository, never()).delete(any(OutboxEvent.class));
+    }
+
+    @Test
+    void givenFailedEvent_whenRegisterFailure_thenAttemptsIncrementedAndErrorStored() {
+        OutboxEvent outboxEvent = getOutboxEvent(1L, OutboxEventType.DONATION_PROCESS_COMPLETE, 3L, null);
+
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(outboxEvent));
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.registerFailure(1L, new IllegalStateException("Queue full"));
+
+        verify(outboxEventRepository, times(1)).save(outboxEvent);
+        assertAll(
+                () -> assertThat(outboxEvent.getAttempts()).isEqualTo(1),
+                () -> assertThat(outboxEvent.getLastError()).isEqualTo("Queue full"),
+                () -> assertThat(outboxEvent.getNextAttemptTime()).isAfterOrEqualTo(before.plus(INITIAL_BACKOFF))
+        );
+    }
+
+    @Test
+    void givenEventFailedBefore_whenRegisterFailure_thenBackoffDoubledUpToMaximum() {
+        OutboxEvent outboxEvent = getOutboxEvent(1L, OutboxEventType.DONATION_PROCESS_COMPLETE, 3L, null);
+        outboxEvent.setAttempts(1);
+
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(outboxEvent));
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.registerFailure(1L, new IllegalStateException("Database down"));
+        LocalDateTime after = LocalDateTime.now();
+
+//        the second attempt would wait 20s, the maximum caps it at 15s
+        assertAll(
+                () -> assertThat(outboxEvent.getAttempts()).isEqualTo(2),
+                () -> assertThat(outboxEvent.getNextAttemptTime()).isBetween(before.plus(MAX_BACKOFF), after.plus(MAX_BACKOFF))
+        );
+    }
+
+    private static OutboxEvent getOutboxEvent(Long id, OutboxEventType eventType, Long aggregateId, String payload) {
+        OutboxEvent outboxEvent = new OutboxEvent(eventType, aggregateId, payload);
+        outboxEvent.setId(id);
+        return outboxEvent;
+    }
+}
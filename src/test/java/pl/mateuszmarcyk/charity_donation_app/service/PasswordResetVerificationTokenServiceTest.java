@@ -7,10 +7,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Limit;
 import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.PasswordResetVerificationTokenRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
@@ -82,4 +85,30 @@ class PasswordResetVerificationTokenServiceTest {
                 () -> assertThat(foundToken).isEqualTo(verificationToken)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenExpiredTokens_whenDeleteExpiredTokens_thenChunkOfIdsDeleted() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusDays(7);
+        List<Long> expiredTokenIds = List.of(1L, 2L);
+
+        when(passwordResetVerificationTokenRepository.findIdsByExpirationTimeBefore(expiredBefore, Limit.of(2))).thenReturn(expiredTokenIds);
+        when(passwordResetVerificationTokenRepository.deleteAllByIdIn(expiredTokenIds)).thenReturn(2);
+
+        int deleted = service.deleteExpiredTokens(expiredBefore, 2);
+
+        assertThat(deleted).isEqualTo(2);
+        verify(passwordResetVerificationTokenRepository, times(1)).deleteAllByIdIn(expiredTokenIds);
+    }
+
+    @Test
+    void givenNoExpiredTokens_whenDeleteExpiredTokens_thenNothingDeleted() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusDays(7);
+
+        when(passwordResetVerificationTokenRepository.findIdsByExpirationTimeBefore(expiredBefore, Limit.of(2))).thenReturn(List.of());
+
+        int deleted = service.deleteExpiredTokens(expiredBefore, 2);
+
+        assertThat(deleted).isZero();
+        verify(passwordResetVerificationTokenRepository, never()).deleteAllByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,131 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.mateuszmarcyk.charity_donation_app.entity.Category;
+import pl.mateuszmarcyk.charity_donation_app.entity.Institution;
+import pl.mateuszmarcyk.charity_donation_app.util.CacheRegionStats;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    private ReferenceDataCacheService referenceDataCacheService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        referenceDataCacheService = new ReferenceDataCacheService(entityManagerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenNoTransaction_whenEvictCategories_thenCategoryRegionsEvictedImmediately() {
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        referenceDataCacheService.evictCategories();
+
+        verify(cache, times(1)).evictEntityData(Category.class);
+        verify(cache, times(1)).evictQueryRegion("categories-query");
+    }
+
+    @Test
+    void givenActiveTransaction_whenEvictInstitutions_thenRegionsEvictedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        referenceDataCacheService.evictInstitutions();
+
+        verify(sessionFactory, never()).getCache();
+
+        when(sessionFactory.getCache()).thenReturn(cache);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(cache, times(1)).evictEntityData(Institution.class);
+        verify(cache, times(1)).evictQueryRegion("institutions-query");
+    }
+
+    @Test
+    void givenRolledBackTransaction_whenEvictCategories_thenNothingEvicted() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        referenceDataCacheService.evictCategories();
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(sessionFactory, never()).getCache();
+    }
+
+    @Test
+    void givenRegionStatistics_whenGetStatistics_thenHitsAndMissesReportedPerRegion() {
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics categoryStatistics = mock(CacheRegionStatistics.class);
+
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getDomainDataRegionStatistics(anyString())).thenReturn(null);
+        when(statistics.getDomainDataRegionStatistics("categories")).thenReturn(categoryStatistics);
+        when(statistics.getQueryRegionStatistics(anyString())).thenReturn(null);
+        when(categoryStatistics.getHitCount()).thenReturn(10L);
+        when(categoryStatistics.getMissCount()).thenReturn(2L);
+        when(categoryStatistics.getPutCount()).thenReturn(2L);
+
+        List<CacheRegionStats> regionStats = referenceDataCacheService.getStatistics();
+
+        assertAll(
+                () -> assertThat(regionStats).extracting(CacheRegionStats::getRegion)
+                        .containsExactly("categories", "institutions", "user-types", "categories-query", "institutions-query"),
+                () -> assertThat(regionStats.get(0).getHitCount()).isEqualTo(10L),
+                () -> assertThat(regionStats.get(0).getMissCount()).isEqualTo(2L),
+                () -> assertThat(regionStats.get(1).getHitCount()).isZero()
+        );
+    }
+
+    @Test
+    void givenQueryRegionNotCreatedYet_whenGetStatistics_thenQueryRegionStatisticsNotLookedUp() {
+        Statistics statistics = mock(Statistics.class);
+        CacheImplementor cacheImplementor = mock(CacheImplementor.class);
+
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(sessionFactory.getCache()).thenReturn(cacheImplementor);
+        when(cacheImplementor.getQueryResultsCacheStrictly(anyString())).thenReturn(null);
+
+        List<CacheRegionStats> regionStats = referenceDataCacheService.getStatistics();
+
+        assertAll(
+                () -> assertThat(regionStats).hasSize(5),
+                () -> assertThat(regionStats.get(3).getMissCount()).isZero(),
+                () -> verify(statistics, never()).getQueryRegionStatistics(anyString())
+        );
+    }
+}
@@ -0,0 +1,70 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEmailFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @BeforeEach
+    void setUp() {
+        registeredEmailFilter = new RegisteredEmailFilter(userRepository, 1_000, 0.01);
+    }
+
+    @Test
+    void givenFilterNotBuiltYet_whenMightBeRegistered_thenTrue() {
+        assertThat(registeredEmailFilter.mightBeRegistered("user@example.com")).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void givenRebuiltFilter_whenMightBeRegistered_thenRegisteredEmailsInAnyLetterCaseMatch() {
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("Registered@Example.com"));
+
+        registeredEmailFilter.rebuild();
+
+        assertAll(
+                () -> assertThat(registeredEmailFilter.mightBeRegistered("registered@example.com")).isTrue(),
+                () -> assertThat(registeredEmailFilter.mightBeRegistered("REGISTERED@EXAMPLE.COM")).isTrue(),
+                () -> assertThat(registeredEmailFilter.mightBeRegistered("new@example.com")).isFalse()
+        );
+    }
+
+    @Test
+    void givenRecordedEmail_whenMightBeRegistered_thenTrue() {
+        when(userRepository.count()).thenReturn(0L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        registeredEmailFilter.rebuild();
+
+        registeredEmailFilter.recordEmail("New@Example.com");
+
+        assertThat(registeredEmailFilter.mightBeRegistered("new@example.com")).isTrue();
+    }
+
+    @Test
+    void givenEmailOfDeletedUser_whenRebuild_thenEmailNoLongerMatches() {
+        when(userRepository.count()).thenReturn(1L, 0L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("deleted@example.com"), Stream.empty());
+        registeredEmailFilter.rebuild();
+
+        registeredEmailFilter.rebuild();
+
+        assertThat(registeredEmailFilter.mightBeRegistered("deleted@example.com")).isFalse();
+    }
+}
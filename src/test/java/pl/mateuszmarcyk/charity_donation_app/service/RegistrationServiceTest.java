@@ -9,10 +9,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboxEventType;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.ResourceNotFoundException;
-import pl.mateuszmarcyk.charity_donation_app.util.event.RegistrationCompleteEvent;
 import pl.mateuszmarcyk.charity_donation_app.util.event.ResendTokenEvent;
 
 import java.util.Locale;
@@ -36,6 +36,9 @@ class RegistrationServiceTest {
     @Mock
     private MessageSource messageSource;
 
+    @Mock
+    private OutboxService outboxService;
+
     @Test
     void givenRegistrationService_whenGetApplicationUrl_ThenGeneratedUrlCorrect() {
         HttpServletRequest servletRequest = mock(HttpServletRequest.class);
@@ -54,7 +57,7 @@ class RegistrationServiceTest {
     }
 
     @Test
-    void givenRegistrationService_whenRegisterUser_thenUserServiceSaveInvokedAndPublisherPublishEventInvoked() {
+    void givenRegistrationService_whenRegisterUser_thenUserServiceSaveInvokedAndRegistrationCompleteEventRecordedInOutbox() {
         User user = new User();
         user.setId(null);
         user.setEmail("mmarcykiewicz@gmail.com");
@@ -73,17 +76,13 @@ class RegistrationServiceTest {
 
         String applicationUrl = "http://localhost:8000/app";
 
-        ArgumentCaptor<RegistrationCompleteEvent> registrationCompleteEventArgumentCaptor = ArgumentCaptor.forClass(RegistrationCompleteEvent.class);
-
         registrationService.registerUser(user, servletRequest);
         verify(userService).save(userArgumentCaptor.capture());
         User userSavedByService = userArgumentCaptor.getValue();
         assertThat(userSavedByService).isEqualTo(user);
 
-        verify(publisher).publishEvent(registrationCompleteEventArgumentCaptor.capture());
-        RegistrationCompleteEvent publishedEvent = registrationCompleteEventArgumentCaptor.getValue();
-        assertThat(publishedEvent.getUser()).isEqualTo(savedUser);
-        assertThat(publishedEvent.getApplicationUrl()).isEqualTo(applicationUrl);
+        verify(outboxService).record(OutboxEventType.REGISTRATION_COMPLETE, savedUser.getId(), applicationUrl);
+        verifyNoInteractions(publisher);
 
         verify(servletRequest, times(1)).getServerName();
         verify(servletRequest, times(1)).getServerPort();
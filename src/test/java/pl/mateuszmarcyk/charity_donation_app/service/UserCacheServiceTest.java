@@ -0,0 +1,133 @@
+package pl.mateuszmarcyk.charity_donation_app.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.util.CacheRegionStats;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCacheService userCacheService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userCacheService = new UserCacheService(userRepository, Duration.ofMinutes(1), 100);
+
+        user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenUserLoadedOnce_whenFindByIdAgain_thenRepositoryQueriedOnlyOnce() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        Optional<User> firstLoad = userCacheService.findById(1L);
+        Optional<User> secondLoad = userCacheService.findById(1L);
+
+        assertAll(
+                () -> assertThat(firstLoad).containsSame(user),
+                () -> assertThat(secondLoad).containsSame(user),
+                () -> verify(userRepository, times(1)).findById(1L)
+        );
+    }
+
+    @Test
+    void givenUserNotInDatabase_whenFindById_thenEmptyReturnedAndMissNotCached() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        Optional<User> firstLoad = userCacheService.findById(1L);
+        Optional<User> secondLoad = userCacheService.findById(1L);
+
+        assertAll(
+                () -> assertThat(firstLoad).isEmpty(),
+                () -> assertThat(secondLoad).isEmpty(),
+                () -> verify(userRepository, times(2)).findById(1L)
+        );
+    }
+
+    @Test
+    void givenNoTransaction_whenEvict_thenUserReloadedOnNextLookup() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCacheService.findById(1L);
+
+        userCacheService.evict(1L);
+        userCacheService.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void givenActiveTransaction_whenEvict_thenUserEvictedOnlyAfterCommit() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCacheService.findById(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        userCacheService.evict(1L);
+        userCacheService.findById(1L);
+        verify(userRepository, times(1)).findById(1L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        userCacheService.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void givenRolledBackTransaction_whenEvict_thenUserStaysCached() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCacheService.findById(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        userCacheService.evict(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        userCacheService.findById(1L);
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void givenLookups_whenGetStatistics_thenHitsAndMissesReported() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userCacheService.findById(1L);
+        userCacheService.findById(1L);
+        userCacheService.findById(1L);
+
+        CacheRegionStats statistics = userCacheService.getStatistics();
+
+        assertAll(
+                () -> assertThat(statistics.getRegion()).isEqualTo("users"),
+                () -> assertThat(statistics.getHitCount()).isEqualTo(2L),
+                () -> assertThat(statistics.getMissCount()).isEqualTo(1L),
+                () -> assertThat(statistics.getPutCount()).isEqualTo(1L)
+        );
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import pl.mateuszmarcyk.charity_donation_app.entity.*;
@@ -52,6 +53,12 @@ class UserServiceTest {
     @Mock
     private MessageSource messageSource;
 
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
     @Test
     void givenUserService_whenSaveUser_thenUserIsSaved() {
         UserType userRole = new UserType(1L, "ROLE_ADMIN", new ArrayList<>());
@@ -101,6 +108,7 @@ class UserServiceTest {
         User userToSave = userArgumentCaptor.getValue();
         assertThat(userToSave).isEqualTo(user);
         assertThat(savedUser).isEqualTo(user);
+        verify(registeredEmailFilter, times(1)).recordEmail(user.getEmail());
     }
 
 
@@ -535,6 +543,34 @@ class UserServiceTest {
         );
     }
 
+    @Test
+    void givenUserService_whenFindCachedUserById_thenResourceNotFoundExceptionThrown() {
+        Long id = 1L;
+
+        when(userCacheService.findById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.findCachedUserById(id)).isInstanceOf(ResourceNotFoundException.class).hasMessage("Użytkownik nie istnieje");
+        verify(userCacheService).findById(id);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void givenUserService_whenFindCachedUserById_thenUserFound() {
+        Long id = 1L;
+        User user = new User();
+        user.setId(id);
+
+        when(userCacheService.findById(id)).thenReturn(Optional.of(user));
+
+        User foundUser = userService.findCachedUserById(id);
+
+        assertAll(
+                () -> assertThat(foundUser).isSameAs(user),
+                () -> verify(userCacheService).findById(id),
+                () -> verify(userRepository, never()).findById(any())
+        );
+    }
+
     @Test
     void givenUserService_whenUpdateUserEmail_thenEmailUpdatedAndUserUpdated() {
         Long userId = 1L;
@@ -575,6 +611,7 @@ class UserServiceTest {
         assertThat(mergedUser).isSameAs(spyUserFromDatabase);
 
         assertThat(spyUserFromDatabase.getEmail()).isEqualTo(newEmail);
+        verify(registeredEmailFilter, times(1)).recordEmail(newEmail);
     }
 
     @Test
@@ -700,6 +737,7 @@ class UserServiceTest {
         verify(userRepository).save(userArgumentCaptor.capture());
         User mergedUser = userArgumentCaptor.getValue();
         assertThat(mergedUser).isSameAs(spyUserFromDatabase);
+        verify(userCacheService).evict(userId);
     }
 
     @Test
@@ -1027,6 +1065,8 @@ class UserServiceTest {
         spyDonation.setUser(spyUser);
         List<Donation> donationSpyList = spy(new ArrayList<>(List.of(spyDonation)));
         spyUser.setDonations(donationSpyList);
+//        the setUser above is fixture wiring, only calls made by deleteUser count
+        clearInvocations(spyDonation);
 
         User anotherAdminUser = new User();
         anotherAdminUser.setId(2L);
@@ -1066,15 +1106,15 @@ class UserServiceTest {
         verify(spyAnotherUser, times(1)).isEnabled();
         verify(spyAnotherUser, times(1)).isBlocked();
 
-        verify(spyUser, times(1)).getDonations();
-        verify(spyDonation, times(1)).setUser(null);
+        verify(spyUser, never()).getDonations();
+        verify(spyDonation, never()).setUser(any());
+        verify(userRepository, times(1)).detachDonations(userId);
         verify(spyUserType, times(1)).removeUser(userToBeRemovedArgumentCaptor.capture());
         User deletedUserFromUserTypeUsers = userToBeRemovedArgumentCaptor.getValue();
         assertThat(deletedUserFromUserTypeUsers).isSameAs(spyUser);
 
-        donationSpyList.forEach(donationItem -> assertThat(donationItem.getUser()).isNull());
-
-        spyUserTypesSet.forEach(userType -> assertThat(userType.getUsers()).isEmpty());
+//        the other admin shares the role, so only the deleted user leaves its users
+        spyUserTypesSet.forEach(userType -> assertThat(userType.getUsers()).extracting(User::getId).containsExactly(anotherAdminUser.getId()));
 
 
         verify(userRepository, times(1)).delete(userArgumentCaptor.capture());
@@ -1103,6 +1143,8 @@ class UserServiceTest {
         spyDonation.setUser(spyUser);
         List<Donation> donationSpyList = spy(new ArrayList<>(List.of(spyDonation)));
         spyUser.setDonations(donationSpyList);
+//        the setUser above is fixture wiring, only calls made by deleteUser count
+        clearInvocations(spyDonation);
 
         ArgumentCaptor<Long> userIdArgumentCaptor = ArgumentCaptor.forClass(Long.class);
         ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
@@ -1120,8 +1162,9 @@ class UserServiceTest {
         verify(spyUserType, times(1)).getRole();
         verify(userRepository, never()).findUsersByRoleNative(adminRole);
 
-        verify(spyUser, times(1)).getDonations();
-        verify(spyDonation, times(1)).setUser(null);
+        verify(spyUser, never()).getDonations();
+        verify(spyDonation, never()).setUser(any());
+        verify(userRepository, times(1)).detachDonations(userId);
         verify(spyUserType, times(1)).removeUser(userToBeRemovedArgumentCaptor.capture());
         User userDeletedFormUserTypeUserList = userToBeRemovedArgumentCaptor.getValue();
         assertThat(userDeletedFormUserTypeUserList).isSameAs(spyUser);
@@ -1237,7 +1280,7 @@ class UserServiceTest {
         verify(user, never()).setBlocked(any(Boolean.class));
 
         verify(userRepository, never()).save(any(User.class));
-
+        verify(userCacheService, never()).evict(any());
     }
 
     @Test
@@ -1262,6 +1305,7 @@ class UserServiceTest {
         verify(userRepository).save(userArgumentCaptor.capture());
         User userToUpdate = userArgumentCaptor.getValue();
         assertThat(userToUpdate).isEqualTo(user);
+        verify(userCacheService).evict(user.getId());
     }
 
     @Test
@@ -1719,6 +1763,7 @@ class UserServiceTest {
         verify(userRepository).save(userArgumentCaptor.capture());
         User mergedUser = userArgumentCaptor.getValue();
         assertThat(mergedUser).isSameAs(spyUser);
+        verify(userCacheService).evict(userId);
     }
 
     @Test
@@ -1809,5 +1854,38 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(userArgumentCaptor.capture());
         User capturedUser = userArgumentCaptor.getValue();
         assertThat(capturedUser).isSameAs(userFromDatabaseSpy);
+        verify(userCacheService).evict(userFromDatabaseSpy.getId());
+        verify(registeredEmailFilter, times(1)).recordEmail(testEmail);
+    }
+
+    @Test
+    void givenEmailTakenOnAnotherNode_whenChangeEmail_thenEmailAlreadyUsedExceptionThrown() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("taken@email.com");
+        User userFromDatabase = new User();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userFromDatabase));
+        doThrow(new DataIntegrityViolationException("Duplicate entry 'taken@email.com' for key 'users.uk_users_email_normalized'"))
+                .when(userRepository).flush();
+
+        assertThatThrownBy(() -> userService.changeEmail(user))
+                .isInstanceOf(EmailAlreadyUsedException.class)
+                .hasMessage("Ten email jest już w użyciu");
+        verify(userRepository, times(1)).save(userFromDatabase);
+    }
+
+    @Test
+    void givenOtherConstraintViolated_whenUpdateUserEmail_thenDataIntegrityViolationExceptionRethrown() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@email.com");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("Column 'password' cannot be null");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+        doThrow(violation).when(userRepository).flush();
+
+        assertThatThrownBy(() -> userService.updateUserEmail(user)).isSameAs(violation);
+        verify(userCacheService, never()).evict(any());
     }
-}
\ No newline at end of file
+}
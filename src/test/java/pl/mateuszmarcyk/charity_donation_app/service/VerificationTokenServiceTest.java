@@ -7,11 +7,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Limit;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.TokenNotFoundException;
 import pl.mateuszmarcyk.charity_donation_app.repository.VerificationTokenRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
@@ -91,4 +94,30 @@ class VerificationTokenServiceTest {
                 () -> assertThat(foundVerificationToken).isEqualTo(verificationToken)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenExpiredTokens_whenDeleteExpiredTokens_thenChunkOfIdsDeleted() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusDays(7);
+        List<Long> expiredTokenIds = List.of(1L, 2L);
+
+        when(verificationTokenRepository.findIdsByExpirationTimeBefore(expiredBefore, Limit.of(2))).thenReturn(expiredTokenIds);
+        when(verificationTokenRepository.deleteAllByIdIn(expiredTokenIds)).thenReturn(2);
+
+        int deleted = verificationTokenService.deleteExpiredTokens(expiredBefore, 2);
+
+        assertThat(deleted).isEqualTo(2);
+        verify(verificationTokenRepository, times(1)).deleteAllByIdIn(expiredTokenIds);
+    }
+
+    @Test
+    void givenNoExpiredTokens_whenDeleteExpiredTokens_thenNothingDeleted() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusDays(7);
+
+        when(verificationTokenRepository.findIdsByExpirationTimeBefore(expiredBefore, Limit.of(2))).thenReturn(List.of());
+
+        int deleted = verificationTokenService.deleteExpiredTokens(expiredBefore, 2);
+
+        assertThat(deleted).isZero();
+        verify(verificationTokenRepository, never()).deleteAllByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,94 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@Slf4j
+class AppMailSenderSmtpTest {
+
+    private static final int MAIL_COUNT = 200;
+
+    private FakeSmtpServer smtpServer;
+    private AppMailSender appMailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new FakeSmtpServer();
+
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+
+        appMailSender = new AppMailSender(javaMailSender, "app@example.com", new MimeMessageHelperFactory(), new ApplicationMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    void givenManyMails_whenSendEmails_thenAllDeliveredOverSingleConnection() {
+        List<AddressedMail> mails = getMails();
+
+        long start = System.nanoTime();
+        Map<AddressedMail, Exception> failures = appMailSender.sendEmails(mails);
+        long batchedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Sent {} mails over one connection in {} ms", MAIL_COUNT, batchedMillis);
+        assertAll(
+                () -> assertThat(failures).isEmpty(),
+                () -> assertThat(smtpServer.getRecipients()).hasSize(MAIL_COUNT),
+                () -> assertThat(smtpServer.getConnectionCount()).isEqualTo(1)
+        );
+    }
+
+    @Test
+    void givenManyMails_whenSendEmailOneByOne_thenConnectionOpenedPerMail() throws Exception {
+        List<AddressedMail> mails = getMails();
+
+        long start = System.nanoTime();
+        for (AddressedMail mail : mails) {
+            appMailSender.sendEmail(mail.getRecipient(), mail.getMail());
+        }
+        long singleMillis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Sent {} mails one connection each in {} ms", MAIL_COUNT, singleMillis);
+        assertAll(
+                () -> assertThat(smtpServer.getRecipients()).hasSize(MAIL_COUNT),
+                () -> assertThat(smtpServer.getConnectionCount()).isEqualTo(MAIL_COUNT)
+        );
+    }
+
+    @Test
+    void givenRejectedRecipient_whenSendEmails_thenOnlyRejectedMailFailsAndRestDelivered() {
+        smtpServer.rejectRecipient("user5@example.com");
+        List<AddressedMail> mails = getMails();
+
+        Map<AddressedMail, Exception> failures = appMailSender.sendEmails(mails);
+
+        assertAll(
+                () -> assertThat(failures).containsOnlyKeys(mails.get(5)),
+                () -> assertThat(smtpServer.getRecipients()).hasSize(MAIL_COUNT - 1),
+                () -> assertThat(smtpServer.getConnectionCount()).isEqualTo(1)
+        );
+    }
+
+    private static List<AddressedMail> getMails() {
+        return IntStream.range(0, MAIL_COUNT)
+                .mapToObj(i -> new AddressedMail("user" + i + "@example.com", new Mail("Subject " + i, "Oddaj w Dobre Ręce", "<p>Content " + i + "</p>")))
+                .toList();
+    }
+}
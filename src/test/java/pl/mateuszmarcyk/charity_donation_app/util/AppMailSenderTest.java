@@ -1,5 +1,6 @@
 package pl.mateuszmarcyk.charity_donation_app.util;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +9,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 
 import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -35,10 +40,13 @@ class AppMailSenderTest {
 
     private AppMailSender appMailSender;
 
+    private SimpleMeterRegistry meterRegistry;
+
 
     @BeforeEach
     void setUp() {
-        appMailSender = new AppMailSender(javaMailSender, "test@gmail.com", mimeMessageHelperFactory);
+        meterRegistry = new SimpleMeterRegistry();
+        appMailSender = new AppMailSender(javaMailSender, "test@gmail.com", mimeMessageHelperFactory, new ApplicationMetrics(meterRegistry));
     }
 
     @Test
@@ -64,6 +72,21 @@ class AppMailSenderTest {
         verify(mimeMessageHelperFactory, times(1)).createHelper(mimeMessage, "test@gmail.com", mail.getSenderName(), mail.getSubject(), mail.getMailContent());
     }
 
+    @Test
+    void givenRecipientAndMail_whenSendEmail_thenEmailIsSentToRecipient() throws MessagingException, UnsupportedEncodingException {
+
+        String recipient = "recipient@gmail.com";
+        Mail mail = getMail();
+
+        when(javaMailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mimeMessageHelperFactory.createHelper(mimeMessage, "test@gmail.com", mail.getSenderName(), mail.getSubject(), mail.getMailContent())).thenReturn(mimeMessageHelper);
+
+        appMailSender.sendEmail(recipient, mail);
+
+        verify(mimeMessageHelper, times(1)).setTo(recipient);
+        verify(javaMailSender, times(1)).send(mimeMessage);
+    }
+
     @Test
     void givenNullUserAndMail_whenSendEmail_thenNullPointerExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
 
@@ -142,6 +165,103 @@ class AppMailSenderTest {
         verify(javaMailSender, never()).send(mimeMessage);
     }
 
+    @Test
+    void givenMails_whenSendEmails_thenAllMessagesSentInSingleCall() throws MessagingException, UnsupportedEncodingException {
+
+        MimeMessage firstMimeMessage = mock(MimeMessage.class);
+        MimeMessage secondMimeMessage = mock(MimeMessage.class);
+        MimeMessageHelper firstHelper = mock(MimeMessageHelper.class);
+        MimeMessageHelper secondHelper = mock(MimeMessageHelper.class);
+        Mail mail = getMail();
+        AddressedMail firstMail = new AddressedMail("first@gmail.com", mail);
+        AddressedMail secondMail = new AddressedMail("second@gmail.com", mail);
+
+        when(javaMailSender.createMimeMessage()).thenReturn(firstMimeMessage, secondMimeMessage);
+        when(mimeMessageHelperFactory.createHelper(firstMimeMessage, "test@gmail.com", mail.getSenderName(), mail.getSubject(), mail.getMailContent())).thenReturn(firstHelper);
+        when(mimeMessageHelperFactory.createHelper(secondMimeMessage, "test@gmail.com", mail.getSenderName(), mail.getSubject(), mail.getMailContent())).thenReturn(secondHelper);
+
+        Map<AddressedMail, Exception> failures = appMailSender.sendEmails(List.of(firstMail, secondMail));
+
+        assertThat(failures).isEmpty();
+        verify(firstHelper, times(1)).setTo("first@gmail.com");
+        verify(secondHelper, times(1)).setTo("second@gmail.com");
+        verify(javaMailSender, times(1)).send(new MimeMessage[]{firstMimeMessage, secondMimeMessage});
+    }
+
+    @Test
+    void givenOneMessageRejected_whenSendEmails_thenOnlyRejectedMailReturnedAsFailure() throws MessagingException, UnsupportedEncodingException {
+
+        MimeMessage firstMimeMessage = mock(MimeMessage.class);
+        MimeMessage secondMimeMessage = mock(MimeMessage.class);
+        Mail mail = getMail();
+        AddressedMail firstMail = new AddressedMail("first@gmail.com", mail);
+        AddressedMail secondMail = new AddressedMail("second@gmail.com", mail);
+        MessagingException rejection = new MessagingException("Recipient rejected");
+
+        when(javaMailSender.createMimeMessage()).thenReturn(firstMimeMessage, secondMimeMessage);
+        when(mimeMessageHelperFactory.createHelper(any(MimeMessage.class), anyString(), anyString(), anyString(), anyString())).thenReturn(mimeMessageHelper);
+        doThrow(new MailSendException(Map.of(secondMimeMessage, rejection))).when(javaMailSender).send(any(MimeMessage[].class));
+
+        Map<AddressedMail, Exception> failures = appMailSender.sendEmails(List.of(firstMail, secondMail));
+
+        assertThat(failures).containsExactly(Map.entry(secondMail, rejection));
+        assertThat(meterRegistry.get("mail.messages").tag("result", "sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.messages").tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.send").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenSmtpFailure_whenSendEmail_thenExceptionRethrownAndFailureCounted() throws MessagingException, UnsupportedEncodingException {
+
+        Mail mail = getMail();
+
+        when(javaMailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mimeMessageHelperFactory.createHelper(mimeMessage, "test@gmail.com", mail.getSenderName(), mail.getSubject(), mail.getMailContent())).thenReturn(mimeMessageHelper);
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send(mimeMessage);
+
+        assertThatThrownBy(() -> appMailSender.sendEmail("recipient@gmail.com", mail)).isInstanceOf(MailSendException.class);
+
+        assertThat(meterRegistry.get("mail.messages").tag("result", "sent").counter().count()).isZero();
+        assertThat(meterRegistry.get("mail.messages").tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.send").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenConnectionFailure_whenSendEmails_thenAllMailsReturnedAsFailures() throws MessagingException, UnsupportedEncodingException {
+
+        Mail mail = getMail();
+        AddressedMail firstMail = new AddressedMail("first@gmail.com", mail);
+        AddressedMail secondMail = new AddressedMail("second@gmail.com", mail);
+
+        when(javaMailSender.createMimeMessage()).thenReturn(mock(MimeMessage.class), mock(MimeMessage.class));
+        when(mimeMessageHelperFactory.createHelper(any(MimeMessage.class), anyString(), anyString(), anyString(), anyString())).thenReturn(mimeMessageHelper);
+        doThrow(new MailAuthenticationException("Bad credentials")).when(javaMailSender).send(any(MimeMessage[].class));
+
+        Map<AddressedMail, Exception> failures = appMailSender.sendEmails(List.of(firstMail, secondMail));
+
+        assertThat(failures).containsOnlyKeys(firstMail, secondMail);
+    }
+
+    @Test
+    void givenInvalidMail_whenSendEmails_thenInvalidMailSkippedAndOthersSent() throws MessagingException, UnsupportedEncodingException {
+
+        Mail mail = getMail();
+        Mail invalidMail = new Mail("", "Test Sender", "<p>Test Content</p>");
+        AddressedMail validAddressedMail = new AddressedMail("first@gmail.com", mail);
+        AddressedMail invalidAddressedMail = new AddressedMail("second@gmail.com", invalidMail);
+        MimeMessage validMimeMessage = mock(MimeMessage.class);
+        MimeMessage invalidMimeMessage = mock(MimeMessage.class);
+
+        when(javaMailSender.createMimeMessage()).thenReturn(validMimeMessage, invalidMimeMessage);
+        when(mimeMessageHelperFactory.createHelper(validMimeMessage, "test@gmail.com", mail.getSenderName(), mail.getSubject(), mail.getMailContent())).thenReturn(mimeMessageHelper);
+        when(mimeMessageHelperFactory.createHelper(invalidMimeMessage, "test@gmail.com", invalidMail.getSenderName(), invalidMail.getSubject(), invalidMail.getMailContent())).thenThrow(new IllegalArgumentException("Subject must be provided"));
+
+        Map<AddressedMail, Exception> failures = appMailSender.sendEmails(List.of(validAddressedMail, invalidAddressedMail));
+
+        assertThat(failures).containsOnlyKeys(invalidAddressedMail);
+        verify(javaMailSender, times(1)).send(new MimeMessage[]{validMimeMessage});
+    }
+
     public static Mail getMail() {
         return new Mail("Test Subject", "Test Sender", "<p>Test Content</p>");
     }
@@ -0,0 +1,37 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void givenPutValues_whenMightContain_thenAlwaysTrue() {
+        BloomFilter bloomFilter = new BloomFilter(1_000, 0.01);
+        IntStream.range(0, 1_000).forEach(i -> bloomFilter.put("user" + i + "@example.com"));
+
+        assertThat(IntStream.range(0, 1_000)).allMatch(i -> bloomFilter.mightContain("user" + i + "@example.com"));
+    }
+
+    @Test
+    void givenEmptyFilter_whenMightContain_thenFalse() {
+        BloomFilter bloomFilter = new BloomFilter(1_000, 0.01);
+
+        assertThat(bloomFilter.mightContain("user@example.com")).isFalse();
+    }
+
+    @Test
+    void givenFilterFilledToExpectedSize_whenMightContainOtherValues_thenFalsePositivesNearConfiguredRate() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloomFilter.put("user" + i + "@example.com"));
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> bloomFilter.mightContain("other" + i + "@example.com"))
+                .count();
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
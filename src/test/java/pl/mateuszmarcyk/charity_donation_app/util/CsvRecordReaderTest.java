@@ -0,0 +1,53 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void givenPlainRecords_whenNext_thenFieldsSplitOnCommas() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b,c\r\n1,,3\n"));
+
+        List<String> first = reader.next();
+        List<String> second = reader.next();
+        List<String> end = reader.next();
+
+        assertAll(
+                () -> assertThat(first).containsExactly("a", "b", "c"),
+                () -> assertThat(second).containsExactly("1", "", "3"),
+                () -> assertThat(reader.getRecordLineNumber()).isEqualTo(2L),
+                () -> assertThat(end).isNull()
+        );
+    }
+
+    @Test
+    void givenQuotedFields_whenNext_thenSeparatorsQuotesAndLineBreaksKept() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"a, b\",\"say \"\"hi\"\"\",\"line\nbreak\"\nlast,record"));
+
+        List<String> first = reader.next();
+        List<String> second = reader.next();
+
+        assertAll(
+                () -> assertThat(first).containsExactly("a, b", "say \"hi\"", "line\nbreak"),
+                () -> assertThat(second).containsExactly("last", "record"),
+                () -> assertThat(reader.getRecordLineNumber()).isEqualTo(3L)
+        );
+    }
+
+    @Test
+    void givenUnterminatedQuote_whenNext_thenIOExceptionThrown() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"never closed,1\n"));
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field starting on line 1");
+    }
+}
@@ -0,0 +1,63 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class DonationCursorTest {
+
+    @Test
+    void givenCreatedKeys_whenEncodeAndDecode_thenKeysRestored() {
+        LocalDateTime created = LocalDateTime.parse("2024-12-24T12:00:00.123456");
+        ScrollPosition position = ScrollPosition.forward(Map.of("created", created, "id", 15L));
+
+        String cursor = DonationCursor.encode(position, DonationSortType.CREATED);
+        KeysetScrollPosition decodedPosition = DonationCursor.decode(cursor, DonationSortType.CREATED, false);
+
+        assertAll(
+                () -> assertThat(decodedPosition.getKeys()).containsEntry("created", created).containsEntry("id", 15L),
+                () -> assertThat(decodedPosition.scrollsForward()).isTrue()
+        );
+    }
+
+    @Test
+    void givenQuantityKeys_whenEncodeAndDecodeBackward_thenBackwardPositionRestored() {
+        ScrollPosition position = ScrollPosition.forward(Map.of("quantity", 7, "id", 3L));
+
+        String cursor = DonationCursor.encode(position, DonationSortType.QUANTITY_ASC);
+        KeysetScrollPosition decodedPosition = DonationCursor.decode(cursor, DonationSortType.QUANTITY_ASC, true);
+
+        assertAll(
+                () -> assertThat(decodedPosition.getKeys()).containsEntry("quantity", 7).containsEntry("id", 3L),
+                () -> assertThat(decodedPosition.scrollsBackward()).isTrue()
+        );
+    }
+
+    @Test
+    void givenReceivedKeys_whenEncodeAndDecode_thenKeysRestored() {
+        ScrollPosition position = ScrollPosition.forward(Map.of("received", true, "id", 1L));
+
+        String cursor = DonationCursor.encode(position, DonationSortType.RECEIVED_ASC);
+        KeysetScrollPosition decodedPosition = DonationCursor.decode(cursor, DonationSortType.RECEIVED_ASC, false);
+
+        assertThat(decodedPosition.getKeys()).containsEntry("received", true).containsEntry("id", 1L);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"not-a-cursor", "bm90LWEtY3Vyc29y"})
+    void givenMissingOrMalformedCursor_whenDecode_thenInitialPositionReturned(String cursor) {
+        KeysetScrollPosition decodedPosition = DonationCursor.decode(cursor, DonationSortType.CREATED, false);
+
+        assertThat(decodedPosition.isInitial()).isTrue();
+    }
+}
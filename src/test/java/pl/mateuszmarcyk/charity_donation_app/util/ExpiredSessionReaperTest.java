@@ -0,0 +1,51 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.repository.HttpSessionRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredSessionReaperTest {
+
+    @Mock
+    private HttpSessionRepository httpSessionRepository;
+
+    private ExpiredSessionReaper expiredSessionReaper;
+
+    @BeforeEach
+    void setUp() {
+        expiredSessionReaper = new ExpiredSessionReaper(httpSessionRepository, 2);
+    }
+
+    @Test
+    void givenFullChunks_whenReap_thenChunksDeletedUntilOneIsNotFull() {
+        when(httpSessionRepository.deleteExpiredSessions(anyLong(), eq(2))).thenReturn(2, 2, 0);
+
+        expiredSessionReaper.reap();
+
+        verify(httpSessionRepository, times(3)).deleteExpiredSessions(anyLong(), eq(2));
+    }
+
+    @Test
+    void givenReap_whenChunksDeleted_thenEveryChunkUsesSameCutoff() {
+        ArgumentCaptor<Long> cutoffCaptor = ArgumentCaptor.forClass(Long.class);
+        when(httpSessionRepository.deleteExpiredSessions(anyLong(), eq(2))).thenReturn(2, 1);
+        long before = System.currentTimeMillis();
+
+        expiredSessionReaper.reap();
+
+        long after = System.currentTimeMillis();
+        verify(httpSessionRepository, times(2)).deleteExpiredSessions(cutoffCaptor.capture(), eq(2));
+        assertThat(cutoffCaptor.getAllValues()).hasSize(2).allSatisfy(cutoff -> assertThat(cutoff).isBetween(before, after));
+        assertThat(cutoffCaptor.getAllValues().get(0)).isEqualTo(cutoffCaptor.getAllValues().get(1));
+    }
+}
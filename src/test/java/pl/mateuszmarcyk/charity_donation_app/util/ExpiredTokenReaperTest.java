@@ -0,0 +1,65 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.service.PasswordResetVerificationTokenService;
+import pl.mateuszmarcyk.charity_donation_app.service.VerificationTokenService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredTokenReaperTest {
+
+    @Mock
+    private VerificationTokenService verificationTokenService;
+
+    @Mock
+    private PasswordResetVerificationTokenService passwordResetVerificationTokenService;
+
+    private ExpiredTokenReaper expiredTokenReaper;
+
+    @BeforeEach
+    void setUp() {
+        expiredTokenReaper = new ExpiredTokenReaper(verificationTokenService, passwordResetVerificationTokenService, 2, Duration.ofDays(7));
+    }
+
+    @Test
+    void givenFullChunks_whenReap_thenChunksDeletedUntilOneIsNotFull() {
+        when(verificationTokenService.deleteExpiredTokens(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+        when(passwordResetVerificationTokenService.deleteExpiredTokens(any(LocalDateTime.class), eq(2))).thenReturn(0);
+
+        expiredTokenReaper.reap();
+
+        verify(verificationTokenService, times(3)).deleteExpiredTokens(any(LocalDateTime.class), eq(2));
+        verify(passwordResetVerificationTokenService, times(1)).deleteExpiredTokens(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    void givenRetention_whenReap_thenOnlyTokensExpiredBeforeRetentionDeleted() {
+        ArgumentCaptor<LocalDateTime> verificationCutoffCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> passwordResetCutoffCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+
+        expiredTokenReaper.reap();
+
+        LocalDateTime after = LocalDateTime.now().minusDays(7);
+        verify(verificationTokenService).deleteExpiredTokens(verificationCutoffCaptor.capture(), eq(2));
+        verify(passwordResetVerificationTokenService).deleteExpiredTokens(passwordResetCutoffCaptor.capture(), eq(2));
+
+        assertAll(
+                () -> assertThat(verificationCutoffCaptor.getValue()).isBetween(before, after),
+                () -> assertThat(passwordResetCutoffCaptor.getValue()).isEqualTo(verificationCutoffCaptor.getValue())
+        );
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.ui.Model;
 import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.UserProfile;
+import pl.mateuszmarcyk.charity_donation_app.service.UserService;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
@@ -22,18 +23,19 @@ class LoggedUserModelHandlerTest {
     private LoggedUserModelHandler loggedUserModelHandler;
 
     @Mock
-    private CustomUserDetails userDetails;
+    private UserService userService;
 
     @Test
-    void givenCustomUserDetails_thenGetUser_thenUserReturned() {
+    void givenCustomUserDetails_thenGetUser_thenUserLoadedById() {
         User user = new User();
         user.setId(1L);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
 
-        when(userDetails.getUser()).thenReturn(user);
+        when(userService.findCachedUserById(1L)).thenReturn(user);
 
         User returned = loggedUserModelHandler.getUser(userDetails);
         assertThat(returned).isEqualTo(user);
-        verify(userDetails, times(1)).getUser();
+        verify(userService, times(1)).findCachedUserById(1L);
     }
 
     @Test
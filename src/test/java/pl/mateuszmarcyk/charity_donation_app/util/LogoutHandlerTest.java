@@ -2,16 +2,20 @@ package pl.mateuszmarcyk.charity_donation_app.util;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
+import org.springframework.security.web.context.SecurityContextRepository;
 import pl.mateuszmarcyk.charity_donation_app.TestDataFactory;
 import pl.mateuszmarcyk.charity_donation_app.config.security.CustomUserDetails;
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
@@ -29,6 +33,14 @@ class LogoutHandlerTest {
     @Mock
     private SecurityContextLogoutHandler securityContextLogoutHandler;
 
+    @Mock
+    private SecurityContextRepository securityContextRepository;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void whenChangeEmailInUserDetails_thenAuthenticationIsUpdated() {
         // Arrange
@@ -42,19 +54,30 @@ class LogoutHandlerTest {
                 new CustomUserDetails(oldUser), "originalPassword", oldUser.getUserTypes().stream().map(userType -> new SimpleGrantedAuthority(userType.getRole())).toList());
 
         SecurityContextHolder.getContext().setAuthentication(originalAuth);
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        HttpServletResponse mockResponse = mock(HttpServletResponse.class);
 
         // Act
-        logoutHandler.changeEmailInUserDetails(updatedUser);
+        logoutHandler.changeEmailInUserDetails(updatedUser, mockRequest, mockResponse);
 
         // Assert
         Authentication newAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(newAuth).isNotNull();
+        assertThat(newAuth.isAuthenticated()).isTrue();
         assertThat(newAuth.getPrincipal()).isInstanceOf(CustomUserDetails.class);
 
         CustomUserDetails updatedUserDetails = (CustomUserDetails) newAuth.getPrincipal();
         assertThat(updatedUserDetails.getUsername()).isEqualTo(updatedUser.getEmail());
-        assertThat(updatedUserDetails.getPassword()).isEqualTo(updatedUser.getPassword());
         assertIterableEquals(userDetails.getAuthorities(), updatedUserDetails.getAuthorities());
+
+//        the session keeps the context, the password hash must not end up in it
+        assertThat(newAuth.getCredentials()).isNull();
+        assertThat(updatedUserDetails.getPassword()).isNull();
+
+//        with JDBC sessions only a context that is set again gets written back
+        ArgumentCaptor<SecurityContext> contextArgumentCaptor = ArgumentCaptor.forClass(SecurityContext.class);
+        verify(securityContextRepository, times(1)).saveContext(contextArgumentCaptor.capture(), eq(mockRequest), eq(mockResponse));
+        assertThat(contextArgumentCaptor.getValue().getAuthentication()).isSameAs(newAuth);
     }
 
     @Test
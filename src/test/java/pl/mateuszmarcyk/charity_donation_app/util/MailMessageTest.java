@@ -96,6 +96,16 @@ class MailMessageTest {
         assertThat(builtMessage).isEqualTo(MailMessageTestData.GET_MAIL_MESSAGE_EXPECTED_DATA);
     }
 
+    @Test
+    void givenMessageWithHtml_whenGetMailMessage_thenHtmlIsEscaped() {
+        MessageDTO messageDTO = new MessageDTO("Mateusz", "Marcykiewicz", "<script>alert('x')</script> & more", "test@gmail.com");
+
+        String builtMessage = mailMessage.getMailMessage(messageDTO);
+
+        assertThat(builtMessage).contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; more");
+        assertThat(builtMessage).doesNotContain("<script>");
+    }
+
     @Test
     void whenBuildPasswordResetMessage_thenMessageMatches() {
         String url = "http://localhost/app/example";
@@ -0,0 +1,59 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import pl.mateuszmarcyk.charity_donation_app.entity.OutboundMail;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailQueueWorkerTest {
+
+    @Mock
+    private MailQueueService mailQueueService;
+
+    private MailQueueWorker mailQueueWorker;
+
+    @BeforeEach
+    void setUp() {
+        Executor directExecutor = Runnable::run;
+        mailQueueWorker = new MailQueueWorker(mailQueueService, directExecutor, 2);
+    }
+
+    @Test
+    void givenClaimedMails_whenDispatch_thenMailsDeliveredInConnectionSizedBatches() {
+        when(mailQueueService.claimDueMails()).thenReturn(List.of(1L, 2L, 3L));
+
+        mailQueueWorker.dispatch();
+
+        verify(mailQueueService, times(1)).deliverBatch(List.of(1L, 2L));
+        verify(mailQueueService, times(1)).deliverBatch(List.of(3L));
+    }
+
+    @Test
+    void givenNoDueMails_whenDispatch_thenNothingDelivered() {
+        when(mailQueueService.claimDueMails()).thenReturn(List.of());
+
+        mailQueueWorker.dispatch();
+
+        verify(mailQueueService, never()).deliverBatch(anyList());
+    }
+
+    @Test
+    void givenMailsClaimedConcurrently_whenDispatch_thenNothingDeliveredAndNoExceptionThrown() {
+        when(mailQueueService.claimDueMails()).thenThrow(new ObjectOptimisticLockingFailureException(OutboundMail.class, 1L));
+
+        assertThatCode(() -> mailQueueWorker.dispatch()).doesNotThrowAnyException();
+
+        verify(mailQueueService, never()).deliverBatch(anyList());
+    }
+}
@@ -0,0 +1,94 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class MailTemplateTest {
+
+    @Test
+    void givenTemplateWithPlaceholders_whenRender_thenValuesAreInsertedInOrder() {
+        MailTemplate template = MailTemplate.compile("test", "<p>%s ma %d worków (100%%)</p>");
+
+        String rendered = template.render("Mateusz", 5);
+
+        assertAll(
+                () -> assertThat(rendered).isEqualTo("<p>Mateusz ma 5 worków (100%)</p>"),
+                () -> assertThat(template.getPlaceholderCount()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    void givenTemplateWithoutPlaceholders_whenRender_thenSourceIsReturned() {
+        MailTemplate template = MailTemplate.compile("test", "<p>width: 100%%</p>");
+
+        assertThat(template.render()).isEqualTo("<p>width: 100%</p>");
+    }
+
+    @Test
+    void givenHtmlInTextValue_whenRender_thenValueIsEscaped() {
+        MailTemplate template = MailTemplate.compile("test", "<a href=\"%s\">%s</a>");
+
+        String rendered = template.render("http://localhost/app?a=1&b=\"2\"", "<b>O'Neil</b>");
+
+        assertThat(rendered).isEqualTo("<a href=\"http://localhost/app?a=1&amp;b=&quot;2&quot;\">&lt;b&gt;O&#39;Neil&lt;/b&gt;</a>");
+    }
+
+    @Test
+    void givenNullTextValue_whenRender_thenNullIsRendered() {
+        MailTemplate template = MailTemplate.compile("test", "<p>%s</p>");
+
+        assertThat(template.render((Object) null)).isEqualTo("<p>null</p>");
+    }
+
+    @Test
+    void givenWrongNumberOfValues_whenRender_thenIllegalArgumentExceptionIsThrown() {
+        MailTemplate template = MailTemplate.compile("test", "<p>%s %s</p>");
+
+        assertThatThrownBy(() -> template.render("only one"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expects 2 values but got 1");
+    }
+
+    @Test
+    void givenNonIntegralValueForIntegerPlaceholder_whenRender_thenIllegalArgumentExceptionIsThrown() {
+        MailTemplate template = MailTemplate.compile("test", "<p>%d</p>");
+
+        assertThatThrownBy(() -> template.render("5"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenUnsupportedSpecifier_whenCompile_thenIllegalArgumentExceptionIsThrown() {
+        assertAll(
+                () -> assertThatThrownBy(() -> MailTemplate.compile("test", "<p>%f</p>")).isInstanceOf(IllegalArgumentException.class),
+                () -> assertThatThrownBy(() -> MailTemplate.compile("test", "<p>100%")).isInstanceOf(IllegalArgumentException.class)
+        );
+    }
+
+    @Test
+    void givenRenderedTemplate_whenGetStatistics_thenRenderIsCounted() {
+        MailTemplate template = MailTemplate.compile("test", "<p>%s</p>");
+
+        template.render("first");
+        template.render("second");
+
+        assertAll(
+                () -> assertThat(template.getRenderCount()).isEqualTo(2),
+                () -> assertThat(template.getTotalRenderNanos()).isGreaterThanOrEqualTo(0),
+                () -> assertThat(template.getName()).isEqualTo("test")
+        );
+    }
+
+    @Test
+    void givenLargeValue_whenRenderTwice_thenBufferIsNotLeakedBetweenRenders() {
+        MailTemplate template = MailTemplate.compile("test", "<p>%s</p>");
+
+        template.render("x".repeat(100_000));
+        String rendered = template.render("small");
+
+        assertThat(rendered).isEqualTo("<p>small</p>");
+    }
+}
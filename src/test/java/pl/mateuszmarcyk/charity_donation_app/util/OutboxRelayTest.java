@@ -0,0 +1,52 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
+import pl.mateuszmarcyk.charity_donation_app.service.OutboxService;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Test
+    void givenPendingEvents_whenRelay_thenEachEventProcessed() {
+        when(outboxService.findPendingEventIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        outboxRelay.relay();
+
+        verify(outboxService, times(1)).process(1L);
+        verify(outboxService, times(1)).process(2L);
+        verify(outboxService, times(1)).process(3L);
+        verify(outboxService, never()).registerFailure(anyLong(), any(Exception.class));
+    }
+
+    @Test
+    void givenFailingEvent_whenRelay_thenFailureRegisteredAndRemainingEventsProcessed() {
+        MailException exception = new MailException("Zbyt wiele wiadomości oczekuje na wysłanie. Spróbuj ponownie później", "Nie można wysłać");
+
+        when(outboxService.findPendingEventIds()).thenReturn(List.of(1L, 2L));
+        doThrow(exception).when(outboxService).process(1L);
+
+        outboxRelay.relay();
+
+        verify(outboxService, times(1)).registerFailure(eq(1L), eq(exception));
+        verify(outboxService, times(1)).process(2L);
+        verify(outboxService, never()).registerFailure(eq(2L), any(Exception.class));
+    }
+}
@@ -0,0 +1,49 @@
+package pl.mateuszmarcyk.charity_donation_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class UuidTokenConverterTest {
+
+    private final UuidTokenConverter converter = new UuidTokenConverter();
+
+    @Test
+    void givenUuidToken_whenConvertToDatabaseColumn_thenSixteenBytesReadBackAsSameToken() {
+        String token = UUID.randomUUID().toString();
+
+        byte[] value = converter.convertToDatabaseColumn(token);
+
+        assertAll(
+                () -> assertThat(value).hasSize(16),
+                () -> assertThat(converter.convertToEntityAttribute(value)).isEqualTo(token)
+        );
+    }
+
+    @Test
+    void givenTokenFromSqlScript_whenConvertToDatabaseColumn_thenBytesOfUuid() {
+        byte[] value = converter.convertToDatabaseColumn("81c34626-3a06-4813-a292-c57dcdd6e04a");
+
+        assertThat(value).containsExactly(0x81, 0xc3, 0x46, 0x26, 0x3a, 0x06, 0x48, 0x13, 0xa2, 0x92, 0xc5, 0x7d, 0xcd, 0xd6, 0xe0, 0x4a);
+    }
+
+    @Test
+    void givenTextThatIsNotUuid_whenConvertToDatabaseColumn_thenNull() {
+        assertAll(
+                () -> assertThat(converter.convertToDatabaseColumn("token")).isNull(),
+                () -> assertThat(converter.convertToDatabaseColumn("")).isNull(),
+                () -> assertThat(converter.convertToDatabaseColumn(null)).isNull()
+        );
+    }
+
+    @Test
+    void givenValueOfWrongLength_whenConvertToEntityAttribute_thenNull() {
+        assertAll(
+                () -> assertThat(converter.convertToEntityAttribute(new byte[4])).isNull(),
+                () -> assertThat(converter.convertToEntityAttribute(null)).isNull()
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package pl.mateuszmarcyk.charity_donation_app.util.constraintannotations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.mateuszmarcyk.charity_donation_app.entity.User;
+import pl.mateuszmarcyk.charity_donation_app.repository.UserRepository;
+import pl.mateuszmarcyk.charity_donation_app.service.RegisteredEmailFilter;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UniqueEmailConstraintValidatorTest {
+
+    @InjectMocks
+    private UniqueEmailConstraintValidator validator;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Test
+    void givenEmailNotInFilter_whenIsValid_thenTrueWithoutQuery() {
+        User user = new User();
+        user.setEmail("new@example.com");
+
+        when(registeredEmailFilter.mightBeRegistered("new@example.com")).thenReturn(false);
+
+        assertThat(validator.isValid(user, null)).isTrue();
+        verify(userRepository, never()).findIdByNormalizedEmail(anyString());
+    }
+
+    @Test
+    void givenNewUserWithEmailOfOtherUserInOtherLetterCase_whenIsValid_thenFalse() {
+        User user = new User();
+        user.setEmail("Taken@Example.com");
+
+        when(registeredEmailFilter.mightBeRegistered("Taken@Example.com")).thenReturn(true);
+        when(userRepository.findIdByNormalizedEmail("taken@example.com")).thenReturn(Optional.of(2L));
+
+        assertThat(validator.isValid(user, null)).isFalse();
+    }
+
+    @Test
+    void givenUserKeepingOwnEmail_whenIsValid_thenTrue() {
+        User user = new User();
+        user.setId(2L);
+        user.setEmail("taken@example.com");
+
+        when(registeredEmailFilter.mightBeRegistered("taken@example.com")).thenReturn(true);
+        when(userRepository.findIdByNormalizedEmail("taken@example.com")).thenReturn(Optional.of(2L));
+
+        assertThat(validator.isValid(user, null)).isTrue();
+    }
+
+    @Test
+    void givenFalsePositiveOfFilter_whenIsValid_thenTrue() {
+        User user = new User();
+        user.setEmail("new@example.com");
+
+        when(registeredEmailFilter.mightBeRegistered("new@example.com")).thenReturn(true);
+        when(userRepository.findIdByNormalizedEmail("new@example.com")).thenReturn(Optional.empty());
+
+        assertThat(validator.isValid(user, null)).isTrue();
+    }
+
+    @Test
+    void givenNullEmail_whenIsValid_thenTrue() {
+        assertThat(validator.isValid(new User(), null)).isTrue();
+        verifyNoInteractions(userRepository, registeredEmailFilter);
+    }
+}
@@ -1,6 +1,5 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -11,13 +10,12 @@ import org.springframework.context.MessageSource;
 import pl.mateuszmarcyk.charity_donation_app.entity.*;
 import pl.mateuszmarcyk.charity_donation_app.exception.BusinessException;
 import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
-import pl.mateuszmarcyk.charity_donation_app.util.AppMailSender;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.util.Mail;
 import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
 import pl.mateuszmarcyk.charity_donation_app.util.event.DonationProcessCompleteEvent;
 import pl.mateuszmarcyk.charity_donation_app.util.MailFactory;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -41,7 +39,7 @@ class DonationProcessCompleteEventListenerTest {
     private MessageSource messageSource;
 
     @Mock
-    private AppMailSender appMailSender;
+    private MailQueueService mailQueueService;
 
     @Mock
     private MailMessage mailMessage;
@@ -51,7 +49,7 @@ class DonationProcessCompleteEventListenerTest {
 
 
     @Test
-    void givenDonationProcessCompleteEvent_whenOnApplicationEvent_thenMailIsSent() throws MessagingException, UnsupportedEncodingException {
+    void givenDonationProcessCompleteEvent_whenOnApplicationEvent_thenMailIsSent() {
 //        Arrange
         String appName = "App name";
         String subject = "Test subject";
@@ -91,7 +89,7 @@ class DonationProcessCompleteEventListenerTest {
         ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
         ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
 
-        verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+        verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
         User capturedUser = userArgumentCaptor.getValue();
         Mail capturedMail = mailArgumentCaptor.getValue();
 
@@ -104,7 +102,7 @@ class DonationProcessCompleteEventListenerTest {
 
 
     @Test
-    void givenMailException_whenHandled_thenRuntimeExceptionThrown() throws MessagingException, UnsupportedEncodingException {
+    void givenFullMailQueue_whenHandled_thenRuntimeExceptionThrown() {
 //        Arrange
         String exceptionTitle = "Nie można wysłać";
         String exceptionMessage = "Wystąpił błąd podczas wysyłania. Spróbuj ponownie";
@@ -123,7 +121,7 @@ class DonationProcessCompleteEventListenerTest {
         when(messageSource.getMessage("donation.subject", null, Locale.getDefault())).thenReturn(subject);
         when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
         DonationProcessCompleteEvent spyEvent = spy(new DonationProcessCompleteEvent(spyDonation, spyUser));
-        doThrow(new MessagingException("Mail error")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
+        doThrow(new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać")).when(mailQueueService).enqueue(any(User.class), any(Mail.class));
 
 //            Act & Assert
         Throwable thrown = catchThrowable(() -> donationProcessCompleteEventListener.onApplicationEvent(spyEvent));
@@ -154,7 +152,7 @@ class DonationProcessCompleteEventListenerTest {
         ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
         ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
 
-        verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+        verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
         User capturedUser = userArgumentCaptor.getValue();
         Mail capturedMail = mailArgumentCaptor.getValue();
 
@@ -164,69 +162,6 @@ class DonationProcessCompleteEventListenerTest {
         );
     }
 
-    @Test
-    void givenUnsupportedEncodingException_whenHandled_thenRuntimeExceptionThrown() throws MessagingException, UnsupportedEncodingException {
-//        Arrange
-        String exceptionTitle = "Nie można wysłać";
-        String exceptionMessage = "Wystąpił błąd podczas wysyłania. Spróbuj ponownie";
-        String appName = "App name";
-        String subject = "Test subject";
-        String message = "Donation message";
-
-        Mail mail = new Mail(subject, appName, message);
-        User spyUser = spy(User.class);
-        Institution spyInstitution = spy(Institution.class);
-        Category spyCategory = spy(Category.class);
-        Donation spyDonation = getDonation(spyUser, spyInstitution, spyCategory);
-
-        when(mailMessage.buildDonationMessage(spyDonation)).thenReturn(message);
-        when(messageSource.getMessage("email.app.name", null, Locale.getDefault())).thenReturn(appName);
-        when(messageSource.getMessage("donation.subject", null, Locale.getDefault())).thenReturn(subject);
-        when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
-        DonationProcessCompleteEvent spyEvent = spy(new DonationProcessCompleteEvent(spyDonation, spyUser));
-        doThrow(new UnsupportedEncodingException("Mail error")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
-
-//            Act & Assert
-        Throwable thrown = catchThrowable(() -> donationProcessCompleteEventListener.onApplicationEvent(spyEvent));
-        assertThat(thrown).isInstanceOf(MailException.class);
-        if (thrown instanceof BusinessException e) {
-            assertAll(
-                    () -> assertThat(e.getTitle()).isEqualTo(exceptionTitle),
-                    () -> assertThat(e.getMessage()).isEqualTo(exceptionMessage)
-            );
-        }
-
-        //        Assert
-        verify(spyEvent, times(1)).getDonation();
-        verify(spyEvent, times(1)).getUser();
-
-        ArgumentCaptor<Donation> donationArgumentCaptor = ArgumentCaptor.forClass(Donation.class);
-        verify(mailMessage, times(1)).buildDonationMessage(donationArgumentCaptor.capture());
-        Donation capturedDonation = donationArgumentCaptor.getValue();
-        assertThat(capturedDonation).isEqualTo(spyDonation);
-
-        verify(messageSource, times(1)).getMessage("email.app.name", null, Locale.getDefault());
-        verify(messageSource, times(1)).getMessage("donation.subject", null, Locale.getDefault());
-
-        ArgumentCaptor<String> stringArgumentCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mailFactory, times(1)).createMail(stringArgumentCaptor.capture(), stringArgumentCaptor.capture(), stringArgumentCaptor.capture());
-        assertIterableEquals(List.of(subject, appName, message), stringArgumentCaptor.getAllValues());
-
-        ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
-        ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-
-        verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
-        User capturedUser = userArgumentCaptor.getValue();
-        Mail capturedMail = mailArgumentCaptor.getValue();
-
-
-        assertAll(
-                () -> assertThat(capturedUser).isEqualTo(spyUser),
-                () -> assertThat(capturedMail).isEqualTo(mail)
-        );
-    }
-
-
     private static Donation getDonation(User user, Institution institution, Category category) {
         return new Donation(
                 LocalDateTime.parse("2024-12-24T12:00:00"),
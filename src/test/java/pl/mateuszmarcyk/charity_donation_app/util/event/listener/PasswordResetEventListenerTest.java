@@ -1,6 +1,5 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,11 +12,11 @@ import pl.mateuszmarcyk.charity_donation_app.entity.PasswordResetVerificationTok
 import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.exception.BusinessException;
 import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.service.PasswordResetVerificationTokenService;
 import pl.mateuszmarcyk.charity_donation_app.util.*;
 import pl.mateuszmarcyk.charity_donation_app.util.event.PasswordResetEvent;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.Locale;
 import java.util.UUID;
@@ -36,7 +35,7 @@ class PasswordResetEventListenerTest {
     private MessageSource messageSource;
 
     @Mock
-    private AppMailSender appMailSender;
+    private MailQueueService mailQueueService;
 
     @Mock
     private PasswordResetVerificationTokenService passwordResetVerificationTokenService;
@@ -51,7 +50,7 @@ class PasswordResetEventListenerTest {
     MailFactory mailFactory;
 
     @Test
-    void givenUserWithExpiredToken_whenEventPublished_thenEmailWithUpdatedTokenIsSent() throws MessagingException, UnsupportedEncodingException {
+    void givenUserWithExpiredToken_whenEventPublished_thenEmailWithUpdatedTokenIsSent() {
 //        Arrange
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String appName = "App name";
@@ -120,7 +119,7 @@ class PasswordResetEventListenerTest {
 
             ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
             User capturedUser = userArgumentCaptor.getValue();
             Mail capturedMail = mailArgumentCaptor.getValue();
 
@@ -133,7 +132,7 @@ class PasswordResetEventListenerTest {
     }
 
     @Test
-    void givenUserWithExpiredToken_whenEventPublished_thenEmailWithNewTokenIsSent() throws MessagingException, UnsupportedEncodingException {
+    void givenUserWithExpiredToken_whenEventPublished_thenEmailWithNewTokenIsSent() {
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String appName = "App name";
             String subject = "Test subject";
@@ -145,6 +144,8 @@ class PasswordResetEventListenerTest {
             User spyUser = spy(new User());
             String applicationUrl = "http://localhost/app";
             PasswordResetVerificationToken spyToken = spy(new PasswordResetVerificationToken(1L, "token", LocalDateTime.now().plusMinutes(15), spyUser, LocalDateTime.now(), false));
+//            the entity constructor links the token back to its user, a user asking for the first reset has none yet
+            spyUser.setPasswordResetVerificationToken(null);
             Mail mail = new Mail(subject, appName, message);
 
             uuidMockedStatic.when(UUID::randomUUID).thenReturn(mockUUID);
@@ -199,7 +200,7 @@ class PasswordResetEventListenerTest {
 
             ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
             User capturedUser = userArgumentCaptor.getValue();
             Mail capturedMail = mailArgumentCaptor.getValue();
 
@@ -212,7 +213,7 @@ class PasswordResetEventListenerTest {
     }
 
     @Test
-    void whenOnApplicationEventAppMailSenderThrowsMessagingException_thenMailExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
+    void whenOnApplicationEventMailQueueRejectsMail_thenMailExceptionIsThrown() {
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String exceptionTitle = "Nie można wysłać";
             String exceptionMessage = "Wystąpił błąd podczas wysyłania. Spróbuj ponownie";
@@ -226,6 +227,8 @@ class PasswordResetEventListenerTest {
             User spyUser = spy(new User());
             String applicationUrl = "http://localhost/app";
             PasswordResetVerificationToken spyToken = spy(new PasswordResetVerificationToken(1L, "token", LocalDateTime.now().plusMinutes(15), spyUser, LocalDateTime.now(), false));
+//            the entity constructor links the token back to its user, a user asking for the first reset has none yet
+            spyUser.setPasswordResetVerificationToken(null);
             Mail mail = new Mail(subject, appName, message);
 
             uuidMockedStatic.when(UUID::randomUUID).thenReturn(mockUUID);
@@ -239,7 +242,7 @@ class PasswordResetEventListenerTest {
             when(spyEvent.getApplicationUrl()).thenReturn(applicationUrl);
             when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
 
-            doThrow(new MessagingException("message")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
+            doThrow(new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać")).when(mailQueueService).enqueue(any(User.class), any(Mail.class));
 
 
 //            Act & Assert
@@ -289,7 +292,7 @@ class PasswordResetEventListenerTest {
 
             ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
             User capturedUser = userArgumentCaptor.getValue();
             Mail capturedMail = mailArgumentCaptor.getValue();
 
@@ -301,95 +304,6 @@ class PasswordResetEventListenerTest {
         }
     }
 
-    @Test
-    void whenOnApplicationEventAppMailSenderThrowsUnsupportedEncodingException_thenMailExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
-        try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
-            String exceptionTitle = "Nie można wysłać";
-            String exceptionMessage = "Wystąpił błąd podczas wysyłania. Spróbuj ponownie";
-            String appName = "App name";
-            String subject = "Test subject";
-            String message = "Message";
-            String token = "Randomtoken";
-            int tokenValidTime = 15;
-            String expectedUrl = "http://localhost/app/reset-password/verifyEmail?token=Randomtoken";
-            UUID mockUUID = mock(UUID.class);
-            User spyUser = spy(new User());
-            String applicationUrl = "http://localhost/app";
-            PasswordResetVerificationToken spyToken = spy(new PasswordResetVerificationToken(1L, "token", LocalDateTime.now().plusMinutes(15), spyUser, LocalDateTime.now(), false));
-            Mail mail = new Mail(subject, appName, message);
-
-            uuidMockedStatic.when(UUID::randomUUID).thenReturn(mockUUID);
-            when(mockUUID.toString()).thenReturn(token);
-            when(messageSource.getMessage("token.valid.time", null, Locale.getDefault())).thenReturn("15");
-            when(messageSource.getMessage("email.app.name", null, Locale.getDefault())).thenReturn(appName);
-            when(messageSource.getMessage("registration.mail.subject", null, Locale.getDefault())).thenReturn(subject);
-            when(tokenFactory.getPasswordResetVerificationToken(token, spyUser, tokenValidTime)).thenReturn(spyToken);
-            when(mailMessage.buildPasswordResetMessage(expectedUrl)).thenReturn(message);
-            PasswordResetEvent spyEvent = spy(new PasswordResetEvent(spyUser, applicationUrl));
-            when(spyEvent.getApplicationUrl()).thenReturn(applicationUrl);
-            when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
-
-            doThrow(new UnsupportedEncodingException("message")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
-
-
-//            Act & Assert
-            Throwable thrown = catchThrowable(() -> listener.onApplicationEvent(spyEvent));
-            assertThat(thrown).isInstanceOf(MailException.class);
-            if (thrown instanceof BusinessException e) {
-                assertAll(
-                        () -> assertThat(e.getTitle()).isEqualTo(exceptionTitle),
-                        () -> assertThat(e.getMessage()).isEqualTo(exceptionMessage)
-                );
-            }
-
-            verify(spyEvent, times(1)).getUser();
-            verify(messageSource, times(1)).getMessage("token.valid.time", null, Locale.getDefault());
-            verify(messageSource, times(1)).getMessage("email.app.name", null, Locale.getDefault());
-            verify(messageSource, times(1)).getMessage("registration.mail.subject", null, Locale.getDefault());
-            verify(spyUser, times(1)).getPasswordResetVerificationToken();
-
-            ArgumentCaptor<String> stringArgumentCaptor = ArgumentCaptor.forClass(String.class);
-            verify(spyToken, never()).setToken(stringArgumentCaptor.capture());
-
-            verify(tokenFactory, times(1)).getPasswordResetVerificationToken(token, spyUser, tokenValidTime);
-
-            verify(spyToken, never()).setExpirationTime(any(LocalDateTime.class));
-
-            ArgumentCaptor<PasswordResetVerificationToken> passwordResetVerificationTokenArgumentCaptor = ArgumentCaptor.forClass(PasswordResetVerificationToken.class);
-            verify(passwordResetVerificationTokenService, times(1)).save(passwordResetVerificationTokenArgumentCaptor.capture());
-            PasswordResetVerificationToken capturedPasswordResetVerificationToken = passwordResetVerificationTokenArgumentCaptor.getValue();
-            assertThat(capturedPasswordResetVerificationToken).isEqualTo(spyToken);
-
-            verify(spyEvent, times(1)).getApplicationUrl();
-
-            verify(mailMessage, times(1)).buildPasswordResetMessage(stringArgumentCaptor.capture());
-            String capturedUrl = stringArgumentCaptor.getValue();
-            assertThat(capturedUrl).isEqualTo(expectedUrl);
-
-            verify(mailFactory, times(1)).createMail(stringArgumentCaptor.capture(), stringArgumentCaptor.capture(), stringArgumentCaptor.capture());
-            String capturedSubject = stringArgumentCaptor.getAllValues().get(1);
-            String capturedAppName = stringArgumentCaptor.getAllValues().get(2);
-            String capturedMessage = stringArgumentCaptor.getAllValues().get(3);
-
-            assertAll(
-                    () -> assertThat(capturedSubject).isEqualTo(subject),
-                    () -> assertThat(capturedAppName).isEqualTo(appName),
-                    () -> assertThat(capturedMessage).isEqualTo(message)
-            );
-
-            ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
-            ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
-            User capturedUser = userArgumentCaptor.getValue();
-            Mail capturedMail = mailArgumentCaptor.getValue();
-
-
-            assertAll(
-                    () -> assertThat(capturedUser).isEqualTo(spyUser),
-                    () -> assertThat(capturedMail).isEqualTo(mail)
-            );
-        }
-    }
 }
 
 
@@ -1,6 +1,5 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,11 +12,11 @@ import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.BusinessException;
 import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.service.VerificationTokenService;
 import pl.mateuszmarcyk.charity_donation_app.util.*;
 import pl.mateuszmarcyk.charity_donation_app.util.event.RegistrationCompleteEvent;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
@@ -36,7 +35,7 @@ class RegistrationCompleteEventListenerTest {
     private  MessageSource messageSource;
 
     @Mock
-    private  AppMailSender appMailSender;
+    private MailQueueService mailQueueService;
 
     @Mock
     private  VerificationTokenService verificationTokenService;
@@ -51,7 +50,7 @@ class RegistrationCompleteEventListenerTest {
     private MailFactory mailFactory;
 
     @Test
-    void givenRegistrationCompleteEvent_whenOnApplicationEvent_thenRegistrationMailIsSent() throws MessagingException, UnsupportedEncodingException {
+    void givenRegistrationCompleteEvent_whenOnApplicationEvent_thenRegistrationMailIsSent() {
 //        Arrange
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String appName = "App name";
@@ -123,7 +122,7 @@ class RegistrationCompleteEventListenerTest {
             );
 
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
 
             User capturedUserForAppMailSender = userArgumentCaptor.getAllValues().get(1);
             Mail capturedMail = mailArgumentCaptor.getValue();
@@ -136,7 +135,7 @@ class RegistrationCompleteEventListenerTest {
     }
 
     @Test
-    void whenOnApplicationEventAppMailSenderThrowsMessagingException_thenMailExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
+    void whenOnApplicationEventMailQueueRejectsMail_thenMailExceptionIsThrown() {
 //        Arrange
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String exceptionTitle = "Nie można wysłać";
@@ -165,7 +164,7 @@ class RegistrationCompleteEventListenerTest {
             RegistrationCompleteEvent spyEvent = spy(new RegistrationCompleteEvent(spyUser, applicationUrl));
             when(spyEvent.getApplicationUrl()).thenReturn(applicationUrl);
 
-            doThrow(new MessagingException("message")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
+            doThrow(new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać")).when(mailQueueService).enqueue(any(User.class), any(Mail.class));
 
 
 //            Act & Assert
@@ -218,7 +217,7 @@ class RegistrationCompleteEventListenerTest {
             );
 
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
 
             User capturedUserForAppMailSender = userArgumentCaptor.getAllValues().get(1);
             Mail capturedMail = mailArgumentCaptor.getValue();
@@ -230,98 +229,4 @@ class RegistrationCompleteEventListenerTest {
         }
     }
 
-    @Test
-    void whenOnApplicationEventAppMailSenderThrowsUnsupportedEncodingExceptionException_thenMailExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
-//        Arrange
-        try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
-            String exceptionTitle = "Nie można wysłać";
-            String exceptionMessage = "Wystąpił błąd podczas wysyłania. Spróbuj ponownie";
-            String appName = "App name";
-            String subject = "Test subject";
-            String message = "Message";
-            String token = "Randomtoken";
-            int tokenValidTime = 15;
-            String expectedUrl = "http://localhost/app/register/verifyEmail?token=Randomtoken";
-            UUID mockUUID = mock(UUID.class);
-            User spyUser = spy(new User());
-            String applicationUrl = "http://localhost/app";
-            VerificationToken spyVerificationToken = spy(new VerificationToken(1L, "token", LocalDateTime.now().plusMinutes(15), spyUser, LocalDateTime.now()));
-            Mail mail = new Mail(subject, appName, message);
-
-            uuidMockedStatic.when(UUID::randomUUID).thenReturn(mockUUID);
-
-            when(mockUUID.toString()).thenReturn(token);
-            when(messageSource.getMessage("token.valid.time", null, Locale.getDefault())).thenReturn("15");
-            when(messageSource.getMessage("email.app.name", null, Locale.getDefault())).thenReturn(appName);
-            when(messageSource.getMessage("registration.mail.subject", null, Locale.getDefault())).thenReturn(subject);
-            when(tokenFactory.getVerificationToken(token, spyUser, tokenValidTime)).thenReturn(spyVerificationToken);
-            when(mailMessage.buildMessage(expectedUrl)).thenReturn(message);
-            when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
-            RegistrationCompleteEvent spyEvent = spy(new RegistrationCompleteEvent(spyUser, applicationUrl));
-            when(spyEvent.getApplicationUrl()).thenReturn(applicationUrl);
-
-            doThrow(new UnsupportedEncodingException("message")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
-
-
-//            Act & Assert
-            Throwable thrown = catchThrowable(() -> listener.onApplicationEvent(spyEvent));
-            assertThat(thrown).isInstanceOf(MailException.class);
-            if (thrown instanceof BusinessException e) {
-                assertAll(
-                        () -> assertThat(e.getTitle()).isEqualTo(exceptionTitle),
-                        () -> assertThat(e.getMessage()).isEqualTo(exceptionMessage)
-                );
-            }
-            verify(spyEvent, times(1)).getUser();
-
-            uuidMockedStatic.verify(UUID::randomUUID, times(1));
-
-            verify(messageSource, times(1)).getMessage("token.valid.time", null, Locale.getDefault());
-            verify(messageSource, times(1)).getMessage("email.app.name", null, Locale.getDefault());
-            verify(messageSource, times(1)).getMessage("registration.mail.subject", null, Locale.getDefault());
-
-            ArgumentCaptor<String> stringArgumentCaptor = ArgumentCaptor.forClass(String.class);
-            ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
-            ArgumentCaptor<Integer> integerArgumentCaptor = ArgumentCaptor.forClass(Integer.class);
-            verify(tokenFactory, times(1)).getVerificationToken(stringArgumentCaptor.capture(), userArgumentCaptor.capture(), integerArgumentCaptor.capture());
-            String capturedToken = stringArgumentCaptor.getValue();
-            User capturedUser = userArgumentCaptor.getValue();
-            Integer capturedValidTime = integerArgumentCaptor.getValue();
-
-            assertAll(
-                    () -> assertThat(capturedToken).isEqualTo(token),
-                    () -> assertThat(capturedUser).isEqualTo(spyUser),
-                    () -> assertThat(capturedValidTime).isEqualTo(tokenValidTime)
-            );
-
-            ArgumentCaptor<VerificationToken> verificationTokenArgumentCaptor = ArgumentCaptor.forClass(VerificationToken.class);
-            verify(verificationTokenService, times(1)).saveToken(verificationTokenArgumentCaptor.capture());
-            VerificationToken capturedVerificationToken = verificationTokenArgumentCaptor.getValue();
-            assertThat(capturedVerificationToken).isEqualTo(spyVerificationToken);
-
-            verify(mailMessage, times(1)).buildMessage(stringArgumentCaptor.capture());
-            String capturedApplicationUrl = stringArgumentCaptor.getValue();
-            assertThat(capturedApplicationUrl).isEqualTo(expectedUrl);
-
-            verify(mailFactory, times(1)).createMail(stringArgumentCaptor.capture(), stringArgumentCaptor.capture(), stringArgumentCaptor.capture());
-            List<String> capturedArguments = stringArgumentCaptor.getAllValues();
-
-            assertAll(
-                    () -> assertThat(capturedArguments.get(2)).isEqualTo(subject),
-                    () -> assertThat(capturedArguments.get(3)).isEqualTo(appName),
-                    () -> assertThat(capturedArguments.get(4)).isEqualTo(message)
-            );
-
-            ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
-
-            User capturedUserForAppMailSender = userArgumentCaptor.getAllValues().get(1);
-            Mail capturedMail = mailArgumentCaptor.getValue();
-
-            assertAll(
-                    () -> assertThat(capturedUserForAppMailSender).isEqualTo(spyUser),
-                    () -> assertThat(capturedMail).isEqualTo(mail)
-            );
-        }
-    }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package pl.mateuszmarcyk.charity_donation_app.util.event.listener;
 
-import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,14 +12,13 @@ import pl.mateuszmarcyk.charity_donation_app.entity.User;
 import pl.mateuszmarcyk.charity_donation_app.entity.VerificationToken;
 import pl.mateuszmarcyk.charity_donation_app.exception.BusinessException;
 import pl.mateuszmarcyk.charity_donation_app.exception.MailException;
+import pl.mateuszmarcyk.charity_donation_app.service.MailQueueService;
 import pl.mateuszmarcyk.charity_donation_app.service.VerificationTokenService;
-import pl.mateuszmarcyk.charity_donation_app.util.AppMailSender;
 import pl.mateuszmarcyk.charity_donation_app.util.Mail;
 import pl.mateuszmarcyk.charity_donation_app.util.MailFactory;
 import pl.mateuszmarcyk.charity_donation_app.util.MailMessage;
 import pl.mateuszmarcyk.charity_donation_app.util.event.ResendTokenEvent;
 
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.Locale;
 import java.util.UUID;
@@ -42,7 +40,7 @@ class ResendTokenEventListenerTest {
     private  VerificationTokenService verificationTokenService;
 
     @Mock
-    private  AppMailSender appMailSender;
+    private MailQueueService mailQueueService;
 
     @Mock
     private  MailMessage mailMessage;
@@ -51,7 +49,7 @@ class ResendTokenEventListenerTest {
     private  MailFactory mailFactory;
 
     @Test
-    void givenResendTokenEventListener_whenOnApplicationEvent_thenEmailWithNewTokenIsSent() throws MessagingException, UnsupportedEncodingException {
+    void givenResendTokenEventListener_whenOnApplicationEvent_thenEmailWithNewTokenIsSent() {
 //        Arrange
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String token = "token";
@@ -123,7 +121,7 @@ class ResendTokenEventListenerTest {
             );
 
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
 
             User capturedUserForAppMailSender = userArgumentCaptor.getAllValues().get(1);
             Mail capturedMail = mailArgumentCaptor.getValue();
@@ -136,7 +134,7 @@ class ResendTokenEventListenerTest {
     }
 
     @Test
-    void whenOnApplicationEventAppMailSenderThrowsMessagingException_thenMailExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
+    void whenOnApplicationEventMailQueueRejectsMail_thenMailExceptionIsThrown() {
 //        Arrange
         try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
             String exceptionTitle = "Nie można wysłać";
@@ -164,7 +162,7 @@ class ResendTokenEventListenerTest {
             when(mailMessage.buildMessage(expectedUrl)).thenReturn(message);
             when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
 
-            doThrow(new MessagingException("message")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
+            doThrow(new MailException("Wystąpił błąd podczas wysyłania. Spróbuj ponownie", "Nie można wysłać")).when(mailQueueService).enqueue(any(User.class), any(Mail.class));
 
 
 //            Act & Assert
@@ -220,7 +218,7 @@ class ResendTokenEventListenerTest {
             );
 
             ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
+            verify(mailQueueService, times(1)).enqueue(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
 
             User capturedUserForAppMailSender = userArgumentCaptor.getAllValues().get(1);
             Mail capturedMail = mailArgumentCaptor.getValue();
@@ -232,101 +230,4 @@ class ResendTokenEventListenerTest {
         }
     }
 
-    @Test
-    void whenOnApplicationEventAppMailSenderThrowsUnsupportedEncodingException_thenMailExceptionIsThrown() throws MessagingException, UnsupportedEncodingException {
-//        Arrange
-        try (MockedStatic<UUID> uuidMockedStatic = mockStatic(UUID.class)) {
-            String exceptionTitle = "Nie można wysłać";
-            String exceptionMessage = "Wystąpił błąd podczas wysyłania. Spróbuj ponownie";
-            String token = "token";
-            String newToken = "newToken";
-            String appName = "App name";
-            String subject = "Test subject";
-            String message = "Message";
-            String expectedUrl = "http://localhost/app/register/verifyEmail?token=newToken";
-            UUID mockUUID = mock(UUID.class);
-
-            User user = new User();
-            VerificationToken spyOldVerificationToken = spy(new VerificationToken(1L, token, LocalDateTime.now().plusMinutes(15), user, LocalDateTime.now()));
-            String applicationUrl = "http://localhost/app";
-
-            ResendTokenEvent spyEvent = spy(new ResendTokenEvent(user, applicationUrl, spyOldVerificationToken));
-            Mail mail = new Mail(subject, appName, message);
-
-            when(messageSource.getMessage("token.valid.time", null, Locale.getDefault())).thenReturn("15");
-            when(messageSource.getMessage("email.app.name", null, Locale.getDefault())).thenReturn(appName);
-            when(messageSource.getMessage("registration.mail.subject", null, Locale.getDefault())).thenReturn(subject);
-            uuidMockedStatic.when(UUID::randomUUID).thenReturn(mockUUID);
-            when(mockUUID.toString()).thenReturn(newToken);
-            when(mailMessage.buildMessage(expectedUrl)).thenReturn(message);
-            when(mailFactory.createMail(subject, appName, message)).thenReturn(mail);
-
-            doThrow(new UnsupportedEncodingException("message")).when(appMailSender).sendEmail(any(User.class), any(Mail.class));
-
-
-//            Act & Assert
-            Throwable thrown = catchThrowable(() -> listener.onApplicationEvent(spyEvent));
-            assertThat(thrown).isInstanceOf(MailException.class);
-            if (thrown instanceof BusinessException e) {
-                assertAll(
-                        () -> assertThat(e.getTitle()).isEqualTo(exceptionTitle),
-                        () -> assertThat(e.getMessage()).isEqualTo(exceptionMessage)
-                );
-            }
-
-            verify(spyEvent, times(1)).getUser();
-            verify(spyEvent, times(1)).getOldToken();
-            verify(spyEvent, times(1)).getApplicationUrl();
-
-            verify(messageSource, times(1)).getMessage("token.valid.time", null, Locale.getDefault());
-            verify(messageSource, times(1)).getMessage("email.app.name", null, Locale.getDefault());
-            verify(messageSource, times(1)).getMessage("registration.mail.subject", null, Locale.getDefault());
-
-            uuidMockedStatic.verify(UUID::randomUUID, times(1));
-
-            verify(spyOldVerificationToken, times(1)).setExpirationTime(any(LocalDateTime.class));
-
-            ArgumentCaptor<String> stringArgumentCaptor = ArgumentCaptor.forClass(String.class);
-            verify(spyOldVerificationToken, times(1)).setToken(stringArgumentCaptor.capture());
-            String capturedToken = stringArgumentCaptor.getValue();
-            assertThat(capturedToken).isEqualTo(newToken);
-
-            ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
-            verify(spyOldVerificationToken, times(1)).setUser(userArgumentCaptor.capture());
-            User capturedUser = userArgumentCaptor.getValue();
-            assertThat(capturedUser).isEqualTo(user);
-
-            ArgumentCaptor<VerificationToken> verificationTokenArgumentCaptor = ArgumentCaptor.forClass(VerificationToken.class);
-            verify(verificationTokenService, times(1)).saveToken(verificationTokenArgumentCaptor.capture());
-            VerificationToken capturedVerificationToken = verificationTokenArgumentCaptor.getValue();
-            assertThat(capturedVerificationToken).isEqualTo(spyOldVerificationToken);
-
-            verify(mailMessage, times(1)).buildMessage(stringArgumentCaptor.capture());
-            String capturedUrl = stringArgumentCaptor.getAllValues().get(1);
-            assertThat(capturedUrl).isEqualTo(expectedUrl);
-
-            verify(mailFactory, times(1)).createMail(stringArgumentCaptor.capture(), stringArgumentCaptor.capture(), stringArgumentCaptor.capture());
-            String capturedSubject = stringArgumentCaptor.getAllValues().get(2);
-            String capturedAppName = stringArgumentCaptor.getAllValues().get(3);
-            String capturedMessage = stringArgumentCaptor.getAllValues().get(4);
-
-            assertAll(
-                    () -> assertThat(capturedSubject).isEqualTo(subject),
-                    () -> assertThat(capturedAppName).isEqualTo(appName),
-                    () -> assertThat(capturedMessage).isEqualTo(message)
-            );
-
-            ArgumentCaptor<Mail> mailArgumentCaptor = ArgumentCaptor.forClass(Mail.class);
-            verify(appMailSender, times(1)).sendEmail(userArgumentCaptor.capture(), mailArgumentCaptor.capture());
-
-            User capturedUserForAppMailSender = userArgumentCaptor.getAllValues().get(1);
-            Mail capturedMail = mailArgumentCaptor.getValue();
-
-            assertAll(
-                    () -> assertThat(capturedUserForAppMailSender).isEqualTo(user),
-                    () -> assertThat(capturedMail).isEqualTo(mail)
-            );
-
-        }
-    }
 }
\ No newline at end of file
@@ -29,7 +29,10 @@ create table users
         primary key,
     registration_date_time datetime(6)  null,
     email                  varchar(255) null,
-    password               varchar(255) null
+    password               varchar(255) null,
+    email_normalized       varchar(255) generated always as (lower(email)),
+    constraint uk_users_email_normalized
+        unique (email_normalized)
 );
 
 create table user_profiles
@@ -88,10 +91,12 @@ create table password_reset_verification_tokens
     id              bigint auto_increment
         primary key,
     user_id         bigint       null,
-    token           varchar(255) null,
+    token_value     binary(16)   null,
     consumed             bit          not null,
     constraint UK2gcssaiw9c26pm5db9cg9d5j8
         unique (user_id),
+    constraint uk_password_reset_verification_tokens_token_value
+        unique (token_value),
     constraint FKa6npxhrd9psite9f4ynvx0ukm
         foreign key (user_id) references users (id)
 );
@@ -112,13 +117,53 @@ create table verification_tokens
     id              bigint auto_increment
         primary key,
     user_id         bigint       null,
-    token           varchar(255) null,
+    token_value     binary(16)   null,
     constraint UKdqp95ggn6gvm865km5muba2o5
         unique (user_id),
+    constraint uk_verification_tokens_token_value
+        unique (token_value),
     constraint FK54y8mqsnq1rtyf581sfmrbp4f
         foreign key (user_id) references users (id)
 );
 
+create table outbound_mails
+(
+    attempts          int           not null,
+    created           datetime(6)   null,
+    id                bigint auto_increment
+        primary key,
+    next_attempt_time datetime(6)   null,
+    version           bigint        null,
+    content           longtext      null,
+    last_error        varchar(1000) null,
+    recipient         varchar(255)  null,
+    sender_name       varchar(255)  null,
+    status            varchar(255)  null,
+    subject           varchar(255)  null
+);
+
+create index idx_outbound_mails_status_next_attempt_time
+    on outbound_mails (status, next_attempt_time);
+
+create table outbox_events
+(
+    attempts     int           not null,
+    aggregate_id bigint        null,
+    created      datetime(6)   null,
+    id           bigint auto_increment
+        primary key,
+    dedup_key    varchar(255)  null,
+    event_type   varchar(255)  null,
+    last_error   varchar(1000) null,
+    payload      varchar(1000) null,
+    next_attempt_time datetime(6) null,
+    constraint UK_outbox_events_dedup_key
+        unique (dedup_key)
+);
+
+create index idx_outbox_events_next_attempt_time
+    on outbox_events (next_attempt_time, id);
+
 INSERT INTO `user_types` VALUES (1,'ROLE_USER');
 INSERT INTO `user_types` VALUES (2,'ROLE_ADMIN');
 
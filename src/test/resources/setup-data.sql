@@ -33,4 +33,4 @@ VALUES (1, 2, null, 'Kielce', 'Poland', 'Mateusz', 'Marcykiewicz', '222333444');
 
 INSERT INTO users_user_types (user_id, user_type_id) VALUES (2, 1);
 
-INSERT INTO verification_tokens (expiration_time, id, user_id, token) VALUES ('2024-12-06 15:29:10.762879', 1, 2, '81c34626-3a06-4813-a292-c57dcdd6e04a');
+INSERT INTO verification_tokens (expiration_time, id, user_id, token_value) VALUES ('2024-12-06 15:29:10.762879', 1, 2, X'81c346263a064813a292c57dcdd6e04a');